@@ -0,0 +1,82 @@
+package com.hackaton.recuerdamed.agenda.service;
+
+import com.hackaton.recuerdamed.agenda.dto.AgendaEntry;
+import com.hackaton.recuerdamed.drug.repository.DrugSchedule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expanding the agenda of many drugs: the heap merge used by {@link AgendaServiceImpl} against
+ * materialising every dose and sorting the list, which is what the merge replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgendaMergerBenchmark {
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+    private static final Instant FROM = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Comparator<AgendaEntry> BY_TIME_THEN_ID =
+            Comparator.comparing(AgendaEntry::dueAt).thenComparing(AgendaEntry::drugId);
+
+    @Param({"10", "1000"})
+    private int drugs;
+
+    @Param({"1", "31"})
+    private int days;
+
+    private List<DrugSchedule> schedules;
+    private Instant to;
+
+    record Schedule(Long getId, String getDrugName, String getDosage, Integer getFrequencyHours,
+                    Instant getNextIntakeAt, ZoneId getTimeZone, Instant getStartsAt, Instant getEndsAt)
+            implements DrugSchedule {
+    }
+
+    @Setup
+    public void setUp() {
+        to = FROM.plus(Duration.ofDays(days));
+        schedules = new ArrayList<>(drugs);
+        for (long id = 1; id <= drugs; id++) {
+            int frequencyHours = (int) (id % 4 + 1) * 6;
+            Instant anchor = FROM.plus(Duration.ofMinutes(id * 7 % 1440));
+            schedules.add(new Schedule(id, "Drug " + id, "500mg", frequencyHours, anchor, MADRID, anchor.minus(Duration.ofDays(30)), null));
+        }
+    }
+
+    @Benchmark
+    public void heapMerge(Blackhole blackhole) {
+        AgendaMerger merger = new AgendaMerger(schedules, FROM, to);
+        while (merger.hasNext()) {
+            blackhole.consume(merger.next());
+        }
+    }
+
+    @Benchmark
+    public void expandAndSort(Blackhole blackhole) {
+        List<AgendaEntry> entries = new ArrayList<>();
+        for (DrugSchedule schedule : schedules) {
+            Duration step = Duration.ofHours(schedule.getFrequencyHours());
+            Instant dueAt = schedule.getNextIntakeAt();
+            while (!dueAt.minus(step).isBefore(FROM)) {
+                dueAt = dueAt.minus(step);
+            }
+            for (; dueAt.isBefore(to); dueAt = dueAt.plus(step)) {
+                entries.add(new AgendaEntry(schedule.getId(), schedule.getDrugName(), schedule.getDosage(),
+                        dueAt, schedule.getTimeZone()));
+            }
+        }
+        entries.sort(BY_TIME_THEN_ID);
+        entries.forEach(blackhole::consume);
+    }
+}
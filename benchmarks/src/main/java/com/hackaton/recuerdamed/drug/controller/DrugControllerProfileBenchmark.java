@@ -0,0 +1,93 @@
+package com.hackaton.recuerdamed.drug.controller;
+
+import com.hackaton.recuerdamed.RecuerdamedApplication;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.service.DrugBulkService;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import com.hackaton.recuerdamed.patient.dto.PatientRequest;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of {@code GET /medicamentos} over HTTP with the default configuration against the
+ * {@code prod} profile. By default both run on the in-memory H2 ({@code h2} profile last, so its
+ * datasource wins), which isolates the logging, open-in-view and Hibernate settings. The
+ * Connector/J statement caches only show against MySQL: {@code -jvmArgsAppend -Dbenchmark.mysql=true}
+ * uses the local {@code recuerdamed} database with {@code DB_USER} and {@code DB_PASSWORD}, each
+ * profile with its own driver options. The list cache is off, so every request reaches the database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class DrugControllerProfileBenchmark {
+    @Param({"default", "prod"})
+    private String profile;
+
+    @Param({"100"})
+    private int drugs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> profiles = new ArrayList<>();
+        if (profile.equals("prod")) {
+            profiles.add("prod");
+        }
+        if (!Boolean.getBoolean("benchmark.mysql")) {
+            profiles.add("h2");
+        }
+
+        context = new SpringApplicationBuilder(RecuerdamedApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run("--server.port=0", "--drug-cache.list.enabled=false", "--reminder.wheel.auto-tick=false");
+        Long patientId = context.getBean(PatientService.class).createPatient(new PatientRequest("Benchmark")).id();
+        context.getBean(DrugBulkService.class).createDrugs(patientId, IntStream.range(0, drugs)
+                .mapToObj(i -> new DrugRequest("Paracetamol " + i, "500mg", "Benchmark", 8,
+                        LocalDateTime.of(2025, 9, 17, 9, 0), null,
+                        LocalDateTime.of(2025, 9, 17, 9, 0), null, true))
+                .iterator());
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/medicamentos"))
+                .header(PatientHeaders.PATIENT_ID, patientId.toString())
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getAllDrugs() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /medicamentos returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,84 @@
+package com.hackaton.recuerdamed.drug.dto;
+
+import com.hackaton.recuerdamed.config.DrugScheduleProperties;
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrugMapperBenchmark {
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+
+    @Param({"100"})
+    private int listSize;
+
+    private DrugMapper drugMapper;
+    private DrugRequest request;
+    private Drug drug;
+    private List<Drug> drugs;
+
+    @Setup
+    public void setUp() {
+        drugMapper = new DrugMapper(new DrugScheduleProperties(MADRID));
+        request = new DrugRequest(" Paracetamol ", " 500mg ", "Analgésico", 8,
+                LocalDateTime.of(2025, 9, 17, 9, 0), null,
+                LocalDateTime.of(2025, 9, 17, 9, 0), LocalDateTime.of(2025, 9, 24, 9, 0), true);
+        drugs = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            drugs.add(drug(id));
+        }
+        drug = drugs.getFirst();
+    }
+
+    static Drug drug(long id) {
+        return Drug.builder()
+                .id(id)
+                .patientId(1L)
+                .drugName("Ibuprofeno " + id)
+                .dosage("200mg")
+                .description("Para el dolor")
+                .frequencyHours(12)
+                .nextIntakeAt(Instant.parse("2025-09-17T08:00:00Z"))
+                .timeZone(MADRID)
+                .startDate(LocalDateTime.of(2025, 9, 17, 10, 0))
+                .endDate(LocalDateTime.of(2025, 9, 20, 10, 0))
+                .active(true)
+                .activeReminder(true)
+                .creationDate(LocalDateTime.of(2025, 1, 1, 8, 0))
+                .updateDate(LocalDateTime.of(2025, 1, 1, 8, 0))
+                .version(0L)
+                .build();
+    }
+
+    @Benchmark
+    public Drug toEntity() {
+        return drugMapper.toEntity(1L, request);
+    }
+
+    @Benchmark
+    public DrugResponse toDto() {
+        return drugMapper.toDto(drug);
+    }
+
+    @Benchmark
+    public List<DrugResponse> toDtoList() {
+        return drugs.stream().map(drugMapper::toDto).toList();
+    }
+
+    @Benchmark
+    public Drug updateEntityFromRequest() {
+        drugMapper.updateEntityFromRequest(drug, request);
+        return drug;
+    }
+}
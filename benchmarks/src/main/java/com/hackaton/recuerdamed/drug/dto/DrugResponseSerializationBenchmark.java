@@ -0,0 +1,79 @@
+package com.hackaton.recuerdamed.drug.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.hackaton.recuerdamed.config.DrugScheduleProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson cost of the drug payloads, with an {@link ObjectMapper} configured like the one Spring Boot
+ * builds: the JSON array returned by {@code GET /medicamentos}, the NDJSON stream of
+ * {@code ?format=ndjson} and the request body of {@code POST /medicamentos}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrugResponseSerializationBenchmark {
+    private static final String REQUEST_JSON = """
+            {"drugName":"Paracetamol","dosage":"500mg","description":"Analgésico","frequencyHours":8,
+             "nextIntakeAt":"2025-09-17T09:00:00","timeZone":"Europe/Madrid",
+             "startDate":"2025-09-17T09:00:00","endDate":"2025-09-24T09:00:00","activeReminder":true}
+            """;
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private ObjectWriter ndjsonWriter;
+    private ObjectReader requestReader;
+    private List<DrugResponse> responses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, DrugResponse.class));
+        ndjsonWriter = objectMapper.writerFor(DrugResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        requestReader = objectMapper.readerFor(DrugRequest.class);
+        DrugMapper drugMapper = new DrugMapper(new DrugScheduleProperties(ZoneId.of("Europe/Madrid")));
+        responses = LongStream.rangeClosed(1, size)
+                .mapToObj(DrugMapperBenchmark::drug)
+                .map(drugMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] writeList() throws IOException {
+        return listWriter.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public void writeNdjson() throws IOException {
+        try (SequenceWriter writer = ndjsonWriter.writeValues(OutputStream.nullOutputStream())) {
+            for (DrugResponse response : responses) {
+                writer.write(response);
+            }
+        }
+    }
+
+    @Benchmark
+    public DrugRequest readRequest() throws IOException {
+        return requestReader.readValue(REQUEST_JSON);
+    }
+}
@@ -0,0 +1,112 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+import com.hackaton.recuerdamed.RecuerdamedApplication;
+import com.hackaton.recuerdamed.drug.dto.DrugMapper;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.service.DrugBulkService;
+import com.hackaton.recuerdamed.patient.dto.PatientRequest;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The drug reads as served today, through the {@link DrugRepository#SELECT_DRUG_RESPONSE}
+ * constructor projections, next to the path they replaced: load managed {@link Drug} entities and
+ * copy them with {@link DrugMapper#toDto}. Both run in the same read-only transaction the service
+ * opens, against the same H2 data and with every cache off, so the difference is hydration,
+ * dirty-check snapshots and mapping. Sampled, so the results carry p99 next to the mean, and the
+ * GC profiler of {@code BenchmarkRunner} adds the bytes allocated per read.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrugReadPathBenchmark {
+    private static final String SELECT_ACTIVE_ENTITIES =
+            "SELECT d FROM Drug d WHERE d.patientId = :patientId AND d.active = true ORDER BY d.nextIntakeAt ASC";
+
+    @Param({"10", "1000"})
+    private int drugs;
+
+    private ConfigurableApplicationContext context;
+    private DrugRepository drugRepository;
+    private DrugMapper drugMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Long patientId;
+    private List<Long> ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RecuerdamedApplication.class)
+                .profiles("h2", "benchmark")
+                .run("--management.observations.annotations.enabled=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        drugRepository = context.getBean(DrugRepository.class);
+        drugMapper = context.getBean(DrugMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        patientId = context.getBean(PatientService.class).createPatient(new PatientRequest("Benchmark")).id();
+        context.getBean(DrugBulkService.class).createDrugs(patientId, IntStream.range(0, drugs)
+                .mapToObj(i -> new DrugRequest("Paracetamol " + i, "500mg", "Benchmark", 8,
+                        LocalDateTime.of(2025, 9, 17, 9, 0), null,
+                        LocalDateTime.of(2025, 9, 17, 9, 0), null, true))
+                .iterator());
+        ids = drugRepository.findActiveResponses(patientId).stream().map(DrugResponse::id).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Long nextId() {
+        Long id = ids.get(next);
+        next = (next + 1) % ids.size();
+        return id;
+    }
+
+    @Benchmark
+    public DrugResponse byIdProjection() {
+        Long id = nextId();
+        return readOnly.execute(status -> drugRepository.findActiveResponseById(patientId, id).orElseThrow());
+    }
+
+    @Benchmark
+    public DrugResponse byIdEntityAndMapper() {
+        Long id = nextId();
+        return readOnly.execute(status ->
+                drugMapper.toDto(drugRepository.findByIdAndPatientIdAndActiveTrue(id, patientId).orElseThrow()));
+    }
+
+    @Benchmark
+    public List<DrugResponse> listProjection() {
+        return readOnly.execute(status -> drugRepository.findActiveResponses(patientId));
+    }
+
+    @Benchmark
+    public List<DrugResponse> listEntityAndMapper() {
+        return readOnly.execute(status -> entityManager.createQuery(SELECT_ACTIVE_ENTITIES, Drug.class)
+                .setParameter("patientId", patientId)
+                .getResultList()
+                .stream()
+                .map(drugMapper::toDto)
+                .toList());
+    }
+}
@@ -0,0 +1,99 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import com.hackaton.recuerdamed.RecuerdamedApplication;
+import com.hackaton.recuerdamed.drug.dto.BatchResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.patient.dto.PatientRequest;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Rows per second through the {@link DrugBulkServiceImpl} write paths, next to the same rows sent
+ * one at a time through {@link DrugServiceImpl}, which is what a client does without the bulk
+ * endpoints. Every invocation writes {@link #ROWS} rows and the score is per row, so it reads
+ * directly as rows/s. {@code chunkSize} is {@code bulk.chunk-size}: the rows written per
+ * transaction and JDBC batch. Same H2 setup as {@link DrugServiceBenchmark}; the created drugs pile
+ * up over the run, hence the short iterations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(DrugBulkServiceBenchmark.ROWS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class DrugBulkServiceBenchmark {
+    static final int ROWS = 1000;
+
+    @Param({"100", "1000"})
+    private int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private DrugBulkService drugBulkService;
+    private DrugService drugService;
+    private Long patientId;
+    private List<DrugRequest> requests;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RecuerdamedApplication.class)
+                .profiles("h2", "benchmark")
+                .run("--management.observations.annotations.enabled=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--bulk.chunk-size=" + chunkSize);
+        drugBulkService = context.getBean(DrugBulkService.class);
+        drugService = context.getBean(DrugService.class);
+        patientId = context.getBean(PatientService.class).createPatient(new PatientRequest("Benchmark")).id();
+        requests = IntStream.range(0, ROWS)
+                .mapToObj(i -> new DrugRequest("Paracetamol " + i, "500mg", "Benchmark", 8,
+                        LocalDateTime.of(2025, 9, 17, 9, 0), null,
+                        LocalDateTime.of(2025, 9, 17, 9, 0), null, true))
+                .toList();
+        drugBulkService.createDrugs(patientId, requests.iterator());
+        ids = drugService.getAllDrugs(patientId).stream().map(DrugResponse::id).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BatchResponse createDrugs() {
+        return drugBulkService.createDrugs(patientId, requests.iterator());
+    }
+
+    @Benchmark
+    public int createDrugOneByOne() {
+        int created = 0;
+        for (DrugRequest request : requests) {
+            drugService.createDrug(patientId, request);
+            created++;
+        }
+        return created;
+    }
+
+    @Benchmark
+    public BatchResponse markAsTaken() {
+        return drugBulkService.markAsTaken(patientId, ids);
+    }
+
+    @Benchmark
+    public int markAsTakenOneByOne() {
+        int taken = 0;
+        for (Long id : ids) {
+            drugService.markAsTaken(patientId, id);
+            taken++;
+        }
+        return taken;
+    }
+}
@@ -0,0 +1,120 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import com.hackaton.recuerdamed.RecuerdamedApplication;
+import com.hackaton.recuerdamed.drug.dto.DrugPageResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.patient.dto.PatientRequest;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * End-to-end cost of the {@link DrugServiceImpl} paths behind the drug endpoints: transaction,
+ * repository query, mapping. The application runs with the {@code h2} and {@code benchmark}
+ * profiles, so the database is an in-memory H2 and the drug caches are off. {@code metrics=false}
+ * turns off the {@code @Timed} aspect and Hibernate statistics, to keep the instrumentation
+ * overhead in check. Every one of {@code patients} patients gets {@code drugs} drugs and the
+ * benchmarks act on the first one, so the scores should not move with the number of patients.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrugServiceBenchmark {
+    private static final String[] NAMES = {"Paracetamol", "Ibuprofeno", "Amoxicilina", "Omeprazol", "Metformina"};
+
+    @Param({"1000"})
+    private int drugs;
+
+    @Param({"1", "10"})
+    private int patients;
+
+    @Param({"true", "false"})
+    private boolean metrics;
+
+    private ConfigurableApplicationContext context;
+    private DrugService drugService;
+    private Long patientId;
+    private List<Long> ids;
+    private DrugRequest updateRequest;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RecuerdamedApplication.class)
+                .profiles("h2", "benchmark")
+                .run("--management.observations.annotations.enabled=" + metrics,
+                        "--spring.jpa.properties.hibernate.generate_statistics=" + metrics);
+        drugService = context.getBean(DrugService.class);
+        PatientService patientService = context.getBean(PatientService.class);
+        DrugBulkService drugBulkService = context.getBean(DrugBulkService.class);
+        for (int patient = 0; patient < patients; patient++) {
+            Long id = patientService.createPatient(new PatientRequest("Benchmark " + patient)).id();
+            drugBulkService.createDrugs(id, IntStream.range(0, drugs)
+                    .mapToObj(i -> request(NAMES[i % NAMES.length] + " " + i))
+                    .iterator());
+            if (patientId == null) {
+                patientId = id;
+            }
+        }
+        ids = drugService.getAllDrugs(patientId).stream().map(DrugResponse::id).toList();
+        updateRequest = request("Paracetamol actualizado");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static DrugRequest request(String drugName) {
+        return new DrugRequest(drugName, "500mg", "Benchmark", 8,
+                LocalDateTime.of(2025, 9, 17, 9, 0), null,
+                LocalDateTime.of(2025, 9, 17, 9, 0), null, true);
+    }
+
+    private Long nextId() {
+        Long id = ids.get(next);
+        next = (next + 1) % ids.size();
+        return id;
+    }
+
+    @Benchmark
+    public DrugResponse getDrugById() {
+        return drugService.getDrugById(patientId, nextId());
+    }
+
+    @Benchmark
+    public List<DrugResponse> getAllDrugs() {
+        return drugService.getAllDrugs(patientId);
+    }
+
+    @Benchmark
+    public DrugPageResponse getDrugPage() {
+        return drugService.getDrugPage(patientId, null, 50);
+    }
+
+    @Benchmark
+    public void streamAllDrugs(Blackhole blackhole) {
+        drugService.streamAllDrugs(patientId, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<DrugResponse> searchByName() {
+        return drugService.searchByName(patientId, "ibuprof", 20);
+    }
+
+    @Benchmark
+    public DrugResponse updateDrug() {
+        return drugService.updateDrug(patientId, nextId(), updateRequest);
+    }
+}
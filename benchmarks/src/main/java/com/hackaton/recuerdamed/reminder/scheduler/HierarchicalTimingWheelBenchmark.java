@@ -0,0 +1,72 @@
+package com.hackaton.recuerdamed.reminder.scheduler;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick latency of the {@link HierarchicalTimingWheel} behind {@link ReminderScheduler}, with the
+ * wheel of the default configuration (1s ticks, 64 slots, 4 levels) holding {@code entries}
+ * reminders spread over one day. {@code uniform} spreads the deadlines evenly, so a tick expires a
+ * handful of keys; {@code hourly} puts them all on the hour, so one tick in 3600 expires a 24th of
+ * the wheel. Sampled, so the results carry the tail percentiles and not just the mean.
+ * <p>
+ * {@code tick} advances one tick and re-arms every expired key one day later, as taking a dose does,
+ * so the wheel stays at {@code entries} for the whole run. {@code reschedule} moves one key.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HierarchicalTimingWheelBenchmark {
+    private static final long TICK_MILLIS = 1_000;
+    private static final long DAY_MILLIS = 86_400_000;
+    private static final long START_MILLIS = 1_735_689_600_000L;
+
+    @Param({"1000000"})
+    private int entries;
+
+    @Param({"uniform", "hourly"})
+    private String spread;
+
+    private HierarchicalTimingWheel wheel;
+    private long now;
+    private long nextKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = new HierarchicalTimingWheel(TICK_MILLIS, 64, 4, START_MILLIS);
+        for (long key = 0; key < entries; key++) {
+            wheel.schedule(key, START_MILLIS + deadlineOffset(key));
+        }
+        now = START_MILLIS;
+    }
+
+    private long deadlineOffset(long key) {
+        return switch (spread) {
+            case "uniform" -> 1 + key * DAY_MILLIS / entries;
+            case "hourly" -> (key % 24 + 1) * 3_600_000;
+            default -> throw new IllegalArgumentException("Unknown spread: " + spread);
+        };
+    }
+
+    @Benchmark
+    public List<Long> tick() {
+        now += TICK_MILLIS;
+        List<Long> expired = wheel.advanceTo(now);
+        for (Long key : expired) {
+            wheel.schedule(key, now + DAY_MILLIS);
+        }
+        return expired;
+    }
+
+    @Benchmark
+    public void reschedule() {
+        long key = nextKey;
+        nextKey = (nextKey + 1) % entries;
+        wheel.schedule(key, now + deadlineOffset(key) + DAY_MILLIS);
+    }
+}
@@ -0,0 +1,45 @@
+package com.hackaton.recuerdamed.adherence.controller;
+
+import com.hackaton.recuerdamed.adherence.dto.AdherenceGranularity;
+import com.hackaton.recuerdamed.adherence.dto.AdherenceResponse;
+import com.hackaton.recuerdamed.adherence.service.AdherenceService;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/medicamentos")
+@Tag(name= "Adherence", description = "Scheduled, taken and late doses per day or week")
+public class AdherenceController {
+    private final AdherenceService adherenceService;
+
+    @Operation(summary = "Get drug adherence", description = "Return scheduled, taken and late doses of a drug per day or week; defaults to the last 30 days or 12 weeks")
+    @GetMapping("/{id}/adherencia")
+    public ResponseEntity<AdherenceResponse> getDrugAdherence(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                                              @PathVariable Long id,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(defaultValue = "DAILY") AdherenceGranularity granularity){
+        AdherenceResponse adherence = adherenceService.getDrugAdherence(patientId, id, from, to, granularity);
+        return ResponseEntity.ok(adherence);
+    }
+
+    @Operation(summary = "Get patient adherence", description = "Return scheduled, taken and late doses of all drugs of the patient per day or week; defaults to the last 30 days or 12 weeks")
+    @GetMapping("/adherencia")
+    public ResponseEntity<AdherenceResponse> getPatientAdherence(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                 @RequestParam(defaultValue = "DAILY") AdherenceGranularity granularity){
+        AdherenceResponse adherence = adherenceService.getPatientAdherence(patientId, from, to, granularity);
+        return ResponseEntity.ok(adherence);
+    }
+}
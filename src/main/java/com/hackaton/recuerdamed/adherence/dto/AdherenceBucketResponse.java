@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.adherence.dto;
+
+import java.time.LocalDate;
+
+public record AdherenceBucketResponse(
+        LocalDate bucketStart,
+        Long scheduled,
+        Long taken,
+        Long late
+) {
+}
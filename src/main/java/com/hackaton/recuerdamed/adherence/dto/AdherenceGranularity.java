@@ -0,0 +1,6 @@
+package com.hackaton.recuerdamed.adherence.dto;
+
+public enum AdherenceGranularity {
+    DAILY,
+    WEEKLY
+}
@@ -0,0 +1,35 @@
+package com.hackaton.recuerdamed.adherence.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record AdherenceResponse(
+        Long drugId,
+        AdherenceGranularity granularity,
+        LocalDate from,
+        LocalDate to,
+        long scheduled,
+        long taken,
+        long late,
+        Double adherenceRate,
+        List<AdherenceBucketResponse> buckets
+) {
+
+    /**
+     * Sums the buckets into the totals. The rate is taken over scheduled doses, capped at 1 since
+     * doses of drugs without reminders can be taken without ever being counted as scheduled.
+     */
+    public static AdherenceResponse of(Long drugId, AdherenceGranularity granularity, LocalDate from, LocalDate to,
+                                       List<AdherenceBucketResponse> buckets) {
+        long scheduled = 0;
+        long taken = 0;
+        long late = 0;
+        for (AdherenceBucketResponse bucket : buckets) {
+            scheduled += bucket.scheduled();
+            taken += bucket.taken();
+            late += bucket.late();
+        }
+        Double rate = scheduled == 0 ? null : Math.min(1.0, (double) taken / scheduled);
+        return new AdherenceResponse(drugId, granularity, from, to, scheduled, taken, late, rate, buckets);
+    }
+}
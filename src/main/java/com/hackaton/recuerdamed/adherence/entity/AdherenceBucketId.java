@@ -0,0 +1,23 @@
+package com.hackaton.recuerdamed.adherence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdherenceBucketId implements Serializable {
+
+    @Column(nullable = false, name = "drug_id")
+    private Long drugId;
+
+    @Column(nullable = false, name = "bucket_date")
+    private LocalDate bucketDate;
+}
@@ -0,0 +1,33 @@
+package com.hackaton.recuerdamed.adherence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Daily adherence rollup of one drug. Rows are kept up to date by {@code AdherenceRollupWriter},
+ * which only ever adds to the counters; they are never recomputed from the dose log except by the
+ * rebuild command.
+ */
+@Entity
+@Table(name = "adherence_daily", indexes = {
+        @Index(name = "idx_adherence_daily_bucket", columnList = "bucket_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdherenceDaily {
+
+    @EmbeddedId
+    private AdherenceBucketId id;
+
+    @Column(nullable = false)
+    private long scheduled;
+
+    @Column(nullable = false)
+    private long taken;
+
+    @Column(nullable = false)
+    private long late;
+}
@@ -0,0 +1,32 @@
+package com.hackaton.recuerdamed.adherence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Weekly adherence rollup of one drug, keyed by the Monday that starts the week. Maintained
+ * together with {@link AdherenceDaily} by {@code AdherenceRollupWriter}.
+ */
+@Entity
+@Table(name = "adherence_weekly", indexes = {
+        @Index(name = "idx_adherence_weekly_bucket", columnList = "bucket_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdherenceWeekly {
+
+    @EmbeddedId
+    private AdherenceBucketId id;
+
+    @Column(nullable = false)
+    private long scheduled;
+
+    @Column(nullable = false)
+    private long taken;
+
+    @Column(nullable = false)
+    private long late;
+}
@@ -0,0 +1,30 @@
+package com.hackaton.recuerdamed.adherence.repository;
+
+import com.hackaton.recuerdamed.adherence.dto.AdherenceBucketResponse;
+import com.hackaton.recuerdamed.adherence.entity.AdherenceBucketId;
+import com.hackaton.recuerdamed.adherence.entity.AdherenceDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AdherenceDailyRepository extends JpaRepository<AdherenceDaily, AdherenceBucketId> {
+
+    @Query("SELECT new com.hackaton.recuerdamed.adherence.dto.AdherenceBucketResponse(" +
+            "a.id.bucketDate, a.scheduled, a.taken, a.late) FROM AdherenceDaily a " +
+            "WHERE a.id.drugId = :drugId AND a.id.bucketDate BETWEEN :from AND :to ORDER BY a.id.bucketDate")
+    List<AdherenceBucketResponse> findBuckets(@Param("drugId") Long drugId,
+                                              @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.hackaton.recuerdamed.adherence.dto.AdherenceBucketResponse(" +
+            "a.id.bucketDate, SUM(a.scheduled), SUM(a.taken), SUM(a.late)) FROM AdherenceDaily a " +
+            "JOIN Drug d ON d.id = a.id.drugId " +
+            "WHERE d.patientId = :patientId AND a.id.bucketDate BETWEEN :from AND :to " +
+            "GROUP BY a.id.bucketDate ORDER BY a.id.bucketDate")
+    List<AdherenceBucketResponse> findPatientBuckets(@Param("patientId") Long patientId,
+                                                     @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
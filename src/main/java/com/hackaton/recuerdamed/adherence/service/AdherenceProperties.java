@@ -0,0 +1,22 @@
+package com.hackaton.recuerdamed.adherence.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adherence")
+public record AdherenceProperties(
+        @DefaultValue("1h") Duration lateAfter,
+        @DefaultValue("30") int defaultDays,
+        @DefaultValue("12") int defaultWeeks,
+        @DefaultValue("400") int maxBuckets,
+        @DefaultValue MissedAccrual missedAccrual
+) {
+    public record MissedAccrual(
+            @DefaultValue("true") boolean autoStart,
+            @DefaultValue("15m") Duration interval,
+            @DefaultValue("500") int batchSize
+    ) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.hackaton.recuerdamed.adherence.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rebuilds the adherence rollups and exits when the application is started with
+ * {@code --rebuild-adherence}, optionally limited to {@code --rebuild-adherence=2025-01-01:2025-03-31}.
+ * Without a range every day from the earliest drug start date until today is rebuilt.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdherenceRebuildCommand implements ApplicationRunner {
+    static final String OPTION = "rebuild-adherence";
+
+    private final AdherenceRebuilder adherenceRebuilder;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        List<String> values = args.getOptionValues(OPTION);
+        LocalDate from;
+        LocalDate to;
+        if (values.isEmpty() || values.getFirst().isBlank()) {
+            from = adherenceRebuilder.earliestDay();
+            to = LocalDate.now();
+        } else {
+            String[] range = values.getFirst().split(":", 2);
+            from = LocalDate.parse(range[0]);
+            to = range.length > 1 ? LocalDate.parse(range[1]) : LocalDate.now();
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("--" + OPTION + " range starts after it ends: " + from + " > " + to);
+        }
+
+        log.info("Rebuilding adherence rollups from {} to {}", from, to);
+        adherenceRebuilder.rebuild(from, to);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,119 @@
+package com.hackaton.recuerdamed.adherence.service;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeProperties;
+import com.hackaton.recuerdamed.intake.service.MissedDoseCalculator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Recomputes the rollups of a date range from the dose log, one drug at a time, for backfills and
+ * repairs. Taken and late doses come from {@code dose_intakes}; scheduled doses are recomputed as
+ * taken plus missed slots, which also counts the doses of drugs without reminders. Each drug is
+ * replaced in its own transaction, so the live incremental updates of other drugs are not held up,
+ * but doses recorded for a drug while it is being rebuilt may be counted twice. When the range
+ * reaches the drug's missed-dose mark, the mark is moved to the end of the rebuilt slots so
+ * {@link MissedDoseAccrual} does not count them again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdherenceRebuilder {
+    private static final String TAKEN_BY_DAY_SQL = """
+            SELECT DATE(scheduled_at), COUNT(*),
+                   SUM(CASE WHEN TIMESTAMPDIFF(SECOND, scheduled_at, taken_at) > ? THEN 1 ELSE 0 END)
+            FROM dose_intakes
+            WHERE drug_id = ? AND scheduled_at >= ? AND scheduled_at < ?
+            GROUP BY DATE(scheduled_at)""";
+    private static final String DELETE_DAILY_SQL =
+            "DELETE FROM adherence_daily WHERE drug_id = ? AND bucket_date BETWEEN ? AND ?";
+    private static final String INSERT_DAILY_SQL =
+            "INSERT INTO adherence_daily (drug_id, bucket_date, scheduled, taken, late) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_WEEKLY_SQL =
+            "DELETE FROM adherence_weekly WHERE drug_id = ? AND bucket_date BETWEEN ? AND ?";
+    private static final String INSERT_WEEKLY_FROM_DAILY_SQL = """
+            INSERT INTO adherence_weekly (drug_id, bucket_date, scheduled, taken, late)
+            SELECT drug_id, DATE_SUB(bucket_date, INTERVAL WEEKDAY(bucket_date) DAY), SUM(scheduled), SUM(taken), SUM(late)
+            FROM adherence_daily
+            WHERE drug_id = ? AND bucket_date BETWEEN ? AND ?
+            GROUP BY drug_id, DATE_SUB(bucket_date, INTERVAL WEEKDAY(bucket_date) DAY)""";
+
+    private final DrugRepository drugRepository;
+    private final MissedDoseCalculator missedDoseCalculator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AdherenceRollupWriter adherenceRollupWriter;
+    private final AdherenceProperties properties;
+    private final DoseIntakeProperties intakeProperties;
+
+    /**
+     * @return the first day with data, or today when there are no drugs
+     */
+    public LocalDate earliestDay() {
+        LocalDateTime earliest = drugRepository.findEarliestStartDate();
+        return earliest != null ? earliest.toLocalDate() : LocalDate.now();
+    }
+
+    /**
+     * Replaces the daily rollups of every drug between {@code from} and {@code to}, both included,
+     * and the weekly rollups of the weeks they fall in.
+     *
+     * @return number of drugs rebuilt
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        List<Long> drugIds = drugRepository.findAllIds();
+        for (Long drugId : drugIds) {
+            drugRepository.findById(drugId).ifPresent(drug -> rebuildDrug(drug, from, to));
+        }
+        log.info("Rebuilt adherence rollups of {} drugs from {} to {}", drugIds.size(), from, to);
+        return drugIds.size();
+    }
+
+    private void rebuildDrug(Drug drug, LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        LocalDateTime missedUntil = LocalDateTime.now(drug.getTimeZone()).minus(intakeProperties.missedAfter());
+        LocalDateTime rebuiltUntil = missedUntil.isBefore(end) ? missedUntil : end;
+        Map<LocalDate, long[]> days = new TreeMap<>();
+
+        jdbcTemplate.query(TAKEN_BY_DAY_SQL, resultSet -> {
+            long[] counts = days.computeIfAbsent(resultSet.getDate(1).toLocalDate(), day -> new long[3]);
+            counts[0] += resultSet.getLong(2);
+            counts[1] += resultSet.getLong(2);
+            counts[2] += resultSet.getLong(3);
+        }, properties.lateAfter().toSeconds(), drug.getId(), Timestamp.valueOf(start), Timestamp.valueOf(end));
+        for (LocalDateTime slot : missedDoseCalculator.missedSlots(drug, start, end)) {
+            days.computeIfAbsent(slot.toLocalDate(), day -> new long[3])[0]++;
+        }
+
+        List<Object[]> rows = new ArrayList<>(days.size());
+        days.forEach((day, counts) -> rows.add(new Object[]{drug.getId(), Date.valueOf(day), counts[0], counts[1], counts[2]}));
+        LocalDate firstWeek = AdherenceRollupWriter.weekStart(from);
+        LocalDate lastWeek = AdherenceRollupWriter.weekStart(to);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_DAILY_SQL, drug.getId(), Date.valueOf(from), Date.valueOf(to));
+            jdbcTemplate.batchUpdate(INSERT_DAILY_SQL, rows);
+            jdbcTemplate.update(DELETE_WEEKLY_SQL, drug.getId(), Date.valueOf(firstWeek), Date.valueOf(lastWeek));
+            jdbcTemplate.update(INSERT_WEEKLY_FROM_DAILY_SQL,
+                    drug.getId(), Date.valueOf(firstWeek), Date.valueOf(lastWeek.plusDays(6)));
+            LocalDateTime mark = adherenceRollupWriter.lockMissedMark(drug.getId(), drug.getStartDate());
+            if (!mark.isBefore(start) && mark.isBefore(rebuiltUntil)) {
+                adherenceRollupWriter.moveMissedMark(drug.getId(), rebuiltUntil);
+            }
+        });
+    }
+}
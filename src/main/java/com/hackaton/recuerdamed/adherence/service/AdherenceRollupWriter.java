@@ -0,0 +1,154 @@
+package com.hackaton.recuerdamed.adherence.service;
+
+import com.hackaton.recuerdamed.intake.service.DoseIntakeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds scheduled, taken and late doses to the daily and weekly rollups. Changes are first summed
+ * per drug and bucket, then written as one batched upsert per table that increments the existing
+ * counters, so the cost depends on how many buckets a batch touches and never on how much history
+ * the drug already has.
+ *
+ * <p>A dose slot counts as scheduled exactly once: when it is taken, or when
+ * {@link MissedDoseAccrual} finds it missed, whichever comes first. The boundary is the drug's
+ * mark in {@code adherence_accrual}: slots before it have been through the accrual already, so a
+ * dose taken for one of them only adds to the taken count. Both sides lock the mark row first.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdherenceRollupWriter {
+    private static final String UPSERT_SQL = """
+            INSERT INTO %s (drug_id, bucket_date, scheduled, taken, late) VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE scheduled = scheduled + VALUES(scheduled),
+                                    taken = taken + VALUES(taken),
+                                    late = late + VALUES(late)""";
+    static final String DAILY_UPSERT_SQL = UPSERT_SQL.formatted("adherence_daily");
+    static final String WEEKLY_UPSERT_SQL = UPSERT_SQL.formatted("adherence_weekly");
+    static final String INSERT_MARK_SQL = "INSERT IGNORE INTO adherence_accrual (drug_id, missed_until) VALUES (?, ?)";
+    static final String LOCK_MARK_SQL = "SELECT missed_until FROM adherence_accrual WHERE drug_id = ? FOR UPDATE";
+    static final String LOCK_MARKS_SQL = "SELECT drug_id, missed_until FROM adherence_accrual WHERE drug_id IN (%s) FOR UPDATE";
+    static final String UPDATE_MARK_SQL = "UPDATE adherence_accrual SET missed_until = ? WHERE drug_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AdherenceProperties properties;
+
+    /**
+     * Counts each dose as taken, and as scheduled unless its slot was already counted as missed.
+     */
+    @Transactional
+    public void recordTaken(Collection<DoseIntakeEvent> events) {
+        Map<Long, LocalDateTime> missedUntil = lockMissedMarks(events.stream().map(DoseIntakeEvent::drugId).distinct().toList());
+        List<Delta> deltas = new ArrayList<>(events.size());
+        for (DoseIntakeEvent event : events) {
+            LocalDateTime mark = missedUntil.get(event.drugId());
+            boolean accrued = mark != null && event.scheduledAt().isBefore(mark);
+            boolean late = Duration.between(event.scheduledAt(), event.takenAt()).compareTo(properties.lateAfter()) > 0;
+            deltas.add(new Delta(event.drugId(), event.scheduledAt().toLocalDate(), accrued ? 0 : 1, 1, late ? 1 : 0));
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Locks the missed-dose mark of a drug until the surrounding transaction ends, creating it at
+     * {@code start} the first time.
+     *
+     * @return the time up to which the drug's missed slots are already counted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public LocalDateTime lockMissedMark(Long drugId, LocalDateTime start) {
+        jdbcTemplate.update(INSERT_MARK_SQL, drugId, Timestamp.valueOf(start));
+        return jdbcTemplate.queryForObject(LOCK_MARK_SQL, LocalDateTime.class, drugId);
+    }
+
+    /**
+     * Counts {@code slots} as scheduled and moves the drug's mark, locked beforehand with
+     * {@link #lockMissedMark}, up to {@code missedUntil}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMissed(Long drugId, List<LocalDateTime> slots, LocalDateTime missedUntil) {
+        apply(slots.stream().map(slot -> new Delta(drugId, slot.toLocalDate(), 1, 0, 0)).toList());
+        jdbcTemplate.update(UPDATE_MARK_SQL, Timestamp.valueOf(missedUntil), drugId);
+    }
+
+    /**
+     * Moves the drug's mark, locked beforehand with {@link #lockMissedMark}, without counting any
+     * slot, for callers that counted the slots up to {@code missedUntil} themselves.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moveMissedMark(Long drugId, LocalDateTime missedUntil) {
+        jdbcTemplate.update(UPDATE_MARK_SQL, Timestamp.valueOf(missedUntil), drugId);
+    }
+
+    public static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private Map<Long, LocalDateTime> lockMissedMarks(List<Long> drugIds) {
+        Map<Long, LocalDateTime> marks = new HashMap<>();
+        if (drugIds.isEmpty()) {
+            return marks;
+        }
+        jdbcTemplate.query(LOCK_MARKS_SQL.formatted(String.join(", ", Collections.nCopies(drugIds.size(), "?"))),
+                resultSet -> {
+                    marks.put(resultSet.getLong(1), resultSet.getTimestamp(2).toLocalDateTime());
+                }, drugIds.toArray());
+        return marks;
+    }
+
+    private void apply(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<BucketKey, Delta> daily = new LinkedHashMap<>();
+        Map<BucketKey, Delta> weekly = new LinkedHashMap<>();
+        for (Delta delta : deltas) {
+            daily.merge(new BucketKey(delta.drugId(), delta.day()), delta, Delta::plus);
+            LocalDate week = weekStart(delta.day());
+            weekly.merge(new BucketKey(delta.drugId(), week), delta.at(week), Delta::plus);
+        }
+        upsert(DAILY_UPSERT_SQL, daily.values());
+        upsert(WEEKLY_UPSERT_SQL, weekly.values());
+    }
+
+    private void upsert(String sql, Collection<Delta> deltas) {
+        jdbcTemplate.batchUpdate(sql, deltas, deltas.size(), (statement, delta) -> {
+            statement.setLong(1, delta.drugId());
+            statement.setDate(2, Date.valueOf(delta.day()));
+            statement.setLong(3, delta.scheduled());
+            statement.setLong(4, delta.taken());
+            statement.setLong(5, delta.late());
+        });
+    }
+
+    private record BucketKey(Long drugId, LocalDate day) {
+    }
+
+    private record Delta(Long drugId, LocalDate day, long scheduled, long taken, long late) {
+        Delta plus(Delta other) {
+            return new Delta(drugId, day, scheduled + other.scheduled, taken + other.taken, late + other.late);
+        }
+
+        Delta at(LocalDate bucket) {
+            return new Delta(drugId, bucket, scheduled, taken, late);
+        }
+    }
+}
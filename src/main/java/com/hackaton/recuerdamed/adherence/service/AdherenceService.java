@@ -0,0 +1,12 @@
+package com.hackaton.recuerdamed.adherence.service;
+
+import com.hackaton.recuerdamed.adherence.dto.AdherenceGranularity;
+import com.hackaton.recuerdamed.adherence.dto.AdherenceResponse;
+
+import java.time.LocalDate;
+
+public interface AdherenceService {
+    AdherenceResponse getDrugAdherence(Long patientId, Long drugId, LocalDate from, LocalDate to, AdherenceGranularity granularity);
+
+    AdherenceResponse getPatientAdherence(Long patientId, LocalDate from, LocalDate to, AdherenceGranularity granularity);
+}
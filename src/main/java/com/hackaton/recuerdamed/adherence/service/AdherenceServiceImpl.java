@@ -0,0 +1,78 @@
+package com.hackaton.recuerdamed.adherence.service;
+
+import com.hackaton.recuerdamed.adherence.dto.AdherenceBucketResponse;
+import com.hackaton.recuerdamed.adherence.dto.AdherenceGranularity;
+import com.hackaton.recuerdamed.adherence.dto.AdherenceResponse;
+import com.hackaton.recuerdamed.adherence.repository.AdherenceDailyRepository;
+import com.hackaton.recuerdamed.adherence.repository.AdherenceWeeklyRepository;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import com.hackaton.recuerdamed.shared.custom_exception.InvalidDateRangeException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Reads adherence straight from the rollup tables. A request touches at most
+ * {@code adherence.max-buckets} rows per drug, whatever the length of the treatment, and only the
+ * drugs of the requesting patient.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdherenceServiceImpl implements AdherenceService {
+    private final AdherenceDailyRepository adherenceDailyRepository;
+    private final AdherenceWeeklyRepository adherenceWeeklyRepository;
+    private final DrugRepository drugRepository;
+    private final AdherenceProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AdherenceResponse getDrugAdherence(Long patientId, Long drugId, LocalDate from, LocalDate to, AdherenceGranularity granularity) {
+        if (!drugRepository.existsByIdAndPatientId(drugId, patientId)) {
+            throw new DrugNotFoundException("Drug with ID: " + drugId + " not found");
+        }
+        Range range = resolveRange(from, to, granularity);
+        List<AdherenceBucketResponse> buckets = granularity == AdherenceGranularity.WEEKLY
+                ? adherenceWeeklyRepository.findBuckets(drugId, range.from(), range.to())
+                : adherenceDailyRepository.findBuckets(drugId, range.from(), range.to());
+        return AdherenceResponse.of(drugId, granularity, range.from(), range.to(), buckets);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AdherenceResponse getPatientAdherence(Long patientId, LocalDate from, LocalDate to, AdherenceGranularity granularity) {
+        Range range = resolveRange(from, to, granularity);
+        List<AdherenceBucketResponse> buckets = granularity == AdherenceGranularity.WEEKLY
+                ? adherenceWeeklyRepository.findPatientBuckets(patientId, range.from(), range.to())
+                : adherenceDailyRepository.findPatientBuckets(patientId, range.from(), range.to());
+        return AdherenceResponse.of(null, granularity, range.from(), range.to(), buckets);
+    }
+
+    private Range resolveRange(LocalDate from, LocalDate to, AdherenceGranularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start;
+        long buckets;
+        if (granularity == AdherenceGranularity.WEEKLY) {
+            end = AdherenceRollupWriter.weekStart(end);
+            start = from != null ? AdherenceRollupWriter.weekStart(from) : end.minusWeeks(properties.defaultWeeks() - 1L);
+            buckets = ChronoUnit.WEEKS.between(start, end) + 1;
+        } else {
+            start = from != null ? from : end.minusDays(properties.defaultDays() - 1L);
+            buckets = ChronoUnit.DAYS.between(start, end) + 1;
+        }
+        if (start.isAfter(end)) {
+            throw new InvalidDateRangeException("'from' must not be after 'to'");
+        }
+        if (buckets > properties.maxBuckets()) {
+            throw new InvalidDateRangeException("Date range cannot span more than " + properties.maxBuckets() + " buckets");
+        }
+        return new Range(start, end);
+    }
+
+    private record Range(LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.hackaton.recuerdamed.adherence.service;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.MissedAccrualDue;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeProperties;
+import com.hackaton.recuerdamed.intake.service.MissedDoseCalculator;
+import com.hackaton.recuerdamed.reminder.cluster.ReminderCluster;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Adds the doses nobody took to the scheduled counts of the adherence rollups. Taken doses are
+ * counted as scheduled when they are written, whether or not a reminder was sent for them; every
+ * {@code adherence.missed-accrual.interval} this job adds the slots {@link MissedDoseCalculator}
+ * reports as missed since each drug's mark, the same slots the rebuild command counts, then moves
+ * the mark up to the {@code intake.missed-after} cutoff.
+ * <p>
+ * Only the drugs with a slot that may have been missed since the last run are read: each drug's
+ * {@code missedAccrualDueAt} is the moment its next slot after the mark becomes missed, and a run
+ * pages through the drugs due by now in {@code (missedAccrualDueAt, id)} order. Taking a dose
+ * moves the next slot later, so a drug can be read early and add nothing, but never late. Each
+ * drug is handled in a transaction of its own with its mark locked, and the job only runs on the
+ * reminder cluster's leader; an instance that still believes itself leader during a handover
+ * waits on the same mark locks, so no slot is counted twice.
+ */
+@Component
+@Slf4j
+public class MissedDoseAccrual {
+    private final DrugRepository drugRepository;
+    private final MissedDoseCalculator missedDoseCalculator;
+    private final AdherenceRollupWriter adherenceRollupWriter;
+    private final ReminderCluster cluster;
+    private final TransactionTemplate transactionTemplate;
+    private final AdherenceProperties.MissedAccrual properties;
+    private final DoseIntakeProperties intakeProperties;
+    private final boolean virtualThreads;
+    private Thread accrual;
+
+    @Autowired
+    public MissedDoseAccrual(DrugRepository drugRepository, MissedDoseCalculator missedDoseCalculator,
+                             AdherenceRollupWriter adherenceRollupWriter, ReminderCluster cluster,
+                             TransactionTemplate transactionTemplate, AdherenceProperties properties,
+                             DoseIntakeProperties intakeProperties, Environment environment) {
+        this(drugRepository, missedDoseCalculator, adherenceRollupWriter, cluster, transactionTemplate, properties,
+                intakeProperties, Threading.VIRTUAL.isActive(environment));
+    }
+
+    MissedDoseAccrual(DrugRepository drugRepository, MissedDoseCalculator missedDoseCalculator,
+                      AdherenceRollupWriter adherenceRollupWriter, ReminderCluster cluster,
+                      TransactionTemplate transactionTemplate, AdherenceProperties properties,
+                      DoseIntakeProperties intakeProperties, boolean virtualThreads) {
+        this.drugRepository = drugRepository;
+        this.missedDoseCalculator = missedDoseCalculator;
+        this.adherenceRollupWriter = adherenceRollupWriter;
+        this.cluster = cluster;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties.missedAccrual();
+        this.intakeProperties = intakeProperties;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (accrual != null || !properties.autoStart()) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("missed-dose-accrual")
+                : Thread.ofPlatform().name("missed-dose-accrual").daemon();
+        accrual = builder.start(this::runAccrual);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (accrual != null) {
+            accrual.interrupt();
+            accrual.join(properties.interval().toMillis());
+            accrual = null;
+        }
+    }
+
+    /**
+     * Counts the slots missed since their mark by every drug due for accrual.
+     *
+     * @return number of missed slots added
+     */
+    public int accrueAll() {
+        Instant now = Instant.now();
+        Instant after = Instant.EPOCH;
+        long afterId = 0;
+        int total = 0;
+        List<MissedAccrualDue> due;
+        do {
+            due = drugRepository.findDueMissedAccruals(after, afterId, now, Limit.of(properties.batchSize()));
+            for (MissedAccrualDue drug : due) {
+                total += transactionTemplate.execute(status -> accrue(drug.getId()));
+            }
+            if (!due.isEmpty()) {
+                after = due.getLast().getMissedAccrualDueAt();
+                afterId = due.getLast().getId();
+            }
+        } while (due.size() == properties.batchSize());
+        if (total > 0) {
+            log.info("Added {} missed doses to the adherence rollups", total);
+        }
+        return total;
+    }
+
+    private int accrue(Long drugId) {
+        Drug drug = drugRepository.findById(drugId).orElse(null);
+        if (drug == null || !Boolean.TRUE.equals(drug.getActive())) {
+            drugRepository.endMissedAccrual(drugId);
+            return 0;
+        }
+        LocalDateTime until = LocalDateTime.now(drug.getTimeZone()).minus(intakeProperties.missedAfter());
+        LocalDateTime from = adherenceRollupWriter.lockMissedMark(drug.getId(), drug.getStartDate());
+        int added = 0;
+        if (from.isBefore(until)) {
+            List<LocalDateTime> missed = missedDoseCalculator.missedSlots(drug, from, until);
+            adherenceRollupWriter.recordMissed(drug.getId(), missed, until);
+            added = missed.size();
+            from = until;
+        }
+        LocalDateTime nextSlot = nextSlot(drug, from);
+        if (drug.getEndDate() != null && nextSlot.isAfter(drug.getEndDate())) {
+            drugRepository.endMissedAccrual(drugId);
+        } else {
+            drugRepository.scheduleMissedAccrual(drugId,
+                    nextSlot.atZone(drug.getTimeZone()).toInstant().plus(intakeProperties.missedAfter()));
+        }
+        return added;
+    }
+
+    /**
+     * The first slot at or after {@code mark}: the drug's next dose, or the slots that follow it
+     * when it is already behind the mark.
+     */
+    private static LocalDateTime nextSlot(Drug drug, LocalDateTime mark) {
+        Duration frequency = Duration.ofHours(drug.getFrequencyHours());
+        LocalDateTime slot = LocalDateTime.ofInstant(drug.getNextIntakeAt(), drug.getTimeZone());
+        if (slot.isBefore(mark)) {
+            long steps = Math.ceilDiv(Duration.between(slot, mark).toMinutes(), frequency.toMinutes());
+            slot = slot.plus(frequency.multipliedBy(steps));
+        }
+        return slot;
+    }
+
+    private void runAccrual() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    if (cluster.shard().leader()) {
+                        accrueAll();
+                    }
+                } catch (RuntimeException exception) {
+                    log.warn("Missed dose accrual failed, retrying in {}: {}", properties.interval(), exception.getMessage());
+                }
+                Thread.sleep(properties.interval().toMillis());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hackaton.recuerdamed.agenda.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.hackaton.recuerdamed.agenda.dto.AgendaEntry;
+import com.hackaton.recuerdamed.agenda.service.AgendaService;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.Iterator;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/medicamentos")
+@Tag(name= "Agenda", description = "Upcoming and past doses of all drugs in time order")
+public class AgendaController {
+    private final AgendaService agendaService;
+    private final ObjectMapper objectMapper;
+
+    @Operation(summary = "Get the dose agenda", description = "Stream every dose of every active drug of the patient due between two instants, earliest first, as newline-delimited JSON")
+    @GetMapping(value = "/agenda", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAgenda(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                                           @RequestParam Instant from, @RequestParam Instant to){
+        Iterator<AgendaEntry> agenda = agendaService.getAgenda(patientId, from, to);
+        StreamingResponseBody body = outputStream -> {
+            if (!agenda.hasNext()) {
+                return;
+            }
+            try (SequenceWriter writer = objectMapper.writerFor(AgendaEntry.class)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                while (agenda.hasNext()) {
+                    writer.write(agenda.next());
+                }
+            }
+            outputStream.write('\n');
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,13 @@
+package com.hackaton.recuerdamed.agenda.dto;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+public record AgendaEntry(
+        Long drugId,
+        String drugName,
+        String dosage,
+        Instant dueAt,
+        ZoneId timeZone
+) {
+}
@@ -0,0 +1,96 @@
+package com.hackaton.recuerdamed.agenda.service;
+
+import com.hackaton.recuerdamed.agenda.dto.AgendaEntry;
+import com.hackaton.recuerdamed.drug.repository.DrugSchedule;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of the dose sequences of many drugs. Each drug's doses are the points
+ * {@code nextIntakeAt + k * frequencyHours} (k may be negative) that fall inside both the requested
+ * window and the treatment window, which ends inclusively at {@code endsAt} like the reminder
+ * queries. Each drug is one cursor holding only its next dose; a heap of cursors yields the doses
+ * in time order, ties broken by drug id, so memory stays proportional to the number of drugs
+ * however long the window is.
+ */
+final class AgendaMerger implements Iterator<AgendaEntry> {
+    private final PriorityQueue<Cursor> cursors;
+
+    AgendaMerger(Collection<DrugSchedule> schedules, Instant from, Instant to) {
+        List<Cursor> initial = new ArrayList<>(schedules.size());
+        for (DrugSchedule schedule : schedules) {
+            Cursor cursor = Cursor.open(schedule, from.toEpochMilli(), to.toEpochMilli());
+            if (cursor != null) {
+                initial.add(cursor);
+            }
+        }
+        this.cursors = new PriorityQueue<>(initial);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !cursors.isEmpty();
+    }
+
+    @Override
+    public AgendaEntry next() {
+        Cursor cursor = cursors.poll();
+        if (cursor == null) {
+            throw new NoSuchElementException();
+        }
+        AgendaEntry entry = new AgendaEntry(cursor.drugId, cursor.drugName, cursor.dosage,
+                Instant.ofEpochMilli(cursor.nextMillis), cursor.timeZone);
+        cursor.nextMillis += cursor.stepMillis;
+        if (cursor.nextMillis < cursor.endMillis) {
+            cursors.add(cursor);
+        }
+        return entry;
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private final long drugId;
+        private final String drugName;
+        private final String dosage;
+        private final ZoneId timeZone;
+        private final long stepMillis;
+        private final long endMillis;
+        private long nextMillis;
+
+        private Cursor(DrugSchedule schedule, long stepMillis, long firstMillis, long endMillis) {
+            this.drugId = schedule.getId();
+            this.drugName = schedule.getDrugName();
+            this.dosage = schedule.getDosage();
+            this.timeZone = schedule.getTimeZone();
+            this.stepMillis = stepMillis;
+            this.nextMillis = firstMillis;
+            this.endMillis = endMillis;
+        }
+
+        /**
+         * @return the cursor positioned on the first dose in the window, or {@code null} if there is none
+         */
+        private static Cursor open(DrugSchedule schedule, long fromMillis, long toMillis) {
+            long stepMillis = schedule.getFrequencyHours() * 3_600_000L;
+            long startMillis = Math.max(fromMillis, schedule.getStartsAt().toEpochMilli());
+            long endMillis = schedule.getEndsAt() != null
+                    ? Math.min(toMillis, schedule.getEndsAt().toEpochMilli() + 1)
+                    : toMillis;
+            long anchorMillis = schedule.getNextIntakeAt().toEpochMilli();
+            long firstMillis = anchorMillis + Math.ceilDiv(startMillis - anchorMillis, stepMillis) * stepMillis;
+            return firstMillis < endMillis ? new Cursor(schedule, stepMillis, firstMillis, endMillis) : null;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int byTime = Long.compare(nextMillis, other.nextMillis);
+            return byTime != 0 ? byTime : Long.compare(drugId, other.drugId);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hackaton.recuerdamed.agenda.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "agenda")
+public record AgendaProperties(
+        @DefaultValue("31d") Duration maxRange
+) {
+}
@@ -0,0 +1,15 @@
+package com.hackaton.recuerdamed.agenda.service;
+
+import com.hackaton.recuerdamed.agenda.dto.AgendaEntry;
+
+import java.time.Instant;
+import java.util.Iterator;
+
+public interface AgendaService {
+    /**
+     * Returns every dose of every active drug of the patient due in {@code [from, to)}, earliest first. The range
+     * is validated and the drugs are read before this method returns; the doses themselves are
+     * only worked out as the iterator is consumed.
+     */
+    Iterator<AgendaEntry> getAgenda(Long patientId, Instant from, Instant to);
+}
@@ -0,0 +1,31 @@
+package com.hackaton.recuerdamed.agenda.service;
+
+import com.hackaton.recuerdamed.agenda.dto.AgendaEntry;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.shared.custom_exception.InvalidDateRangeException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+
+@Service
+@RequiredArgsConstructor
+public class AgendaServiceImpl implements AgendaService {
+    private final DrugRepository drugRepository;
+    private final AgendaProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Iterator<AgendaEntry> getAgenda(Long patientId, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidDateRangeException("'from' must be before 'to'");
+        }
+        if (Duration.between(from, to).compareTo(properties.maxRange()) > 0) {
+            throw new InvalidDateRangeException("Date range cannot be longer than " + properties.maxRange().toDays() + " days");
+        }
+        return new AgendaMerger(drugRepository.findActiveSchedules(patientId, from, to), from, to);
+    }
+}
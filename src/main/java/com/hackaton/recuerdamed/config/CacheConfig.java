@@ -0,0 +1,112 @@
+package com.hackaton.recuerdamed.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.SharedCacheMode;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * One Caffeine cache per drug read endpoint, each with its own size and TTL. A disabled endpoint
+     * gets a no-op cache so its annotations stay in place. Evictions run after the surrounding
+     * transaction commits, so the first read after a write always loads the committed data, and a
+     * read that raced with the write never puts the old value back (see {@link GuardedCaffeineCache}).
+     */
+    @Bean
+    public CacheManager cacheManager(DrugCacheProperties properties) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                buildCache(DrugCacheNames.BY_ID, properties.byId()),
+                buildCache(DrugCacheNames.LIST, properties.list()),
+                buildCache(DrugCacheNames.PAGES, properties.pages())
+        ));
+        return cacheManager;
+    }
+
+    private Cache buildCache(String name, DrugCacheProperties.Spec spec) {
+        if (!spec.enabled()) {
+            return new NoOpCache(name);
+        }
+        return new TransactionAwareCacheDecorator(new GuardedCaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(spec.maximumSize())
+                .expireAfterWrite(spec.expireAfterWrite())
+                .recordStats()
+                .build()));
+    }
+
+    /**
+     * The JCache regions behind Hibernate's second-level cache: the {@code Drug} entities and the
+     * results of the cacheable drug queries, sized from {@code drug-cache.entities} and
+     * {@code drug-cache.queries}. Each context gets a manager of its own, so contexts sharing a JVM
+     * never share regions. The update timestamps never expire: losing one would let a cached query
+     * result outlive a write to its table.
+     */
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager hibernateCacheManager(DrugCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(
+                URI.create("recuerdamed:hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(DrugCacheNames.ENTITIES, buildRegion(properties.entities()));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, buildRegion(properties.queries()));
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    /**
+     * Turns the second-level cache on for the entities marked {@code @Cacheable} and the query cache
+     * for the queries hinted as cacheable. Hibernate's statistics report hits, misses and puts per
+     * region as {@code hibernate.second.level.cache.*} and {@code hibernate.query.cache.*}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(DrugCacheProperties properties,
+                                                                    javax.cache.CacheManager hibernateCacheManager) {
+        boolean entities = properties.entities().enabled();
+        boolean queries = properties.queries().enabled();
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, entities || queries);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, queries);
+            hibernateProperties.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE,
+                    entities ? SharedCacheMode.ENABLE_SELECTIVE : SharedCacheMode.NONE);
+            if (entities || queries) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+                hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            }
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> buildRegion(DrugCacheProperties.Spec spec) {
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        region.setMaximumSize(OptionalLong.of(spec.maximumSize()));
+        region.setExpireAfterWrite(OptionalLong.of(spec.expireAfterWrite().toNanos()));
+        region.setStoreByValue(false);
+        region.setStatisticsEnabled(true);
+        return region;
+    }
+}
@@ -0,0 +1,105 @@
+package com.hackaton.recuerdamed.config;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Evicts the cached drug reads of one patient after a write, leaving every other patient's entries
+ * in place. The list entries have fixed keys per patient; the pages are keyed by patient, limit and
+ * cursor, so they are found by their {@code <patientId>:} prefix. Like the keyed evictions, the
+ * prefix eviction waits for the surrounding transaction to commit.
+ * <p>
+ * {@link #evictEntities} does the same for the Hibernate second-level cache around a native update
+ * of some drug rows, which Hibernate would otherwise answer by emptying the whole entity region.
+ */
+@Component
+@RequiredArgsConstructor
+public class DrugCacheEvictor {
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
+
+    public void evictDrugs(Long patientId, Collection<Long> ids) {
+        Cache byId = cacheManager.getCache(DrugCacheNames.BY_ID);
+        for (Long id : ids) {
+            byId.evict(patientId + ":" + id);
+        }
+        evictPatient(patientId);
+    }
+
+    public void evictPatient(Long patientId) {
+        Cache list = cacheManager.getCache(DrugCacheNames.LIST);
+        list.evict("all:" + patientId);
+        list.evict("stamp:" + patientId);
+
+        Cache pages = cacheManager.getCache(DrugCacheNames.PAGES);
+        if (pages instanceof TransactionAwareCacheDecorator decorator) {
+            pages = decorator.getTargetCache();
+        }
+        if (pages instanceof GuardedCaffeineCache guarded) {
+            String prefix = patientId + ":";
+            afterCommit(() -> guarded.evictIf(key -> key.toString().startsWith(prefix)));
+        }
+    }
+
+    /**
+     * Releases the entity entries of {@code ids} and the cached drug queries the way Hibernate does
+     * for a managed update: the entries are soft-locked now, so no transaction caches the old row
+     * meanwhile, and unlocked with the query spaces invalidated once the transaction completes. Call
+     * it inside the transaction, before the update.
+     */
+    public void evictEntities(Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor sessionFactory = session.getFactory();
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Drug.class);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        String[] spaces = persister.getPropertySpaces();
+        TimestampsCache timestamps = sessionFactory.getCache().getTimestampsCache();
+
+        Map<Object, SoftLock> locks = new HashMap<>();
+        if (cacheAccess != null) {
+            for (Long id : ids) {
+                Object key = cacheAccess.generateCacheKey(id, persister, sessionFactory, null);
+                locks.put(key, cacheAccess.lockItem(session, key, null));
+            }
+        }
+        if (timestamps != null) {
+            timestamps.preInvalidate(spaces, session);
+        }
+        session.getActionQueue().registerProcess((success, completed) -> {
+            locks.forEach((key, lock) -> cacheAccess.unlockItem(completed, key, lock));
+            if (timestamps != null) {
+                timestamps.invalidate(spaces, completed);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.config;
+
+public final class DrugCacheNames {
+    public static final String BY_ID = "drugById";
+    public static final String LIST = "drugList";
+    public static final String PAGES = "drugPages";
+    public static final String ENTITIES = "drugEntities";
+
+    private DrugCacheNames() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.hackaton.recuerdamed.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "drug-cache")
+public record DrugCacheProperties(
+        @DefaultValue Spec byId,
+        @DefaultValue Spec list,
+        @DefaultValue Spec pages,
+        @DefaultValue Spec entities,
+        @DefaultValue Spec queries
+) {
+    public record Spec(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("5m") Duration expireAfterWrite
+    ) {
+    }
+}
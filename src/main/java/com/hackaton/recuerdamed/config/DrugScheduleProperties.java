@@ -0,0 +1,15 @@
+package com.hackaton.recuerdamed.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.ZoneId;
+
+/**
+ * {@code defaultTimeZone} is used for drugs created or updated without an explicit {@code timeZone}.
+ */
+@ConfigurationProperties(prefix = "drug-schedule")
+public record DrugScheduleProperties(
+        @DefaultValue("Europe/Madrid") ZoneId defaultTimeZone
+) {
+}
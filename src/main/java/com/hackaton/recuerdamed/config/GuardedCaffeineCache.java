@@ -0,0 +1,98 @@
+package com.hackaton.recuerdamed.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Caffeine cache that never keeps a value loaded before a concurrent eviction. A read-through
+ * {@code @Cacheable} looks the key up, loads it from the database and then puts it; if a writer
+ * commits and evicts in between, the put would store the value the writer just replaced. Every
+ * eviction bumps a counter, a miss remembers the counter it saw, and the following put is dropped,
+ * or undone right after, when the counter has moved. A put that loses this race only costs one
+ * more miss.
+ */
+class GuardedCaffeineCache extends CaffeineCache {
+    private final AtomicLong evictions = new AtomicLong();
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+
+    GuardedCaffeineCache(String name, Cache<Object, Object> cache) {
+        super(name, cache);
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        long seen = evictions.get();
+        ValueWrapper value = super.get(key);
+        if (value == null) {
+            lastMiss.set(new Miss(key, seen));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long seen = evictions.get();
+        T value = super.get(key, valueLoader);
+        if (evictions.get() != seen) {
+            getNativeCache().invalidate(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Miss miss = lastMiss.get();
+        lastMiss.remove();
+        if (miss == null || !miss.key().equals(key)) {
+            super.put(key, value);
+            return;
+        }
+        if (evictions.get() != miss.evictions()) {
+            return;
+        }
+        super.put(key, value);
+        if (evictions.get() != miss.evictions()) {
+            getNativeCache().invalidate(key);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.incrementAndGet();
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evictions.incrementAndGet();
+        return super.evictIfPresent(key);
+    }
+
+    /**
+     * Evicts every key that matches {@code filter}. Walks the whole cache, so it is meant for
+     * caches where one write invalidates a group of keys that cannot be listed up front.
+     */
+    void evictIf(Predicate<Object> filter) {
+        evictions.incrementAndGet();
+        getNativeCache().asMap().keySet().removeIf(filter);
+    }
+
+    @Override
+    public void clear() {
+        evictions.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        evictions.incrementAndGet();
+        return super.invalidate();
+    }
+
+    private record Miss(Object key, long evictions) {
+    }
+}
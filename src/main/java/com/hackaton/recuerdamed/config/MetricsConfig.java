@@ -0,0 +1,134 @@
+package com.hackaton.recuerdamed.config;
+
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.outbox.relay.OutboxRelay;
+import com.hackaton.recuerdamed.outbox.relay.OutboxRelayStats;
+import com.hackaton.recuerdamed.outbox.repository.OutboxEventRepository;
+import com.hackaton.recuerdamed.reminder.cluster.ReminderCluster;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderDispatchStats;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderDispatcher;
+import com.hackaton.recuerdamed.shared.persistence.QueryMetricsStatisticsFactory;
+import com.hackaton.recuerdamed.stream.dto.DrugStreamStats;
+import com.hackaton.recuerdamed.stream.service.DrugStreamHub;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.StatisticsSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Meters read from state other components already keep, plus per-query Hibernate timers.
+ * {@code DrugService} timers come from {@code @Timed} on the implementation; the reminder wheel
+ * registers its own meters.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryMetricsCustomizer(ObjectProvider<MeterRegistry> meterRegistry) {
+        return properties -> properties.put(StatisticsSettings.STATS_BUILDER, new QueryMetricsStatisticsFactory(meterRegistry));
+    }
+
+    /**
+     * Number of active drugs, counted by the database on every scrape.
+     */
+    @Bean
+    public MeterBinder drugMetrics(DrugRepository drugRepository) {
+        return registry -> Gauge.builder("drugs.active", drugRepository, DrugRepository::countByActiveTrue)
+                .description("Active drugs")
+                .register(registry);
+    }
+
+    /**
+     * The dispatcher's own counters, as {@code reminder.dispatch} tagged by outcome, plus its queue depth.
+     */
+    @Bean
+    public MeterBinder reminderDispatchMetrics(ReminderDispatcher dispatcher) {
+        return registry -> {
+            registerOutcome(registry, dispatcher, "submitted", ReminderDispatchStats::submitted);
+            registerOutcome(registry, dispatcher, "delivered", ReminderDispatchStats::delivered);
+            registerOutcome(registry, dispatcher, "failed", ReminderDispatchStats::failed);
+            registerOutcome(registry, dispatcher, "retried", ReminderDispatchStats::retried);
+            registerOutcome(registry, dispatcher, "rejected", ReminderDispatchStats::rejected);
+            Gauge.builder("reminder.dispatch.queued", dispatcher, d -> d.stats().queued())
+                    .description("Reminders waiting in the dispatch queue")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Live members of the reminder cluster as this instance last saw them, and whether it leads.
+     */
+    @Bean
+    public MeterBinder reminderClusterMetrics(ReminderCluster cluster) {
+        return registry -> {
+            Gauge.builder("reminder.cluster.members", cluster, ReminderCluster::members)
+                    .description("Live instances sharing the reminders")
+                    .register(registry);
+            Gauge.builder("reminder.cluster.leader", cluster, c -> c.shard().leader() ? 1 : 0)
+                    .description("Whether this instance leads the reminder cluster")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * The outbox relay's counters, as {@code outbox.relay} tagged by outcome, plus the number of
+     * events not delivered yet, counted by the database on every scrape.
+     */
+    @Bean
+    public MeterBinder outboxMetrics(OutboxRelay relay, OutboxEventRepository outboxEventRepository) {
+        return registry -> {
+            registerOutboxOutcome(registry, relay, "published", OutboxRelayStats::published);
+            registerOutboxOutcome(registry, relay, "retried", OutboxRelayStats::retried);
+            registerOutboxOutcome(registry, relay, "compacted", OutboxRelayStats::compacted);
+            Gauge.builder("outbox.pending", outboxEventRepository, OutboxEventRepository::countByDeliveredAtIsNull)
+                    .description("Outbox events not delivered yet")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Open live streams, and the events offered to them as {@code stream.events} tagged by outcome.
+     */
+    @Bean
+    public MeterBinder streamMetrics(DrugStreamHub streamHub) {
+        return registry -> {
+            Gauge.builder("stream.subscribers", streamHub, hub -> hub.stats().subscribers())
+                    .description("Open live streams")
+                    .register(registry);
+            registerStreamOutcome(registry, streamHub, "published", DrugStreamStats::published);
+            registerStreamOutcome(registry, streamHub, "dropped", DrugStreamStats::dropped);
+            registerStreamOutcome(registry, streamHub, "rejected", DrugStreamStats::rejected);
+        };
+    }
+
+    private static void registerOutcome(MeterRegistry registry, ReminderDispatcher dispatcher,
+                                        String outcome, ToLongFunction<ReminderDispatchStats> count) {
+        FunctionCounter.builder("reminder.dispatch", dispatcher, d -> count.applyAsLong(d.stats()))
+                .description("Reminders by dispatch outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static void registerOutboxOutcome(MeterRegistry registry, OutboxRelay relay,
+                                              String outcome, ToLongFunction<OutboxRelayStats> count) {
+        FunctionCounter.builder("outbox.relay", relay, r -> count.applyAsLong(r.stats()))
+                .description("Outbox events by relay outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static void registerStreamOutcome(MeterRegistry registry, DrugStreamHub streamHub,
+                                              String outcome, ToLongFunction<DrugStreamStats> count) {
+        FunctionCounter.builder("stream.events", streamHub, hub -> count.applyAsLong(hub.stats()))
+                .description("Live stream events and subscribers by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.hackaton.recuerdamed.config;
+
+import com.hackaton.recuerdamed.shared.concurrency.PermitLimitedDataSource;
+import com.hackaton.recuerdamed.shared.concurrency.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Active only with {@code spring.threads.virtual.enabled=true}, where Spring Boot already runs
+ * Tomcat requests and the task executors on virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    /**
+     * Caps concurrent JDBC work at the pool size. Virtual threads are cheap enough that thousands
+     * of requests can reach the pool at once; without the cap they all queue inside Hikari and fail
+     * together on its connection timeout instead of waiting their turn in a fair queue.
+     */
+    @Bean
+    static BeanPostProcessor jdbcPermitLimiter(ObjectProvider<VirtualThreadProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                VirtualThreadProperties settings = properties.getObject();
+                int permits = settings.jdbcPermits() != null
+                        ? settings.jdbcPermits()
+                        : hikari.getMaximumPoolSize();
+                Duration timeout = settings.acquireTimeout() != null
+                        ? settings.acquireTimeout()
+                        : Duration.ofMillis(hikari.getConnectionTimeout());
+                return new PermitLimitedDataSource(hikari, permits, timeout);
+            }
+        };
+    }
+
+    @Bean(initMethod = "start")
+    @ConditionalOnProperty(prefix = "virtual-threads.pinning", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties properties) {
+        return new VirtualThreadPinningMonitor(properties.pinning().threshold());
+    }
+}
@@ -0,0 +1,23 @@
+package com.hackaton.recuerdamed.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings applied when {@code spring.threads.virtual.enabled=true}. When {@code jdbcPermits} or
+ * {@code acquireTimeout} are not set, the Hikari maximum pool size and connection timeout are used.
+ */
+@ConfigurationProperties(prefix = "virtual-threads")
+public record VirtualThreadProperties(
+        Integer jdbcPermits,
+        Duration acquireTimeout,
+        @DefaultValue Pinning pinning
+) {
+    public record Pinning(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("20ms") Duration threshold
+    ) {
+    }
+}
@@ -1,77 +1,157 @@
 package com.hackaton.recuerdamed.drug.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hackaton.recuerdamed.drug.dto.BatchResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp;
+import com.hackaton.recuerdamed.drug.dto.DrugPageResponse;
 import com.hackaton.recuerdamed.drug.dto.DrugRequest;
 import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.dto.NextIntakeResponse;
+import com.hackaton.recuerdamed.drug.service.DrugBulkService;
 import com.hackaton.recuerdamed.drug.service.DrugService;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/medicamentos")
 @Slf4j
 @Tag(name= "Drugs", description = "Operations related to drugs and drugs intake management")
 public class DrugController {
     private final DrugService drugService;
+    private final DrugBulkService drugBulkService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Get all drugs", description = "Return a list of all active drugs ordered by next intake time")
     @GetMapping
-    public ResponseEntity<List<DrugResponse>> getAllDrugs(){
-        List<DrugResponse> drugs = drugService.getAllDrugs();
-        return ResponseEntity.ok(drugs);
+    public ResponseEntity<List<DrugResponse>> getAllDrugs(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, WebRequest request){
+        DrugCollectionStamp stamp = drugService.getAllDrugsStamp(patientId);
+        String eTag = DrugETags.of(patientId, stamp);
+        long lastModified = DrugETags.lastModified(stamp.lastUpdate());
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+        List<DrugResponse> drugs = drugService.getAllDrugs(patientId);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .varyBy(PatientHeaders.PATIENT_ID)
+                .body(drugs);
+    }
+
+    @Operation(summary = "Get a page of drugs", description = "Return a page of active drugs ordered by next intake time; pass the returned cursor to get the next page")
+    @GetMapping(params = "limit")
+    public ResponseEntity<DrugPageResponse> getDrugPage(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam @Min(1) @Max(500) int limit){
+        DrugPageResponse page = drugService.getDrugPage(patientId, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Stream all drugs", description = "Stream all active drugs ordered by next intake time as newline-delimited JSON")
+    @GetMapping(params = "format=ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDrugs(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId){
+        ObjectWriter writer = objectMapper.writerFor(DrugResponse.class);
+        StreamingResponseBody body = outputStream -> drugService.streamAllDrugs(patientId, drug -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(drug));
+                outputStream.write('\n');
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @Operation(summary = "Get drug by ID", description = "Return details of a specific drug selected by ID")
     @GetMapping("/{id}")
-    public ResponseEntity<DrugResponse> getDrugById(@PathVariable Long id){
-        DrugResponse drug = drugService.getDrugById(id);
-        return ResponseEntity.ok(drug);
+    public ResponseEntity<DrugResponse> getDrugById(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @PathVariable Long id){
+        DrugResponse drug = drugService.getDrugById(patientId, id);
+        return ResponseEntity.ok()
+                .eTag(DrugETags.of(drug))
+                .lastModified(DrugETags.lastModified(drug.updateDate()))
+                .varyBy(PatientHeaders.PATIENT_ID)
+                .body(drug);
     }
 
     @Operation(summary = "Create new drug", description = "Create a new drug with all required information in the system")
     @PostMapping
-    public ResponseEntity<DrugResponse> createDrug(@Valid @RequestBody DrugRequest request){
-        DrugResponse drug = drugService.createDrug(request);
+    public ResponseEntity<DrugResponse> createDrug(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @Valid @RequestBody DrugRequest request){
+        DrugResponse drug = drugService.createDrug(patientId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(drug);
     }
 
+    @Operation(summary = "Create drugs in bulk", description = "Create many drugs from a JSON array or a newline-delimited JSON stream, reporting validation errors per item")
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchResponse> createDrugs(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, InputStream body) throws IOException {
+        try (MappingIterator<DrugRequest> requests = objectMapper.readerFor(DrugRequest.class).readValues(body)) {
+            BatchResponse result = drugBulkService.createDrugs(patientId, requests);
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        }
+    }
+
     @Operation(summary = "Update drug by ID", description = "Actualise information of an existing drug")
     @PutMapping("/{id}")
-    public ResponseEntity<DrugResponse> updateDrug(@PathVariable Long id, @Valid @RequestBody DrugRequest request) {
-        DrugResponse drug = drugService.updateDrug(id, request);
+    public ResponseEntity<DrugResponse> updateDrug(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @PathVariable Long id,
+                                                   @Valid @RequestBody DrugRequest request) {
+        DrugResponse drug = drugService.updateDrug(patientId, id, request);
         return ResponseEntity.status(HttpStatus.OK).body(drug);
     }
 
     @Operation(summary = "Delete drug by ID", description = "Mark a specific drug selected by ID as inactive (soft delete)")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteDrug(@PathVariable Long id){
-        drugService.deleteDrug(id);
+    public ResponseEntity<Void> deleteDrug(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @PathVariable Long id){
+        drugService.deleteDrug(patientId, id);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(summary = "Mark a drug as taken", description = "Actualise the next intake of the drug according to its frequency")
     @PutMapping("/{id}/tomado")
-    public ResponseEntity<Void> markAsTaken(@PathVariable Long id) {
-        drugService.markAsTaken(id);
-        return ResponseEntity.status(HttpStatus.OK).build();
+    public ResponseEntity<NextIntakeResponse> markAsTaken(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @PathVariable Long id) {
+        NextIntakeResponse nextIntake = drugService.markAsTaken(patientId, id);
+        return ResponseEntity.status(HttpStatus.OK).body(nextIntake);
+    }
+
+    @Operation(summary = "Mark drugs as taken in bulk", description = "Actualise the next intake of every listed drug according to its frequency, reporting unknown IDs per item")
+    @PutMapping("/tomado")
+    public ResponseEntity<BatchResponse> markAsTaken(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                                     @RequestBody @NotEmpty @Size(max = 10000) List<Long> ids) {
+        BatchResponse result = drugBulkService.markAsTaken(patientId, ids);
+        return ResponseEntity.status(HttpStatus.OK).body(result);
     }
 
-    @Operation(summary = "Search a drug by name", description = "Search drugs that contain a specific text within the name (case-insensitive)")
+    @Operation(summary = "Search a drug by name", description = "Search drugs by name (and description), ignoring case and accents and tolerating typos; best matches first")
     @GetMapping("/buscar")
-    public ResponseEntity<List<DrugResponse>> searchByName(String drugName) {
-        List<DrugResponse> drugs = drugService.searchByName(drugName);
+    public ResponseEntity<List<DrugResponse>> searchByName(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, String drugName,
+                                                           @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        List<DrugResponse> drugs = drugService.searchByName(patientId, drugName, limit);
         return ResponseEntity.status(HttpStatus.OK).body(drugs);
     }
 
-    @Operation(summary = "Process reminders", description = "Process drugs intake reminders scheduled for the current time")
+    @Operation(summary = "Process reminders", description = "Process drugs intake reminders of every patient scheduled for the current time")
     @PostMapping("/recordatorios")
     public ResponseEntity<Void> processReminders() {
         drugService.processReminders();
@@ -0,0 +1,34 @@
+package com.hackaton.recuerdamed.drug.controller;
+
+import com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+final class DrugETags {
+
+    private DrugETags() {
+    }
+
+    static String of(DrugResponse drug) {
+        return "\"" + drug.id() + "-" + stamp(drug.updateDate()) + "\"";
+    }
+
+    static String of(Long patientId, DrugCollectionStamp collection) {
+        return "\"all-" + patientId + "-" + collection.activeCount() + "-" + stamp(collection.lastUpdate()) + "\"";
+    }
+
+    static long lastModified(LocalDateTime updateDate) {
+        return updateDate == null ? -1 : updateDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String stamp(LocalDateTime updateDate) {
+        if (updateDate == null) {
+            return "0";
+        }
+        long seconds = updateDate.toEpochSecond(ZoneOffset.UTC);
+        return Long.toHexString(seconds) + "." + Integer.toHexString(updateDate.getNano());
+    }
+}
@@ -0,0 +1,156 @@
+package com.hackaton.recuerdamed.drug.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.recuerdamed.drug.dto.BatchResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugPageResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.dto.NextIntakeResponse;
+import com.hackaton.recuerdamed.drug.service.DrugBulkService;
+import com.hackaton.recuerdamed.drug.service.ReactiveDrugService;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@link DrugController} on WebFlux, serving the same contract without holding a thread per
+ * request. The listings are written as the rows arrive, with backpressure down to the database.
+ * The bulk endpoints reuse the JPA {@link DrugBulkService} on the bounded elastic scheduler.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/medicamentos")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name= "Drugs", description = "Operations related to drugs and drugs intake management")
+public class ReactiveDrugController {
+    private static final int BATCH_BODY_DEMAND = 16;
+
+    private final ReactiveDrugService drugService;
+    private final DrugBulkService drugBulkService;
+    private final ObjectMapper objectMapper;
+
+    @Operation(summary = "Get all drugs", description = "Return a list of all active drugs ordered by next intake time")
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DrugResponse>>> getAllDrugs(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                                                ServerWebExchange exchange){
+        return drugService.getAllDrugsStamp(patientId).map(stamp -> {
+            String eTag = DrugETags.of(patientId, stamp);
+            long lastModified = DrugETags.lastModified(stamp.lastUpdate());
+            if (exchange.checkNotModified(eTag, Instant.ofEpochMilli(lastModified))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Flux<DrugResponse>>build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .varyBy(PatientHeaders.PATIENT_ID)
+                    .body(drugService.getAllDrugs(patientId));
+        });
+    }
+
+    @Operation(summary = "Get a page of drugs", description = "Return a page of active drugs ordered by next intake time; pass the returned cursor to get the next page")
+    @GetMapping(params = "limit")
+    public Mono<DrugPageResponse> getDrugPage(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam @Min(1) @Max(500) int limit){
+        return drugService.getDrugPage(patientId, cursor, limit);
+    }
+
+    @Operation(summary = "Stream all drugs", description = "Stream all active drugs ordered by next intake time as newline-delimited JSON")
+    @GetMapping(params = "format=ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DrugResponse> streamAllDrugs(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId){
+        return drugService.getAllDrugs(patientId);
+    }
+
+    @Operation(summary = "Get drug by ID", description = "Return details of a specific drug selected by ID")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<DrugResponse>> getDrugById(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @PathVariable Long id){
+        return drugService.getDrugById(patientId, id)
+                .map(drug -> ResponseEntity.ok()
+                        .eTag(DrugETags.of(drug))
+                        .lastModified(DrugETags.lastModified(drug.updateDate()))
+                        .varyBy(PatientHeaders.PATIENT_ID)
+                        .body(drug));
+    }
+
+    @Operation(summary = "Create new drug", description = "Create a new drug with all required information in the system")
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<DrugResponse> createDrug(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @Valid @RequestBody DrugRequest request){
+        return drugService.createDrug(patientId, request);
+    }
+
+    @Operation(summary = "Create drugs in bulk", description = "Create many drugs from a JSON array or a newline-delimited JSON stream, reporting validation errors per item")
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<BatchResponse> createDrugs(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, ServerHttpRequest request) {
+        return Mono.fromCallable(() -> {
+            try (InputStream body = DataBufferUtils.subscriberInputStream(request.getBody(), BATCH_BODY_DEMAND);
+                 MappingIterator<DrugRequest> requests = objectMapper.readerFor(DrugRequest.class).readValues(body)) {
+                return drugBulkService.createDrugs(patientId, requests);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Operation(summary = "Update drug by ID", description = "Actualise information of an existing drug")
+    @PutMapping("/{id}")
+    public Mono<DrugResponse> updateDrug(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @PathVariable Long id,
+                                         @Valid @RequestBody DrugRequest request) {
+        return drugService.updateDrug(patientId, id, request);
+    }
+
+    @Operation(summary = "Delete drug by ID", description = "Mark a specific drug selected by ID as inactive (soft delete)")
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteDrug(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @PathVariable Long id){
+        return drugService.deleteDrug(patientId, id);
+    }
+
+    @Operation(summary = "Mark a drug as taken", description = "Actualise the next intake of the drug according to its frequency")
+    @PutMapping("/{id}/tomado")
+    public Mono<NextIntakeResponse> markAsTaken(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId, @PathVariable Long id) {
+        return drugService.markAsTaken(patientId, id);
+    }
+
+    @Operation(summary = "Mark drugs as taken in bulk", description = "Actualise the next intake of every listed drug according to its frequency, reporting unknown IDs per item")
+    @PutMapping("/tomado")
+    public Mono<BatchResponse> markAsTaken(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                           @RequestBody @NotEmpty @Size(max = 10000) List<Long> ids) {
+        return Mono.fromCallable(() -> drugBulkService.markAsTaken(patientId, ids))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Operation(summary = "Search a drug by name", description = "Search drugs by name (and description), ignoring case and accents and tolerating typos; best matches first")
+    @GetMapping("/buscar")
+    public Flux<DrugResponse> searchByName(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                           @RequestParam(required = false) String drugName,
+                                           @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return drugService.searchByName(patientId, drugName, limit);
+    }
+
+    @Operation(summary = "Process reminders", description = "Process drugs intake reminders of every patient scheduled for the current time")
+    @PostMapping("/recordatorios")
+    public Mono<Void> processReminders() {
+        return drugService.processReminders().then();
+    }
+}
@@ -0,0 +1,10 @@
+package com.hackaton.recuerdamed.drug.dto;
+
+import java.util.List;
+
+public record BatchItemError(
+        int index,
+        Long id,
+        List<String> messages
+) {
+}
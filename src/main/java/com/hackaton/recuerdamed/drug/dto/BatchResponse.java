@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.drug.dto;
+
+import java.util.List;
+
+public record BatchResponse(
+        int processed,
+        int succeeded,
+        int failed,
+        List<BatchItemError> errors
+) {
+}
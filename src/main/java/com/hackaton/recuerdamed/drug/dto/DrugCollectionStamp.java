@@ -0,0 +1,13 @@
+package com.hackaton.recuerdamed.drug.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of the active drug collection used for conditional requests: the number of active
+ * drugs and the latest update of any drug, including soft-deleted ones.
+ */
+public record DrugCollectionStamp(
+        Long activeCount,
+        LocalDateTime lastUpdate
+) {
+}
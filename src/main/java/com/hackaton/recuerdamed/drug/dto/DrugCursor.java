@@ -0,0 +1,38 @@
+package com.hackaton.recuerdamed.drug.dto;
+
+import com.hackaton.recuerdamed.shared.custom_exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the active drug listing, ordered by {@code (nextIntakeAt, id)}.
+ * Clients only see it as an opaque URL-safe token.
+ */
+public record DrugCursor(Instant nextIntakeAt, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public static DrugCursor of(DrugResponse drug) {
+        return new DrugCursor(drug.nextIntakeAt(), drug.id());
+    }
+
+    public static DrugCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            return new DrugCursor(Instant.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = nextIntakeAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,26 +1,35 @@
 package com.hackaton.recuerdamed.drug.dto;
 
+import com.hackaton.recuerdamed.config.DrugScheduleProperties;
 import com.hackaton.recuerdamed.drug.entity.Drug;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Component
+@RequiredArgsConstructor
 public class DrugMapper {
+    private final DrugScheduleProperties scheduleProperties;
 
-    public Drug toEntity(DrugRequest request) {
+    public Drug toEntity(Long patientId, DrugRequest request) {
+        ZoneId timeZone = timeZone(request);
+        LocalDateTime now = LocalDateTime.now();
         return Drug.builder()
+                .patientId(patientId)
                 .drugName(request.drugName().trim())
                 .description(request.description())
                 .dosage(request.dosage().trim())
                 .frequencyHours(request.frequencyHours())
-                .nextIntakeTime(request.nextIntakeTime())
+                .nextIntakeAt(request.nextIntakeAt().atZone(timeZone).toInstant())
+                .timeZone(timeZone)
                 .startDate(request.startDate())
                 .endDate(request.endDate())
                 .active(true)
                 .activeReminder(request.activeReminder())
-                .creationDate(LocalDateTime.now())
-                .updateDate(LocalDateTime.now())
+                .creationDate(now)
+                .updateDate(now)
                 .build();
     }
 
@@ -31,7 +40,8 @@ public class DrugMapper {
                 drug.getDescription(),
                 drug.getDosage(),
                 drug.getFrequencyHours(),
-                drug.getNextIntakeTime(),
+                drug.getNextIntakeAt(),
+                drug.getTimeZone(),
                 drug.getStartDate(),
                 drug.getEndDate(),
                 drug.getActive(),
@@ -42,13 +52,19 @@ public class DrugMapper {
     }
 
     public void updateEntityFromRequest(Drug drug, DrugRequest request) {
+        ZoneId timeZone = timeZone(request);
         drug.setDrugName(request.drugName().trim());
         drug.setDosage(request.dosage().trim());
         drug.setDescription(request.description() != null ? request.description().trim() : null);
         drug.setFrequencyHours(request.frequencyHours());
-        drug.setNextIntakeTime(request.nextIntakeTime());
+        drug.setNextIntakeAt(request.nextIntakeAt().atZone(timeZone).toInstant());
+        drug.setTimeZone(timeZone);
         drug.setStartDate(request.startDate());
         drug.setEndDate(request.endDate());
         drug.setActiveReminder(request.activeReminder() != null ? request.activeReminder() : true);
     }
+
+    private ZoneId timeZone(DrugRequest request) {
+        return request.timeZone() != null ? request.timeZone() : scheduleProperties.defaultTimeZone();
+    }
 }
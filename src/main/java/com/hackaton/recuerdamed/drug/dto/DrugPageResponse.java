@@ -0,0 +1,9 @@
+package com.hackaton.recuerdamed.drug.dto;
+
+import java.util.List;
+
+public record DrugPageResponse(
+        List<DrugResponse> items,
+        String nextCursor
+) {
+}
@@ -4,7 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
 
 public record DrugRequest(
 
@@ -26,9 +26,12 @@ public record DrugRequest(
         @Max(value = 24, message = "The frequency must be at most 24 hours")
         Integer frequencyHours,
 
-        @Schema(description = "Next intake time", example = "08:00:00", requiredMode = Schema.RequiredMode.REQUIRED, type = "string", format = "time")
+        @Schema(description = "Date and time of the next intake, in the drug's time zone", example = "2025-01-01T08:00:00", requiredMode = Schema.RequiredMode.REQUIRED, type = "string", format = "date-time")
         @NotNull(message = "The next dose time is required")
-        LocalTime nextIntakeTime,
+        LocalDateTime nextIntakeAt,
+
+        @Schema(description = "IANA time zone of the patient; all local dates and times of the drug are read in it", example = "Europe/Madrid", requiredMode = Schema.RequiredMode.NOT_REQUIRED, type = "string")
+        ZoneId timeZone,
 
         @Schema(description = "Starting treatment date and time ", example = "2025-01-01T08:00:00", requiredMode = Schema.RequiredMode.REQUIRED, type = "string", format = "date-time")
         @NotNull(message = "Start date is required")
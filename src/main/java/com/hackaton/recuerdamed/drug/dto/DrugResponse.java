@@ -1,7 +1,8 @@
 package com.hackaton.recuerdamed.drug.dto;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
 
 public record DrugResponse(
         Long id,
@@ -9,7 +10,8 @@ public record DrugResponse(
         String description,
         String dosage,
         Integer frequencyHours,
-        LocalTime nextIntakeTime,
+        Instant nextIntakeAt,
+        ZoneId timeZone,
         LocalDateTime startDate,
         LocalDateTime endDate,
         Boolean active,
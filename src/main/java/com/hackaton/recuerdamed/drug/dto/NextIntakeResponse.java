@@ -0,0 +1,9 @@
+package com.hackaton.recuerdamed.drug.dto;
+
+import java.time.Instant;
+
+public record NextIntakeResponse(
+        Long id,
+        Instant nextIntakeAt
+) {
+}
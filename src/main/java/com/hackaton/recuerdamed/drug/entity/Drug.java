@@ -1,17 +1,41 @@
 package com.hackaton.recuerdamed.drug.entity;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.hackaton.recuerdamed.config.DrugCacheNames;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-
+import java.time.ZoneId;
+
+/**
+ * A medication and its dose schedule. {@code nextIntakeAt} is the exact instant of the next dose;
+ * {@code startDate}, {@code endDate} and every other local date-time of the drug are wall-clock
+ * times in its {@code timeZone}. {@code startsAt} and {@code endsAt} repeat the treatment window as
+ * instants, kept in sync on every write, so the reminder queries can compare it with
+ * {@code nextIntakeAt} without any per-row time zone conversion. A drug belongs to one patient for
+ * its whole life; the indexes of the per-patient queries all lead with {@code patient_id}.
+ * <p>
+ * Drugs live in the Hibernate second-level cache. {@code lastReminderAt} is only written by the
+ * reminder queries and {@code missedAccrualDueAt} by the missed-dose accrual, so the entity never
+ * writes a cached, possibly older copy of either back.
+ */
 @Entity
-@Table(name = "drugs")
+@Table(name = "drugs", indexes = {
+        @Index(name = "idx_drugs_reminder_due", columnList = "active, active_reminder, next_intake_at"),
+        @Index(name = "idx_drugs_patient_next", columnList = "patient_id, active, next_intake_at, id"),
+        @Index(name = "idx_drugs_patient_updated", columnList = "patient_id, active, update_date"),
+        @Index(name = "idx_drugs_patient_starts", columnList = "patient_id, active, starts_at"),
+        @Index(name = "idx_drugs_start_date", columnList = "start_date"),
+        @Index(name = "idx_drugs_missed_accrual_due", columnList = "missed_accrual_due_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DrugCacheNames.ENTITIES)
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,9 +43,13 @@ import java.time.LocalTime;
 public class Drug {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "drugs_seq")
+    @SequenceGenerator(name = "drugs_seq", sequenceName = "drugs_seq", allocationSize = 50)
     private Long id;
 
+    @Column(nullable = false, name = "patient_id", updatable = false)
+    private Long patientId;
+
     @Column(nullable = false, name = "drug_name")
     private String drugName;
 
@@ -34,15 +62,23 @@ public class Drug {
     @Column(nullable = false, name = "frequency_hours")
     private Integer frequencyHours;
 
-    @Column(nullable = false, name = "next_intake_time")
-    @JsonFormat(pattern = "HH:mm:ss")
-    private LocalTime nextIntakeTime;
+    @Column(nullable = false, name = "next_intake_at")
+    private Instant nextIntakeAt;
+
+    @Column(nullable = false, name = "time_zone", length = 64)
+    private ZoneId timeZone;
 
     @Column(nullable = false)
     private LocalDateTime startDate;
 
     private LocalDateTime endDate;
 
+    @Column(nullable = false, name = "starts_at")
+    private Instant startsAt;
+
+    @Column(name = "ends_at")
+    private Instant endsAt;
+
     @Column(nullable = false)
     @Builder.Default
     private Boolean active = true;
@@ -59,8 +95,29 @@ public class Drug {
     @Builder.Default
     private LocalDateTime updateDate = LocalDateTime.now();
 
+    @Column(insertable = false, updatable = false)
+    private Instant lastReminderAt;
+
+    @Column(insertable = false, updatable = false)
+    private Instant missedAccrualDueAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    public void prePersist() {
+        syncTreatmentWindow();
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updateDate = LocalDateTime.now();
+        syncTreatmentWindow();
+    }
+
+    private void syncTreatmentWindow() {
+        this.startsAt = startDate.atZone(timeZone).toInstant();
+        this.endsAt = endDate != null ? endDate.atZone(timeZone).toInstant() : null;
     }
 }
@@ -1,21 +1,215 @@
 package com.hackaton.recuerdamed.drug.repository;
 
+import com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
 import com.hackaton.recuerdamed.drug.entity.Drug;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Every query behind a request is scoped to one patient and served by an index leading with
+ * {@code patient_id}. The reminder, rebuild and startup queries work on all patients at once and
+ * are keyed by drug id or by {@code idx_drugs_reminder_due} instead; the reminder ones are further
+ * narrowed to one reminder shard or to the drugs an instance already holds.
+ * <p>
+ * The read-only per-patient queries go through the Hibernate query cache, which drops their
+ * results on any write to {@code drugs}. The queries that load a drug to change it never do, so
+ * their version check always sees the committed row. Taking a dose advances the drug under
+ * {@link #INTAKE_SPACE} instead of {@code drugs}, so it does not empty the whole entity region the
+ * way a bulk update of {@code drugs} would; the caller releases that one entry and the cached drug
+ * queries itself. The reminder markers and claims are written under
+ * {@link #REMINDER_MARKERS_SPACE}, and the missed-dose accrual's due time under
+ * {@link #MISSED_ACCRUAL_SPACE}: no cached query reads those columns, so delivering reminders and
+ * accruing missed doses do not empty the drug caches.
+ */
 @Repository
 public interface DrugRepository extends JpaRepository<Drug, Long> {
-    List<Drug> findByActiveTrueOrderByNextIntakeTimeAsc();
-    Optional<Drug> findByIdAndActiveTrue(Long id);
-    List<Drug> findByDrugNameContainingIgnoreCaseAndActiveTrue(String drugName);
+    String SELECT_DRUG_RESPONSE = "SELECT new com.hackaton.recuerdamed.drug.dto.DrugResponse(" +
+            "d.id, d.drugName, d.description, d.dosage, d.frequencyHours, d.nextIntakeAt, d.timeZone, " +
+            "d.startDate, d.endDate, d.active, d.activeReminder, d.creationDate, d.updateDate) FROM Drug d ";
+    String PENDING_REMINDER = "AND d.nextIntakeAt >= d.startsAt AND (d.endsAt IS NULL OR d.nextIntakeAt <= d.endsAt) " +
+            "AND (d.lastReminderAt IS NULL OR d.lastReminderAt < d.nextIntakeAt)";
+    String REMINDER_MARKERS_SPACE = "drug_reminder_markers";
+    String MISSED_ACCRUAL_SPACE = "drug_missed_accrual";
+    String INTAKE_SPACE = "drug_intake";
 
-    @Query("SELECT d FROM Drug d WHERE d.active = true AND d.activeReminder = true AND d.nextIntakeTime <= :currentTime")
-    List<Drug> findDrugsForReminder(@Param("currentTime") LocalTime currentTime);
+    Optional<Drug> findByIdAndPatientId(Long id, Long patientId);
+
+    Optional<Drug> findByIdAndPatientIdAndActiveTrue(Long id, Long patientId);
+
+    List<Drug> findAllByIdInAndPatientIdAndActiveTrue(Collection<Long> ids, Long patientId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsByIdAndPatientId(Long id, Long patientId);
+
+    long countByActiveTrue();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DRUG_RESPONSE + "WHERE d.patientId = :patientId AND d.active = true ORDER BY d.nextIntakeAt ASC")
+    List<DrugResponse> findActiveResponses(@Param("patientId") Long patientId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp(" +
+            "SUM(CASE WHEN d.active = true THEN 1L ELSE 0L END), MAX(d.updateDate)) FROM Drug d WHERE d.patientId = :patientId")
+    DrugCollectionStamp findCollectionStamp(@Param("patientId") Long patientId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DRUG_RESPONSE + "WHERE d.id = :id AND d.patientId = :patientId AND d.active = true")
+    Optional<DrugResponse> findActiveResponseById(@Param("patientId") Long patientId, @Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DRUG_RESPONSE + "WHERE d.id IN :ids AND d.patientId = :patientId AND d.active = true")
+    List<DrugResponse> findActiveResponsesByIds(@Param("patientId") Long patientId, @Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DRUG_RESPONSE + "WHERE d.patientId = :patientId AND d.active = true ORDER BY d.nextIntakeAt ASC, d.id ASC")
+    List<DrugResponse> findActiveResponsePage(@Param("patientId") Long patientId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DRUG_RESPONSE + "WHERE d.patientId = :patientId AND d.active = true AND (d.nextIntakeAt > :nextIntakeAt OR (d.nextIntakeAt = :nextIntakeAt AND d.id > :id)) ORDER BY d.nextIntakeAt ASC, d.id ASC")
+    List<DrugResponse> findActiveResponsePageAfter(@Param("patientId") Long patientId, @Param("nextIntakeAt") Instant nextIntakeAt,
+                                                   @Param("id") Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DRUG_RESPONSE + "WHERE d.patientId = :patientId AND d.active = true ORDER BY d.nextIntakeAt ASC, d.id ASC")
+    Stream<DrugResponse> streamActiveResponses(@Param("patientId") Long patientId);
+
+    @Query("SELECT d.id AS id, d.nextIntakeAt AS nextIntakeAt, d.timeZone AS timeZone, d.frequencyHours AS frequencyHours, " +
+            "d.activeReminder AS activeReminder, d.version AS version FROM Drug d " +
+            "WHERE d.id = :id AND d.patientId = :patientId AND d.active = true")
+    Optional<IntakeState> findIntakeState(@Param("patientId") Long patientId, @Param("id") Long id);
+
+    /**
+     * Advances the drug only if it is still at {@code version}, in one statement and without a
+     * locking read; the caller re-reads and retries when a concurrent write won. Written under
+     * {@link #INTAKE_SPACE}, so the caller has to release the drug's entity entry and the cached
+     * drug queries, see {@code DrugCacheEvictor#evictEntities}.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = INTAKE_SPACE))
+    @Query(value = "UPDATE drugs SET next_intake_at = :nextIntakeAt, update_date = :updateDate, version = version + 1 " +
+            "WHERE id = :id AND active = true AND version = :version", nativeQuery = true)
+    int advanceNextIntake(@Param("id") Long id, @Param("version") Long version,
+                          @Param("nextIntakeAt") Instant nextIntakeAt, @Param("updateDate") LocalDateTime updateDate);
+
+    @Query("SELECT d.id FROM Drug d ORDER BY d.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT MIN(d.startDate) FROM Drug d")
+    LocalDateTime findEarliestStartDate();
+
+    /**
+     * Every drug of reminder shard {@code shard} of {@code shards} (drug id modulo {@code shards})
+     * with a reminder still to send: the next dose lies inside the treatment window and no reminder
+     * has been delivered for it yet. Past doses are included so reminders missed while the
+     * application was down are sent on startup.
+     */
+    @Query("SELECT d.id AS id, d.nextIntakeAt AS nextIntakeAt FROM Drug d " +
+            "WHERE d.active = true AND d.activeReminder = true AND MOD(d.id, :shards) = :shard " + PENDING_REMINDER)
+    List<ReminderSlot> findReminderSlots(@Param("shards") int shards, @Param("shard") int shard);
+
+    /**
+     * The drugs of a reminder shard whose reminder fell due after {@code (after, afterId)} and at or
+     * before {@code until}, in {@code (nextIntakeAt, id)} order, whether or not this instance has
+     * them on its wheel; picks up the changes made through other instances. Keying the window on the
+     * id too lets a batch that ends among several doses due at the same instant resume right after
+     * its last one. Bounding the window keeps the scan to the {@code idx_drugs_reminder_due} range of
+     * one run instead of every overdue dose.
+     */
+    @Query("SELECT d.id AS id, d.nextIntakeAt AS nextIntakeAt FROM Drug d WHERE d.active = true AND d.activeReminder = true " +
+            "AND (d.nextIntakeAt > :after OR d.nextIntakeAt = :after AND d.id > :afterId) AND d.nextIntakeAt <= :until " +
+            "AND MOD(d.id, :shards) = :shard " + PENDING_REMINDER + " ORDER BY d.nextIntakeAt, d.id")
+    List<ReminderSlot> findDueReminderSlots(@Param("after") Instant after, @Param("afterId") long afterId,
+                                            @Param("until") Instant until, @Param("shards") int shards,
+                                            @Param("shard") int shard, Limit limit);
+
+    /**
+     * The drugs among {@code ids} whose next dose is due at {@code now}: at or before it, inside the
+     * treatment window and not reminded yet. Rows that are not due yet never leave the database, and
+     * the leading {@code active}/{@code activeReminder}/{@code nextIntakeAt} predicates match
+     * {@code idx_drugs_reminder_due}.
+     */
+    @Query("SELECT d.id AS id, d.patientId AS patientId, d.drugName AS drugName, d.dosage AS dosage, " +
+            "d.nextIntakeAt AS nextIntakeAt, d.timeZone AS timeZone FROM Drug d " +
+            "WHERE d.active = true AND d.activeReminder = true AND d.nextIntakeAt <= :now AND d.id IN :ids " +
+            PENDING_REMINDER)
+    List<DueReminder> findDueReminders(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Locks the drugs among {@code ids} whose reminder is due and not claimed by another instance
+     * for the current dose, skipping rows another instance has locked. Only valid inside a
+     * transaction, which the claim is then written in.
+     */
+    @Query(value = "SELECT id FROM drugs WHERE id IN (:ids) AND active = true AND active_reminder = true " +
+            "AND next_intake_at <= :now AND next_intake_at >= starts_at AND (ends_at IS NULL OR next_intake_at <= ends_at) " +
+            "AND (last_reminder_at IS NULL OR last_reminder_at < next_intake_at) " +
+            "AND (reminder_claimed_due IS NULL OR reminder_claimed_due < next_intake_at " +
+            "OR reminder_claimed_by = :nodeId OR reminder_claim_expires_at < :now) " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableReminders(@Param("ids") Collection<Long> ids, @Param("nodeId") String nodeId,
+                                      @Param("now") Instant now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REMINDER_MARKERS_SPACE))
+    @Query(value = "UPDATE drugs SET reminder_claimed_by = :nodeId, reminder_claimed_due = next_intake_at, " +
+            "reminder_claim_expires_at = :expiresAt WHERE id IN (:ids)", nativeQuery = true)
+    int claimReminders(@Param("ids") Collection<Long> ids, @Param("nodeId") String nodeId,
+                       @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REMINDER_MARKERS_SPACE))
+    @Query(value = "UPDATE drugs SET last_reminder_at = :dueAt " +
+            "WHERE id IN (:ids) AND (last_reminder_at IS NULL OR last_reminder_at < :dueAt)", nativeQuery = true)
+    int markRemindersDelivered(@Param("ids") Collection<Long> ids, @Param("dueAt") Instant dueAt);
+
+    /**
+     * The drugs whose missed-dose accrual fell due after {@code (after, afterId)} and at or before
+     * {@code now}, in {@code (missedAccrualDueAt, id)} order, read through
+     * {@code idx_drugs_missed_accrual_due} one page at a time.
+     */
+    @Query("SELECT d.id AS id, d.missedAccrualDueAt AS missedAccrualDueAt FROM Drug d " +
+            "WHERE (d.missedAccrualDueAt > :after OR d.missedAccrualDueAt = :after AND d.id > :afterId) " +
+            "AND d.missedAccrualDueAt <= :now ORDER BY d.missedAccrualDueAt, d.id")
+    List<MissedAccrualDue> findDueMissedAccruals(@Param("after") Instant after, @Param("afterId") long afterId,
+                                                 @Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = MISSED_ACCRUAL_SPACE))
+    @Query(value = "UPDATE drugs SET missed_accrual_due_at = :dueAt WHERE id = :id", nativeQuery = true)
+    int scheduleMissedAccrual(@Param("id") Long id, @Param("dueAt") Instant dueAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = MISSED_ACCRUAL_SPACE))
+    @Query(value = "UPDATE drugs SET missed_accrual_due_at = NULL WHERE id = :id", nativeQuery = true)
+    int endMissedAccrual(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT d.id AS id, d.drugName AS drugName, d.dosage AS dosage, d.frequencyHours AS frequencyHours, " +
+            "d.nextIntakeAt AS nextIntakeAt, d.timeZone AS timeZone, d.startsAt AS startsAt, d.endsAt AS endsAt " +
+            "FROM Drug d WHERE d.patientId = :patientId AND d.active = true AND d.startsAt < :to " +
+            "AND (d.endsAt IS NULL OR d.endsAt >= :from)")
+    List<DrugSchedule> findActiveSchedules(@Param("patientId") Long patientId,
+                                           @Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * The search documents of every patient, read once on startup to build the per-patient search
+     * indexes.
+     */
+    @Query("SELECT d.id AS id, d.patientId AS patientId, d.drugName AS drugName, d.description AS description " +
+            "FROM Drug d WHERE d.active = true")
+    List<SearchDocument> findSearchDocuments();
 }
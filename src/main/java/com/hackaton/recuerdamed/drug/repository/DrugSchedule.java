@@ -0,0 +1,22 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+public interface DrugSchedule {
+    Long getId();
+
+    String getDrugName();
+
+    String getDosage();
+
+    Integer getFrequencyHours();
+
+    Instant getNextIntakeAt();
+
+    ZoneId getTimeZone();
+
+    Instant getStartsAt();
+
+    Instant getEndsAt();
+}
@@ -0,0 +1,18 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+public interface DueReminder {
+    Long getId();
+
+    Long getPatientId();
+
+    String getDrugName();
+
+    String getDosage();
+
+    Instant getNextIntakeAt();
+
+    ZoneId getTimeZone();
+}
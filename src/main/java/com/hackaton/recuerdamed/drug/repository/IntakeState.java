@@ -0,0 +1,18 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+public interface IntakeState {
+    Long getId();
+
+    Instant getNextIntakeAt();
+
+    ZoneId getTimeZone();
+
+    Integer getFrequencyHours();
+
+    Boolean getActiveReminder();
+
+    Long getVersion();
+}
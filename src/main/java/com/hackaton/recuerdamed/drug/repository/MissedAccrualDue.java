@@ -0,0 +1,9 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+import java.time.Instant;
+
+public interface MissedAccrualDue {
+    Long getId();
+
+    Instant getMissedAccrualDueAt();
+}
@@ -0,0 +1,282 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+import com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * R2DBC counterpart of {@link DrugRepository} for the reactive stack: the same tenant-scoped
+ * queries on the same indexes, written in SQL. Instants are stored as UTC {@code DATETIME} values,
+ * the way Hibernate writes them. New ids come from {@code drugs_seq} in blocks of
+ * {@value #ID_BLOCK_SIZE}, reserved exactly like Hibernate's pooled optimizer does, so both stacks
+ * can insert into the same table.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDrugRepository {
+    static final int ID_BLOCK_SIZE = 50;
+
+    private static final String RESPONSE_COLUMNS = "id, drug_name, description, dosage, frequency_hours, next_intake_at, " +
+            "time_zone, start_date, end_date, active, active_reminder, creation_date, update_date";
+    private static final String SELECT_RESPONSE = "SELECT " + RESPONSE_COLUMNS + " FROM drugs ";
+    private static final String SELECT_DRUG = "SELECT " + RESPONSE_COLUMNS + ", patient_id, starts_at, ends_at, " +
+            "last_reminder_at, version FROM drugs ";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private long nextId;
+    private long lastId = -1;
+
+    public Flux<DrugResponse> findActiveResponses(Long patientId) {
+        return databaseClient.sql(SELECT_RESPONSE + "WHERE patient_id = :patientId AND active = true ORDER BY next_intake_at ASC, id ASC")
+                .bind("patientId", patientId)
+                .map(ReactiveDrugRepository::toResponse)
+                .all();
+    }
+
+    public Mono<DrugCollectionStamp> findCollectionStamp(Long patientId) {
+        return databaseClient.sql("SELECT CAST(SUM(CASE WHEN active = true THEN 1 ELSE 0 END) AS SIGNED) AS active_count, " +
+                        "MAX(update_date) AS last_update FROM drugs WHERE patient_id = :patientId")
+                .bind("patientId", patientId)
+                .map(row -> new DrugCollectionStamp(row.get("active_count", Long.class), row.get("last_update", LocalDateTime.class)))
+                .one();
+    }
+
+    public Mono<DrugResponse> findActiveResponseById(Long patientId, Long id) {
+        return databaseClient.sql(SELECT_RESPONSE + "WHERE id = :id AND patient_id = :patientId AND active = true")
+                .bind("id", id)
+                .bind("patientId", patientId)
+                .map(ReactiveDrugRepository::toResponse)
+                .one();
+    }
+
+    public Flux<DrugResponse> findActiveResponsesByIds(Long patientId, Collection<Long> ids) {
+        return databaseClient.sql(SELECT_RESPONSE + "WHERE id IN (:ids) AND patient_id = :patientId AND active = true")
+                .bind("ids", ids)
+                .bind("patientId", patientId)
+                .map(ReactiveDrugRepository::toResponse)
+                .all();
+    }
+
+    public Flux<DrugResponse> findActiveResponsePage(Long patientId, int limit) {
+        return databaseClient.sql(SELECT_RESPONSE + "WHERE patient_id = :patientId AND active = true " +
+                        "ORDER BY next_intake_at ASC, id ASC LIMIT :limit")
+                .bind("patientId", patientId)
+                .bind("limit", limit)
+                .map(ReactiveDrugRepository::toResponse)
+                .all();
+    }
+
+    public Flux<DrugResponse> findActiveResponsePageAfter(Long patientId, Instant nextIntakeAt, Long id, int limit) {
+        return databaseClient.sql(SELECT_RESPONSE + "WHERE patient_id = :patientId AND active = true " +
+                        "AND (next_intake_at > :nextIntakeAt OR (next_intake_at = :nextIntakeAt AND id > :id)) " +
+                        "ORDER BY next_intake_at ASC, id ASC LIMIT :limit")
+                .bind("patientId", patientId)
+                .bind("nextIntakeAt", toDateTime(nextIntakeAt))
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveDrugRepository::toResponse)
+                .all();
+    }
+
+    public Mono<Drug> findActiveDrug(Long patientId, Long id) {
+        return databaseClient.sql(SELECT_DRUG + "WHERE id = :id AND patient_id = :patientId AND active = true")
+                .bind("id", id)
+                .bind("patientId", patientId)
+                .map(ReactiveDrugRepository::toDrug)
+                .one();
+    }
+
+    /**
+     * Inserts a new drug, assigning its id and running the entity's {@code @PrePersist} callback
+     * first, as there is no persistence context to do it.
+     */
+    public Mono<Drug> insert(Drug drug) {
+        return nextId().flatMap(id -> {
+            drug.setId(id);
+            drug.setVersion(0L);
+            drug.prePersist();
+            DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("INSERT INTO drugs (id, patient_id, drug_name, " +
+                            "description, dosage, frequency_hours, next_intake_at, time_zone, start_date, end_date, starts_at, " +
+                            "ends_at, active, active_reminder, creation_date, update_date, version) VALUES (:id, :patientId, " +
+                            ":drugName, :description, :dosage, :frequencyHours, :nextIntakeAt, :timeZone, :startDate, :endDate, " +
+                            ":startsAt, :endsAt, :active, :activeReminder, :creationDate, :updateDate, :version)")
+                    .bind("id", drug.getId())
+                    .bind("patientId", drug.getPatientId())
+                    .bind("active", drug.getActive())
+                    .bind("creationDate", drug.getCreationDate())
+                    .bind("version", drug.getVersion());
+            return bindWritableColumns(insert, drug)
+                    .fetch()
+                    .rowsUpdated()
+                    .thenReturn(drug);
+        });
+    }
+
+    /**
+     * Writes back a drug read with {@link #findActiveDrug}, running the entity's {@code @PreUpdate}
+     * callback first. Empty if the drug changed since it was read.
+     */
+    public Mono<Drug> update(Drug drug) {
+        drug.preUpdate();
+        DatabaseClient.GenericExecuteSpec update = databaseClient.sql("UPDATE drugs SET drug_name = :drugName, " +
+                        "description = :description, dosage = :dosage, frequency_hours = :frequencyHours, " +
+                        "next_intake_at = :nextIntakeAt, time_zone = :timeZone, start_date = :startDate, end_date = :endDate, " +
+                        "starts_at = :startsAt, ends_at = :endsAt, active_reminder = :activeReminder, update_date = :updateDate, " +
+                        "version = version + 1 WHERE id = :id AND version = :version")
+                .bind("id", drug.getId())
+                .bind("version", drug.getVersion());
+        return bindWritableColumns(update, drug)
+                .fetch()
+                .rowsUpdated()
+                .filter(updated -> updated == 1)
+                .map(updated -> {
+                    drug.setVersion(drug.getVersion() + 1);
+                    return drug;
+                });
+    }
+
+    public Mono<Long> deactivate(Long patientId, Long id, LocalDateTime updateDate) {
+        return databaseClient.sql("UPDATE drugs SET active = false, update_date = :updateDate, version = version + 1 " +
+                        "WHERE id = :id AND patient_id = :patientId AND active = true")
+                .bind("updateDate", updateDate)
+                .bind("id", id)
+                .bind("patientId", patientId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> advanceNextIntake(Long id, Long version, Instant nextIntakeAt, LocalDateTime updateDate) {
+        return databaseClient.sql("UPDATE drugs SET next_intake_at = :nextIntakeAt, update_date = :updateDate, " +
+                        "version = version + 1 WHERE id = :id AND active = true AND version = :version")
+                .bind("nextIntakeAt", toDateTime(nextIntakeAt))
+                .bind("updateDate", updateDate)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindWritableColumns(DatabaseClient.GenericExecuteSpec spec, Drug drug) {
+        spec = spec.bind("drugName", drug.getDrugName())
+                .bind("dosage", drug.getDosage())
+                .bind("frequencyHours", drug.getFrequencyHours())
+                .bind("nextIntakeAt", toDateTime(drug.getNextIntakeAt()))
+                .bind("timeZone", drug.getTimeZone().getId())
+                .bind("startDate", drug.getStartDate())
+                .bind("startsAt", toDateTime(drug.getStartsAt()))
+                .bind("activeReminder", drug.getActiveReminder())
+                .bind("updateDate", drug.getUpdateDate());
+        spec = drug.getDescription() != null
+                ? spec.bind("description", drug.getDescription())
+                : spec.bindNull("description", String.class);
+        spec = drug.getEndDate() != null
+                ? spec.bind("endDate", drug.getEndDate())
+                : spec.bindNull("endDate", LocalDateTime.class);
+        return drug.getEndsAt() != null
+                ? spec.bind("endsAt", toDateTime(drug.getEndsAt()))
+                : spec.bindNull("endsAt", LocalDateTime.class);
+    }
+
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Long reserved = takeReservedId();
+            return reserved != null ? Mono.just(reserved) : reserveIdBlock().map(this::startIdBlock);
+        });
+    }
+
+    private synchronized Long takeReservedId() {
+        return nextId <= lastId ? nextId++ : null;
+    }
+
+    /**
+     * Starts handing out the block ending at {@code highValue}. A concurrent insert may have
+     * reserved a block too; the ids left in the replaced one are skipped, never reused.
+     */
+    private synchronized long startIdBlock(long highValue) {
+        long first = Math.max(1, highValue - ID_BLOCK_SIZE + 1);
+        nextId = first + 1;
+        lastId = highValue;
+        return first;
+    }
+
+    /**
+     * @return the upper end of the block of ids now reserved for this repository
+     */
+    private Mono<Long> reserveIdBlock() {
+        return databaseClient.sql("SELECT next_val FROM drugs_seq FOR UPDATE")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .flatMap(value -> databaseClient.sql("UPDATE drugs_seq SET next_val = :next WHERE next_val = :value")
+                        .bind("next", value + ID_BLOCK_SIZE)
+                        .bind("value", value)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(value))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static DrugResponse toResponse(Readable row) {
+        return new DrugResponse(
+                row.get("id", Long.class),
+                row.get("drug_name", String.class),
+                row.get("description", String.class),
+                row.get("dosage", String.class),
+                row.get("frequency_hours", Integer.class),
+                toInstant(row.get("next_intake_at", LocalDateTime.class)),
+                ZoneId.of(row.get("time_zone", String.class)),
+                row.get("start_date", LocalDateTime.class),
+                row.get("end_date", LocalDateTime.class),
+                row.get("active", Boolean.class),
+                row.get("active_reminder", Boolean.class),
+                row.get("creation_date", LocalDateTime.class),
+                row.get("update_date", LocalDateTime.class)
+        );
+    }
+
+    private static Drug toDrug(Readable row) {
+        return Drug.builder()
+                .id(row.get("id", Long.class))
+                .patientId(row.get("patient_id", Long.class))
+                .drugName(row.get("drug_name", String.class))
+                .description(row.get("description", String.class))
+                .dosage(row.get("dosage", String.class))
+                .frequencyHours(row.get("frequency_hours", Integer.class))
+                .nextIntakeAt(toInstant(row.get("next_intake_at", LocalDateTime.class)))
+                .timeZone(ZoneId.of(row.get("time_zone", String.class)))
+                .startDate(row.get("start_date", LocalDateTime.class))
+                .endDate(row.get("end_date", LocalDateTime.class))
+                .startsAt(toInstant(row.get("starts_at", LocalDateTime.class)))
+                .endsAt(toInstant(row.get("ends_at", LocalDateTime.class)))
+                .active(row.get("active", Boolean.class))
+                .activeReminder(row.get("active_reminder", Boolean.class))
+                .creationDate(row.get("creation_date", LocalDateTime.class))
+                .updateDate(row.get("update_date", LocalDateTime.class))
+                .lastReminderAt(toInstant(row.get("last_reminder_at", LocalDateTime.class)))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    private static LocalDateTime toDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+import java.time.Instant;
+
+public interface ReminderSlot {
+    Long getId();
+
+    Instant getNextIntakeAt();
+}
@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+public interface SearchDocument {
+    Long getId();
+
+    Long getPatientId();
+
+    String getDrugName();
+
+    String getDescription();
+}
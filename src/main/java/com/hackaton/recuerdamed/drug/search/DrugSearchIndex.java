@@ -0,0 +1,152 @@
+package com.hackaton.recuerdamed.drug.search;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.SearchDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Accent-insensitive, typo-tolerant search over the names (and optionally descriptions) of active
+ * drugs. The index lives in memory, is built from the database on startup and is kept up to date
+ * by {@code DrugService} on every create, update and delete. Each patient has an index of their
+ * own, so a search only ever scores the drugs of the patient asking.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DrugSearchIndex {
+    private static final double CONTAINS_BONUS = 1.0;
+    private static final double PREFIX_BONUS = 0.5;
+
+    private final DrugRepository drugRepository;
+    private final DrugSearchProperties properties;
+    private final Map<Long, PatientIndex> patients = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<SearchDocument> documents = drugRepository.findSearchDocuments();
+        lock.writeLock().lock();
+        try {
+            patients.clear();
+            for (SearchDocument document : documents) {
+                patients.computeIfAbsent(document.getPatientId(), patientId -> new PatientIndex())
+                        .put(document.getId(), document.getDrugName(), document.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Drug search index built with {} drugs", documents.size());
+    }
+
+    public void index(Drug drug) {
+        lock.writeLock().lock();
+        try {
+            if (Boolean.TRUE.equals(drug.getActive())) {
+                patients.computeIfAbsent(drug.getPatientId(), patientId -> new PatientIndex())
+                        .put(drug.getId(), drug.getDrugName(), drug.getDescription());
+            } else {
+                remove(drug.getPatientId(), drug.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long patientId, Long id) {
+        lock.writeLock().lock();
+        try {
+            PatientIndex index = patients.get(patientId);
+            if (index != null && index.remove(id)) {
+                patients.remove(patientId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching drugs of the patient, best first.
+     */
+    public List<Long> search(Long patientId, String query, int limit) {
+        String normalizedQuery = TextNormalizer.normalize(query);
+        if (normalizedQuery.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores;
+        lock.readLock().lock();
+        try {
+            PatientIndex index = patients.get(patientId);
+            if (index == null) {
+                return List.of();
+            }
+            TrigramIndex names = index.names;
+            scores = new HashMap<>(names.search(normalizedQuery, properties.minSimilarity()));
+            scores.replaceAll((id, score) -> score + bonus(names.text(id), normalizedQuery));
+            if (properties.includeDescription()) {
+                index.descriptions.search(normalizedQuery, properties.minSimilarity())
+                        .forEach((id, score) -> scores.merge(id, score * properties.descriptionWeight(), Math::max));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return topK(scores, limit);
+    }
+
+    private static double bonus(String normalizedName, String normalizedQuery) {
+        if (normalizedName.startsWith(normalizedQuery)) {
+            return CONTAINS_BONUS + PREFIX_BONUS;
+        }
+        return normalizedName.contains(normalizedQuery) ? CONTAINS_BONUS : 0;
+    }
+
+    private static List<Long> topK(Map<Long, Double> scores, int limit) {
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(limit + 1, ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add(best.poll().getKey());
+        }
+        return ids.reversed();
+    }
+
+    private static final class PatientIndex {
+        private final TrigramIndex names = new TrigramIndex();
+        private final TrigramIndex descriptions = new TrigramIndex();
+
+        private void put(Long id, String drugName, String description) {
+            names.put(id, TextNormalizer.normalize(drugName));
+            descriptions.put(id, TextNormalizer.normalize(description));
+        }
+
+        /**
+         * @return whether the index is empty afterwards
+         */
+        private boolean remove(Long id) {
+            names.remove(id);
+            descriptions.remove(id);
+            return names.size() == 0 && descriptions.size() == 0;
+        }
+    }
+}
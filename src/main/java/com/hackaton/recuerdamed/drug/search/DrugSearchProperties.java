@@ -0,0 +1,12 @@
+package com.hackaton.recuerdamed.drug.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "search")
+public record DrugSearchProperties(
+        @DefaultValue("0.6") double minSimilarity,
+        @DefaultValue("true") boolean includeDescription,
+        @DefaultValue("0.5") double descriptionWeight
+) {
+}
@@ -0,0 +1,151 @@
+package com.hackaton.recuerdamed.drug.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted trigram index over normalized text, one document per id.
+ * <p>
+ * Every word is indexed with two leading pad characters so that one and two letter queries can be
+ * answered as word prefixes. A query matches a document when at least {@code minSimilarity} of its
+ * trigrams are present in the document, which tolerates typos. Candidates are only collected from
+ * the rarest posting lists (prefix filtering) and verified against the document trigrams, so common
+ * trigrams never force a scan of their whole posting list.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class TrigramIndex {
+    private static final char PAD = ' ';
+
+    private final Map<Long, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, long[]> documentTrigrams = new HashMap<>();
+    private final Map<Long, String> documentTexts = new HashMap<>();
+
+    /**
+     * Indexes {@code normalizedText} under {@code id}, replacing any previous document.
+     */
+    public void put(long id, String normalizedText) {
+        remove(id);
+        if (normalizedText == null || normalizedText.isBlank()) {
+            return;
+        }
+        long[] trigrams = documentTrigrams(normalizedText);
+        documentTrigrams.put(id, trigrams);
+        documentTexts.put(id, normalizedText);
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    public void remove(long id) {
+        long[] trigrams = documentTrigrams.remove(id);
+        if (trigrams == null) {
+            return;
+        }
+        documentTexts.remove(id);
+        for (long trigram : trigrams) {
+            Set<Long> ids = postings.get(trigram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    public String text(long id) {
+        return documentTexts.get(id);
+    }
+
+    public int size() {
+        return documentTrigrams.size();
+    }
+
+    public void clear() {
+        postings.clear();
+        documentTrigrams.clear();
+        documentTexts.clear();
+    }
+
+    /**
+     * Returns the ids matching {@code normalizedQuery} with their similarity, the fraction of
+     * query trigrams found in the document.
+     */
+    public Map<Long, Double> search(String normalizedQuery, double minSimilarity) {
+        long[] queryTrigrams = queryTrigrams(normalizedQuery);
+        if (queryTrigrams.length == 0) {
+            return Map.of();
+        }
+        int required = Math.max(1, (int) Math.ceil(queryTrigrams.length * minSimilarity));
+
+        List<Set<Long>> lists = new ArrayList<>(queryTrigrams.length);
+        for (long trigram : queryTrigrams) {
+            lists.add(postings.getOrDefault(trigram, Set.of()));
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new HashSet<>();
+        for (int i = 0; i <= queryTrigrams.length - required; i++) {
+            candidates.addAll(lists.get(i));
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long id : candidates) {
+            long[] trigrams = documentTrigrams.get(id);
+            int matches = 0;
+            for (long trigram : queryTrigrams) {
+                if (Arrays.binarySearch(trigrams, trigram) >= 0) {
+                    matches++;
+                }
+            }
+            if (matches >= required) {
+                scores.put(id, (double) matches / queryTrigrams.length);
+            }
+        }
+        return scores;
+    }
+
+    static long[] documentTrigrams(String normalizedText) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String word : normalizedText.split(" ")) {
+            String padded = "" + PAD + PAD + word;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(encode(padded, i));
+            }
+        }
+        return toSortedArray(trigrams);
+    }
+
+    static long[] queryTrigrams(String normalizedQuery) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String word : normalizedQuery.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = word.length() >= 3 ? word : (word.length() == 2 ? PAD + word : "" + PAD + PAD + word);
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(encode(padded, i));
+            }
+        }
+        return toSortedArray(trigrams);
+    }
+
+    private static long encode(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    private static long[] toSortedArray(Set<Long> values) {
+        long[] array = new long[values.size()];
+        int i = 0;
+        for (Long value : values) {
+            array[i++] = value;
+        }
+        Arrays.sort(array);
+        return array;
+    }
+}
@@ -0,0 +1,10 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bulk")
+public record DrugBulkProperties(
+        @DefaultValue("1000") int chunkSize
+) {
+}
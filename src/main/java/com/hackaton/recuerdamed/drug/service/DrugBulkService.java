@@ -0,0 +1,13 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import com.hackaton.recuerdamed.drug.dto.BatchResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+
+import java.util.Iterator;
+import java.util.List;
+
+public interface DrugBulkService {
+    BatchResponse createDrugs(Long patientId, Iterator<DrugRequest> requests);
+
+    BatchResponse markAsTaken(Long patientId, List<Long> ids);
+}
@@ -0,0 +1,213 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.hackaton.recuerdamed.config.DrugCacheEvictor;
+import com.hackaton.recuerdamed.drug.dto.BatchItemError;
+import com.hackaton.recuerdamed.drug.dto.BatchResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugMapper;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.IntakeState;
+import com.hackaton.recuerdamed.drug.search.DrugSearchIndex;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeEvent;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeRecorder;
+import com.hackaton.recuerdamed.outbox.service.DrugEvent;
+import com.hackaton.recuerdamed.outbox.service.OutboxWriter;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import com.hackaton.recuerdamed.reminder.scheduler.ReminderScheduler;
+import com.hackaton.recuerdamed.shared.custom_exception.ConcurrentUpdateException;
+import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk write paths. Items are validated one by one and written in chunks of
+ * {@code bulk.chunk-size}, each chunk in its own transaction, so Hibernate can group the
+ * statements into JDBC batches and the persistence context never grows past one chunk. The outbox
+ * events of a chunk are written in its transaction, with one batched insert.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DrugBulkServiceImpl implements DrugBulkService {
+    private final DrugRepository drugRepository;
+    private final DrugMapper drugMapper;
+    private final ReminderScheduler reminderScheduler;
+    private final DrugSearchIndex drugSearchIndex;
+    private final DoseIntakeRecorder doseIntakeRecorder;
+    private final PatientService patientService;
+    private final OutboxWriter outboxWriter;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final DrugBulkProperties properties;
+    private final DrugCacheEvictor drugCacheEvictor;
+
+    @Override
+    public BatchResponse createDrugs(Long patientId, Iterator<DrugRequest> requests) {
+        patientService.checkExists(patientId);
+        try {
+            return importDrugs(patientId, requests);
+        } finally {
+            drugCacheEvictor.evictPatient(patientId);
+        }
+    }
+
+    private BatchResponse importDrugs(Long patientId, Iterator<DrugRequest> requests) {
+        List<BatchItemError> errors = new ArrayList<>();
+        List<Drug> chunk = new ArrayList<>(properties.chunkSize());
+        int processed = 0;
+        int succeeded = 0;
+
+        while (true) {
+            DrugRequest request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeJsonMappingException exception) {
+                errors.add(new BatchItemError(processed++, null, List.of("Malformed item: " + exception.getMessage())));
+                break;
+            }
+
+            List<String> violations = validate(request);
+            if (violations.isEmpty()) {
+                chunk.add(drugMapper.toEntity(patientId, request));
+            } else {
+                errors.add(new BatchItemError(processed, null, violations));
+            }
+            processed++;
+
+            if (chunk.size() == properties.chunkSize()) {
+                succeeded += saveChunk(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            succeeded += saveChunk(chunk);
+        }
+
+        log.info("Bulk import processed {} drugs, {} created", processed, succeeded);
+        return new BatchResponse(processed, succeeded, errors.size(), errors);
+    }
+
+    /**
+     * Advances every drug the same way {@link DrugServiceImpl#markAsTaken} does, with a version
+     * check and a re-read on conflict, so a dose taken concurrently through the single endpoint is
+     * never overwritten. Each chunk runs in one read-committed transaction and locks its rows in id
+     * order, so overlapping bulk calls wait for each other instead of deadlocking. Ids that are
+     * still contended after the last attempt are reported as item errors.
+     */
+    @Override
+    public BatchResponse markAsTaken(Long patientId, List<Long> ids) {
+        try {
+            return advanceAll(patientId, ids);
+        } finally {
+            drugCacheEvictor.evictDrugs(patientId, ids.stream().filter(Objects::nonNull).toList());
+        }
+    }
+
+    private BatchResponse advanceAll(Long patientId, List<Long> ids) {
+        TransactionTemplate readCommitted = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readCommitted.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        List<BatchItemError> errors = new ArrayList<>();
+        int succeeded = 0;
+
+        for (int from = 0; from < ids.size(); from += properties.chunkSize()) {
+            int offset = from;
+            List<Long> chunkIds = ids.subList(from, Math.min(from + properties.chunkSize(), ids.size()));
+            List<Integer> order = IntStream.range(0, chunkIds.size()).boxed()
+                    .sorted(Comparator.comparing(chunkIds::get, Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .toList();
+            List<Taken> taken = readCommitted.execute(status -> {
+                drugCacheEvictor.evictEntities(chunkIds.stream().filter(Objects::nonNull).toList());
+                List<Taken> advanced = new ArrayList<>(chunkIds.size());
+                for (int i : order) {
+                    Long id = chunkIds.get(i);
+                    try {
+                        advanced.add(advance(patientId, id));
+                    } catch (DrugNotFoundException | ConcurrentUpdateException exception) {
+                        errors.add(new BatchItemError(offset + i, id, List.of(exception.getMessage())));
+                    }
+                }
+                outboxWriter.appendAll(advanced.stream().map(item -> item.event(patientId)).toList());
+                advanced.forEach(item -> doseIntakeRecorder.record(item.intake()));
+                return advanced;
+            });
+            taken.forEach(item -> reminderScheduler.schedule(item.state().getId(), item.nextIntake(), item.state().getActiveReminder()));
+            succeeded += taken.size();
+        }
+
+        errors.sort(Comparator.comparingInt(BatchItemError::index));
+        return new BatchResponse(ids.size(), succeeded, errors.size(), errors);
+    }
+
+    private Taken advance(Long patientId, Long id) {
+        if (id == null) {
+            throw new DrugNotFoundException("Drug with ID: null not found");
+        }
+        for (int attempt = 0; attempt < DrugServiceImpl.MAX_MARK_AS_TAKEN_ATTEMPTS; attempt++) {
+            IntakeState state = drugRepository.findIntakeState(patientId, id)
+                    .orElseThrow(() -> new DrugNotFoundException("Drug with ID: " + id + " not found"));
+            Instant nextIntake = state.getNextIntakeAt().plus(state.getFrequencyHours(), ChronoUnit.HOURS);
+            if (drugRepository.advanceNextIntake(id, state.getVersion(), nextIntake, LocalDateTime.now()) == 1) {
+                return new Taken(state, nextIntake, Instant.now());
+            }
+        }
+        throw new ConcurrentUpdateException("Drug with ID: " + id + " is being updated concurrently, please retry");
+    }
+
+    private List<String> validate(DrugRequest request) {
+        if (request == null) {
+            return List.of("Item is empty");
+        }
+        return validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
+
+    private int saveChunk(List<Drug> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            drugRepository.saveAll(chunk);
+            entityManager.flush();
+            outboxWriter.appendAll(chunk.stream()
+                    .map(drug -> DrugEvent.created(drug.getPatientId(), drugMapper.toDto(drug)))
+                    .toList());
+            entityManager.clear();
+        });
+        for (Drug drug : chunk) {
+            reminderScheduler.schedule(drug);
+            drugSearchIndex.index(drug);
+        }
+        return chunk.size();
+    }
+
+    private record Taken(IntakeState state, Instant nextIntake, Instant takenAt) {
+        DrugEvent event(Long patientId) {
+            return DrugEvent.taken(patientId, state.getId(), state.getNextIntakeAt(), takenAt, nextIntake);
+        }
+
+        DoseIntakeEvent intake() {
+            return DoseIntakeEvent.taken(state.getId(), state.getNextIntakeAt(), takenAt, state.getTimeZone());
+        }
+    }
+}
@@ -1,24 +1,34 @@
 package com.hackaton.recuerdamed.drug.service;
 
+import com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp;
+import com.hackaton.recuerdamed.drug.dto.DrugPageResponse;
 import com.hackaton.recuerdamed.drug.dto.DrugRequest;
 import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.dto.NextIntakeResponse;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface DrugService {
-    List<DrugResponse> getAllDrugs();
+    List<DrugResponse> getAllDrugs(Long patientId);
 
-    DrugResponse getDrugById(Long id);
+    DrugCollectionStamp getAllDrugsStamp(Long patientId);
 
-    DrugResponse createDrug(DrugRequest request);
+    DrugPageResponse getDrugPage(Long patientId, String cursor, int limit);
 
-    DrugResponse updateDrug(Long id, DrugRequest request);
+    void streamAllDrugs(Long patientId, Consumer<DrugResponse> consumer);
 
-    void deleteDrug(Long id);
+    DrugResponse getDrugById(Long patientId, Long id);
 
-    void markAsTaken(Long id);
+    DrugResponse createDrug(Long patientId, DrugRequest request);
 
-    List<DrugResponse> searchByName(String drugName);
+    DrugResponse updateDrug(Long patientId, Long id, DrugRequest request);
+
+    void deleteDrug(Long patientId, Long id);
+
+    NextIntakeResponse markAsTaken(Long patientId, Long id);
+
+    List<DrugResponse> searchByName(Long patientId, String drugName, int limit);
 
     void processReminders();
 }
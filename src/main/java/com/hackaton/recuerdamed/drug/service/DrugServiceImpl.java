@@ -1,91 +1,217 @@
 package com.hackaton.recuerdamed.drug.service;
 
+import com.hackaton.recuerdamed.config.DrugCacheEvictor;
+import com.hackaton.recuerdamed.config.DrugCacheNames;
+import com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp;
+import com.hackaton.recuerdamed.drug.dto.DrugCursor;
 import com.hackaton.recuerdamed.drug.dto.DrugMapper;
+import com.hackaton.recuerdamed.drug.dto.DrugPageResponse;
 import com.hackaton.recuerdamed.drug.dto.DrugRequest;
 import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.dto.NextIntakeResponse;
 import com.hackaton.recuerdamed.drug.entity.Drug;
 import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.IntakeState;
+import com.hackaton.recuerdamed.drug.search.DrugSearchIndex;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeEvent;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeRecorder;
+import com.hackaton.recuerdamed.outbox.service.DrugEvent;
+import com.hackaton.recuerdamed.outbox.service.OutboxWriter;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import com.hackaton.recuerdamed.reminder.scheduler.ReminderScheduler;
+import com.hackaton.recuerdamed.shared.custom_exception.ConcurrentUpdateException;
 import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.LocalTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "drug.service", description = "DrugService calls, tagged by method and exception", histogram = true)
 public class DrugServiceImpl implements DrugService {
+    static final int MAX_MARK_AS_TAKEN_ATTEMPTS = 50;
+
     private final DrugRepository drugRepository;
     private final DrugMapper drugMapper;
+    private final ReminderScheduler reminderScheduler;
+    private final DrugSearchIndex drugSearchIndex;
+    private final DoseIntakeRecorder doseIntakeRecorder;
+    private final PatientService patientService;
+    private final OutboxWriter outboxWriter;
+    private final DrugCacheEvictor drugCacheEvictor;
 
     @Override
-    public List<DrugResponse> getAllDrugs() {
-        return drugRepository.findByActiveTrueOrderByNextIntakeTimeAsc()
-                .stream()
-                .map(drugMapper::toDto)
-                .toList();
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DrugCacheNames.LIST, key = "'all:' + #patientId")
+    public List<DrugResponse> getAllDrugs(Long patientId) {
+        return drugRepository.findActiveResponses(patientId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DrugCacheNames.LIST, key = "'stamp:' + #patientId")
+    public DrugCollectionStamp getAllDrugsStamp(Long patientId) {
+        return drugRepository.findCollectionStamp(patientId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DrugCacheNames.PAGES, key = "#patientId + ':' + #limit + ':' + #cursor")
+    public DrugPageResponse getDrugPage(Long patientId, String cursor, int limit) {
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<DrugResponse> drugs;
+        if (cursor == null || cursor.isBlank()) {
+            drugs = drugRepository.findActiveResponsePage(patientId, fetchLimit);
+        } else {
+            DrugCursor after = DrugCursor.decode(cursor);
+            drugs = drugRepository.findActiveResponsePageAfter(patientId, after.nextIntakeAt(), after.id(), fetchLimit);
+        }
+
+        boolean hasMore = drugs.size() > limit;
+        List<DrugResponse> page = hasMore ? drugs.subList(0, limit) : drugs;
+        String nextCursor = hasMore ? DrugCursor.of(page.getLast()).encode() : null;
+        return new DrugPageResponse(page, nextCursor);
     }
 
     @Override
-    public DrugResponse getDrugById(Long id) {
-        Drug drug = drugRepository.findByIdAndActiveTrue(id)
+    @Transactional(readOnly = true)
+    public void streamAllDrugs(Long patientId, Consumer<DrugResponse> consumer) {
+        try (Stream<DrugResponse> drugs = drugRepository.streamActiveResponses(patientId)) {
+            drugs.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DrugCacheNames.BY_ID, key = "#patientId + ':' + #id")
+    public DrugResponse getDrugById(Long patientId, Long id) {
+        return drugRepository.findActiveResponseById(patientId, id)
                 .orElseThrow(() -> new DrugNotFoundException("Drug with ID: " + id + " not found"));
-        return drugMapper.toDto(drug);
     }
 
     @Override
     @Transactional
-    public DrugResponse createDrug(DrugRequest request) {
-        Drug drug = drugMapper.toEntity(request);
+    public DrugResponse createDrug(Long patientId, DrugRequest request) {
+        drugCacheEvictor.evictPatient(patientId);
+        patientService.checkExists(patientId);
+        Drug drug = drugMapper.toEntity(patientId, request);
         Drug savedDrug = drugRepository.save(drug);
-        return drugMapper.toDto(savedDrug);
+        DrugResponse response = drugMapper.toDto(savedDrug);
+        outboxWriter.append(DrugEvent.created(patientId, response));
+        afterCommit(() -> {
+            reminderScheduler.schedule(savedDrug);
+            drugSearchIndex.index(savedDrug);
+        });
+        return response;
     }
 
     @Override
     @Transactional
-    public DrugResponse updateDrug(Long id, DrugRequest request) {
-        Drug drug = drugRepository.findByIdAndActiveTrue(id)
+    public DrugResponse updateDrug(Long patientId, Long id, DrugRequest request) {
+        drugCacheEvictor.evictDrugs(patientId, List.of(id));
+        Drug drug = drugRepository.findByIdAndPatientIdAndActiveTrue(id, patientId)
                 .orElseThrow(() -> new DrugNotFoundException("Drug with ID: " + id + " not found"));
         drugMapper.updateEntityFromRequest(drug, request);
         Drug updatedDrug = drugRepository.save(drug);
-        return drugMapper.toDto(updatedDrug);
+        DrugResponse response = drugMapper.toDto(updatedDrug);
+        outboxWriter.append(DrugEvent.updated(patientId, response));
+        afterCommit(() -> {
+            reminderScheduler.schedule(updatedDrug);
+            drugSearchIndex.index(updatedDrug);
+        });
+        return response;
     }
 
     @Override
     @Transactional
-    public void deleteDrug(Long id) {
-        Drug drug = drugRepository.findByIdAndActiveTrue(id)
+    public void deleteDrug(Long patientId, Long id) {
+        drugCacheEvictor.evictDrugs(patientId, List.of(id));
+        Drug drug = drugRepository.findByIdAndPatientIdAndActiveTrue(id, patientId)
                 .orElseThrow(() -> new DrugNotFoundException("Drug with ID: " + id + " not found"));
 
         drug.setActive(false);
         drugRepository.save(drug);
+        outboxWriter.append(DrugEvent.deleted(patientId, id));
+        afterCommit(() -> {
+            reminderScheduler.cancel(id);
+            drugSearchIndex.remove(patientId, id);
+        });
     }
 
     @Override
-    @Transactional
-    public void markAsTaken(Long id) {
-        Drug drug = drugRepository.findByIdAndActiveTrue(id).orElseThrow(() -> new DrugNotFoundException("Drug with ID: " + id + " not found"));
-        LocalTime nextIntake = drug.getNextIntakeTime().plusHours(drug.getFrequencyHours());
-        drug.setNextIntakeTime(nextIntake);
-        drugRepository.save(drug);
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public NextIntakeResponse markAsTaken(Long patientId, Long id) {
+        drugCacheEvictor.evictDrugs(patientId, List.of(id));
+        drugCacheEvictor.evictEntities(List.of(id));
+        for (int attempt = 0; attempt < MAX_MARK_AS_TAKEN_ATTEMPTS; attempt++) {
+            IntakeState state = drugRepository.findIntakeState(patientId, id)
+                    .orElseThrow(() -> new DrugNotFoundException("Drug with ID: " + id + " not found"));
+            Instant nextIntake = state.getNextIntakeAt().plus(state.getFrequencyHours(), ChronoUnit.HOURS);
+            Instant now = Instant.now();
+            if (drugRepository.advanceNextIntake(id, state.getVersion(), nextIntake, LocalDateTime.now()) == 1) {
+                outboxWriter.append(DrugEvent.taken(patientId, id, state.getNextIntakeAt(), now, nextIntake));
+                afterCommit(() -> reminderScheduler.schedule(id, nextIntake, state.getActiveReminder()));
+                doseIntakeRecorder.record(DoseIntakeEvent.taken(id, state.getNextIntakeAt(), now, state.getTimeZone()));
+                return new NextIntakeResponse(id, nextIntake);
+            }
+        }
+        throw new ConcurrentUpdateException("Drug with ID: " + id + " is being updated concurrently, please retry");
     }
 
     @Override
-    @Transactional
-    public List<DrugResponse> searchByName(String drugName) {
-        return drugRepository.findByDrugNameContainingIgnoreCaseAndActiveTrue(drugName).stream().map(drug -> drugMapper.toDto(drug)).toList();
+    @Transactional(readOnly = true)
+    public List<DrugResponse> searchByName(Long patientId, String drugName, int limit) {
+        List<Long> rankedIds = drugSearchIndex.search(patientId, drugName, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, DrugResponse> drugsById = drugRepository.findActiveResponsesByIds(patientId, rankedIds).stream()
+                .collect(Collectors.toMap(DrugResponse::id, Function.identity()));
+        return rankedIds.stream()
+                .map(drugsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
-    @Transactional
     public void processReminders() {
-        LocalTime currentTime = LocalTime.now();
-        List<Drug> drugsForReminder = drugRepository.findDrugsForReminder(currentTime);
-        for(Drug drug : drugsForReminder) {
-            log.info("Recordatorio: Hora de tomar {} - {}", drug.getDrugName(), drug.getDosage());
+        int sent = reminderScheduler.fireDueReminders();
+        log.debug("Queued {} due reminders for delivery", sent);
+    }
+
+    /**
+     * Runs {@code action} once the surrounding transaction has committed, so the in-memory reminder
+     * and search state never gets ahead of the database: a rolled-back write leaves it untouched.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,35 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp;
+import com.hackaton.recuerdamed.drug.dto.DrugPageResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.dto.NextIntakeResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link DrugService} for the reactive stack, with the same results and
+ * errors. Listings are streamed from the database as the subscriber asks for more.
+ */
+public interface ReactiveDrugService {
+    Flux<DrugResponse> getAllDrugs(Long patientId);
+
+    Mono<DrugCollectionStamp> getAllDrugsStamp(Long patientId);
+
+    Mono<DrugPageResponse> getDrugPage(Long patientId, String cursor, int limit);
+
+    Mono<DrugResponse> getDrugById(Long patientId, Long id);
+
+    Mono<DrugResponse> createDrug(Long patientId, DrugRequest request);
+
+    Mono<DrugResponse> updateDrug(Long patientId, Long id, DrugRequest request);
+
+    Mono<Void> deleteDrug(Long patientId, Long id);
+
+    Mono<NextIntakeResponse> markAsTaken(Long patientId, Long id);
+
+    Flux<DrugResponse> searchByName(Long patientId, String drugName, int limit);
+
+    Mono<Integer> processReminders();
+}
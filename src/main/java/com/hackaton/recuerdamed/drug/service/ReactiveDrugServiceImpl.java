@@ -0,0 +1,200 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import com.hackaton.recuerdamed.drug.dto.DrugCollectionStamp;
+import com.hackaton.recuerdamed.drug.dto.DrugCursor;
+import com.hackaton.recuerdamed.drug.dto.DrugMapper;
+import com.hackaton.recuerdamed.drug.dto.DrugPageResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.dto.NextIntakeResponse;
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.ReactiveDrugRepository;
+import com.hackaton.recuerdamed.drug.search.DrugSearchIndex;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeEvent;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeRecorder;
+import com.hackaton.recuerdamed.outbox.service.DrugEvent;
+import com.hackaton.recuerdamed.outbox.service.ReactiveOutboxWriter;
+import com.hackaton.recuerdamed.patient.repository.ReactivePatientRepository;
+import com.hackaton.recuerdamed.reminder.scheduler.ReminderScheduler;
+import com.hackaton.recuerdamed.shared.custom_exception.ConcurrentUpdateException;
+import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import com.hackaton.recuerdamed.shared.custom_exception.PatientNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the reminder wheel, the search index and the dose log in sync exactly like
+ * {@link DrugServiceImpl}; all three are in memory, so nothing here blocks the event loop. Each
+ * write and its outbox event commit together in one R2DBC transaction, and the in-memory state is
+ * only touched once it has committed. Reminder processing still goes through JPA and runs on the
+ * bounded elastic scheduler. There are no drug caches on this stack.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDrugServiceImpl implements ReactiveDrugService {
+    private static final int MAX_MARK_AS_TAKEN_ATTEMPTS = 50;
+
+    private final ReactiveDrugRepository drugRepository;
+    private final ReactivePatientRepository patientRepository;
+    private final DrugMapper drugMapper;
+    private final ReminderScheduler reminderScheduler;
+    private final DrugSearchIndex drugSearchIndex;
+    private final DoseIntakeRecorder doseIntakeRecorder;
+    private final ReactiveOutboxWriter outboxWriter;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Flux<DrugResponse> getAllDrugs(Long patientId) {
+        return drugRepository.findActiveResponses(patientId);
+    }
+
+    @Override
+    public Mono<DrugCollectionStamp> getAllDrugsStamp(Long patientId) {
+        return drugRepository.findCollectionStamp(patientId);
+    }
+
+    @Override
+    public Mono<DrugPageResponse> getDrugPage(Long patientId, String cursor, int limit) {
+        Flux<DrugResponse> drugs;
+        if (cursor == null || cursor.isBlank()) {
+            drugs = drugRepository.findActiveResponsePage(patientId, limit + 1);
+        } else {
+            drugs = Mono.fromSupplier(() -> DrugCursor.decode(cursor))
+                    .flatMapMany(after -> drugRepository.findActiveResponsePageAfter(
+                            patientId, after.nextIntakeAt(), after.id(), limit + 1));
+        }
+
+        return drugs.collectList().map(page -> {
+            boolean hasMore = page.size() > limit;
+            List<DrugResponse> items = hasMore ? page.subList(0, limit) : page;
+            String nextCursor = hasMore ? DrugCursor.of(items.getLast()).encode() : null;
+            return new DrugPageResponse(items, nextCursor);
+        });
+    }
+
+    @Override
+    public Mono<DrugResponse> getDrugById(Long patientId, Long id) {
+        return drugRepository.findActiveResponseById(patientId, id)
+                .switchIfEmpty(drugNotFound(id));
+    }
+
+    @Override
+    public Mono<DrugResponse> createDrug(Long patientId, DrugRequest request) {
+        return patientRepository.existsById(patientId)
+                .flatMap(exists -> exists
+                        ? drugRepository.insert(drugMapper.toEntity(patientId, request))
+                        : Mono.<Drug>error(new PatientNotFoundException("Patient with ID: " + patientId + " not found")))
+                .flatMap(drug -> outboxWriter.append(DrugEvent.created(patientId, drugMapper.toDto(drug))).thenReturn(drug))
+                .as(transactionalOperator::transactional)
+                .doOnNext(this::track)
+                .map(drugMapper::toDto);
+    }
+
+    @Override
+    public Mono<DrugResponse> updateDrug(Long patientId, Long id, DrugRequest request) {
+        return drugRepository.findActiveDrug(patientId, id)
+                .switchIfEmpty(drugNotFound(id))
+                .flatMap(drug -> {
+                    drugMapper.updateEntityFromRequest(drug, request);
+                    return drugRepository.update(drug)
+                            .switchIfEmpty(Mono.error(() -> new ConcurrentUpdateException(
+                                    "Drug with ID: " + id + " is being updated concurrently, please retry")));
+                })
+                .flatMap(drug -> outboxWriter.append(DrugEvent.updated(patientId, drugMapper.toDto(drug))).thenReturn(drug))
+                .as(transactionalOperator::transactional)
+                .doOnNext(this::track)
+                .map(drugMapper::toDto);
+    }
+
+    @Override
+    public Mono<Void> deleteDrug(Long patientId, Long id) {
+        return drugRepository.deactivate(patientId, id, LocalDateTime.now())
+                .filter(updated -> updated > 0)
+                .switchIfEmpty(drugNotFound(id))
+                .flatMap(updated -> outboxWriter.append(DrugEvent.deleted(patientId, id)).thenReturn(updated))
+                .as(transactionalOperator::transactional)
+                .doOnNext(updated -> {
+                    reminderScheduler.cancel(id);
+                    drugSearchIndex.remove(patientId, id);
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<NextIntakeResponse> markAsTaken(Long patientId, Long id) {
+        return markAsTaken(patientId, id, 1);
+    }
+
+    private Mono<NextIntakeResponse> markAsTaken(Long patientId, Long id, int attempt) {
+        return drugRepository.findActiveDrug(patientId, id)
+                .switchIfEmpty(drugNotFound(id))
+                .flatMap(drug -> {
+                    Instant nextIntake = drug.getNextIntakeAt().plus(drug.getFrequencyHours(), ChronoUnit.HOURS);
+                    Instant now = Instant.now();
+                    return drugRepository.advanceNextIntake(id, drug.getVersion(), nextIntake, LocalDateTime.now())
+                            .flatMap(updated -> updated == 1
+                                    ? outboxWriter.append(DrugEvent.taken(patientId, id, drug.getNextIntakeAt(), now, nextIntake))
+                                            .thenReturn(true)
+                                    : Mono.just(false))
+                            .as(transactionalOperator::transactional)
+                            .flatMap(advanced -> {
+                                if (advanced) {
+                                    reminderScheduler.schedule(id, nextIntake, drug.getActiveReminder());
+                                    doseIntakeRecorder.record(DoseIntakeEvent.taken(id, drug.getNextIntakeAt(), now, drug.getTimeZone()));
+                                    return Mono.just(new NextIntakeResponse(id, nextIntake));
+                                }
+                                if (attempt < MAX_MARK_AS_TAKEN_ATTEMPTS) {
+                                    return markAsTaken(patientId, id, attempt + 1);
+                                }
+                                return Mono.error(new ConcurrentUpdateException(
+                                        "Drug with ID: " + id + " is being updated concurrently, please retry"));
+                            });
+                });
+    }
+
+    @Override
+    public Flux<DrugResponse> searchByName(Long patientId, String drugName, int limit) {
+        return Flux.defer(() -> {
+            List<Long> rankedIds = drugSearchIndex.search(patientId, drugName, limit);
+            if (rankedIds.isEmpty()) {
+                return Flux.empty();
+            }
+            return drugRepository.findActiveResponsesByIds(patientId, rankedIds)
+                    .collectMap(DrugResponse::id)
+                    .flatMapIterable(drugsById -> rankedIds.stream()
+                            .map(drugsById::get)
+                            .filter(Objects::nonNull)
+                            .toList());
+        });
+    }
+
+    @Override
+    public Mono<Integer> processReminders() {
+        return Mono.fromCallable(reminderScheduler::fireDueReminders)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(sent -> log.debug("Queued {} due reminders for delivery", sent));
+    }
+
+    private void track(Drug drug) {
+        reminderScheduler.schedule(drug);
+        drugSearchIndex.index(drug);
+    }
+
+    private static <T> Mono<T> drugNotFound(Long id) {
+        return Mono.error(() -> new DrugNotFoundException("Drug with ID: " + id + " not found"));
+    }
+}
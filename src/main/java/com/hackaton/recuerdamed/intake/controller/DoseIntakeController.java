@@ -0,0 +1,45 @@
+package com.hackaton.recuerdamed.intake.controller;
+
+import com.hackaton.recuerdamed.intake.dto.DoseIntakeResponse;
+import com.hackaton.recuerdamed.intake.dto.MissedDoseResponse;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeService;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/medicamentos")
+@Tag(name= "Dose intakes", description = "History of taken and missed doses")
+public class DoseIntakeController {
+    private final DoseIntakeService doseIntakeService;
+
+    @Operation(summary = "Get dose intakes", description = "Return the doses of a drug taken between two date-times, oldest first")
+    @GetMapping("/{id}/tomas")
+    public ResponseEntity<List<DoseIntakeResponse>> getIntakes(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                                               @PathVariable Long id,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to){
+        List<DoseIntakeResponse> intakes = doseIntakeService.getIntakes(patientId, id, from, to);
+        return ResponseEntity.ok(intakes);
+    }
+
+    @Operation(summary = "Get missed doses", description = "Return the doses of a drug that were due between two date-times but never taken")
+    @GetMapping("/{id}/tomas/omitidas")
+    public ResponseEntity<List<MissedDoseResponse>> getMissedDoses(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId,
+                                                                   @PathVariable Long id,
+                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to){
+        List<MissedDoseResponse> missed = doseIntakeService.getMissedDoses(patientId, id, from, to);
+        return ResponseEntity.ok(missed);
+    }
+}
@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.intake.dto;
+
+import java.time.LocalDateTime;
+
+public record DoseIntakeResponse(
+        Long id,
+        Long drugId,
+        LocalDateTime scheduledAt,
+        LocalDateTime takenAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.hackaton.recuerdamed.intake.dto;
+
+import java.time.LocalDateTime;
+
+public record MissedDoseResponse(
+        Long drugId,
+        LocalDateTime scheduledAt
+) {
+}
@@ -0,0 +1,44 @@
+package com.hackaton.recuerdamed.intake.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One taken dose. Rows are only ever inserted, in batches, by {@code DoseIntakeRecorder}, which
+ * leaves {@code id} to the database. There is deliberately no foreign key to {@code drugs}, and
+ * {@code taken_at} is part of the primary key, so the table can be range-partitioned by month on
+ * {@code taken_at} and old months dropped as whole partitions.
+ */
+@Entity
+@Table(name = "dose_intakes", indexes = {
+        @Index(name = "idx_dose_intakes_drug_taken", columnList = "drug_id, taken_at"),
+        @Index(name = "idx_dose_intakes_drug_scheduled", columnList = "drug_id, scheduled_at")
+})
+@IdClass(DoseIntakeId.class)
+@Immutable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoseIntake {
+
+    @Id
+    @Column(name = "id", insertable = false, updatable = false, columnDefinition = "BIGINT AUTO_INCREMENT")
+    private Long id;
+
+    @Column(nullable = false, name = "drug_id", updatable = false)
+    private Long drugId;
+
+    @Column(nullable = false, name = "scheduled_at", updatable = false)
+    private LocalDateTime scheduledAt;
+
+    @Id
+    @Column(nullable = false, name = "taken_at", updatable = false)
+    private LocalDateTime takenAt;
+}
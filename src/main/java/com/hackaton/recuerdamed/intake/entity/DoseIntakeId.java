@@ -0,0 +1,18 @@
+package com.hackaton.recuerdamed.intake.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoseIntakeId implements Serializable {
+
+    private Long id;
+
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,30 @@
+package com.hackaton.recuerdamed.intake.repository;
+
+import com.hackaton.recuerdamed.intake.dto.DoseIntakeResponse;
+import com.hackaton.recuerdamed.intake.entity.DoseIntake;
+import com.hackaton.recuerdamed.intake.entity.DoseIntakeId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DoseIntakeRepository extends JpaRepository<DoseIntake, DoseIntakeId> {
+
+    @Query("SELECT new com.hackaton.recuerdamed.intake.dto.DoseIntakeResponse(i.id, i.drugId, i.scheduledAt, i.takenAt) " +
+            "FROM DoseIntake i WHERE i.drugId = :drugId AND i.takenAt >= :from AND i.takenAt < :to " +
+            "ORDER BY i.takenAt, i.id")
+    List<DoseIntakeResponse> findIntakes(@Param("drugId") Long drugId,
+                                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT i.scheduledAt FROM DoseIntake i " +
+            "WHERE i.drugId = :drugId AND i.scheduledAt >= :from AND i.scheduledAt < :to ORDER BY i.scheduledAt")
+    List<LocalDateTime> findScheduledTimes(@Param("drugId") Long drugId,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT MAX(i.scheduledAt) FROM DoseIntake i WHERE i.drugId = :drugId AND i.scheduledAt < :before")
+    LocalDateTime findLastScheduledBefore(@Param("drugId") Long drugId, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,23 @@
+package com.hackaton.recuerdamed.intake.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+public record DoseIntakeEvent(
+        Long drugId,
+        LocalDateTime scheduledAt,
+        LocalDateTime takenAt
+) {
+
+    /**
+     * Builds the event for the dose due at {@code dueAt} and taken at {@code takenAt}. Both are
+     * stored as wall-clock times in the drug's {@code timeZone}, like the rest of its dates, so
+     * daily and weekly buckets follow the patient's calendar.
+     */
+    public static DoseIntakeEvent taken(Long drugId, Instant dueAt, Instant takenAt, ZoneId timeZone) {
+        return new DoseIntakeEvent(drugId,
+                LocalDateTime.ofInstant(dueAt, timeZone),
+                LocalDateTime.ofInstant(takenAt, timeZone));
+    }
+}
@@ -0,0 +1,17 @@
+package com.hackaton.recuerdamed.intake.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "intake")
+public record DoseIntakeProperties(
+        @DefaultValue("100000") int bufferCapacity,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("200ms") Duration flushInterval,
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("1h") Duration missedAfter,
+        @DefaultValue("366d") Duration maxRange
+) {
+}
@@ -0,0 +1,234 @@
+package com.hackaton.recuerdamed.intake.service;
+
+import com.hackaton.recuerdamed.adherence.service.AdherenceRollupWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind buffer for the dose log. {@link #record} only puts the event on a bounded queue, so
+ * marking a drug as taken never waits for the insert. A single writer thread drains the queue every
+ * {@code intake.flush-interval}, or as soon as {@code intake.batch-size} events are waiting, and
+ * inserts them with one batched JDBC statement before adding them to the adherence rollups.
+ * Intakes therefore show up in queries up to one flush interval after they are recorded.
+ */
+@Component
+@Slf4j
+public class DoseIntakeRecorder {
+    static final String INSERT_SQL = "INSERT INTO dose_intakes (drug_id, scheduled_at, taken_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AdherenceRollupWriter adherenceRollupWriter;
+    private final DoseIntakeProperties properties;
+    private final boolean virtualThreads;
+    private final BlockingQueue<DoseIntakeEvent> buffer;
+    private final Object writeLock = new Object();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rollupFailed = new LongAdder();
+    private volatile Thread writer;
+
+    @Autowired
+    public DoseIntakeRecorder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              AdherenceRollupWriter adherenceRollupWriter, DoseIntakeProperties properties,
+                              Environment environment) {
+        this(jdbcTemplate, transactionTemplate, adherenceRollupWriter, properties, Threading.VIRTUAL.isActive(environment));
+    }
+
+    DoseIntakeRecorder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                       AdherenceRollupWriter adherenceRollupWriter, DoseIntakeProperties properties,
+                       boolean virtualThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.adherenceRollupWriter = adherenceRollupWriter;
+        this.properties = properties;
+        this.virtualThreads = virtualThreads;
+        this.buffer = new ArrayBlockingQueue<>(properties.bufferCapacity());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("dose-intake-writer")
+                : Thread.ofPlatform().name("dose-intake-writer").daemon();
+        writer = builder.start(this::runWriter);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(properties.flushInterval().multipliedBy(10).toMillis());
+            writer = null;
+        }
+        flush();
+    }
+
+    /**
+     * Queues an intake for the next flush. Called inside a transaction, the event is only queued
+     * once that transaction commits, so a dose whose drug update rolls back is never logged. Never
+     * blocks: if the buffer is full the event is dropped and counted rather than slowing down the
+     * caller.
+     */
+    public void record(DoseIntakeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+            return;
+        }
+        enqueue(event);
+    }
+
+    private void enqueue(DoseIntakeEvent event) {
+        if (buffer.offer(event)) {
+            recorded.increment();
+            if (buffer.size() >= properties.batchSize() && writer != null) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+        dropped.increment();
+        log.error("Dose log buffer is full ({} events), dropping intake of drug {} at {}",
+                properties.bufferCapacity(), event.drugId(), event.takenAt());
+    }
+
+    /**
+     * Writes everything buffered so far before returning, including a batch the writer thread is
+     * writing at that moment.
+     *
+     * @return number of events written
+     */
+    public int flush() {
+        synchronized (writeLock) {
+            List<DoseIntakeEvent> batch = new ArrayList<>(properties.batchSize());
+            int total = 0;
+            while (buffer.drainTo(batch, properties.batchSize()) > 0) {
+                total += write(batch);
+                batch.clear();
+            }
+            return total;
+        }
+    }
+
+    public long recordedCount() {
+        return recorded.sum();
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long rollupFailedCount() {
+        return rollupFailed.sum();
+    }
+
+    public int bufferedCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Sleeps for a flush interval, or until {@link #enqueue} sees a full batch waiting, then
+     * flushes. Events are only taken off the buffer inside {@link #flush}, under the write lock,
+     * so a caller of {@code flush} never returns while the writer still holds some of them.
+     */
+    private void runWriter() {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (buffer.size() < properties.batchSize()) {
+                LockSupport.parkNanos(this, properties.flushInterval().toNanos());
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Inserts the batch in its own transaction, then adds it to the adherence rollups in another,
+     * so a failing rollup never takes the dose log down with it. Intakes whose rollup still fails
+     * after the last attempt are logged and counted; {@code --rebuild-adherence} recomputes their
+     * days from the dose log.
+     */
+    private int write(List<DoseIntakeEvent> batch) {
+        try {
+            retry("Writing", batch, () -> transactionTemplate.executeWithoutResult(status -> insert(batch)));
+        } catch (DataAccessException exception) {
+            dropped.add(batch.size());
+            log.error("Could not write {} dose intakes after {} attempts", batch.size(), properties.maxAttempts(), exception);
+            return 0;
+        }
+        written.add(batch.size());
+        try {
+            retry("Rolling up", batch, () -> adherenceRollupWriter.recordTaken(batch));
+        } catch (DataAccessException exception) {
+            rollupFailed.add(batch.size());
+            log.error("Could not add {} dose intakes to the adherence rollups after {} attempts, " +
+                    "rebuild their days with --rebuild-adherence", batch.size(), properties.maxAttempts(), exception);
+        }
+        return batch.size();
+    }
+
+    private void insert(List<DoseIntakeEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+            statement.setLong(1, event.drugId());
+            statement.setTimestamp(2, Timestamp.valueOf(event.scheduledAt()));
+            statement.setTimestamp(3, Timestamp.valueOf(event.takenAt()));
+        });
+    }
+
+    private void retry(String action, List<DoseIntakeEvent> batch, Runnable step) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                step.run();
+                return;
+            } catch (DataAccessException exception) {
+                if (attempt >= properties.maxAttempts()) {
+                    throw exception;
+                }
+                log.warn("{} {} dose intakes failed (attempt {} of {}): {}",
+                        action, batch.size(), attempt, properties.maxAttempts(), exception.getMessage());
+                pauseBeforeRetry(attempt);
+            }
+        }
+    }
+
+    private void pauseBeforeRetry(int attempt) {
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.flushInterval().multipliedBy(attempt).toMillis());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
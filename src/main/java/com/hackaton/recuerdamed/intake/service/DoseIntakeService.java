@@ -0,0 +1,13 @@
+package com.hackaton.recuerdamed.intake.service;
+
+import com.hackaton.recuerdamed.intake.dto.DoseIntakeResponse;
+import com.hackaton.recuerdamed.intake.dto.MissedDoseResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DoseIntakeService {
+    List<DoseIntakeResponse> getIntakes(Long patientId, Long drugId, LocalDateTime from, LocalDateTime to);
+
+    List<MissedDoseResponse> getMissedDoses(Long patientId, Long drugId, LocalDateTime from, LocalDateTime to);
+}
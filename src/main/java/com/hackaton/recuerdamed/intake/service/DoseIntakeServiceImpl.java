@@ -0,0 +1,55 @@
+package com.hackaton.recuerdamed.intake.service;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.intake.dto.DoseIntakeResponse;
+import com.hackaton.recuerdamed.intake.dto.MissedDoseResponse;
+import com.hackaton.recuerdamed.intake.repository.DoseIntakeRepository;
+import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import com.hackaton.recuerdamed.shared.custom_exception.InvalidDateRangeException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DoseIntakeServiceImpl implements DoseIntakeService {
+    private final DoseIntakeRepository doseIntakeRepository;
+    private final DrugRepository drugRepository;
+    private final MissedDoseCalculator missedDoseCalculator;
+    private final DoseIntakeProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DoseIntakeResponse> getIntakes(Long patientId, Long drugId, LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+        if (!drugRepository.existsByIdAndPatientId(drugId, patientId)) {
+            throw new DrugNotFoundException("Drug with ID: " + drugId + " not found");
+        }
+        return doseIntakeRepository.findIntakes(drugId, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MissedDoseResponse> getMissedDoses(Long patientId, Long drugId, LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+        Drug drug = drugRepository.findByIdAndPatientId(drugId, patientId)
+                .orElseThrow(() -> new DrugNotFoundException("Drug with ID: " + drugId + " not found"));
+        return missedDoseCalculator.missedSlots(drug, from, to).stream()
+                .map(scheduledAt -> new MissedDoseResponse(drugId, scheduledAt))
+                .toList();
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidDateRangeException("'from' must be before 'to'");
+        }
+        if (Duration.between(from, to).compareTo(properties.maxRange()) > 0) {
+            throw new InvalidDateRangeException("Date range cannot be longer than " + properties.maxRange().toDays() + " days");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.hackaton.recuerdamed.intake.service;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.intake.repository.DoseIntakeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Works out which dose slots of a drug were never taken. A slot is missed when it is older than
+ * {@code intake.missed-after} and no intake was booked against it. Slots are spaced
+ * {@code frequencyHours} apart starting at the drug's start date, and every intake restarts the
+ * spacing from its own scheduled time, so one late dose shifts the following slots instead of
+ * turning all of them into misses.
+ */
+@Component
+@RequiredArgsConstructor
+public class MissedDoseCalculator {
+    private final DoseIntakeRepository doseIntakeRepository;
+    private final DoseIntakeProperties properties;
+
+    public List<LocalDateTime> missedSlots(Drug drug, LocalDateTime from, LocalDateTime to) {
+        Duration frequency = Duration.ofHours(drug.getFrequencyHours());
+        Duration tolerance = frequency.dividedBy(2);
+
+        LocalDateTime cutoff = min(to, LocalDateTime.now(drug.getTimeZone()).minus(properties.missedAfter()));
+        if (drug.getEndDate() != null) {
+            cutoff = min(cutoff, drug.getEndDate());
+        }
+
+        LocalDateTime previous = doseIntakeRepository.findLastScheduledBefore(drug.getId(), from);
+        if (previous == null) {
+            previous = drug.getStartDate().minus(frequency);
+        }
+        List<LocalDateTime> missed = new ArrayList<>();
+        for (LocalDateTime scheduledAt : doseIntakeRepository.findScheduledTimes(drug.getId(), from, to)) {
+            addSlots(missed, previous, min(scheduledAt.minus(tolerance), cutoff), from, frequency);
+            previous = scheduledAt;
+        }
+        addSlots(missed, previous, cutoff, from, frequency);
+        return missed;
+    }
+
+    private static void addSlots(List<LocalDateTime> missed, LocalDateTime previous, LocalDateTime until,
+                                 LocalDateTime from, Duration frequency) {
+        LocalDateTime slot = previous.plus(frequency);
+        if (slot.isBefore(from)) {
+            long steps = Math.ceilDiv(Duration.between(slot, from).toMinutes(), frequency.toMinutes());
+            slot = slot.plus(frequency.multipliedBy(steps));
+        }
+        for (; slot.isBefore(until); slot = slot.plus(frequency)) {
+            missed.add(slot);
+        }
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hackaton.recuerdamed.outbox.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+        @DefaultValue Relay relay,
+        @DefaultValue Compaction compaction,
+        @DefaultValue File file
+) {
+    public record Relay(
+            @DefaultValue("true") boolean autoStart,
+            @DefaultValue("500") int batchSize,
+            @DefaultValue("500ms") Duration pollInterval,
+            @DefaultValue("1s") Duration initialBackoff,
+            @DefaultValue("1m") Duration maxBackoff,
+            @DefaultValue("30s") Duration lease
+    ) {
+    }
+
+    public record Compaction(
+            @DefaultValue("7d") Duration retention,
+            @DefaultValue("10m") Duration interval,
+            @DefaultValue("10000") int batchSize
+    ) {
+    }
+
+    public record File(
+            @DefaultValue("outbox/drug-events.ndjson") Path path
+    ) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.hackaton.recuerdamed.outbox.dto;
+
+public record DrugDeletedPayload(
+        Long id
+) {
+}
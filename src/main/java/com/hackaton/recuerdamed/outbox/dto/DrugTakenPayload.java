@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.outbox.dto;
+
+import java.time.Instant;
+
+public record DrugTakenPayload(
+        Long id,
+        Instant scheduledAt,
+        Instant takenAt,
+        Instant nextIntakeAt
+) {
+}
@@ -0,0 +1,21 @@
+package com.hackaton.recuerdamed.outbox.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.hackaton.recuerdamed.outbox.entity.DrugEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to the publisher. {@code payload} is the JSON document stored with the
+ * event and is written out as is.
+ */
+public record OutboxMessage(
+        Long id,
+        String eventKey,
+        DrugEventType type,
+        Long drugId,
+        Long patientId,
+        @JsonRawValue String payload,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,8 @@
+package com.hackaton.recuerdamed.outbox.entity;
+
+public enum DrugEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    TAKEN
+}
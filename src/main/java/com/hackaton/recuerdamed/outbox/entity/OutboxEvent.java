@@ -0,0 +1,54 @@
+package com.hackaton.recuerdamed.outbox.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change of a drug waiting to be published, or already published. Rows are inserted by
+ * {@code OutboxWriter} in the transaction of the change itself and read in {@code id} order by the
+ * relay. {@code eventKey} is the idempotency key: it is generated once, when the row is written,
+ * and stays the same however many times the event is delivered.
+ */
+@Entity
+@Table(name = "drug_outbox", indexes = {
+        @Index(name = "idx_drug_outbox_delivered", columnList = "delivered_at, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_drug_outbox_event_key", columnNames = "event_key")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, name = "event_key", updatable = false, columnDefinition = "CHAR(36)")
+    private String eventKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, name = "event_type", updatable = false, columnDefinition = "VARCHAR(16)")
+    private DrugEventType eventType;
+
+    @Column(nullable = false, name = "drug_id", updatable = false)
+    private Long drugId;
+
+    @Column(nullable = false, name = "patient_id", updatable = false)
+    private Long patientId;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "JSON")
+    private String payload;
+
+    @Column(nullable = false, name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+}
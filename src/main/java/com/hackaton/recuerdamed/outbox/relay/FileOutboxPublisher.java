@@ -0,0 +1,65 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.recuerdamed.outbox.config.OutboxProperties;
+import com.hackaton.recuerdamed.outbox.dto.OutboxMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each batch to {@code outbox.file.path} as newline-delimited JSON, one event per line, and
+ * forces it to disk before returning, so a batch the relay marks as delivered is never lost.
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox", name = "publisher", havingValue = "file")
+public class FileOutboxPublisher implements OutboxPublisher {
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxPublisher(ObjectMapper objectMapper, OutboxProperties properties) {
+        this.objectMapper = objectMapper;
+        this.path = properties.file().path();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not create the directory of outbox file " + path, exception);
+        }
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        try {
+            for (OutboxMessage message : batch) {
+                lines.write(objectMapper.writeValueAsBytes(message));
+                lines.write('\n');
+            }
+        } catch (IOException exception) {
+            throw new OutboxPublishException("Could not serialize outbox batch", exception);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException exception) {
+            throw new OutboxPublishException("Could not write outbox batch to " + path, exception);
+        }
+    }
+}
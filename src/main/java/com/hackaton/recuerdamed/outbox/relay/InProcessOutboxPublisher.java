@@ -0,0 +1,26 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+import com.hackaton.recuerdamed.outbox.dto.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes every event as an application event, for local runs and tests: any
+ * {@code @EventListener} of {@link OutboxMessage} receives the events in order, on the relay
+ * thread. A listener that throws fails the batch.
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox", name = "publisher", havingValue = "in-process", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InProcessOutboxPublisher implements OutboxPublisher {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        batch.forEach(eventPublisher::publishEvent);
+    }
+}
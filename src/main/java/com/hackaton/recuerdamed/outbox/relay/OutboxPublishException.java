@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+public class OutboxPublishException extends RuntimeException {
+    public OutboxPublishException(String message) {
+        super(message);
+    }
+
+    public OutboxPublishException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+import com.hackaton.recuerdamed.outbox.dto.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Publishes outbox events. Implementations are called from the relay thread with no transaction or
+ * connection open, get each batch in outbox order, and must throw when any event of the batch
+ * could not be published so the whole batch is retried. A batch may be published more than once.
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxMessage> batch);
+}
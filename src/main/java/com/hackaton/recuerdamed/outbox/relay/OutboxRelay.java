@@ -0,0 +1,200 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+import com.hackaton.recuerdamed.outbox.config.OutboxProperties;
+import com.hackaton.recuerdamed.outbox.dto.OutboxMessage;
+import com.hackaton.recuerdamed.outbox.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves drug events from {@code drug_outbox} to the {@link OutboxPublisher}. One relay thread reads
+ * the undelivered rows in id order, up to {@code outbox.relay.batch-size} at a time, publishes them
+ * as one batch and only then marks them delivered, each step in a short transaction of its own so
+ * no connection is held while the publisher runs. A failed batch is retried with exponential backoff
+ * until it goes through, and nothing after it is published in the meantime. The events of one drug
+ * are written by transactions that update its versioned row, so their ids follow the order of the
+ * changes and the publisher sees them in that order. With several instances, only the one holding
+ * the {@link OutboxRelayLease} publishes; the others find no batch to relay.
+ * <p>
+ * Delivery is at least once: a crash between publishing a batch and marking it delivered publishes
+ * it again on restart, and consumers drop the repeats by {@link OutboxMessage#eventKey()}. Delivered
+ * rows are kept for {@code outbox.compaction.retention} and then deleted in chunks every
+ * {@code outbox.compaction.interval}.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher publisher;
+    private final OutboxRelayLease lease;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final boolean virtualThreads;
+    private final Object relayLock = new Object();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder compacted = new LongAdder();
+    private Thread relay;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxPublisher publisher, OutboxRelayLease lease,
+                       TransactionTemplate transactionTemplate, OutboxProperties properties, Environment environment) {
+        this(outboxEventRepository, publisher, lease, transactionTemplate, properties, Threading.VIRTUAL.isActive(environment));
+    }
+
+    OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxPublisher publisher, OutboxRelayLease lease,
+                TransactionTemplate transactionTemplate, OutboxProperties properties, boolean virtualThreads) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.lease = lease;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (relay != null || !properties.relay().autoStart()) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("outbox-relay")
+                : Thread.ofPlatform().name("outbox-relay").daemon();
+        relay = builder.start(this::runRelay);
+        log.info("Outbox relay started with {} publisher", publisher.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (relay != null) {
+            relay.interrupt();
+            relay.join(properties.relay().maxBackoff().toMillis());
+            relay = null;
+            try {
+                lease.release();
+            } catch (RuntimeException exception) {
+                log.warn("Could not release the outbox relay lease, it expires in {}: {}",
+                        properties.relay().lease(), exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Publishes pending events until none is left, retrying a failed batch until it goes through.
+     *
+     * @return number of events published
+     */
+    public int relayPending() throws InterruptedException {
+        int total = 0;
+        while (true) {
+            int relayed = relayBatchWithRetry();
+            total += relayed;
+            if (relayed < properties.relay().batchSize()) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Deletes every event delivered more than {@code outbox.compaction.retention} ago.
+     *
+     * @return number of events deleted
+     */
+    public int compact() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.compaction().retention());
+        int chunkSize = properties.compaction().batchSize();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteDeliveredBefore(before, chunkSize));
+            total += deleted;
+        } while (deleted == chunkSize);
+        compacted.add(total);
+        if (total > 0) {
+            log.info("Compacted {} outbox events delivered before {}", total, before);
+        }
+        return total;
+    }
+
+    public OutboxRelayStats stats() {
+        return new OutboxRelayStats(published.sum(), retried.sum(), compacted.sum());
+    }
+
+    /**
+     * Publishes the oldest pending batch once, if this instance holds the lease. If the publisher
+     * throws, the exception propagates and nothing is marked as delivered.
+     *
+     * @return number of events published
+     */
+    int relayBatch() {
+        synchronized (relayLock) {
+            if (!lease.acquire()) {
+                return 0;
+            }
+            List<OutboxMessage> batch = transactionTemplate.execute(status ->
+                    outboxEventRepository.findPending(Limit.of(properties.relay().batchSize())));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            publisher.publish(batch);
+            List<Long> ids = batch.stream().map(OutboxMessage::id).toList();
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markDelivered(ids, LocalDateTime.now()));
+            published.add(batch.size());
+            return batch.size();
+        }
+    }
+
+    private int relayBatchWithRetry() throws InterruptedException {
+        Duration backoff = properties.relay().initialBackoff();
+        while (true) {
+            try {
+                return relayBatch();
+            } catch (RuntimeException exception) {
+                retried.increment();
+                log.warn("Publishing outbox events failed, retrying in {} ms: {}", backoff.toMillis(), exception.getMessage());
+                Thread.sleep(backoff.toMillis());
+                backoff = backoff.multipliedBy(2).compareTo(properties.relay().maxBackoff()) > 0
+                        ? properties.relay().maxBackoff()
+                        : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private void runRelay() {
+        long nextCompaction = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                relayPending();
+                if (System.nanoTime() - nextCompaction >= 0) {
+                    compactQuietly();
+                    nextCompaction = System.nanoTime() + properties.compaction().interval().toNanos();
+                }
+                Thread.sleep(properties.relay().pollInterval().toMillis());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException exception) {
+            log.warn("Outbox compaction failed, retrying in {}: {}", properties.compaction().interval(), exception.getMessage());
+        }
+    }
+}
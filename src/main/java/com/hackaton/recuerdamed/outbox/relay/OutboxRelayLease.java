@@ -0,0 +1,67 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+import com.hackaton.recuerdamed.outbox.config.OutboxProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which instance relays the outbox. The lease is a single row in
+ * {@code outbox_relay_lease}; an instance holds it while the row names it and
+ * {@code outbox.relay.lease} has not run out on the database clock. The holder renews it before
+ * every batch, so it only lapses when the holder stops or cannot reach the database, and another
+ * instance takes over at its next poll.
+ * <p>
+ * Batches are not claimed one by one because the relay publishes in id order: two instances
+ * publishing different batches at once could deliver the events of one drug out of order. A holder
+ * stalled past its lease may still publish the batch it already read; consumers drop the repeat
+ * by event key like any other redelivery.
+ */
+@Component
+@Slf4j
+public class OutboxRelayLease {
+    private static final String CREATE_SQL = "INSERT IGNORE INTO outbox_relay_lease (id, owner, expires_at) " +
+            "VALUES (1, ?, NOW(6) + INTERVAL ? MICROSECOND)";
+    private static final String RENEW_SQL = "UPDATE outbox_relay_lease SET owner = ?, expires_at = NOW(6) + INTERVAL ? MICROSECOND " +
+            "WHERE id = 1 AND (owner = ? OR expires_at < NOW(6))";
+    private static final String RELEASE_SQL = "UPDATE outbox_relay_lease SET expires_at = NOW(6) WHERE id = 1 AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxProperties.Relay properties;
+    private final String owner = UUID.randomUUID().toString();
+    private volatile boolean held;
+
+    public OutboxRelayLease(JdbcTemplate jdbcTemplate, OutboxProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties.relay();
+    }
+
+    /**
+     * Takes or renews the lease.
+     *
+     * @return whether this instance holds the lease and may publish
+     */
+    public boolean acquire() {
+        long leaseMicros = TimeUnit.NANOSECONDS.toMicros(properties.lease().toNanos());
+        boolean acquired = jdbcTemplate.update(CREATE_SQL, owner, leaseMicros) == 1
+                || jdbcTemplate.update(RENEW_SQL, owner, leaseMicros, owner) == 1;
+        if (acquired != held) {
+            log.info(acquired ? "Outbox relay lease taken by {}" : "Outbox relay lease lost by {}", owner);
+            held = acquired;
+        }
+        return acquired;
+    }
+
+    /**
+     * Lets the lease run out now, so another instance takes over without waiting for it to expire.
+     */
+    public void release() {
+        if (held) {
+            jdbcTemplate.update(RELEASE_SQL, owner);
+            held = false;
+        }
+    }
+}
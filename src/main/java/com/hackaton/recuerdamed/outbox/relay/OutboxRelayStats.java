@@ -0,0 +1,8 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+public record OutboxRelayStats(
+        long published,
+        long retried,
+        long compacted
+) {
+}
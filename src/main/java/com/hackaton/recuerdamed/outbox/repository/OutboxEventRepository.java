@@ -0,0 +1,34 @@
+package com.hackaton.recuerdamed.outbox.repository;
+
+import com.hackaton.recuerdamed.outbox.dto.OutboxMessage;
+import com.hackaton.recuerdamed.outbox.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT new com.hackaton.recuerdamed.outbox.dto.OutboxMessage(e.id, e.eventKey, e.eventType, e.drugId, " +
+            "e.patientId, e.payload, e.createdAt) FROM OutboxEvent e WHERE e.deliveredAt IS NULL ORDER BY e.id ASC")
+    List<OutboxMessage> findPending(Limit limit);
+
+    long countByDeliveredAtIsNull();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.deliveredAt = :deliveredAt WHERE e.id IN :ids AND e.deliveredAt IS NULL")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    /**
+     * Deletes up to {@code limit} rows delivered before {@code before}, oldest first.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM drug_outbox WHERE delivered_at < :before ORDER BY delivered_at LIMIT :limit",
+            nativeQuery = true)
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
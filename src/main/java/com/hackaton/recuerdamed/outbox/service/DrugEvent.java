@@ -0,0 +1,49 @@
+package com.hackaton.recuerdamed.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.outbox.dto.DrugDeletedPayload;
+import com.hackaton.recuerdamed.outbox.dto.DrugTakenPayload;
+import com.hackaton.recuerdamed.outbox.entity.DrugEventType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A change of a drug to be written to the outbox. {@code eventKey} is the idempotency key, drawn
+ * when the event is created; the payload is serialized with the application's
+ * {@link ObjectMapper} when the event is written.
+ */
+public record DrugEvent(
+        String eventKey,
+        DrugEventType type,
+        Long patientId,
+        Long drugId,
+        Object payload
+) {
+    public static DrugEvent created(Long patientId, DrugResponse drug) {
+        return new DrugEvent(UUID.randomUUID().toString(), DrugEventType.CREATED, patientId, drug.id(), drug);
+    }
+
+    public static DrugEvent updated(Long patientId, DrugResponse drug) {
+        return new DrugEvent(UUID.randomUUID().toString(), DrugEventType.UPDATED, patientId, drug.id(), drug);
+    }
+
+    public static DrugEvent deleted(Long patientId, Long drugId) {
+        return new DrugEvent(UUID.randomUUID().toString(), DrugEventType.DELETED, patientId, drugId, new DrugDeletedPayload(drugId));
+    }
+
+    public static DrugEvent taken(Long patientId, Long drugId, Instant scheduledAt, Instant takenAt, Instant nextIntakeAt) {
+        return new DrugEvent(UUID.randomUUID().toString(), DrugEventType.TAKEN, patientId, drugId,
+                new DrugTakenPayload(drugId, scheduledAt, takenAt, nextIntakeAt));
+    }
+
+    String payloadJson(ObjectMapper objectMapper) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize " + type + " event of drug " + drugId, exception);
+        }
+    }
+}
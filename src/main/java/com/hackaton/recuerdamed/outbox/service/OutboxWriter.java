@@ -0,0 +1,60 @@
+package com.hackaton.recuerdamed.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Appends drug events to {@code drug_outbox}. Both methods require a transaction already in
+ * progress and write through it, so an event is committed if and only if the change it describes
+ * is. The rows go in with one batched JDBC statement, next to whatever Hibernate flushes at commit.
+ * Once the transaction has committed, each event is also published as an application event for
+ * in-process listeners such as the live stream.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    static final String INSERT_SQL = "INSERT INTO drug_outbox (event_key, event_type, drug_id, patient_id, payload, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(DrugEvent event) {
+        appendAll(List.of(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<DrugEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.eventKey());
+            statement.setString(2, event.type().name());
+            statement.setLong(3, event.drugId());
+            statement.setLong(4, event.patientId());
+            statement.setString(5, event.payloadJson(objectMapper));
+            statement.setTimestamp(6, createdAt);
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(eventPublisher::publishEvent);
+            }
+        });
+    }
+}
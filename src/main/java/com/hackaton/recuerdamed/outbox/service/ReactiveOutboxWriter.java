@@ -0,0 +1,49 @@
+package com.hackaton.recuerdamed.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link OutboxWriter} over R2DBC. Callers subscribe to {@link #append} inside the reactive
+ * transaction of the change, so both commit together; the event is published as an application
+ * event after the commit.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOutboxWriter {
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Mono<Void> append(DrugEvent event) {
+        Mono<Long> insert = Mono.defer(() -> databaseClient.sql("INSERT INTO drug_outbox (event_key, event_type, drug_id, " +
+                        "patient_id, payload, created_at) VALUES (:eventKey, :eventType, :drugId, :patientId, :payload, :createdAt)")
+                .bind("eventKey", event.eventKey())
+                .bind("eventType", event.type().name())
+                .bind("drugId", event.drugId())
+                .bind("patientId", event.patientId())
+                .bind("payload", event.payloadJson(objectMapper))
+                .bind("createdAt", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated());
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(synchronizations -> synchronizations.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(() -> eventPublisher.publishEvent(event));
+                    }
+                }))
+                .then(insert)
+                .then();
+    }
+}
@@ -0,0 +1,36 @@
+package com.hackaton.recuerdamed.patient.controller;
+
+import com.hackaton.recuerdamed.patient.dto.PatientRequest;
+import com.hackaton.recuerdamed.patient.dto.PatientResponse;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/pacientes")
+@Tag(name= "Patients", description = "Patients owning the drugs; pass the patient ID in the X-Patient-Id header of every drug request")
+public class PatientController {
+    private final PatientService patientService;
+
+    @Operation(summary = "Create new patient", description = "Create a new patient to register drugs for")
+    @PostMapping
+    public ResponseEntity<PatientResponse> createPatient(@Valid @RequestBody PatientRequest request){
+        PatientResponse patient = patientService.createPatient(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(patient);
+    }
+
+    @Operation(summary = "Get patient by ID", description = "Return details of a specific patient selected by ID")
+    @GetMapping("/{id}")
+    public ResponseEntity<PatientResponse> getPatientById(@PathVariable Long id){
+        PatientResponse patient = patientService.getPatientById(id);
+        return ResponseEntity.ok(patient);
+    }
+}
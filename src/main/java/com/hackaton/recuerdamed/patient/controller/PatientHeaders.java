@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.patient.controller;
+
+/**
+ * Request headers that select the patient (tenant) a request acts on.
+ */
+public final class PatientHeaders {
+    public static final String PATIENT_ID = "X-Patient-Id";
+
+    private PatientHeaders() {
+    }
+}
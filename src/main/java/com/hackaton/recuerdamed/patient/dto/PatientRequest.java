@@ -0,0 +1,14 @@
+package com.hackaton.recuerdamed.patient.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record PatientRequest(
+
+        @Schema(description = "Patient name", example = "María García", requiredMode = Schema.RequiredMode.REQUIRED, maxLength = 255)
+        @NotBlank(message = "Patient name is needed")
+        @Size(max = 255, message = "Patient name must be shorter than 255 characters")
+        String name
+) {
+}
@@ -0,0 +1,15 @@
+package com.hackaton.recuerdamed.patient.dto;
+
+import com.hackaton.recuerdamed.patient.entity.Patient;
+
+import java.time.LocalDateTime;
+
+public record PatientResponse(
+        Long id,
+        String name,
+        LocalDateTime creationDate
+) {
+    public static PatientResponse of(Patient patient) {
+        return new PatientResponse(patient.getId(), patient.getName(), patient.getCreationDate());
+    }
+}
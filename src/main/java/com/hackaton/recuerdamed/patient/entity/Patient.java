@@ -0,0 +1,33 @@
+package com.hackaton.recuerdamed.patient.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The owner of a set of drugs. Every drug belongs to exactly one patient, and every drug read and
+ * write is scoped to the patient named in the {@code X-Patient-Id} request header.
+ */
+@Entity
+@Table(name = "patients")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Patient {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime creationDate = LocalDateTime.now();
+}
@@ -0,0 +1,9 @@
+package com.hackaton.recuerdamed.patient.repository;
+
+import com.hackaton.recuerdamed.patient.entity.Patient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PatientRepository extends JpaRepository<Patient, Long> {
+}
@@ -0,0 +1,16 @@
+package com.hackaton.recuerdamed.patient.service;
+
+import com.hackaton.recuerdamed.patient.dto.PatientRequest;
+import com.hackaton.recuerdamed.patient.dto.PatientResponse;
+
+public interface PatientService {
+    PatientResponse createPatient(PatientRequest request);
+
+    PatientResponse getPatientById(Long id);
+
+    /**
+     * Throws {@code PatientNotFoundException} unless the patient exists. Drug writes call it before
+     * creating anything, so an unknown header is a 404 rather than a foreign key violation.
+     */
+    void checkExists(Long id);
+}
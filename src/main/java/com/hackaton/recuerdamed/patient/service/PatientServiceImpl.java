@@ -0,0 +1,41 @@
+package com.hackaton.recuerdamed.patient.service;
+
+import com.hackaton.recuerdamed.patient.dto.PatientRequest;
+import com.hackaton.recuerdamed.patient.dto.PatientResponse;
+import com.hackaton.recuerdamed.patient.entity.Patient;
+import com.hackaton.recuerdamed.patient.repository.PatientRepository;
+import com.hackaton.recuerdamed.shared.custom_exception.PatientNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class PatientServiceImpl implements PatientService {
+    private final PatientRepository patientRepository;
+
+    @Override
+    @Transactional
+    public PatientResponse createPatient(PatientRequest request) {
+        Patient patient = patientRepository.save(Patient.builder()
+                .name(request.name().trim())
+                .build());
+        return PatientResponse.of(patient);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PatientResponse getPatientById(Long id) {
+        return patientRepository.findById(id)
+                .map(PatientResponse::of)
+                .orElseThrow(() -> new PatientNotFoundException("Patient with ID: " + id + " not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkExists(Long id) {
+        if (!patientRepository.existsById(id)) {
+            throw new PatientNotFoundException("Patient with ID: " + id + " not found");
+        }
+    }
+}
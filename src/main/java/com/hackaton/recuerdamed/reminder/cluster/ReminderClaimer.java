@@ -0,0 +1,42 @@
+package com.hackaton.recuerdamed.reminder.cluster;
+
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.DueReminder;
+import com.hackaton.recuerdamed.reminder.config.ReminderProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Claims due reminders for this instance, so each dose is reminded by a single instance of the
+ * cluster. The due rows are locked with {@code FOR UPDATE SKIP LOCKED}: rows another instance is
+ * claiming at the same moment are skipped rather than waited for, and rows already claimed for the
+ * current dose by another instance are left alone until the claim expires after
+ * {@code reminder.cluster.claim-timeout}. This instance can always claim its own rows again, so a
+ * reminder the dispatcher turned away is retried on the next tick.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReminderClaimer {
+    private final DrugRepository drugRepository;
+    private final ReminderCluster cluster;
+    private final ReminderProperties properties;
+
+    /**
+     * @return the reminders among {@code ids} that are due at {@code now} and now belong to this
+     * instance
+     */
+    @Transactional
+    public List<DueReminder> claim(Collection<Long> ids, Instant now) {
+        List<Long> claimable = drugRepository.lockClaimableReminders(ids, cluster.nodeId(), now);
+        if (claimable.isEmpty()) {
+            return List.of();
+        }
+        drugRepository.claimReminders(claimable, cluster.nodeId(), now.plus(properties.cluster().claimTimeout()));
+        return drugRepository.findDueReminders(claimable, now);
+    }
+}
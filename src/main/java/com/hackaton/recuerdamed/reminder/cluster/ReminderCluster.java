@@ -0,0 +1,172 @@
+package com.hackaton.recuerdamed.reminder.cluster;
+
+import com.hackaton.recuerdamed.reminder.config.ReminderProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership of the instances that share the reminders. With {@code reminder.cluster.enabled=true}
+ * every instance renews a lease in {@code reminder_nodes} each {@code heartbeat-interval}, using
+ * the database clock; the members whose lease is younger than {@code lease-timeout}, ordered by
+ * node id, are the cluster. The instance at position {@code i} of {@code n} owns the drugs whose
+ * id modulo {@code n} is {@code i}, and the first one is the leader, which evicts expired leases.
+ * Whenever a heartbeat changes this instance's {@link ReminderShard} the new one is published as an
+ * application event, so the reminder wheel is reloaded with the drugs it now owns.
+ * <p>
+ * Ownership only decides who looks at a drug. While it moves, or while an instance cannot reach
+ * the database, two instances may look at the same drug; the claim taken by
+ * {@link ReminderClaimer} still lets only one of them remind each dose. With the cluster disabled
+ * the instance owns every drug.
+ */
+@Component
+@Slf4j
+public class ReminderCluster {
+    private static final String HEARTBEAT_SQL = "INSERT INTO reminder_nodes (node_id, heartbeat_at) VALUES (?, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE heartbeat_at = NOW(6)";
+    private static final String MEMBERS_SQL = "SELECT node_id FROM reminder_nodes " +
+            "WHERE heartbeat_at >= NOW(6) - INTERVAL ? MICROSECOND ORDER BY node_id";
+    private static final String EVICT_SQL = "DELETE FROM reminder_nodes WHERE heartbeat_at < NOW(6) - INTERVAL ? MICROSECOND";
+    private static final String LEAVE_SQL = "DELETE FROM reminder_nodes WHERE node_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReminderProperties.Cluster properties;
+    private final boolean virtualThreads;
+    private final String nodeId;
+    private volatile ReminderShard shard = ReminderShard.single();
+    private volatile int members = 1;
+    private Thread heartbeat;
+
+    @Autowired
+    public ReminderCluster(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                           ReminderProperties properties, Environment environment) {
+        this(jdbcTemplate, eventPublisher, properties, Threading.VIRTUAL.isActive(environment));
+    }
+
+    ReminderCluster(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                    ReminderProperties properties, boolean virtualThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties.cluster();
+        this.virtualThreads = virtualThreads;
+        this.nodeId = this.properties.nodeId() == null || this.properties.nodeId().isBlank()
+                ? UUID.randomUUID().toString()
+                : this.properties.nodeId();
+    }
+
+    /**
+     * Joins before the reminder wheel is loaded, so the wheel starts with this instance's shard.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void start() {
+        if (!properties.enabled() || heartbeat != null) {
+            return;
+        }
+        shard = renewLease();
+        log.info("Reminder node {} joined as shard {} of {}{}", nodeId, shard.index(), shard.count(),
+                shard.leader() ? " (leader)" : "");
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("reminder-cluster")
+                : Thread.ofPlatform().name("reminder-cluster").daemon();
+        heartbeat = builder.start(this::runHeartbeat);
+    }
+
+    /**
+     * Gives up the lease right away, so the remaining members rebalance on their next heartbeat
+     * instead of waiting for it to expire.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (heartbeat == null) {
+            return;
+        }
+        heartbeat.interrupt();
+        heartbeat.join(properties.heartbeatInterval().toMillis());
+        heartbeat = null;
+        try {
+            jdbcTemplate.update(LEAVE_SQL, nodeId);
+        } catch (DataAccessException exception) {
+            log.warn("Reminder node {} could not leave the cluster, its lease will expire instead", nodeId, exception);
+        }
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public ReminderShard shard() {
+        return shard;
+    }
+
+    public int members() {
+        return members;
+    }
+
+    /**
+     * Renews this instance's lease and recomputes its shard from the live members.
+     *
+     * @return the shard, published as an application event if it changed
+     */
+    ReminderShard refresh() {
+        ReminderShard next = renewLease();
+        ReminderShard previous = shard;
+        shard = next;
+        if (!next.equals(previous)) {
+            log.info("Reminder node {} moved from shard {} of {} to shard {} of {}{}", nodeId,
+                    previous.index(), previous.count(), next.index(), next.count(), next.leader() ? " (leader)" : "");
+            eventPublisher.publishEvent(next);
+        }
+        return next;
+    }
+
+    private ReminderShard renewLease() {
+        long leaseMicros = TimeUnit.NANOSECONDS.toMicros(properties.leaseTimeout().toNanos());
+        jdbcTemplate.update(HEARTBEAT_SQL, nodeId);
+        List<String> live = jdbcTemplate.queryForList(MEMBERS_SQL, String.class, leaseMicros);
+        int index = live.indexOf(nodeId);
+        if (index < 0) {
+            throw new IllegalStateException("Reminder node " + nodeId + " is missing from the live members");
+        }
+        boolean leader = index == 0;
+        if (leader) {
+            int evicted = jdbcTemplate.update(EVICT_SQL, leaseMicros);
+            if (evicted > 0) {
+                log.info("Evicted {} reminder nodes whose lease expired", evicted);
+            }
+        }
+        members = live.size();
+        return new ReminderShard(index, live.size(), leader);
+    }
+
+    private void runHeartbeat() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(properties.heartbeatInterval().toMillis());
+                try {
+                    refresh();
+                } catch (RuntimeException exception) {
+                    log.warn("Reminder node {} could not renew its lease, keeping shard {} of {}: {}",
+                            nodeId, shard.index(), shard.count(), exception.getMessage());
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.hackaton.recuerdamed.reminder.cluster;
+
+/**
+ * The reminders this instance is responsible for: the drugs whose id modulo {@code count} is
+ * {@code index}. Published as an application event whenever the cluster membership changes it.
+ */
+public record ReminderShard(
+        int index,
+        int count,
+        boolean leader
+) {
+    private static final ReminderShard SINGLE = new ReminderShard(0, 1, true);
+
+    public static ReminderShard single() {
+        return SINGLE;
+    }
+
+    public boolean owns(long drugId) {
+        return Math.floorMod(drugId, count) == index;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hackaton.recuerdamed.reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reminder")
+public record ReminderProperties(
+        @DefaultValue Wheel wheel,
+        @DefaultValue Dispatch dispatch,
+        @DefaultValue Cluster cluster
+) {
+    public record Wheel(
+            @DefaultValue("true") boolean autoTick,
+            @DefaultValue("1s") Duration tick,
+            @DefaultValue("64") int wheelSize,
+            @DefaultValue("4") int levels
+    ) {
+    }
+
+    public record Dispatch(
+            @DefaultValue("10000") int queueCapacity,
+            @DefaultValue("2") int workers,
+            @DefaultValue("100") int batchSize,
+            @DefaultValue("200ms") Duration linger,
+            @DefaultValue("5") int maxAttempts,
+            @DefaultValue("500ms") Duration initialBackoff,
+            @DefaultValue("30s") Duration maxBackoff,
+            @DefaultValue("1m") Duration statsInterval,
+            @DefaultValue Webhook webhook
+    ) {
+    }
+
+    public record Webhook(
+            URI url,
+            @DefaultValue("5s") Duration timeout
+    ) {
+    }
+
+    public record Cluster(
+            @DefaultValue("false") boolean enabled,
+            String nodeId,
+            @DefaultValue("5s") Duration heartbeatInterval,
+            @DefaultValue("20s") Duration leaseTimeout,
+            @DefaultValue("5m") Duration claimTimeout,
+            @DefaultValue("30s") Duration sweepInterval,
+            @DefaultValue("1m") Duration sweepOverlap,
+            @DefaultValue("1000") int sweepBatchSize
+    ) {
+    }
+}
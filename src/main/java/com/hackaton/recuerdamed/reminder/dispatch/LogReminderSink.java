@@ -0,0 +1,20 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "reminder.dispatch", name = "sink", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LogReminderSink implements ReminderSink {
+
+    @Override
+    public void deliver(List<ReminderNotification> batch) {
+        for (ReminderNotification notification : batch) {
+            log.info("Recordatorio: Hora de tomar {} - {}", notification.drugName(), notification.dosage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+public class ReminderDeliveryException extends RuntimeException {
+    public ReminderDeliveryException(String message) {
+        super(message);
+    }
+
+    public ReminderDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+public record ReminderDispatchStats(
+        long submitted,
+        long delivered,
+        long failed,
+        long retried,
+        long rejected,
+        int queued,
+        double deliveredPerSecond
+) {
+}
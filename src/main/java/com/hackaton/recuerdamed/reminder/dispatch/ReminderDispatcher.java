@@ -0,0 +1,237 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.reminder.config.ReminderProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Moves due reminders from the scheduler to the {@link ReminderSink}. Reminders wait in a bounded
+ * queue; when it is full {@link #submit} turns the reminder away at once, without blocking the
+ * wheel ticker or the request thread that called it, and the caller retries it later. Workers take
+ * batches of up to {@code batch-size} reminders, waiting at most {@code linger} for a batch to fill,
+ * and retry failed batches with exponential backoff. Only after a batch is delivered is each drug's
+ * {@code lastReminderAt} marker written, in a short transaction of its own, so no connection is
+ * held while the sink runs. Each reminder is also published once as an application event when its
+ * batch is taken for delivery, for in-process listeners such as the live stream.
+ */
+@Component
+@Slf4j
+public class ReminderDispatcher {
+    private final ReminderSink sink;
+    private final DrugRepository drugRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReminderProperties.Dispatch properties;
+    private final boolean virtualThreads;
+    private final BlockingQueue<ReminderNotification> queue;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong statsWindowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong statsWindowDelivered = new AtomicLong();
+    private volatile double deliveredPerSecond;
+
+    @Autowired
+    public ReminderDispatcher(ReminderSink sink, DrugRepository drugRepository, TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher, ReminderProperties properties,
+                              Environment environment) {
+        this(sink, drugRepository, transactionTemplate, eventPublisher, properties, Threading.VIRTUAL.isActive(environment));
+    }
+
+    ReminderDispatcher(ReminderSink sink, DrugRepository drugRepository, TransactionTemplate transactionTemplate,
+                       ApplicationEventPublisher eventPublisher, ReminderProperties properties, boolean virtualThreads) {
+        this.sink = sink;
+        this.drugRepository = drugRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties.dispatch();
+        this.virtualThreads = virtualThreads;
+        this.queue = new ArrayBlockingQueue<>(this.properties.queueCapacity());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!workers.isEmpty()) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("reminder-dispatch-", 0)
+                : Thread.ofPlatform().name("reminder-dispatch-", 0).daemon();
+        for (int i = 0; i < properties.workers(); i++) {
+            workers.add(builder.start(this::runWorker));
+        }
+        log.info("Reminder dispatcher started with {} workers and {} sink",
+                properties.workers(), sink.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            worker.join(properties.maxBackoff().toMillis());
+        }
+        workers.clear();
+        if (!queue.isEmpty()) {
+            log.warn("Reminder dispatcher stopped with {} reminders still queued", queue.size());
+        }
+    }
+
+    /**
+     * Queues a reminder for delivery, unless a reminder for the same drug is already queued or
+     * being delivered.
+     */
+    public ReminderSubmission submit(ReminderNotification notification) {
+        if (!inFlight.add(notification.drugId())) {
+            return ReminderSubmission.IN_FLIGHT;
+        }
+        if (queue.offer(notification)) {
+            submitted.increment();
+            return ReminderSubmission.QUEUED;
+        }
+        inFlight.remove(notification.drugId());
+        rejected.increment();
+        return ReminderSubmission.REJECTED;
+    }
+
+    public ReminderDispatchStats stats() {
+        return new ReminderDispatchStats(
+                submitted.sum(),
+                delivered.sum(),
+                failed.sum(),
+                retried.sum(),
+                rejected.sum(),
+                queue.size(),
+                deliveredPerSecond);
+    }
+
+    private void runWorker() {
+        List<ReminderNotification> batch = new ArrayList<>(properties.batchSize());
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                nextBatch(batch);
+                deliver(batch);
+                batch.clear();
+                logThroughput();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!batch.isEmpty()) {
+                log.warn("Reminder worker stopped with {} undelivered reminders", batch.size());
+                release(batch);
+            }
+        }
+    }
+
+    private void nextBatch(List<ReminderNotification> batch) throws InterruptedException {
+        batch.add(queue.take());
+        queue.drainTo(batch, properties.batchSize() - batch.size());
+        long deadline = System.nanoTime() + properties.linger().toNanos();
+        while (batch.size() < properties.batchSize()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            ReminderNotification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, properties.batchSize() - batch.size());
+        }
+    }
+
+    void deliver(List<ReminderNotification> batch) throws InterruptedException {
+        long started = System.nanoTime();
+        batch.forEach(eventPublisher::publishEvent);
+        Duration backoff = properties.initialBackoff();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.deliver(batch);
+                break;
+            } catch (RuntimeException exception) {
+                if (attempt >= properties.maxAttempts()) {
+                    log.error("Giving up on {} reminders after {} attempts", batch.size(), attempt, exception);
+                    failed.add(batch.size());
+                    release(batch);
+                    return;
+                }
+                retried.increment();
+                long sleepMillis = ThreadLocalRandom.current().nextLong(backoff.toMillis() / 2, backoff.toMillis() + 1);
+                log.warn("Reminder delivery attempt {} of {} failed, retrying in {} ms: {}",
+                        attempt, properties.maxAttempts(), sleepMillis, exception.getMessage());
+                Thread.sleep(sleepMillis);
+                backoff = backoff.multipliedBy(2).compareTo(properties.maxBackoff()) > 0
+                        ? properties.maxBackoff()
+                        : backoff.multipliedBy(2);
+            }
+        }
+
+        try {
+            markDelivered(batch);
+        } catch (RuntimeException exception) {
+            log.error("Delivered {} reminders but could not record them as delivered", batch.size(), exception);
+        }
+        delivered.add(batch.size());
+        release(batch);
+        log.debug("Delivered {} reminders in {} ms", batch.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void markDelivered(List<ReminderNotification> batch) {
+        Map<Instant, List<Long>> idsByDueAt = batch.stream()
+                .collect(Collectors.groupingBy(ReminderNotification::dueAt,
+                        Collectors.mapping(ReminderNotification::drugId, Collectors.toList())));
+        transactionTemplate.executeWithoutResult(status ->
+                idsByDueAt.forEach((dueAt, ids) -> drugRepository.markRemindersDelivered(ids, dueAt)));
+    }
+
+    private void release(List<ReminderNotification> batch) {
+        batch.forEach(notification -> inFlight.remove(notification.drugId()));
+    }
+
+    private void logThroughput() {
+        long now = System.nanoTime();
+        long windowStart = statsWindowStart.get();
+        long elapsed = now - windowStart;
+        if (elapsed < properties.statsInterval().toNanos() || !statsWindowStart.compareAndSet(windowStart, now)) {
+            return;
+        }
+        long total = delivered.sum();
+        long inWindow = total - statsWindowDelivered.getAndSet(total);
+        deliveredPerSecond = inWindow / (elapsed / 1e9);
+        if (inWindow > 0) {
+            log.info("Delivered {} reminders in the last {} s ({} reminders/s), {} failed, {} queued",
+                    inWindow, TimeUnit.NANOSECONDS.toSeconds(elapsed), String.format("%.1f", deliveredPerSecond),
+                    failed.sum(), queue.size());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+import java.time.Instant;
+
+public record ReminderNotification(
+        Long drugId,
+        Long patientId,
+        String drugName,
+        String dosage,
+        Instant dueAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+import java.util.List;
+
+/**
+ * Delivers reminders to the user. Implementations are called from the dispatcher workers with no
+ * transaction or connection open, and must throw when any reminder of the batch could not be
+ * delivered so the whole batch is retried.
+ */
+public interface ReminderSink {
+
+    void deliver(List<ReminderNotification> batch);
+}
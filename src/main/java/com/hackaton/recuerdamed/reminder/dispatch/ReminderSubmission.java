@@ -0,0 +1,13 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+/**
+ * What {@link ReminderDispatcher#submit} did with a reminder.
+ */
+public enum ReminderSubmission {
+    /** Queued for delivery. */
+    QUEUED,
+    /** A reminder for the same drug is already queued or being delivered, so this one was dropped. */
+    IN_FLIGHT,
+    /** The queue is full; the caller offers the reminder again later. */
+    REJECTED
+}
@@ -0,0 +1,65 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.recuerdamed.reminder.config.ReminderProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * Posts each batch as one JSON array to {@code reminder.dispatch.webhook.url}. Any status other
+ * than 2xx fails the batch.
+ */
+@Component
+@ConditionalOnProperty(prefix = "reminder.dispatch", name = "sink", havingValue = "webhook")
+public class WebhookReminderSink implements ReminderSink {
+    private final ObjectMapper objectMapper;
+    private final ReminderProperties.Webhook properties;
+    private final HttpClient httpClient;
+
+    public WebhookReminderSink(ObjectMapper objectMapper, ReminderProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties.dispatch().webhook();
+        if (this.properties.url() == null || this.properties.url().toString().isBlank()) {
+            throw new IllegalStateException("reminder.dispatch.webhook.url must be set to use the webhook sink");
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(this.properties.timeout())
+                .build();
+    }
+
+    @Override
+    public void deliver(List<ReminderNotification> batch) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(properties.url())
+                    .timeout(properties.timeout())
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(batch)))
+                    .build();
+        } catch (JsonProcessingException exception) {
+            throw new ReminderDeliveryException("Could not serialize reminder batch", exception);
+        }
+
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException exception) {
+            throw new ReminderDeliveryException("Webhook " + properties.url() + " is unreachable", exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ReminderDeliveryException("Interrupted while calling webhook " + properties.url(), exception);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new ReminderDeliveryException("Webhook " + properties.url() + " answered " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.hackaton.recuerdamed.reminder.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by a long id (the drug id).
+ * <p>
+ * Level 0 holds one slot per tick; every higher level holds one slot per full revolution
+ * of the level below. Entries far in the future live in the coarse levels and are cascaded
+ * down when the lower wheel wraps around, so advancing one tick only touches the slots that
+ * are due and never the whole set of scheduled entries.
+ * <p>
+ * Scheduling a key that is already present replaces its deadline. Instances are thread-safe.
+ */
+public class HierarchicalTimingWheel {
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final long maxDelta;
+    private final Bucket[][] wheels;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        if (levels < 1 || (long) Integer.numberOfTrailingZeros(wheelSize) * levels > 62) {
+            throw new IllegalArgumentException("Invalid number of levels: " + levels);
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.maxDelta = (1L << (bits * levels)) - 1;
+        this.wheels = new Bucket[levels][wheelSize];
+        for (Bucket[] wheel : wheels) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                wheel[slot] = new Bucket();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(long key, long deadlineMillis) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key);
+            entries.put(key, entry);
+        } else {
+            entry.bucket.remove(entry);
+        }
+        entry.deadlineTick = Math.ceilDiv(deadlineMillis, tickMillis);
+        place(entry, currentTick + 1);
+    }
+
+    public synchronized boolean cancel(long key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.bucket.remove(entry);
+        return true;
+    }
+
+    public synchronized boolean contains(long key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            entry.bucket.remove(entry);
+        }
+        entries.clear();
+    }
+
+    /**
+     * Advances the wheel up to {@code nowMillis} and returns the keys whose deadline has been
+     * reached, tick by tick. Expired keys are removed from the wheel.
+     */
+    public synchronized List<Long> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            if (entries.isEmpty()) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            Bucket due = wheels[0][(int) (currentTick & mask)];
+            for (Entry entry = due.head; entry != null; entry = due.head) {
+                due.remove(entry);
+                entries.remove(entry.key);
+                expired.add(entry.key);
+            }
+        }
+        return expired;
+    }
+
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            if (((currentTick >>> (bits * (level - 1))) & mask) != 0) {
+                return;
+            }
+            Bucket bucket = wheels[level][(int) ((currentTick >>> (bits * level)) & mask)];
+            for (Entry entry = bucket.head; entry != null; entry = bucket.head) {
+                bucket.remove(entry);
+                place(entry, currentTick);
+            }
+        }
+    }
+
+    private void place(Entry entry, long earliestTick) {
+        long tick = Math.max(entry.deadlineTick, earliestTick);
+        long delta = Math.min(tick - currentTick, maxDelta);
+        tick = currentTick + delta;
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (bits * level)) & mask)].add(entry);
+    }
+
+    private static final class Entry {
+        private final long key;
+        private long deadlineTick;
+        private Entry prev;
+        private Entry next;
+        private Bucket bucket;
+
+        private Entry(long key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Bucket {
+        private Entry head;
+
+        private void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        private void remove(Entry entry) {
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+    }
+}
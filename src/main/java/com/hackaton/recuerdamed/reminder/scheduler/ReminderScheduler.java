@@ -0,0 +1,293 @@
+package com.hackaton.recuerdamed.reminder.scheduler;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.DueReminder;
+import com.hackaton.recuerdamed.drug.repository.ReminderSlot;
+import com.hackaton.recuerdamed.reminder.cluster.ReminderClaimer;
+import com.hackaton.recuerdamed.reminder.cluster.ReminderCluster;
+import com.hackaton.recuerdamed.reminder.cluster.ReminderShard;
+import com.hackaton.recuerdamed.reminder.config.ReminderProperties;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderDispatcher;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderNotification;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderSubmission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps one timing-wheel entry per active drug with a reminder still to send and fires it at the
+ * drug's {@code nextIntakeAt}. The wheel is loaded once from the database on startup, including
+ * doses that fell due while the application was down, and is kept in sync by {@code DrugService};
+ * nothing is rescanned while ticking. A drug leaves the wheel once its reminder is queued and comes
+ * back when the dose is taken or the drug is updated. With {@code spring.threads.virtual.enabled=true}
+ * the ticker itself runs on a virtual thread.
+ *
+ * <p>With several instances ({@code reminder.cluster.enabled=true}) the wheel only holds the drugs
+ * of this instance's {@link ReminderShard} and is reloaded whenever the shard changes. Changes made
+ * through another instance never reach this wheel, so every {@code reminder.cluster.sweep-interval}
+ * the shard's drugs that fell due since the previous sweep are also read from the database. The
+ * sweep keeps a {@code (nextIntakeAt, id)} high-water mark: each one reads the window from the
+ * mark up to now, less {@code sweep-overlap} for clock skew between instances when the previous
+ * window was read to the end, and the mark restarts from every wheel load, which already covers
+ * the doses missed before it. A change made here to a drug
+ * of another shard that is already due goes on this wheel anyway, since no sweep window will
+ * cover it. Each due reminder is claimed through {@link ReminderClaimer} before it is queued, so it
+ * is sent once however many instances see it.
+ *
+ * <p>Publishes {@code reminder.tick} (time per tick), {@code reminder.queued} (reminders handed to the
+ * dispatcher), {@code reminder.pending} (drugs on the wheel), {@code reminder.lag}, how late the
+ * most overdue reminder of the last tick was queued, which drops back to zero on a tick with nothing
+ * due, and {@code reminder.scheduler.lag}, the time since the last tick completed, which keeps
+ * growing while ticks stall or fail.
+ */
+@Component
+@Slf4j
+public class ReminderScheduler {
+    private final DrugRepository drugRepository;
+    private final ReminderDispatcher dispatcher;
+    private final ReminderCluster cluster;
+    private final ReminderClaimer claimer;
+    private final ReminderProperties.Wheel properties;
+    private final ReminderProperties.Cluster clusterProperties;
+    private final Clock clock;
+    private final boolean virtualThreads;
+    private final HierarchicalTimingWheel wheel;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong nextSweepMillis = new AtomicLong();
+    private final AtomicReference<SweepMark> sweepMark = new AtomicReference<>(SweepMark.completed(Instant.EPOCH));
+    private final AtomicLong handledUntilMillis;
+    private final Timer tickTimer;
+    private final Counter queuedCounter;
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public ReminderScheduler(DrugRepository drugRepository, ReminderDispatcher dispatcher, ReminderCluster cluster,
+                             ReminderClaimer claimer, ReminderProperties properties,
+                             MeterRegistry meterRegistry, Environment environment) {
+        this(drugRepository, dispatcher, cluster, claimer, properties, meterRegistry,
+                Clock.systemDefaultZone(), Threading.VIRTUAL.isActive(environment));
+    }
+
+    ReminderScheduler(DrugRepository drugRepository, ReminderDispatcher dispatcher, ReminderCluster cluster,
+                      ReminderClaimer claimer, ReminderProperties properties,
+                      MeterRegistry meterRegistry, Clock clock, boolean virtualThreads) {
+        this.drugRepository = drugRepository;
+        this.dispatcher = dispatcher;
+        this.cluster = cluster;
+        this.claimer = claimer;
+        this.properties = properties.wheel();
+        this.clusterProperties = properties.cluster();
+        this.clock = clock;
+        this.virtualThreads = virtualThreads;
+        this.handledUntilMillis = new AtomicLong(clock.millis());
+        this.wheel = new HierarchicalTimingWheel(
+                this.properties.tick().toMillis(),
+                this.properties.wheelSize(),
+                this.properties.levels(),
+                clock.millis());
+        this.tickTimer = Timer.builder("reminder.tick")
+                .description("Time spent firing the reminders that fell due on a wheel tick")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queuedCounter = Counter.builder("reminder.queued")
+                .description("Reminders handed to the dispatcher")
+                .register(meterRegistry);
+        Gauge.builder("reminder.pending", wheel, HierarchicalTimingWheel::size)
+                .description("Drugs with a reminder waiting on the timing wheel")
+                .register(meterRegistry);
+        TimeGauge.builder("reminder.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("How late the most overdue reminder of the last tick was queued")
+                .register(meterRegistry);
+        TimeGauge.builder("reminder.scheduler.lag", this, TimeUnit.MILLISECONDS, ReminderScheduler::schedulerLagMillis)
+                .description("Time since the reminder wheel last completed a tick")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        load(cluster.shard());
+
+        if (properties.autoTick()) {
+            long tickMillis = properties.tick().toMillis();
+            ThreadFactory threadFactory = virtualThreads
+                    ? Thread.ofVirtual().name("reminder-wheel").factory()
+                    : Thread.ofPlatform().name("reminder-wheel").daemon().factory();
+            ticker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Reloads the wheel with the drugs of the shard this instance owns after a membership change.
+     */
+    @EventListener
+    public void onShardChanged(ReminderShard shard) {
+        load(shard);
+    }
+
+    public void schedule(Drug drug) {
+        schedule(drug.getId(), drug.getNextIntakeAt(),
+                Boolean.TRUE.equals(drug.getActive()) && Boolean.TRUE.equals(drug.getActiveReminder()));
+    }
+
+    public void schedule(Long id, Instant nextIntakeAt, Boolean activeReminder) {
+        if (!Boolean.TRUE.equals(activeReminder)
+                || !cluster.shard().owns(id) && nextIntakeAt.toEpochMilli() > clock.millis()) {
+            wheel.cancel(id);
+            return;
+        }
+        wheel.schedule(id, nextIntakeAt.toEpochMilli());
+    }
+
+    public void cancel(Long id) {
+        wheel.cancel(id);
+    }
+
+    public int scheduledCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Advances the wheel to the current time and hands a reminder for every drug whose dose became
+     * due to the {@link ReminderDispatcher}. The database only returns drugs that are really due:
+     * inside their treatment window, not reminded for this dose yet and not claimed by another
+     * instance; the rest are claimed for this one. A drug whose previous reminder is still in flight
+     * is skipped, since its delivery marks the dose reminded. Once the dispatcher turns one reminder
+     * away its queue is full, so that drug and the rest of the due ones are put back on the wheel for
+     * the next tick without offering them.
+     *
+     * @return number of reminders queued for delivery
+     */
+    public int fireDueReminders() {
+        return tickTimer.record(this::fireDue);
+    }
+
+    private int fireDue() {
+        Instant now = clock.instant();
+        List<Long> dueIds = new ArrayList<>(wheel.advanceTo(now.toEpochMilli()));
+        dueIds.addAll(sweep(now));
+        if (dueIds.isEmpty()) {
+            lagMillis.set(0);
+            handledUntilMillis.set(now.toEpochMilli());
+            return 0;
+        }
+        long maxLagMillis = 0;
+        int queued = 0;
+        boolean queueFull = false;
+        for (DueReminder due : claimer.claim(dueIds, now)) {
+            ReminderNotification notification =
+                    new ReminderNotification(due.getId(), due.getPatientId(), due.getDrugName(), due.getDosage(),
+                            due.getNextIntakeAt());
+            ReminderSubmission submission = queueFull ? ReminderSubmission.REJECTED : dispatcher.submit(notification);
+            if (submission == ReminderSubmission.IN_FLIGHT) {
+                continue;
+            }
+            if (submission == ReminderSubmission.REJECTED) {
+                queueFull = true;
+                wheel.schedule(due.getId(), clock.millis() + properties.tick().toMillis());
+                continue;
+            }
+            queued++;
+            maxLagMillis = Math.max(maxLagMillis, now.toEpochMilli() - due.getNextIntakeAt().toEpochMilli());
+        }
+        lagMillis.set(maxLagMillis);
+        queuedCounter.increment(queued);
+        handledUntilMillis.set(now.toEpochMilli());
+        return queued;
+    }
+
+    private synchronized void load(ReminderShard shard) {
+        long loadedAt = clock.millis();
+        wheel.clear();
+        List<ReminderSlot> slots = drugRepository.findReminderSlots(shard.count(), shard.index());
+        long overdue = 0;
+        for (ReminderSlot slot : slots) {
+            wheel.schedule(slot.getId(), slot.getNextIntakeAt().toEpochMilli());
+            if (slot.getNextIntakeAt().toEpochMilli() <= loadedAt) {
+                overdue++;
+            }
+        }
+        sweepMark.set(SweepMark.completed(Instant.ofEpochMilli(loadedAt)));
+        log.info("Reminder wheel loaded with {} drugs of shard {} of {}, {} of them overdue",
+                slots.size(), shard.index(), shard.count(), overdue);
+    }
+
+    /**
+     * The drugs of this instance's shard that fell due since the previous sweep, read from the
+     * database at most once per {@code reminder.cluster.sweep-interval} and only when clustered. A
+     * full batch only moves the high-water mark up to its last drug, so the next sweep reads the
+     * rest of the window from right after it, without the overlap.
+     */
+    List<Long> sweep(Instant now) {
+        long sweepAt = nextSweepMillis.get();
+        if (!clusterProperties.enabled() || now.toEpochMilli() < sweepAt
+                || !nextSweepMillis.compareAndSet(sweepAt, now.toEpochMilli() + clusterProperties.sweepInterval().toMillis())) {
+            return List.of();
+        }
+        ReminderShard shard = cluster.shard();
+        SweepMark mark = sweepMark.get();
+        Instant after = mark.windowCompleted() ? mark.at().minus(clusterProperties.sweepOverlap()) : mark.at();
+        List<ReminderSlot> slots = drugRepository.findDueReminderSlots(after, mark.id(), now, shard.count(),
+                shard.index(), Limit.of(clusterProperties.sweepBatchSize()));
+        sweepMark.set(slots.size() < clusterProperties.sweepBatchSize()
+                ? SweepMark.completed(now)
+                : new SweepMark(slots.getLast().getNextIntakeAt(), slots.getLast().getId()));
+        return slots.stream().map(ReminderSlot::getId).toList();
+    }
+
+    private long schedulerLagMillis() {
+        return Math.max(0, clock.millis() - handledUntilMillis.get());
+    }
+
+    /**
+     * The last {@code (nextIntakeAt, id)} a sweep read. A window read to the end is marked with the
+     * highest id, so the next sweep starts after every dose due at that instant.
+     */
+    private record SweepMark(Instant at, long id) {
+        static SweepMark completed(Instant at) {
+            return new SweepMark(at, Long.MAX_VALUE);
+        }
+
+        boolean windowCompleted() {
+            return id == Long.MAX_VALUE;
+        }
+    }
+
+    private void tick() {
+        try {
+            fireDueReminders();
+        } catch (RuntimeException exception) {
+            log.error("Reminder wheel tick failed", exception);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.hackaton.recuerdamed.shared.concurrency;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event and logs every pin longer than the
+ * threshold, attributed to the first MySQL driver, Hikari or Hibernate frame on the stack. A pinned
+ * virtual thread holds its carrier while it blocks, so a few of these under load can stall the
+ * whole carrier pool.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final List<String> WATCHED_PACKAGES = List.of("com.mysql.", "com.zaxxer.hikari.", "org.hibernate.");
+    private static final String OTHER = "other";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinnedCounts = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    /**
+     * @return pin events seen so far, keyed by the package prefix they were attributed to
+     */
+    public Map<String, Long> pinnedCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        pinnedCounts.forEach((source, count) -> counts.put(source, count.sum()));
+        return counts;
+    }
+
+    void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String source = attribute(frames);
+        pinnedCounts.computeIfAbsent(source, key -> new LongAdder()).increment();
+        log.warn("Virtual thread pinned for {} ms in {} code:\n{}",
+                event.getDuration().toMillis(), source, format(frames));
+    }
+
+    static String attribute(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String className = frame.getMethod().getType().getName();
+            for (String watched : WATCHED_PACKAGES) {
+                if (className.startsWith(watched)) {
+                    return watched.substring(0, watched.length() - 1);
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+            RecordedFrame frame = frames.get(i);
+            builder.append("\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber())
+                    .append('\n');
+        }
+        if (frames.size() > LOGGED_FRAMES) {
+            builder.append("\t... ").append(frames.size() - LOGGED_FRAMES).append(" more\n");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,7 @@
+package com.hackaton.recuerdamed.shared.custom_exception;
+
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hackaton.recuerdamed.shared.custom_exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hackaton.recuerdamed.shared.custom_exception;
+
+public class InvalidDateRangeException extends RuntimeException {
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
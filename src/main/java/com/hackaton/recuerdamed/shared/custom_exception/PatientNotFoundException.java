@@ -0,0 +1,7 @@
+package com.hackaton.recuerdamed.shared.custom_exception;
+
+public class PatientNotFoundException extends RuntimeException {
+    public PatientNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hackaton.recuerdamed.shared.custom_exception;
+
+public class StreamCapacityExceededException extends RuntimeException {
+    public StreamCapacityExceededException(String message) {
+        super(message);
+    }
+}
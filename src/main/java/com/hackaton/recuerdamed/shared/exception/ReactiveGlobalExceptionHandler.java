@@ -0,0 +1,59 @@
+package com.hackaton.recuerdamed.shared.exception;
+
+import com.hackaton.recuerdamed.shared.custom_exception.ConcurrentUpdateException;
+import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import com.hackaton.recuerdamed.shared.custom_exception.InvalidCursorException;
+import com.hackaton.recuerdamed.shared.custom_exception.PatientNotFoundException;
+import com.hackaton.recuerdamed.shared.custom_exception.StreamCapacityExceededException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link GlobalExceptionHandler} for the reactive stack, with the same statuses and bodies.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @ExceptionHandler(DrugNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleDrugNotFoundException(DrugNotFoundException exception, ServerWebExchange exchange){
+        return error(exception, HttpStatus.NOT_FOUND, exchange);
+    }
+
+    @ExceptionHandler(PatientNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handlePatientNotFoundException(PatientNotFoundException exception, ServerWebExchange exchange){
+        return error(exception, HttpStatus.NOT_FOUND, exchange);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException exception, ServerWebExchange exchange){
+        return error(exception, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentUpdateException(ConcurrentUpdateException exception, ServerWebExchange exchange){
+        return error(exception, HttpStatus.CONFLICT, exchange);
+    }
+
+    @ExceptionHandler(StreamCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleStreamCapacityExceededException(StreamCapacityExceededException exception, ServerWebExchange exchange){
+        return error(exception, HttpStatus.SERVICE_UNAVAILABLE, exchange);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(RuntimeException exception, HttpStatus status, ServerWebExchange exchange) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(exception.getMessage())
+                .timestamp(LocalDateTime.now())
+                .status(status)
+                .path(exchange.getRequest().getPath().value())
+                .build();
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
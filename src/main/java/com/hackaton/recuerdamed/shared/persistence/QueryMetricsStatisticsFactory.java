@@ -0,0 +1,58 @@
+package com.hackaton.recuerdamed.shared.persistence;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate statistics that publish a {@code hibernate.query.execution} timer per query, tagged with
+ * the query string, as soon as the query first runs. Spring Boot's Hibernate metrics only cover
+ * queries that already ran when the registry was bound, which at startup is none. The timers read
+ * Hibernate's own counters, so nothing extra is recorded per execution. Only active with
+ * {@code hibernate.generate_statistics=true}.
+ */
+public class QueryMetricsStatisticsFactory implements StatisticsFactory {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public QueryMetricsStatisticsFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new StatisticsImpl(sessionFactory) {
+            private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+            @Override
+            public void queryExecuted(String query, int rows, long time) {
+                super.queryExecuted(query, rows, time);
+                if (query != null && registered.add(query)) {
+                    register(query, getQueryStatistics(query));
+                }
+            }
+        };
+    }
+
+    private void register(String query, QueryStatistics statistics) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        FunctionTimer.builder("hibernate.query.execution", statistics,
+                        QueryStatistics::getExecutionCount,
+                        QueryStatistics::getExecutionTotalTime,
+                        TimeUnit.MILLISECONDS)
+                .description("Executions and total execution time of a query")
+                .tag("query", query)
+                .register(registry);
+    }
+}
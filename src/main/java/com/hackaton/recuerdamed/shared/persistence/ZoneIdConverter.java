@@ -0,0 +1,23 @@
+package com.hackaton.recuerdamed.shared.persistence;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.ZoneId;
+
+/**
+ * Stores a {@link ZoneId} as its region id, e.g. {@code Europe/Madrid}.
+ */
+@Converter(autoApply = true)
+public class ZoneIdConverter implements AttributeConverter<ZoneId, String> {
+
+    @Override
+    public String convertToDatabaseColumn(ZoneId zoneId) {
+        return zoneId != null ? zoneId.getId() : null;
+    }
+
+    @Override
+    public ZoneId convertToEntityAttribute(String zoneId) {
+        return zoneId != null ? ZoneId.of(zoneId) : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hackaton.recuerdamed.stream.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "stream")
+public record StreamProperties(
+        @DefaultValue("50000") int maxSubscribers,
+        @DefaultValue("64") int bufferSize,
+        @DefaultValue("15s") Duration heartbeatInterval,
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("30s") Duration writeTimeout
+) {
+}
@@ -0,0 +1,46 @@
+package com.hackaton.recuerdamed.stream.controller;
+
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import com.hackaton.recuerdamed.shared.custom_exception.StreamCapacityExceededException;
+import com.hackaton.recuerdamed.stream.config.StreamProperties;
+import com.hackaton.recuerdamed.stream.dto.StreamEvent;
+import com.hackaton.recuerdamed.stream.service.DrugStreamHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/medicamentos")
+@Tag(name= "Drugs", description = "Operations related to drugs and drugs intake management")
+public class DrugStreamController {
+    private final DrugStreamHub streamHub;
+    private final PatientService patientService;
+    private final StreamProperties properties;
+
+    @Operation(summary = "Stream reminders and drug changes", description = "Push due reminders and changes of the patient's drugs as server-sent events, with a heartbeat comment while idle")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId) {
+        patientService.checkExists(patientId);
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        SseEmitterSubscriber subscriber = new SseEmitterSubscriber(patientId, emitter, properties.bufferSize(),
+                streamHub.writerExecutor(), streamHub::unsubscribe);
+        if (!streamHub.subscribe(subscriber)) {
+            throw new StreamCapacityExceededException("Too many open streams, please retry later");
+        }
+        emitter.onCompletion(() -> streamHub.unsubscribe(subscriber));
+        emitter.onTimeout(() -> streamHub.unsubscribe(subscriber));
+        emitter.onError(exception -> streamHub.unsubscribe(subscriber));
+        subscriber.offer(StreamEvent.heartbeat());
+        return emitter;
+    }
+}
@@ -0,0 +1,54 @@
+package com.hackaton.recuerdamed.stream.controller;
+
+import com.hackaton.recuerdamed.stream.dto.StreamEvent;
+import com.hackaton.recuerdamed.stream.service.StreamSubscriber;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Feeds a stream to WebFlux through a unicast sink buffered in a bounded queue. The response is
+ * written as the client reads it; when the client falls behind the queue fills up and
+ * {@link #offer} reports it.
+ */
+class FluxSinkSubscriber implements StreamSubscriber {
+    private final Long patientId;
+    private final Sinks.Many<StreamEvent> sink;
+
+    FluxSinkSubscriber(Long patientId, int bufferSize) {
+        this.patientId = patientId;
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(bufferSize));
+    }
+
+    @Override
+    public Long patientId() {
+        return patientId;
+    }
+
+    @Override
+    public synchronized boolean offer(StreamEvent event) {
+        return sink.tryEmitNext(event) != Sinks.EmitResult.FAIL_OVERFLOW;
+    }
+
+    @Override
+    public synchronized void close() {
+        sink.tryEmitComplete();
+    }
+
+    Flux<ServerSentEvent<Object>> events() {
+        return sink.asFlux().map(FluxSinkSubscriber::toSse);
+    }
+
+    private static ServerSentEvent<Object> toSse(StreamEvent event) {
+        if (event.isHeartbeat()) {
+            return ServerSentEvent.builder().comment("heartbeat").build();
+        }
+        return ServerSentEvent.builder()
+                .id(event.id())
+                .event(event.name())
+                .data(event.data())
+                .build();
+    }
+}
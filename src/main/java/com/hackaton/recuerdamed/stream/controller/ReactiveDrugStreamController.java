@@ -0,0 +1,52 @@
+package com.hackaton.recuerdamed.stream.controller;
+
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import com.hackaton.recuerdamed.patient.repository.ReactivePatientRepository;
+import com.hackaton.recuerdamed.shared.custom_exception.PatientNotFoundException;
+import com.hackaton.recuerdamed.shared.custom_exception.StreamCapacityExceededException;
+import com.hackaton.recuerdamed.stream.config.StreamProperties;
+import com.hackaton.recuerdamed.stream.dto.StreamEvent;
+import com.hackaton.recuerdamed.stream.service.DrugStreamHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link DrugStreamController} on WebFlux. Streams are written without any thread of their own.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@RequestMapping("/medicamentos")
+@Tag(name= "Drugs", description = "Operations related to drugs and drugs intake management")
+public class ReactiveDrugStreamController {
+    private final DrugStreamHub streamHub;
+    private final ReactivePatientRepository patientRepository;
+    private final StreamProperties properties;
+
+    @Operation(summary = "Stream reminders and drug changes", description = "Push due reminders and changes of the patient's drugs as server-sent events, with a heartbeat comment while idle")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> stream(@RequestHeader(PatientHeaders.PATIENT_ID) Long patientId) {
+        return patientRepository.existsById(patientId).flatMapMany(exists -> {
+            if (!exists) {
+                return Flux.error(new PatientNotFoundException("Patient with ID: " + patientId + " not found"));
+            }
+            FluxSinkSubscriber subscriber = new FluxSinkSubscriber(patientId, properties.bufferSize());
+            if (!streamHub.subscribe(subscriber)) {
+                return Flux.error(new StreamCapacityExceededException("Too many open streams, please retry later"));
+            }
+            subscriber.offer(StreamEvent.heartbeat());
+            return subscriber.events()
+                    .take(properties.timeout())
+                    .doFinally(signal -> streamHub.unsubscribe(subscriber));
+        });
+    }
+}
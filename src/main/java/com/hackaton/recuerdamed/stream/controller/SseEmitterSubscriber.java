@@ -0,0 +1,113 @@
+package com.hackaton.recuerdamed.stream.controller;
+
+import com.hackaton.recuerdamed.stream.dto.StreamEvent;
+import com.hackaton.recuerdamed.stream.service.StreamSubscriber;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Writes a stream to an {@link SseEmitter}. Offered events wait in a bounded buffer; the first
+ * event of a burst starts a drain task on the writer executor, which sends until the buffer is
+ * empty, so at most one thread writes to a connection at a time and none while it is idle. A send
+ * to a client that stopped reading blocks until the socket times out; {@link #stalled} reports it,
+ * and {@link #close} completes the emitter on the writer executor too, since completing waits for
+ * the blocked send to let go of the emitter.
+ */
+class SseEmitterSubscriber implements StreamSubscriber {
+    private final Long patientId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<StreamEvent> buffer;
+    private final Executor writer;
+    private final Consumer<StreamSubscriber> onFailure;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long sendingSince;
+    private volatile boolean closed;
+
+    SseEmitterSubscriber(Long patientId, SseEmitter emitter, int bufferSize, Executor writer,
+                         Consumer<StreamSubscriber> onFailure) {
+        this.patientId = patientId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.writer = writer;
+        this.onFailure = onFailure;
+    }
+
+    @Override
+    public Long patientId() {
+        return patientId;
+    }
+
+    @Override
+    public boolean offer(StreamEvent event) {
+        if (closed) {
+            return true;
+        }
+        if (!buffer.offer(event)) {
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::drain);
+            } catch (RejectedExecutionException exception) {
+                draining.set(false);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean stalled(Duration writeTimeout) {
+        long since = sendingSince;
+        return since != 0 && System.nanoTime() - since > writeTimeout.toNanos();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        buffer.clear();
+        try {
+            writer.execute(emitter::complete);
+        } catch (RejectedExecutionException exception) {
+            emitter.complete();
+        }
+    }
+
+    private void drain() {
+        do {
+            StreamEvent event;
+            while (!closed && (event = buffer.poll()) != null) {
+                sendingSince = System.nanoTime();
+                try {
+                    emitter.send(toSse(event));
+                } catch (IOException | IllegalStateException exception) {
+                    closed = true;
+                    buffer.clear();
+                    onFailure.accept(this);
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+            draining.set(false);
+        } while (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(StreamEvent event) {
+        if (event.isHeartbeat()) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        return SseEmitter.event()
+                .id(event.id())
+                .name(event.name())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+}
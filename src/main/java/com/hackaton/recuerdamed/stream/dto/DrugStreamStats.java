@@ -0,0 +1,9 @@
+package com.hackaton.recuerdamed.stream.dto;
+
+public record DrugStreamStats(
+        int subscribers,
+        long published,
+        long dropped,
+        long rejected
+) {
+}
@@ -0,0 +1,21 @@
+package com.hackaton.recuerdamed.stream.dto;
+
+/**
+ * One message for the subscribers of a patient's stream: an SSE event with its {@code id},
+ * {@code name} and JSON {@code data}, or a heartbeat, which is sent as a comment.
+ */
+public record StreamEvent(
+        String id,
+        String name,
+        Object data
+) {
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+    public static StreamEvent heartbeat() {
+        return HEARTBEAT;
+    }
+
+    public boolean isHeartbeat() {
+        return this == HEARTBEAT;
+    }
+}
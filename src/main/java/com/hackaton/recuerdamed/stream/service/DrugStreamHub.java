@@ -0,0 +1,194 @@
+package com.hackaton.recuerdamed.stream.service;
+
+import com.hackaton.recuerdamed.outbox.service.DrugEvent;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderNotification;
+import com.hackaton.recuerdamed.stream.config.StreamProperties;
+import com.hackaton.recuerdamed.stream.dto.DrugStreamStats;
+import com.hackaton.recuerdamed.stream.dto.StreamEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans out due reminders and committed drug changes to the open streams of their patient.
+ * Publishing only offers the event to each subscriber's bounded buffer, so it never waits for a
+ * client; a subscriber whose buffer is full is too slow to keep up and is disconnected, and its
+ * client is expected to reconnect and reload what it shows. Every {@code stream.heartbeat-interval}
+ * each subscriber gets a heartbeat, which keeps idle connections open through proxies and finds
+ * the ones whose client has gone away. At most {@code stream.max-subscribers} streams are open at
+ * once.
+ * <p>
+ * Idle streams hold no thread. Subscribers that write with blocking I/O do it on
+ * {@link #writerExecutor()}, one virtual thread per write burst whether or not virtual threads are
+ * enabled for the rest of the application: a client that stops reading blocks its write until the
+ * socket times out, and with a fixed pool a handful of such clients would hold up every other
+ * stream. The heartbeat also disconnects the streams whose write has been blocked for longer than
+ * {@code stream.write-timeout}, so they stop taking events and free their slot.
+ */
+@Component
+@Slf4j
+public class DrugStreamHub {
+    private static final String REMINDER_EVENT = "reminder";
+    private static final String DRUG_EVENT = "drug";
+
+    private final StreamProperties properties;
+    private final boolean virtualThreads;
+    private final Map<Long, Set<StreamSubscriber>> subscribersByPatient = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService writerExecutor;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private Thread heartbeat;
+
+    @Autowired
+    public DrugStreamHub(StreamProperties properties, Environment environment) {
+        this(properties, Threading.VIRTUAL.isActive(environment));
+    }
+
+    DrugStreamHub(StreamProperties properties, boolean virtualThreads) {
+        this.properties = properties;
+        this.virtualThreads = virtualThreads;
+        this.writerExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stream-writer-", 0).factory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (heartbeat != null) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("stream-heartbeat")
+                : Thread.ofPlatform().name("stream-heartbeat").daemon();
+        heartbeat = builder.start(this::runHeartbeat);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (heartbeat != null) {
+            heartbeat.interrupt();
+            heartbeat.join(properties.heartbeatInterval().toMillis());
+            heartbeat = null;
+        }
+        subscribersByPatient.values().forEach(subscribers -> subscribers.forEach(this::unsubscribeAndClose));
+        writerExecutor.shutdown();
+        writerExecutor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return {@code false} if {@code stream.max-subscribers} streams are already open
+     */
+    public boolean subscribe(StreamSubscriber subscriber) {
+        if (subscriberCount.incrementAndGet() > properties.maxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        subscribersByPatient.compute(subscriber.patientId(), (patientId, subscribers) -> {
+            Set<StreamSubscriber> patientSubscribers = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            patientSubscribers.add(subscriber);
+            return patientSubscribers;
+        });
+        return true;
+    }
+
+    public void unsubscribe(StreamSubscriber subscriber) {
+        subscribersByPatient.computeIfPresent(subscriber.patientId(), (patientId, subscribers) -> {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    @EventListener
+    public void onDrugEvent(DrugEvent event) {
+        publish(event.patientId(), new StreamEvent(event.eventKey(), DRUG_EVENT, event));
+    }
+
+    @EventListener
+    public void onReminder(ReminderNotification notification) {
+        String id = REMINDER_EVENT + ":" + notification.drugId() + ":" + notification.dueAt().toEpochMilli();
+        publish(notification.patientId(), new StreamEvent(id, REMINDER_EVENT, notification));
+    }
+
+    public void publish(Long patientId, StreamEvent event) {
+        Set<StreamSubscriber> subscribers = subscribersByPatient.get(patientId);
+        if (subscribers == null) {
+            return;
+        }
+        for (StreamSubscriber subscriber : subscribers) {
+            offer(subscriber, event);
+        }
+    }
+
+    public ExecutorService writerExecutor() {
+        return writerExecutor;
+    }
+
+    public DrugStreamStats stats() {
+        return new DrugStreamStats(subscriberCount.get(), published.sum(), dropped.sum(), rejected.sum());
+    }
+
+    int sendHeartbeats() {
+        int sent = 0;
+        for (Set<StreamSubscriber> subscribers : subscribersByPatient.values()) {
+            for (StreamSubscriber subscriber : subscribers) {
+                if (subscriber.stalled(properties.writeTimeout())) {
+                    dropped.increment();
+                    log.debug("Disconnecting stream subscriber of patient {}: write blocked for over {}",
+                            subscriber.patientId(), properties.writeTimeout());
+                    unsubscribeAndClose(subscriber);
+                } else if (offer(subscriber, StreamEvent.heartbeat())) {
+                    sent++;
+                }
+            }
+        }
+        return sent;
+    }
+
+    private boolean offer(StreamSubscriber subscriber, StreamEvent event) {
+        if (subscriber.offer(event)) {
+            if (!event.isHeartbeat()) {
+                published.increment();
+            }
+            return true;
+        }
+        dropped.increment();
+        log.debug("Disconnecting slow stream subscriber of patient {}: {} events buffered",
+                subscriber.patientId(), properties.bufferSize());
+        unsubscribeAndClose(subscriber);
+        return false;
+    }
+
+    private void unsubscribeAndClose(StreamSubscriber subscriber) {
+        unsubscribe(subscriber);
+        subscriber.close();
+    }
+
+    private void runHeartbeat() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(properties.heartbeatInterval().toMillis());
+                sendHeartbeats();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hackaton.recuerdamed.stream.service;
+
+import com.hackaton.recuerdamed.stream.dto.StreamEvent;
+
+import java.time.Duration;
+
+/**
+ * One open stream connection. The hub calls {@link #offer} from whichever thread produced the
+ * event, so implementations must never block there: they buffer the event, up to a fixed number
+ * per subscriber, and write it out on their own.
+ */
+public interface StreamSubscriber {
+
+    Long patientId();
+
+    /**
+     * @return {@code false} if the subscriber's buffer is full
+     */
+    boolean offer(StreamEvent event);
+
+    /**
+     * @return {@code true} if a write has been waiting on the client for longer than
+     * {@code writeTimeout}
+     */
+    default boolean stalled(Duration writeTimeout) {
+        return false;
+    }
+
+    /**
+     * Ends the connection. Events still buffered may be dropped.
+     */
+    void close();
+}
@@ -0,0 +1,65 @@
+-- Schema as Hibernate generated it before migrations were introduced. Databases that already have
+-- it are baselined at this version (spring.flyway.baseline-on-migrate) instead of running it;
+-- databases created before the next_intake_at change need db/upgrade/001-next-intake-at.sql first.
+
+CREATE TABLE drugs (
+    id               BIGINT       NOT NULL,
+    drug_name        VARCHAR(255) NOT NULL,
+    description      TEXT,
+    dosage           VARCHAR(255) NOT NULL,
+    frequency_hours  INT          NOT NULL,
+    next_intake_at   DATETIME(6)  NOT NULL,
+    time_zone        VARCHAR(64)  NOT NULL,
+    start_date       DATETIME(6)  NOT NULL,
+    end_date         DATETIME(6),
+    starts_at        DATETIME(6)  NOT NULL,
+    ends_at          DATETIME(6),
+    active           BIT          NOT NULL,
+    active_reminder  BIT          NOT NULL,
+    creation_date    DATETIME(6)  NOT NULL,
+    update_date      DATETIME(6)  NOT NULL,
+    last_reminder_at DATETIME(6),
+    version          BIGINT       NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_drugs_reminder_due ON drugs (active, active_reminder, next_intake_at);
+
+CREATE TABLE drugs_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO drugs_seq VALUES (1);
+
+CREATE TABLE dose_intakes (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    drug_id      BIGINT      NOT NULL,
+    scheduled_at DATETIME(6) NOT NULL,
+    taken_at     DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_dose_intakes_drug_taken ON dose_intakes (drug_id, taken_at);
+CREATE INDEX idx_dose_intakes_drug_scheduled ON dose_intakes (drug_id, scheduled_at);
+
+CREATE TABLE adherence_daily (
+    drug_id     BIGINT NOT NULL,
+    bucket_date DATE   NOT NULL,
+    scheduled   BIGINT NOT NULL,
+    taken       BIGINT NOT NULL,
+    late        BIGINT NOT NULL,
+    PRIMARY KEY (bucket_date, drug_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_adherence_daily_bucket ON adherence_daily (bucket_date);
+
+CREATE TABLE adherence_weekly (
+    drug_id     BIGINT NOT NULL,
+    bucket_date DATE   NOT NULL,
+    scheduled   BIGINT NOT NULL,
+    taken       BIGINT NOT NULL,
+    late        BIGINT NOT NULL,
+    PRIMARY KEY (bucket_date, drug_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_adherence_weekly_bucket ON adherence_weekly (bucket_date);
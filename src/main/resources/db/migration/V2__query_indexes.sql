@@ -0,0 +1,19 @@
+-- One index per access path of the repositories. MySQL has no partial indexes, so the drug indexes
+-- lead with active: every query filters on it, and the active rows form one contiguous range.
+
+-- Listings, keyset pages and the NDJSON stream: WHERE active = true ORDER BY next_intake_at, id.
+-- Also serves countByActiveTrue and the search documents.
+CREATE INDEX idx_drugs_active_next ON drugs (active, next_intake_at, id);
+
+-- Collection stamp for ETags: active count and MAX(update_date), read from the index alone
+CREATE INDEX idx_drugs_active_updated ON drugs (active, update_date);
+
+-- Agenda: active drugs whose treatment starts before the requested range ends
+CREATE INDEX idx_drugs_active_starts ON drugs (active, starts_at);
+
+-- Earliest start date, where the adherence rebuild begins
+CREATE INDEX idx_drugs_start_date ON drugs (start_date);
+
+-- Per-drug rollup reads filter on drug_id and a date range; the generated keys had the date first
+ALTER TABLE adherence_daily DROP PRIMARY KEY, ADD PRIMARY KEY (drug_id, bucket_date);
+ALTER TABLE adherence_weekly DROP PRIMARY KEY, ADD PRIMARY KEY (drug_id, bucket_date);
@@ -0,0 +1,34 @@
+-- Drugs get an owner. Every existing drug is assigned to a default patient, and the per-patient
+-- indexes replace the active-leading ones of V2: each request reads only the index range of its
+-- own patient, so its cost no longer grows with the drugs of everybody else.
+
+CREATE TABLE patients (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(255) NOT NULL,
+    creation_date DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO patients (id, name, creation_date) VALUES (1, 'Default patient', NOW(6));
+
+ALTER TABLE drugs ADD COLUMN patient_id BIGINT;
+UPDATE drugs SET patient_id = 1;
+ALTER TABLE drugs MODIFY patient_id BIGINT NOT NULL;
+
+-- Listings, keyset pages, the NDJSON stream and the search index of one patient:
+-- WHERE patient_id = ? AND active = true ORDER BY next_intake_at, id. Also backs the foreign key.
+CREATE INDEX idx_drugs_patient_next ON drugs (patient_id, active, next_intake_at, id);
+
+-- Collection stamp for ETags of one patient, read from the index alone
+CREATE INDEX idx_drugs_patient_updated ON drugs (patient_id, active, update_date);
+
+-- Agenda of one patient: active drugs whose treatment starts before the requested range ends
+CREATE INDEX idx_drugs_patient_starts ON drugs (patient_id, active, starts_at);
+
+ALTER TABLE drugs ADD CONSTRAINT fk_drugs_patient FOREIGN KEY (patient_id) REFERENCES patients (id);
+
+-- The reminder wheel stays global and keeps idx_drugs_reminder_due; idx_drugs_start_date stays
+-- for the adherence rebuild.
+DROP INDEX idx_drugs_active_next ON drugs;
+DROP INDEX idx_drugs_active_updated ON drugs;
+DROP INDEX idx_drugs_active_starts ON drugs;
@@ -0,0 +1,20 @@
+-- Transactional outbox of drug changes. Every write of a drug inserts its event here in the same
+-- transaction; the relay publishes undelivered rows in id order and compaction deletes delivered
+-- rows once they are older than the retention period.
+
+CREATE TABLE drug_outbox (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    event_key    CHAR(36)    NOT NULL,
+    event_type   VARCHAR(16) NOT NULL,
+    drug_id      BIGINT      NOT NULL,
+    patient_id   BIGINT      NOT NULL,
+    payload      JSON        NOT NULL,
+    created_at   DATETIME(6) NOT NULL,
+    delivered_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_drug_outbox_event_key UNIQUE (event_key)
+) ENGINE = InnoDB;
+
+-- Relay: WHERE delivered_at IS NULL ORDER BY id, and the pending count.
+-- Compaction: WHERE delivered_at < ? ORDER BY delivered_at.
+CREATE INDEX idx_drug_outbox_delivered ON drug_outbox (delivered_at, id);
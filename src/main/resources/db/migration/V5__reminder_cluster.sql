@@ -0,0 +1,16 @@
+-- Several instances share the reminders. Each one keeps a row in reminder_nodes alive while it
+-- runs; the live rows, ordered by node_id, decide which instance owns which drugs (drug id modulo
+-- the number of live instances).
+CREATE TABLE reminder_nodes (
+    node_id      VARCHAR(64) NOT NULL,
+    heartbeat_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (node_id)
+) ENGINE = InnoDB;
+
+-- The instance that claimed the current dose of a drug for its reminder, and until when the claim
+-- holds. Claims are taken with SELECT ... FOR UPDATE SKIP LOCKED, so a dose is reminded by one
+-- instance even while ownership moves between them.
+ALTER TABLE drugs
+    ADD COLUMN reminder_claimed_by       VARCHAR(64),
+    ADD COLUMN reminder_claimed_due      DATETIME(6),
+    ADD COLUMN reminder_claim_expires_at DATETIME(6);
@@ -0,0 +1,6 @@
+-- MySQL only partitions a table when every unique key, the primary key included, contains the
+-- partitioning column. Adding taken_at to the key of dose_intakes lets it be range-partitioned by
+-- month on taken_at. id stays the first column, so it can keep its AUTO_INCREMENT.
+ALTER TABLE dose_intakes
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, taken_at);
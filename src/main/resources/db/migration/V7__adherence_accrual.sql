@@ -0,0 +1,13 @@
+-- How far the missed doses of each drug have been added to the scheduled counts of the adherence
+-- rollups, in the drug's local time. Taken doses count as scheduled when they are written; the
+-- missed-dose accrual adds the slots nobody took and moves missed_until forward. Both lock the row,
+-- so a slot is counted once. Existing drugs start from now: their earlier scheduled counts came
+-- from queued reminders and are repaired by running the rebuild command.
+CREATE TABLE adherence_accrual (
+    drug_id      BIGINT      NOT NULL,
+    missed_until DATETIME(6) NOT NULL,
+    PRIMARY KEY (drug_id)
+) ENGINE = InnoDB;
+
+INSERT INTO adherence_accrual (drug_id, missed_until)
+SELECT id, NOW(6) FROM drugs;
@@ -0,0 +1,9 @@
+-- The instance allowed to relay the drug outbox, and until when. Only the holder publishes, so
+-- events keep their order when several instances run; the holder renews the lease before every
+-- batch and another instance takes over once it expires.
+CREATE TABLE outbox_relay_lease (
+    id         TINYINT     NOT NULL,
+    owner      VARCHAR(64) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
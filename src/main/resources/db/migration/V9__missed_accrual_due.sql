@@ -0,0 +1,8 @@
+-- When the missed-dose accrual next has to look at a drug: the moment its next dose slot becomes
+-- missed. The accrual only reads the drugs due by now, in (missed_accrual_due_at, id) order, and
+-- moves the column to the following slot; NULL takes a deleted drug out of the range for good.
+-- New and existing drugs start out due, so the first run gives each of them its first due time.
+ALTER TABLE drugs
+    ADD COLUMN missed_accrual_due_at DATETIME(6) NULL DEFAULT '2000-01-01 00:00:00';
+
+CREATE INDEX idx_drugs_missed_accrual_due ON drugs (missed_accrual_due_at, id);
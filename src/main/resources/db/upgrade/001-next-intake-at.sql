@@ -0,0 +1,43 @@
+-- Moves an existing drugs table from the daily next_intake_time (TIME) to an exact next_intake_at
+-- instant plus a per-drug time zone. Only needed for databases created before this change; fresh
+-- schemas are generated with the new columns.
+--
+-- Instants are stored as UTC DATETIME(6), the way Hibernate writes java.time.Instant on MySQL.
+-- Every existing drug gets the default zone below; named zones in CONVERT_TZ need the MySQL time
+-- zone tables (mysql_tzinfo_to_sql). The next intake becomes the first occurrence of the old time
+-- of day that is not earlier than both now and the treatment start.
+
+SET @default_time_zone = 'Europe/Madrid';
+
+ALTER TABLE drugs
+    ADD COLUMN time_zone VARCHAR(64) NULL,
+    ADD COLUMN next_intake_at DATETIME(6) NULL,
+    ADD COLUMN starts_at DATETIME(6) NULL,
+    ADD COLUMN ends_at DATETIME(6) NULL;
+
+UPDATE drugs SET time_zone = @default_time_zone;
+
+-- Local candidate on the day of max(now, start_date)
+UPDATE drugs
+SET next_intake_at = TIMESTAMP(
+        DATE(GREATEST(start_date, CONVERT_TZ(UTC_TIMESTAMP(), '+00:00', time_zone))),
+        next_intake_time);
+
+UPDATE drugs
+SET next_intake_at = next_intake_at + INTERVAL 1 DAY
+WHERE next_intake_at < GREATEST(start_date, CONVERT_TZ(UTC_TIMESTAMP(), '+00:00', time_zone));
+
+-- last_reminder_at held local times and now holds instants
+UPDATE drugs
+SET next_intake_at = CONVERT_TZ(next_intake_at, time_zone, '+00:00'),
+    starts_at = CONVERT_TZ(start_date, time_zone, '+00:00'),
+    ends_at = CONVERT_TZ(end_date, time_zone, '+00:00'),
+    last_reminder_at = CONVERT_TZ(last_reminder_at, time_zone, '+00:00');
+
+ALTER TABLE drugs
+    MODIFY time_zone VARCHAR(64) NOT NULL,
+    MODIFY next_intake_at DATETIME(6) NOT NULL,
+    MODIFY starts_at DATETIME(6) NOT NULL,
+    DROP COLUMN next_intake_time;
+
+CREATE INDEX idx_drugs_reminder_due ON drugs (active, active_reminder, next_intake_at);
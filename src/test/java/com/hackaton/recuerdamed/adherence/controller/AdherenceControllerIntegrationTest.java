@@ -0,0 +1,187 @@
+package com.hackaton.recuerdamed.adherence.controller;
+
+import com.hackaton.recuerdamed.adherence.service.AdherenceRebuilder;
+import com.hackaton.recuerdamed.adherence.service.MissedDoseAccrual;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeRecorder;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class AdherenceControllerIntegrationTest {
+    private static final long PATIENT_ID = 1L;
+    private static final String DUE_SQL = "SELECT missed_accrual_due_at FROM drugs WHERE id = ?";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoseIntakeRecorder doseIntakeRecorder;
+
+    @Autowired
+    private AdherenceRebuilder adherenceRebuilder;
+
+    @Autowired
+    private MissedDoseAccrual missedDoseAccrual;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Nested
+    @DisplayName("GET /medicamentos/{id}/adherencia")
+    class GetDrugAdherenceTests {
+        @Test
+        @DisplayName("should count taken doses on the day they were due as soon as they are flushed")
+        void getDrugAdherence_countsTakenDoses() throws Exception {
+            mockMvc.perform(put("/medicamentos/1/tomado").header(PatientHeaders.PATIENT_ID, PATIENT_ID)).andExpect(status().isOk());
+            mockMvc.perform(put("/medicamentos/1/tomado").header(PatientHeaders.PATIENT_ID, PATIENT_ID)).andExpect(status().isOk());
+            doseIntakeRecorder.flush();
+
+            mockMvc.perform(get("/medicamentos/1/adherencia")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01")
+                            .param("to", "2025-01-01"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.drugId", is(1)))
+                    .andExpect(jsonPath("$.granularity", is("DAILY")))
+                    .andExpect(jsonPath("$.scheduled", is(2)))
+                    .andExpect(jsonPath("$.taken", is(2)));
+        }
+
+        @Test
+        @DisplayName("should serve rebuilt scheduled doses per day and week")
+        void getDrugAdherence_afterRebuild() throws Exception {
+            adherenceRebuilder.rebuild(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2));
+
+            mockMvc.perform(get("/medicamentos/2/adherencia")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01")
+                            .param("to", "2025-01-02"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.buckets", hasSize(2)))
+                    .andExpect(jsonPath("$.buckets[0].scheduled", is(1)))
+                    .andExpect(jsonPath("$.buckets[1].scheduled", is(2)))
+                    .andExpect(jsonPath("$.scheduled", is(3)))
+                    .andExpect(jsonPath("$.taken", is(0)))
+                    .andExpect(jsonPath("$.adherenceRate", is(0.0)));
+
+            mockMvc.perform(get("/medicamentos/2/adherencia")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01")
+                            .param("to", "2025-01-02")
+                            .param("granularity", "WEEKLY"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.buckets", hasSize(1)))
+                    .andExpect(jsonPath("$.buckets[0].bucketStart", is("2024-12-30")))
+                    .andExpect(jsonPath("$.scheduled", is(3)));
+        }
+
+        @Test
+        @DisplayName("should return 400 when the range is too long")
+        void getDrugAdherence_tooLongRange_returnsBadRequest() throws Exception {
+            mockMvc.perform(get("/medicamentos/1/adherencia")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2020-01-01")
+                            .param("to", "2025-01-01"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("should return 404 when the drug does not exist")
+        void getDrugAdherence_notFound() throws Exception {
+            mockMvc.perform(get("/medicamentos/99/adherencia").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /medicamentos/adherencia")
+    class GetPatientAdherenceTests {
+        @Test
+        @DisplayName("should add up every drug of the patient")
+        void getPatientAdherence_sumsDrugs() throws Exception {
+            adherenceRebuilder.rebuild(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1));
+
+            mockMvc.perform(get("/medicamentos/adherencia")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01")
+                            .param("to", "2025-01-01"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.drugId", nullValue()))
+                    .andExpect(jsonPath("$.buckets", hasSize(1)))
+                    .andExpect(jsonPath("$.scheduled", is(3)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Missed dose accrual")
+    class MissedDoseAccrualTests {
+        @Test
+        @DisplayName("should count the missed slots the rebuild counts, once")
+        void accrueAll_countsMissedSlotsOnce() throws Exception {
+            missedDoseAccrual.accrueAll();
+            missedDoseAccrual.accrueAll();
+
+            mockMvc.perform(get("/medicamentos/2/adherencia")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01")
+                            .param("to", "2025-01-02"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.buckets[0].scheduled", is(1)))
+                    .andExpect(jsonPath("$.buckets[1].scheduled", is(2)))
+                    .andExpect(jsonPath("$.scheduled", is(3)))
+                    .andExpect(jsonPath("$.taken", is(0)));
+        }
+
+        @Test
+        @DisplayName("should only read drugs again once their next slot is missed, and never deleted ones")
+        void accrueAll_movesDueTimes() throws Exception {
+            mockMvc.perform(delete("/medicamentos/2").header(PatientHeaders.PATIENT_ID, PATIENT_ID)).andExpect(status().isNoContent());
+
+            missedDoseAccrual.accrueAll();
+
+            Timestamp drugDue = jdbcTemplate.queryForObject(DUE_SQL, Timestamp.class, 1L);
+            assertNotNull(drugDue);
+            assertTrue(drugDue.toInstant().isAfter(Instant.now()));
+            assertNull(jdbcTemplate.queryForObject(DUE_SQL, Timestamp.class, 2L));
+            assertEquals(0, missedDoseAccrual.accrueAll());
+        }
+
+        @Test
+        @DisplayName("should not count a dose taken after its slot was counted as missed as scheduled again")
+        void takenAfterMissed_countsScheduledOnce() throws Exception {
+            missedDoseAccrual.accrueAll();
+            mockMvc.perform(put("/medicamentos/1/tomado").header(PatientHeaders.PATIENT_ID, PATIENT_ID)).andExpect(status().isOk());
+            doseIntakeRecorder.flush();
+
+            mockMvc.perform(get("/medicamentos/1/adherencia")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01")
+                            .param("to", "2025-01-01"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.scheduled", is(2)))
+                    .andExpect(jsonPath("$.taken", is(1)))
+                    .andExpect(jsonPath("$.adherenceRate", is(0.5)));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hackaton.recuerdamed.agenda.controller;
+
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "reminder.wheel.auto-tick=false")
+@AutoConfigureMockMvc
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class AgendaControllerIntegrationTest {
+    private static final long PATIENT_ID = 1L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Nested
+    @DisplayName("GET /medicamentos/agenda")
+    class GetAgendaTests {
+        @Test
+        @DisplayName("should stream every dose in the range in time order")
+        void getAgenda_writesDosesInOrder() throws Exception {
+            MvcResult result = mockMvc.perform(get("/medicamentos/agenda")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01T00:00:00Z")
+                            .param("to", "2025-01-02T00:00:00Z"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+            String[] lines = result.getResponse().getContentAsString().split("\n");
+            assertEquals(5, lines.length);
+            assertDose(lines[0], 1, "2025-01-01T07:00:00Z");
+            assertDose(lines[1], 2, "2025-01-01T11:00:00Z");
+            assertDose(lines[2], 1, "2025-01-01T15:00:00Z");
+            assertDose(lines[3], 1, "2025-01-01T23:00:00Z");
+            assertDose(lines[4], 2, "2025-01-01T23:00:00Z");
+        }
+
+        @Test
+        @DisplayName("should return an empty body when no dose falls in the range")
+        void getAgenda_beforeTreatment_returnsEmptyBody() throws Exception {
+            MvcResult result = mockMvc.perform(get("/medicamentos/agenda")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2024-12-01T00:00:00Z")
+                            .param("to", "2024-12-02T00:00:00Z"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+            assertTrue(result.getResponse().getContentAsString().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should return 400 when 'from' is not before 'to'")
+        void getAgenda_invalidRange_returnsBadRequest() throws Exception {
+            mockMvc.perform(get("/medicamentos/agenda")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-02T00:00:00Z")
+                            .param("to", "2025-01-01T00:00:00Z"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("should return 400 when the range is longer than the limit")
+        void getAgenda_rangeTooLong_returnsBadRequest() throws Exception {
+            mockMvc.perform(get("/medicamentos/agenda")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01T00:00:00Z")
+                            .param("to", "2025-03-01T00:00:00Z"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private static void assertDose(String line, int drugId, String dueAt) {
+        assertTrue(line.contains("\"drugId\":" + drugId + ","), line);
+        assertTrue(line.contains("\"dueAt\":\"" + dueAt + "\""), line);
+    }
+}
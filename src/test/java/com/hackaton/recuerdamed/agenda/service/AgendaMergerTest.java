@@ -0,0 +1,130 @@
+package com.hackaton.recuerdamed.agenda.service;
+
+import com.hackaton.recuerdamed.agenda.dto.AgendaEntry;
+import com.hackaton.recuerdamed.drug.repository.DrugSchedule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for AgendaMerger")
+public class AgendaMergerTest {
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+    private static final Instant FROM = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2025-01-02T00:00:00Z");
+
+    record Schedule(Long id, Integer frequencyHours, Instant nextIntakeAt, Instant startsAt, Instant endsAt)
+            implements DrugSchedule {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getDrugName() {
+            return "Drug " + id;
+        }
+
+        @Override
+        public String getDosage() {
+            return "1 comprimido";
+        }
+
+        @Override
+        public Integer getFrequencyHours() {
+            return frequencyHours;
+        }
+
+        @Override
+        public Instant getNextIntakeAt() {
+            return nextIntakeAt;
+        }
+
+        @Override
+        public ZoneId getTimeZone() {
+            return MADRID;
+        }
+
+        @Override
+        public Instant getStartsAt() {
+            return startsAt;
+        }
+
+        @Override
+        public Instant getEndsAt() {
+            return endsAt;
+        }
+    }
+
+    private static Instant at(String time) {
+        return Instant.parse("2025-01-01T" + time + ":00Z");
+    }
+
+    private static List<String> drain(AgendaMerger merger) {
+        List<String> doses = new ArrayList<>();
+        while (merger.hasNext()) {
+            AgendaEntry entry = merger.next();
+            doses.add(entry.drugId() + "@" + entry.dueAt());
+        }
+        return doses;
+    }
+
+    @Test
+    @DisplayName("should merge the doses of every drug in time order, ties broken by id")
+    void merge_ordersByTimeThenId() {
+        AgendaMerger merger = new AgendaMerger(List.of(
+                new Schedule(2L, 12, at("11:00"), at("11:00"), null),
+                new Schedule(1L, 8, at("07:00"), at("07:00"), null)), FROM, TO);
+
+        assertEquals(List.of(
+                "1@2025-01-01T07:00:00Z",
+                "2@2025-01-01T11:00:00Z",
+                "1@2025-01-01T15:00:00Z",
+                "1@2025-01-01T23:00:00Z",
+                "2@2025-01-01T23:00:00Z"), drain(merger));
+    }
+
+    @Test
+    @DisplayName("should include doses before the next intake back to the treatment start")
+    void merge_includesPastDoses() {
+        AgendaMerger merger = new AgendaMerger(List.of(
+                new Schedule(1L, 6, at("18:00"), at("06:00"), null)), FROM, TO);
+
+        assertEquals(List.of(
+                "1@2025-01-01T06:00:00Z",
+                "1@2025-01-01T12:00:00Z",
+                "1@2025-01-01T18:00:00Z"), drain(merger));
+    }
+
+    @Test
+    @DisplayName("should stop at the treatment end, which is inclusive, and exclude 'to'")
+    void merge_clipsToTreatmentEndAndRange() {
+        AgendaMerger merger = new AgendaMerger(List.of(
+                new Schedule(1L, 4, at("00:00"), at("00:00"), at("08:00")),
+                new Schedule(2L, 12, at("12:00"), at("00:00"), null)), FROM, TO);
+
+        assertEquals(List.of(
+                "1@2025-01-01T00:00:00Z",
+                "2@2025-01-01T00:00:00Z",
+                "1@2025-01-01T04:00:00Z",
+                "1@2025-01-01T08:00:00Z",
+                "2@2025-01-01T12:00:00Z"), drain(merger));
+    }
+
+    @Test
+    @DisplayName("should skip drugs with no dose in the range")
+    void merge_noDoses_isEmpty() {
+        AgendaMerger merger = new AgendaMerger(List.of(
+                new Schedule(1L, 24, at("23:30"), at("23:30"), at("23:45"))),
+                FROM, at("23:00"));
+
+        assertFalse(merger.hasNext());
+        assertThrows(NoSuchElementException.class, merger::next);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hackaton.recuerdamed.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for GuardedCaffeineCache")
+public class GuardedCaffeineCacheTest {
+    private static final String KEY = "1:1";
+
+    private static GuardedCaffeineCache cache() {
+        return new GuardedCaffeineCache("drugById", Caffeine.newBuilder().build());
+    }
+
+    @Test
+    @DisplayName("should keep a value loaded after a miss when nothing was evicted")
+    void put_afterMiss_keepsValue() {
+        GuardedCaffeineCache cache = cache();
+
+        assertNull(cache.get(KEY));
+        cache.put(KEY, "v1");
+
+        assertEquals("v1", cache.get(KEY).get());
+    }
+
+    @Test
+    @DisplayName("should drop a value loaded before a concurrent eviction")
+    void put_afterConcurrentEviction_dropsStaleValue() throws Exception {
+        GuardedCaffeineCache cache = cache();
+        CountDownLatch missed = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> reader = executor.submit(() -> {
+                assertNull(cache.get(KEY));
+                String loaded = "v1";
+                missed.countDown();
+                evicted.await();
+                cache.put(KEY, loaded);
+                return null;
+            });
+            missed.await();
+            cache.evict(KEY);
+            evicted.countDown();
+            reader.get();
+        }
+
+        assertNull(cache.get(KEY));
+    }
+
+    @Test
+    @DisplayName("should never end up holding an older value than the source under racing reads and writes")
+    void readsAndWrites_race_neverLeaveStaleValue() throws Exception {
+        for (int round = 0; round < 2_000; round++) {
+            GuardedCaffeineCache cache = cache();
+            AtomicLong source = new AtomicLong();
+            CountDownLatch start = new CountDownLatch(1);
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+                for (int reader = 0; reader < 2; reader++) {
+                    executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < 20; i++) {
+                            if (cache.get(KEY) == null) {
+                                cache.put(KEY, source.get());
+                            }
+                        }
+                        return null;
+                    });
+                }
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5; i++) {
+                        source.incrementAndGet();
+                        cache.evict(KEY);
+                    }
+                    return null;
+                });
+                start.countDown();
+            }
+
+            Cache.ValueWrapper cached = cache.get(KEY);
+            assertTrue(cached == null || cached.get().equals(source.get()),
+                    () -> "cached " + cached.get() + " but the source is at " + source.get());
+        }
+    }
+}
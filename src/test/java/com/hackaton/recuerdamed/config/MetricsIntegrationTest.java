@@ -0,0 +1,75 @@
+package com.hackaton.recuerdamed.config;
+
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "reminder.wheel.auto-tick=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DisplayName("Integration tests for the metrics")
+public class MetricsIntegrationTest {
+    private static final long PATIENT_ID = 1L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("should time every DrugService call by method")
+    void drugService_isTimedByMethod() throws Exception {
+        Timer timer = meterRegistry.find("drug.service").tag("method", "getDrugById").timer();
+        long before = timer != null ? timer.count() : 0;
+
+        mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID)).andExpect(status().isOk());
+
+        timer = meterRegistry.find("drug.service").tag("method", "getDrugById").timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() > before);
+    }
+
+    @Test
+    @DisplayName("should expose service, reminder, drug, query and pool meters for Prometheus")
+    void prometheus_exposesMeters() throws Exception {
+        mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("drug_service_seconds_bucket"),
+                        containsString("reminder_pending"),
+                        containsString("reminder_lag_seconds"),
+                        containsString("drugs_active"),
+                        containsString("hibernate_query_execution_seconds_count"),
+                        containsString("hikaricp_connections_active"))));
+    }
+}
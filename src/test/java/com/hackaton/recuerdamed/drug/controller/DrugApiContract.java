@@ -0,0 +1,318 @@
+package com.hackaton.recuerdamed.drug.controller;
+
+import com.hackaton.recuerdamed.drug.dto.DrugPageResponse;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.search.DrugSearchIndex;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The {@code /medicamentos} contract, run over HTTP against each web stack by its subclasses, so
+ * the servlet and the reactive implementations cannot drift apart.
+ */
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+abstract class DrugApiContract {
+    private static final long PATIENT_ID = 1L;
+    private static final long OTHER_PATIENT_ID = 2L;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DrugSearchIndex drugSearchIndex;
+
+    private DrugRequest validRequest;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        drugSearchIndex.rebuild();
+        validRequest = new DrugRequest(
+                "Amoxicilina",
+                "500mg",
+                "Antibiótico para infecciones bacterianas",
+                12,
+                LocalDateTime.of(2025, 9, 17, 9, 0),
+                null,
+                LocalDateTime.of(2025, 9, 17, 9, 0),
+                LocalDateTime.of(2025, 9, 24, 9, 0),
+                true
+        );
+    }
+
+    private WebTestClient.RequestHeadersSpec<?> get(String uri, Object... variables) {
+        return webTestClient.get().uri(uri, variables).header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID));
+    }
+
+    @Test
+    @DisplayName("GET /medicamentos should list the active drugs of the patient ordered by next intake")
+    void getAllDrugs_returnsDrugsInIntakeOrder() {
+        get("/medicamentos").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectHeader().values(HttpHeaders.VARY, hasItem(containsString(PatientHeaders.PATIENT_ID)))
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].drugName").isEqualTo("Paracetamol")
+                .jsonPath("$[0].nextIntakeAt").isEqualTo("2025-01-01T07:00:00Z")
+                .jsonPath("$[0].timeZone").isEqualTo("Europe/Madrid")
+                .jsonPath("$[1].drugName").isEqualTo("Ibuprofeno");
+    }
+
+    @Test
+    @DisplayName("GET /medicamentos should answer 304 to a matching If-None-Match")
+    void getAllDrugs_returnsNotModified_whenETagMatches() {
+        String eTag = get("/medicamentos").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        get("/medicamentos").header(HttpHeaders.IF_NONE_MATCH, eTag).exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("GET /medicamentos?limit= should page with an opaque cursor")
+    void getDrugPage_followsCursor() {
+        DrugPageResponse firstPage = get("/medicamentos?limit=1").exchange()
+                .expectStatus().isOk()
+                .expectBody(DrugPageResponse.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(firstPage);
+        assertEquals(List.of("Paracetamol"), firstPage.items().stream().map(DrugResponse::drugName).toList());
+        assertNotNull(firstPage.nextCursor());
+
+        get("/medicamentos?limit=1&cursor={cursor}", firstPage.nextCursor()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].drugName").isEqualTo("Ibuprofeno")
+                .jsonPath("$.nextCursor").isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /medicamentos?limit= should reject an invalid cursor with 400")
+    void getDrugPage_invalidCursor_returnsBadRequest() {
+        get("/medicamentos?limit=1&cursor=not-a-cursor").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("GET /medicamentos?format=ndjson should stream one drug per line")
+    void streamAllDrugs_returnsNdjson() {
+        String body = get("/medicamentos?format=ndjson").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(body);
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.getFirst().contains("\"drugName\":\"Paracetamol\""));
+    }
+
+    @Test
+    @DisplayName("GET /medicamentos/{id} should return the drug with its ETag")
+    void getDrugById_returnsDrug() {
+        String eTag = get("/medicamentos/{id}", 1).exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.drugName").isEqualTo("Paracetamol")
+                .jsonPath("$.frequencyHours").isEqualTo(8)
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        get("/medicamentos/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, eTag).exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("GET /medicamentos/{id} should return 404 for unknown drugs and drugs of other patients")
+    void getDrugById_returnsNotFound() {
+        get("/medicamentos/{id}", 99).exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Drug with ID: 99 not found")
+                .jsonPath("$.path").isEqualTo("/medicamentos/99");
+
+        webTestClient.get().uri("/medicamentos/{id}", 1).header(PatientHeaders.PATIENT_ID, String.valueOf(OTHER_PATIENT_ID))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("should return 400 when the X-Patient-Id header is missing")
+    void missingPatientHeader_returnsBadRequest() {
+        webTestClient.get().uri("/medicamentos").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("POST /medicamentos should create a drug that can be read back")
+    void createDrug_returnsCreated() {
+        DrugResponse created = webTestClient.post().uri("/medicamentos")
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID))
+                .bodyValue(validRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(DrugResponse.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(created);
+        assertEquals("Amoxicilina", created.drugName());
+        assertEquals("2025-09-17T07:00:00Z", created.nextIntakeAt().toString());
+
+        get("/medicamentos/{id}", created.id()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.drugName").isEqualTo("Amoxicilina")
+                .jsonPath("$.endDate").isEqualTo("2025-09-24T09:00:00");
+        get("/medicamentos/buscar?drugName=amoxi").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(created.id());
+    }
+
+    @Test
+    @DisplayName("POST /medicamentos should reject an invalid drug with 400")
+    void createDrug_invalidRequest_returnsBadRequest() {
+        DrugRequest invalid = new DrugRequest("", "500mg", null, 12, LocalDateTime.of(2025, 9, 17, 9, 0), null,
+                LocalDateTime.of(2025, 9, 17, 9, 0), null, true);
+
+        webTestClient.post().uri("/medicamentos")
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID))
+                .bodyValue(invalid)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("POST /medicamentos should return 404 for an unknown patient")
+    void createDrug_unknownPatient_returnsNotFound() {
+        webTestClient.post().uri("/medicamentos")
+                .header(PatientHeaders.PATIENT_ID, "99")
+                .bodyValue(validRequest)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Patient with ID: 99 not found");
+    }
+
+    @Test
+    @DisplayName("PUT /medicamentos/{id} should update the drug")
+    void updateDrug_returnsUpdatedDrug() {
+        webTestClient.put().uri("/medicamentos/{id}", 1)
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID))
+                .bodyValue(validRequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.drugName").isEqualTo("Amoxicilina")
+                .jsonPath("$.frequencyHours").isEqualTo(12);
+
+        get("/medicamentos/{id}", 1).exchange()
+                .expectBody()
+                .jsonPath("$.drugName").isEqualTo("Amoxicilina");
+    }
+
+    @Test
+    @DisplayName("DELETE /medicamentos/{id} should soft delete the drug")
+    void deleteDrug_returnsNoContent() {
+        webTestClient.delete().uri("/medicamentos/{id}", 1)
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        get("/medicamentos/{id}", 1).exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/medicamentos/{id}", 1)
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("PUT /medicamentos/{id}/tomado should move the next intake one frequency ahead")
+    void markAsTaken_advancesNextIntake() {
+        webTestClient.put().uri("/medicamentos/{id}/tomado", 1)
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.nextIntakeAt").isEqualTo("2025-01-01T15:00:00Z");
+
+        webTestClient.put().uri("/medicamentos/{id}/tomado", 1)
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(OTHER_PATIENT_ID))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("PUT /medicamentos/tomado should report unknown IDs per item")
+    void markAsTakenInBulk_reportsUnknownIds() {
+        webTestClient.put().uri("/medicamentos/tomado")
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID))
+                .bodyValue(List.of(1L, 99L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.processed").isEqualTo(2)
+                .jsonPath("$.succeeded").isEqualTo(1)
+                .jsonPath("$.errors[0].index").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("POST /medicamentos/batch should create every valid item")
+    void createDrugs_createsValidItems() {
+        webTestClient.post().uri("/medicamentos/batch")
+                .header(PatientHeaders.PATIENT_ID, String.valueOf(PATIENT_ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(validRequest, validRequest))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.processed").isEqualTo(2)
+                .jsonPath("$.succeeded").isEqualTo(2);
+
+        get("/medicamentos").exchange()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("GET /medicamentos/buscar should rank the best match first")
+    void searchByName_returnsBestMatchFirst() {
+        get("/medicamentos/buscar?drugName=paracetmol").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].drugName").isEqualTo("Paracetamol");
+    }
+}
@@ -0,0 +1,10 @@
+package com.hackaton.recuerdamed.drug.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "reminder.wheel.auto-tick=false")
+@DisplayName("Drug API contract on the servlet stack")
+public class DrugControllerContractTest extends DrugApiContract {
+}
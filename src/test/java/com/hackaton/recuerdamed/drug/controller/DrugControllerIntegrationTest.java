@@ -1,7 +1,10 @@
 package com.hackaton.recuerdamed.drug.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.recuerdamed.drug.dto.DrugMapper;
 import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.service.DrugService;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -9,14 +12,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.ResultActions;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -27,22 +39,35 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 @Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 public class DrugControllerIntegrationTest {
+    private static final long PATIENT_ID = 1L;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DrugService drugService;
+
+    @MockitoSpyBean
+    private DrugMapper drugMapper;
+
     private DrugRequest validRequest;
 
     @BeforeEach
     void setUp(){
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
         validRequest = new DrugRequest(
                 "Amoxicilina",
                 "500mg",
                 "Antibiótico para infecciones bacterianas",
                 12,
-                LocalTime.of(9, 0,0),
+                LocalDateTime.of(2025, 9, 17, 9, 0),
+                null,
                 LocalDateTime.of(2025, 9, 17, 9, 0),
                 LocalDateTime.of(2025, 9, 24, 9, 0),
                 true
@@ -59,12 +84,14 @@ public class DrugControllerIntegrationTest {
 
     private ResultActions performPostRequest(Object body) throws Exception{
         return mockMvc.perform(post("/medicamentos")
+                .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(body)));
     }
 
     private ResultActions performPutRequest(Long id, Object body) throws Exception{
         return mockMvc.perform(put("/medicamentos/{id}", id)
+                .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(body)));
     }
@@ -73,15 +100,94 @@ public class DrugControllerIntegrationTest {
     @DisplayName("GET /medicamentos")
     class GetAllDrugsTests {
         @Test
-        @DisplayName("should return all active drugs ordered by nextIntakeTime")
+        @DisplayName("should return all active drugs ordered by nextIntakeAt")
         void getAllDrugs_returnsListOfDrugs() throws Exception{
-            mockMvc.perform(get("/medicamentos"))
+            mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$", hasSize(2)))
                     .andExpect(jsonPath("$[0].drugName", is("Paracetamol")))
                     .andExpect(jsonPath("$[1].drugName", is("Ibuprofeno")));
         }
+
+        @Test
+        @DisplayName("should return 304 while the collection is unchanged and 200 after a change")
+        void getAllDrugs_ifNoneMatch_returnsNotModifiedUntilChanged() throws Exception{
+            String eTag = mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(delete("/medicamentos/2").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(status().isNoContent());
+
+            mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                    .andExpect(jsonPath("$", hasSize(1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /medicamentos?limit=")
+    class GetDrugPageTests {
+        @Test
+        @DisplayName("should return pages ordered by nextIntakeAt linked by cursor")
+        void getDrugPage_followsCursor() throws Exception {
+            MvcResult firstPage = mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID).param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].drugName", is("Paracetamol")))
+                    .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                    .andReturn();
+            String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+            mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID).param("limit", "1").param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].drugName", is("Ibuprofeno")))
+                    .andExpect(jsonPath("$.nextCursor", nullValue()));
+        }
+
+        @Test
+        @DisplayName("should return 400 when the cursor is malformed")
+        void getDrugPage_invalidCursor_returnsBadRequest() throws Exception {
+            mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID).param("limit", "10").param("cursor", "not-a-cursor"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("should return 400 when the limit is out of range")
+        void getDrugPage_invalidLimit_returnsBadRequest() throws Exception {
+            mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID).param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /medicamentos?format=ndjson")
+    class StreamAllDrugsTests {
+        @Test
+        @DisplayName("should stream one JSON document per active drug")
+        void streamAllDrugs_writesNdjson() throws Exception {
+            MvcResult result = mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID).param("format", "ndjson"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(allOf(
+                            containsString("\"drugName\":\"Paracetamol\""),
+                            containsString("\"drugName\":\"Ibuprofeno\""))));
+            String[] lines = result.getResponse().getContentAsString().split("\n");
+            assertEquals(2, lines.length);
+        }
     }
 
     @Nested
@@ -90,7 +196,7 @@ public class DrugControllerIntegrationTest {
         @Test
         @DisplayName("should return drug details when the id exists")
         void getDrugById_returnsDrugDetails() throws Exception {
-            mockMvc.perform(get("/medicamentos/1"))
+            mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$.id", is(1)))
@@ -101,10 +207,32 @@ public class DrugControllerIntegrationTest {
                     .andExpect(jsonPath("$.activeReminder", is(true)));
         }
 
+        @Test
+        @DisplayName("should return 304 while the drug is unchanged and 200 after it is taken")
+        void getDrugById_ifNoneMatch_returnsNotModifiedUntilChanged() throws Exception {
+            String eTag = mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(put("/medicamentos/1/tomado").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                    .andExpect(jsonPath("$.nextIntakeAt", is("2025-01-01T15:00:00Z")));
+        }
+
         @Test
         @DisplayName("should return 404 when the id does not exist")
         void getDrugById_returnsNotFound_WhenIdDoesNotExist() throws Exception {
-            mockMvc.perform(get("/medicamentos/99"))
+            mockMvc.perform(get("/medicamentos/99").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
                     .andExpect(status().isNotFound());
         }
     }
@@ -122,7 +250,8 @@ public class DrugControllerIntegrationTest {
                     .andExpect(jsonPath("$.dosage", is(validRequest.dosage())))
                     .andExpect(jsonPath("$.description", is(validRequest.description())))
                     .andExpect(jsonPath("$.frequencyHours", is(validRequest.frequencyHours())))
-                    .andExpect(jsonPath("$.nextIntakeTime", is("09:00:00")))
+                    .andExpect(jsonPath("$.nextIntakeAt", is("2025-09-17T07:00:00Z")))
+                    .andExpect(jsonPath("$.timeZone", is("Europe/Madrid")))
                     .andExpect(jsonPath("$.activeReminder", is(validRequest.activeReminder())));
         }
 
@@ -134,7 +263,8 @@ public class DrugControllerIntegrationTest {
                     "250mg",
                     "Analgésico",
                     8,
-                    LocalTime.of(8, 0),
+                    LocalDateTime.of(2025, 9, 17, 8, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 17, 8, 0),
                     null,
                     true
@@ -151,7 +281,8 @@ public class DrugControllerIntegrationTest {
                     "",
                     "Analgésico",
                     8,
-                    LocalTime.of(8, 0),
+                    LocalDateTime.of(2025, 9, 17, 8, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 17, 8, 0),
                     null,
                     true
@@ -168,7 +299,8 @@ public class DrugControllerIntegrationTest {
                     "250mg",
                     "Analgésico",
                     0,
-                    LocalTime.of(8, 0),
+                    LocalDateTime.of(2025, 9, 17, 8, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 17, 8, 0),
                     null,
                     true
@@ -178,7 +310,7 @@ public class DrugControllerIntegrationTest {
         }
 
         @Test
-        @DisplayName("should return 400 when nextIntakeTime is missing")
+        @DisplayName("should return 400 when nextIntakeAt is missing")
         void createDrug_missingNextIntake_returnsBadRequest() throws Exception{
             DrugRequest request = new DrugRequest(
                     "Ibuprofeno",
@@ -186,6 +318,7 @@ public class DrugControllerIntegrationTest {
                     "Analgésico",
                     12,
                     null,
+                    null,
                     LocalDateTime.of(2025, 9, 17, 8, 0),
                     null,
                     true
@@ -202,7 +335,8 @@ public class DrugControllerIntegrationTest {
                     "250mg",
                     "Analgésico",
                     12,
-                    LocalTime.of(6, 0),
+                    LocalDateTime.of(2025, 9, 17, 6, 0),
+                    null,
                     null,
                     null,
                     true
@@ -212,6 +346,55 @@ public class DrugControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /medicamentos/batch")
+    class CreateDrugsTests {
+        @Test
+        @DisplayName("should create valid items and report invalid ones by index")
+        void createDrugs_jsonArray_reportsErrorsPerItem() throws Exception {
+            DrugRequest invalid = new DrugRequest(
+                    "",
+                    "250mg",
+                    "Analgésico",
+                    8,
+                    LocalDateTime.of(2025, 9, 17, 8, 0),
+                    null,
+                    LocalDateTime.of(2025, 9, 17, 8, 0),
+                    null,
+                    true
+            );
+
+            mockMvc.perform(post("/medicamentos/batch")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(List.of(validRequest, invalid, validRequest))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.processed", is(3)))
+                    .andExpect(jsonPath("$.succeeded", is(2)))
+                    .andExpect(jsonPath("$.failed", is(1)))
+                    .andExpect(jsonPath("$.errors[0].index", is(1)))
+                    .andExpect(jsonPath("$.errors[0].messages[0]", is("Drug name is needed")));
+
+            mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(jsonPath("$", hasSize(4)));
+        }
+
+        @Test
+        @DisplayName("should accept newline-delimited JSON")
+        void createDrugs_ndjson_createsAll() throws Exception {
+            String body = asJsonString(validRequest) + "\n" + asJsonString(validRequest) + "\n";
+
+            mockMvc.perform(post("/medicamentos/batch")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.processed", is(2)))
+                    .andExpect(jsonPath("$.succeeded", is(2)))
+                    .andExpect(jsonPath("$.errors", hasSize(0)));
+        }
+    }
+
     @Nested
     @DisplayName("PUT /medicamentos/{id}")
     class UpdateDurgTests {
@@ -223,7 +406,8 @@ public class DrugControllerIntegrationTest {
                     "650mg",
                     "Actualizado: analgésico más potente",
                     6,
-                    LocalTime.of(10, 0),
+                    LocalDateTime.of(2025, 9, 17, 10, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 20, 10, 0),
                     LocalDateTime.of(2025, 9, 25, 10, 0),
                     false
@@ -237,10 +421,28 @@ public class DrugControllerIntegrationTest {
                     .andExpect(jsonPath("$.dosage", is("650mg")))
                     .andExpect(jsonPath("$.description", is("Actualizado: analgésico más potente")))
                     .andExpect(jsonPath("$.frequencyHours", is(6)))
-                    .andExpect(jsonPath("$.nextIntakeTime", is("10:00:00")))
+                    .andExpect(jsonPath("$.nextIntakeAt", is("2025-09-17T08:00:00Z")))
                     .andExpect(jsonPath("$.activeReminder", is(false)));
         }
 
+        @Test
+        @DisplayName("should return 409 when a dose is taken while the drug is being updated")
+        void updateDrug_concurrentMarkAsTaken_returnsConflict() throws Exception{
+            doAnswer(invocation -> {
+                CompletableFuture.runAsync(() -> drugService.markAsTaken(PATIENT_ID, 1L)).join();
+                return invocation.callRealMethod();
+            }).when(drugMapper).updateEntityFromRequest(any(), any());
+
+            performPutRequest(1L, validRequest)
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message", is("The resource was updated concurrently, please retry")));
+
+            mockMvc.perform(get("/medicamentos/{id}", 1L).header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.drugName", is("Paracetamol")))
+                    .andExpect(jsonPath("$.nextIntakeAt", is("2025-01-01T15:00:00Z")));
+        }
+
         @Test
         @DisplayName("should return 404 when trying to update non-existing drug")
         void updateDrug_notFound() throws Exception{
@@ -249,7 +451,8 @@ public class DrugControllerIntegrationTest {
                     "200mg",
                     "Descripción",
                     8,
-                    LocalTime.of(8, 0),
+                    LocalDateTime.of(2025, 9, 17, 8, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 20, 8, 0),
                     LocalDateTime.of(2025, 9, 22, 8, 0),
                     true
@@ -267,7 +470,8 @@ public class DrugControllerIntegrationTest {
                     "500mg",
                     "Descripción inválida",
                     8,
-                    LocalTime.of(8, 0),
+                    LocalDateTime.of(2025, 9, 17, 8, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 20, 8, 0),
                     null,
                     true
@@ -285,7 +489,8 @@ public class DrugControllerIntegrationTest {
                     "400mg",
                     "Frecuencia inválida",
                     0,
-                    LocalTime.of(12, 0),
+                    LocalDateTime.of(2025, 9, 17, 12, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 20, 12, 0),
                     null,
                     true
@@ -302,17 +507,17 @@ public class DrugControllerIntegrationTest {
         @Test
         @DisplayName("should delete drug (set active to false) and return 204")
         void deleteDrug_success() throws Exception{
-            mockMvc.perform(delete("/medicamentos/1"))
+            mockMvc.perform(delete("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
                     .andExpect(status().isNoContent());
 
-            mockMvc.perform(get("/medicamentos/1"))
+            mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
                     .andExpect(status().isNotFound());
         }
 
         @Test
         @DisplayName("should return 404 when trying to delete non-existing drug")
         void deleteDrug_notFound() throws Exception{
-            mockMvc.perform(delete("/medicamentos/99"))
+            mockMvc.perform(delete("/medicamentos/99").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
                     .andExpect(status().isNotFound());
         }
     }
@@ -321,23 +526,92 @@ public class DrugControllerIntegrationTest {
     @DisplayName("PUT /medicamentos/{id}/tomado")
     class MarkAsTakenTests{
         @Test
-        @DisplayName("should mark drug as taken and update nextIntakeTime, returning 200")
+        @DisplayName("should mark drug as taken and update nextIntakeAt, returning 200")
         void markAsTaken_success() throws Exception{
-            mockMvc.perform(put("/medicamentos/1/tomado"))
+            mockMvc.perform(put("/medicamentos/1/tomado").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
                     .andExpect(status().isOk());
 
-            mockMvc.perform(get("/medicamentos/1"))
+            mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$.id", is(1)))
-                    .andExpect(jsonPath("$.nextIntakeTime", is("16:00:00")));
+                    .andExpect(jsonPath("$.nextIntakeAt", is("2025-01-01T15:00:00Z")));
+        }
+
+        @Test
+        @DisplayName("should mark several drugs as taken and report unknown ids")
+        void markAsTaken_bulk_reportsUnknownIds() throws Exception{
+            mockMvc.perform(put("/medicamentos/tomado")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[1, 99, 2]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.processed", is(3)))
+                    .andExpect(jsonPath("$.succeeded", is(2)))
+                    .andExpect(jsonPath("$.errors[0].index", is(1)))
+                    .andExpect(jsonPath("$.errors[0].id", is(99)));
+
+            mockMvc.perform(get("/medicamentos/2").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(jsonPath("$.nextIntakeAt", is("2025-01-01T23:00:00Z")));
         }
 
         @Test
         @DisplayName("should return 404 when trying to mark non-existing drug as taken")
         void markAsTaken_notFound() throws Exception{
-            mockMvc.perform(put("/medicamentos/99/tomado"))
+            mockMvc.perform(put("/medicamentos/99/tomado").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("X-Patient-Id")
+    class PatientScopeTests {
+        private static final long OTHER_PATIENT_ID = 2L;
+
+        @Test
+        @DisplayName("should return 400 when the header is missing")
+        void missingHeader_returnsBadRequest() throws Exception {
+            mockMvc.perform(get("/medicamentos"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("should only list and search the drugs of the patient")
+        void getAllDrugs_otherPatient_returnsOwnDrugsOnly() throws Exception {
+            mockMvc.perform(get("/medicamentos").header(PatientHeaders.PATIENT_ID, OTHER_PATIENT_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+
+            mockMvc.perform(get("/medicamentos/buscar").header(PatientHeaders.PATIENT_ID, OTHER_PATIENT_ID)
+                            .param("drugName", "paracetamol"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("should return 404 for drugs of another patient")
+        void drugOfOtherPatient_returnsNotFound() throws Exception {
+            mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, OTHER_PATIENT_ID))
                     .andExpect(status().isNotFound());
+            mockMvc.perform(put("/medicamentos/1/tomado").header(PatientHeaders.PATIENT_ID, OTHER_PATIENT_ID))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(delete("/medicamentos/1").header(PatientHeaders.PATIENT_ID, OTHER_PATIENT_ID))
+                    .andExpect(status().isNotFound());
+
+            mockMvc.perform(get("/medicamentos/1").header(PatientHeaders.PATIENT_ID, PATIENT_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.nextIntakeAt", is("2025-01-01T07:00:00Z")));
+        }
+
+        @Test
+        @DisplayName("should return 404 when creating a drug for an unknown patient")
+        void createDrug_unknownPatient_returnsNotFound() throws Exception {
+            mockMvc.perform(post("/medicamentos")
+                            .header(PatientHeaders.PATIENT_ID, 99L)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(validRequest)))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message", is("Patient with ID: 99 not found")));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package com.hackaton.recuerdamed.drug.controller;
+
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares platform-thread and virtual-thread request handling on Tomcat with the reactive stack on
+ * Netty, under many concurrent keep-alive connections. The by-id cache is off so every request
+ * reaches the database. Opt-in only:
+ * {@code mvn test -Dtest=DrugControllerLoadTest -Dloadtest=true}, optionally with
+ * {@code -Dloadtest.connections=} and {@code -Dloadtest.requests=}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@DisplayName("Load test for the drug API")
+public class DrugControllerLoadTest {
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 10_000);
+    private static final int REQUESTS_PER_CONNECTION = Integer.getInteger("loadtest.requests", 10);
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final double MAX_FAILURE_RATIO = 0.01;
+    private static final Map<String, LoadResult> RESULTS = new ConcurrentSkipListMap<>();
+
+    record LoadResult(int requests, int failures, double throughput, double p50Millis, double p99Millis, double maxMillis) {
+        @Override
+        public String toString() {
+            return String.format("%,d requests, %d failed, %,.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    requests, failures, throughput, p50Millis, p99Millis, maxMillis);
+        }
+    }
+
+    @AfterAll
+    static void printComparison() {
+        System.out.printf("%nDrugController load test: %,d connections x %d requests%n", CONNECTIONS, REQUESTS_PER_CONNECTION);
+        RESULTS.forEach((mode, result) -> System.out.printf("  %-8s %s%n", mode, result));
+    }
+
+    static LoadResult run(String mode, int port) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/medicamentos/1");
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .executor(clients)
+                     .build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header(PatientHeaders.PATIENT_ID, "1")
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+
+            long[] latencies = new long[CONNECTIONS * REQUESTS_PER_CONNECTION];
+            AtomicInteger failures = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(CONNECTIONS);
+            for (int connection = 0; connection < CONNECTIONS; connection++) {
+                int offset = connection * REQUESTS_PER_CONNECTION;
+                clients.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < REQUESTS_PER_CONNECTION; i++) {
+                            long began = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() != 200) {
+                                    failures.incrementAndGet();
+                                }
+                            } catch (Exception exception) {
+                                failures.incrementAndGet();
+                            }
+                            latencies[offset + i] = System.nanoTime() - began;
+                        }
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            long began = System.nanoTime();
+            start.countDown();
+            done.await();
+            long elapsed = System.nanoTime() - began;
+
+            Arrays.sort(latencies);
+            LoadResult result = new LoadResult(
+                    latencies.length,
+                    failures.get(),
+                    latencies.length / (elapsed / 1e9),
+                    percentile(latencies, 0.50),
+                    percentile(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1e6);
+            RESULTS.put(mode, result);
+            return result;
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static void assertMostlySucceeded(LoadResult result) {
+        assertTrue(result.failures() <= result.requests() * MAX_FAILURE_RATIO, result::toString);
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.threads.virtual.enabled=false",
+                    "server.tomcat.max-connections=20000",
+                    "server.tomcat.accept-count=10000",
+                    "drug-cache.by-id.enabled=false",
+                    "reminder.wheel.auto-tick=false"
+            })
+    @Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @DisplayName("platform threads")
+    class PlatformThreadTests {
+        @LocalServerPort
+        private int port;
+
+        @Test
+        @DisplayName("should serve GET /medicamentos/{id} under load")
+        void getDrugById_underLoad() throws Exception {
+            assertMostlySucceeded(run("platform", port));
+        }
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.threads.virtual.enabled=true",
+                    "server.tomcat.max-connections=20000",
+                    "server.tomcat.accept-count=10000",
+                    "drug-cache.by-id.enabled=false",
+                    "reminder.wheel.auto-tick=false"
+            })
+    @Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @DisplayName("virtual threads")
+    class VirtualThreadTests {
+        @LocalServerPort
+        private int port;
+
+        @Test
+        @DisplayName("should serve GET /medicamentos/{id} under load")
+        void getDrugById_underLoad() throws Exception {
+            assertMostlySucceeded(run("virtual", port));
+        }
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.main.web-application-type=reactive",
+                    "reminder.wheel.auto-tick=false"
+            })
+    @ActiveProfiles("reactive")
+    @Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @DisplayName("reactive")
+    class ReactiveTests {
+        @LocalServerPort
+        private int port;
+
+        @Test
+        @DisplayName("should serve GET /medicamentos/{id} under load")
+        void getDrugById_underLoad() throws Exception {
+            assertMostlySucceeded(run("reactive", port));
+        }
+    }
+}
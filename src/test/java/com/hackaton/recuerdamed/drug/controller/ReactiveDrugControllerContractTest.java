@@ -0,0 +1,15 @@
+package com.hackaton.recuerdamed.drug.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "reminder.wheel.auto-tick=false"
+        })
+@ActiveProfiles("reactive")
+@DisplayName("Drug API contract on the reactive stack")
+public class ReactiveDrugControllerContractTest extends DrugApiContract {
+}
@@ -1,5 +1,6 @@
 package com.hackaton.recuerdamed.drug.dto;
 
+import com.hackaton.recuerdamed.config.DrugScheduleProperties;
 import com.hackaton.recuerdamed.drug.entity.Drug;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,28 +9,32 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Unit tests for DrugMapper")
 public class DrugMapperTest {
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+
     private DrugMapper drugMapper;
     private DrugRequest sampleRequest;
     private Drug sampleDrug;
 
     @BeforeEach
     void setUp(){
-        drugMapper = new DrugMapper();
+        drugMapper = new DrugMapper(new DrugScheduleProperties(MADRID));
 
         sampleRequest = new DrugRequest(
                 " Paracetamol ",
                 " 500mg ",
                 " Analgésico ",
                 8,
-                LocalTime.of(9, 0),
+                LocalDateTime.of(2025, 9, 17, 9, 0),
+                ZoneId.of("America/Bogota"),
                 LocalDateTime.of(2025, 9, 17, 9, 0),
                 LocalDateTime.of(2025, 9, 24, 9, 0),
                 true
@@ -37,11 +42,13 @@ public class DrugMapperTest {
 
         sampleDrug = Drug.builder()
                 .id(1L)
+                .patientId(1L)
                 .drugName("Ibuprofeno")
                 .dosage("200mg")
                 .description("Para el dolor")
                 .frequencyHours(12)
-                .nextIntakeTime(LocalTime.of(10, 0))
+                .nextIntakeAt(Instant.parse("2025-09-17T08:00:00Z"))
+                .timeZone(MADRID)
                 .startDate(LocalDateTime.of(2025, 9, 17, 10, 0))
                 .endDate(LocalDateTime.of(2025, 9, 20, 10, 0))
                 .active(true)
@@ -57,21 +64,35 @@ public class DrugMapperTest {
         @Test
         @DisplayName("should map DrugRequest to Drug entity correctly with trimming")
         void toEntity_success(){
-            Drug result = drugMapper.toEntity(sampleRequest);
+            Drug result = drugMapper.toEntity(7L, sampleRequest);
 
             assertNotNull(result);
             assertNotNull(result);
+            assertEquals(7L, result.getPatientId());
             assertEquals("Paracetamol", result.getDrugName());
             assertEquals("500mg", result.getDosage());
             assertEquals(" Analgésico ", result.getDescription());
             assertEquals(8, result.getFrequencyHours());
-            assertEquals(LocalTime.of(9, 0), result.getNextIntakeTime());
+            assertEquals(Instant.parse("2025-09-17T14:00:00Z"), result.getNextIntakeAt());
+            assertEquals(ZoneId.of("America/Bogota"), result.getTimeZone());
             assertEquals(LocalDateTime.of(2025, 9, 17, 9, 0), result.getStartDate());
             assertEquals(LocalDateTime.of(2025, 9, 24, 9, 0), result.getEndDate());
             assertTrue(result.getActive());
             assertTrue(result.getActiveReminder());
             assertNotNull(result.getCreationDate());
-            assertNotNull(result.getUpdateDate());
+            assertEquals(result.getCreationDate(), result.getUpdateDate());
+        }
+
+        @Test
+        @DisplayName("should read the next intake in the default time zone when none is given")
+        void toEntity_defaultTimeZone() {
+            DrugRequest request = new DrugRequest("Ibuprofeno", "200mg", null, 6,
+                    LocalDateTime.of(2025, 7, 1, 8, 0), null, LocalDateTime.of(2025, 7, 1, 8, 0), null, true);
+
+            Drug result = drugMapper.toEntity(7L, request);
+
+            assertEquals(MADRID, result.getTimeZone());
+            assertEquals(Instant.parse("2025-07-01T06:00:00Z"), result.getNextIntakeAt());
         }
     }
 
@@ -89,7 +110,8 @@ public class DrugMapperTest {
             assertEquals(sampleDrug.getDosage(), result.dosage());
             assertEquals(sampleDrug.getDescription(), result.description());
             assertEquals(sampleDrug.getFrequencyHours(), result.frequencyHours());
-            assertEquals(sampleDrug.getNextIntakeTime(), result.nextIntakeTime());
+            assertEquals(sampleDrug.getNextIntakeAt(), result.nextIntakeAt());
+            assertEquals(sampleDrug.getTimeZone(), result.timeZone());
             assertEquals(sampleDrug.getStartDate(), result.startDate());
             assertEquals(sampleDrug.getEndDate(), result.endDate());
             assertEquals(sampleDrug.getActive(), result.active());
@@ -111,7 +133,8 @@ public class DrugMapperTest {
             assertEquals("500mg", sampleDrug.getDosage());
             assertEquals("Analgésico", sampleDrug.getDescription().trim());
             assertEquals(8, sampleDrug.getFrequencyHours());
-            assertEquals(LocalTime.of(9, 0), sampleDrug.getNextIntakeTime());
+            assertEquals(Instant.parse("2025-09-17T14:00:00Z"), sampleDrug.getNextIntakeAt());
+            assertEquals(ZoneId.of("America/Bogota"), sampleDrug.getTimeZone());
             assertEquals(LocalDateTime.of(2025, 9, 17, 9, 0), sampleDrug.getStartDate());
             assertEquals(LocalDateTime.of(2025, 9, 24, 9, 0), sampleDrug.getEndDate());
             assertTrue(sampleDrug.getActiveReminder());
@@ -125,7 +148,8 @@ public class DrugMapperTest {
                     "200mg",
                     null,
                     6,
-                    LocalTime.of(8, 0),
+                    LocalDateTime.of(2025, 9, 18, 8, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 18, 8, 0),
                     null,
                     true
@@ -144,7 +168,8 @@ public class DrugMapperTest {
                     "200mg",
                     "Dolor de cabeza",
                     6,
-                    LocalTime.of(8, 0),
+                    LocalDateTime.of(2025, 9, 18, 8, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 18, 8, 0),
                     null,
                     null
@@ -163,7 +188,8 @@ public class DrugMapperTest {
                     "200mg",
                     "Dolor de cabeza",
                     6,
-                    LocalTime.of(8, 0),
+                    LocalDateTime.of(2025, 9, 18, 8, 0),
+                    null,
                     LocalDateTime.of(2025, 9, 18, 8, 0),
                     null,
                     false
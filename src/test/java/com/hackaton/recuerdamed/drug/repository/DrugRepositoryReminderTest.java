@@ -0,0 +1,105 @@
+package com.hackaton.recuerdamed.drug.repository;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "reminder.wheel.auto-tick=false")
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Transactional
+@DisplayName("Integration tests for the DrugRepository reminder queries")
+public class DrugRepositoryReminderTest {
+    private static final List<Long> IDS = List.of(1L, 2L);
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    private static List<Long> ids(List<DueReminder> due) {
+        return due.stream().map(DueReminder::getId).sorted().toList();
+    }
+
+    @Test
+    @DisplayName("should only return drugs whose next dose has been reached")
+    void findDueReminders_onlyDueDrugs() {
+        assertEquals(List.of(), ids(drugRepository.findDueReminders(IDS, Instant.parse("2025-01-01T06:59:59Z"))));
+        assertEquals(List.of(1L), ids(drugRepository.findDueReminders(IDS, Instant.parse("2025-01-01T07:00:00Z"))));
+        assertEquals(List.of(1L, 2L), ids(drugRepository.findDueReminders(IDS, Instant.parse("2025-01-02T02:00:00Z"))));
+        assertEquals(1L, drugRepository.findDueReminders(IDS, Instant.parse("2025-01-01T07:00:00Z")).getFirst().getPatientId());
+    }
+
+    @Test
+    @DisplayName("should skip doses that were already reminded")
+    void findDueReminders_skipsDelivered() {
+        drugRepository.markRemindersDelivered(List.of(1L), Instant.parse("2025-01-01T07:00:00Z"));
+
+        assertEquals(List.of(2L), ids(drugRepository.findDueReminders(IDS, Instant.parse("2025-01-02T00:00:00Z"))));
+        assertEquals(List.of(2L), drugRepository.findReminderSlots(1, 0).stream().map(ReminderSlot::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should skip doses outside the treatment window")
+    void findDueReminders_respectsTreatmentWindow() {
+        Drug drug = drugRepository.findById(2L).orElseThrow();
+        drug.setEndDate(LocalDateTime.of(2025, 1, 1, 11, 0));
+        drugRepository.saveAndFlush(drug);
+
+        assertEquals(List.of(1L), ids(drugRepository.findDueReminders(IDS, Instant.parse("2025-01-02T00:00:00Z"))));
+    }
+
+    @Test
+    @DisplayName("should only return the drugs of the requested reminder shard")
+    void findReminderSlots_filtersByShard() {
+        assertEquals(List.of(2L), drugRepository.findReminderSlots(2, 0).stream().map(ReminderSlot::getId).toList());
+        assertEquals(List.of(1L), drugRepository.findReminderSlots(2, 1).stream().map(ReminderSlot::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should resume a sweep after the last drug read among doses due at the same instant")
+    void findDueReminderSlots_resumesAfterId() {
+        Instant until = Instant.parse("2025-01-02T00:00:00Z");
+        Instant dueAt = Instant.parse("2025-01-01T11:00:00Z");
+        Drug drug = drugRepository.findById(1L).orElseThrow();
+        drug.setNextIntakeAt(dueAt);
+        drugRepository.saveAndFlush(drug);
+
+        assertEquals(List.of(1L, 2L), drugRepository.findDueReminderSlots(dueAt, 0L, until, 1, 0, Limit.of(10))
+                .stream().map(ReminderSlot::getId).toList());
+        assertEquals(List.of(2L), drugRepository.findDueReminderSlots(dueAt, 1L, until, 1, 0, Limit.of(10))
+                .stream().map(ReminderSlot::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should only sweep the doses that fell due inside the window")
+    void findDueReminderSlots_boundsWindow() {
+        Instant until = Instant.parse("2025-01-02T00:00:00Z");
+
+        assertEquals(List.of(1L, 2L), drugRepository.findDueReminderSlots(Instant.EPOCH, 0L, until, 1, 0, Limit.of(10))
+                .stream().map(ReminderSlot::getId).toList());
+        assertEquals(List.of(2L), drugRepository.findDueReminderSlots(Instant.parse("2025-01-01T07:00:00Z"), Long.MAX_VALUE, until,
+                1, 0, Limit.of(10)).stream().map(ReminderSlot::getId).toList());
+        assertEquals(List.of(1L), drugRepository.findDueReminderSlots(Instant.EPOCH, 0L, until, 2, 1, Limit.of(10))
+                .stream().map(ReminderSlot::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should leave a dose claimed by another node alone until the claim expires")
+    void lockClaimableReminders_respectsClaims() {
+        Instant now = Instant.parse("2025-01-02T00:00:00Z");
+        drugRepository.claimReminders(List.of(1L), "node-a", now.plusSeconds(300));
+
+        assertEquals(List.of(1L, 2L), drugRepository.lockClaimableReminders(IDS, "node-a", now).stream().sorted().toList());
+        assertEquals(List.of(2L), drugRepository.lockClaimableReminders(IDS, "node-b", now));
+        assertEquals(List.of(1L, 2L), drugRepository.lockClaimableReminders(IDS, "node-b", now.plusSeconds(301)).stream().sorted().toList());
+    }
+}
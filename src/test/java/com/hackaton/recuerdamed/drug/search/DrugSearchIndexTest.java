@@ -0,0 +1,127 @@
+package com.hackaton.recuerdamed.drug.search;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for DrugSearchIndex")
+public class DrugSearchIndexTest {
+    private static final Long PATIENT_ID = 1L;
+    private static final Long OTHER_PATIENT_ID = 2L;
+
+    @Mock
+    private DrugRepository drugRepository;
+
+    private DrugSearchIndex drugSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        drugSearchIndex = new DrugSearchIndex(drugRepository, new DrugSearchProperties(0.6, true, 0.5));
+        drugSearchIndex.index(drug(1L, "Paracetamol", "Analgésico y antipirético"));
+        drugSearchIndex.index(drug(2L, "Ibuprofeno", "Antiinflamatorio"));
+        drugSearchIndex.index(drug(3L, "Ibuprofeno Kern", "Antiinflamatorio"));
+        drugSearchIndex.index(drug(4L, "Amoxicilina", "Antibiótico"));
+    }
+
+    private static Drug drug(Long id, String drugName, String description) {
+        return drug(PATIENT_ID, id, drugName, description);
+    }
+
+    private static Drug drug(Long patientId, Long id, String drugName, String description) {
+        return Drug.builder()
+                .id(id)
+                .patientId(patientId)
+                .drugName(drugName)
+                .description(description)
+                .active(true)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("search")
+    class SearchTests {
+        @Test
+        @DisplayName("should match name prefixes ignoring case")
+        void search_matchesPrefix() {
+            assertEquals(List.of(2L, 3L), drugSearchIndex.search(PATIENT_ID, "IBU", 10));
+        }
+
+        @Test
+        @DisplayName("should match text inside the name")
+        void search_matchesInfix() {
+            assertEquals(List.of(4L), drugSearchIndex.search(PATIENT_ID, "cilina", 10));
+        }
+
+        @Test
+        @DisplayName("should ignore accents in both query and data")
+        void search_ignoresAccents() {
+            assertEquals(List.of(1L), drugSearchIndex.search(PATIENT_ID, "antipiretico", 10));
+            assertEquals(List.of(4L), drugSearchIndex.search(PATIENT_ID, "antibiótico", 10));
+        }
+
+        @Test
+        @DisplayName("should tolerate typos")
+        void search_toleratesTypos() {
+            assertEquals(2L, drugSearchIndex.search(PATIENT_ID, "ibuprofneo", 10).getFirst());
+        }
+
+        @Test
+        @DisplayName("should honour the limit keeping the best ranked drug")
+        void search_ranksAndLimits() {
+            assertEquals(List.of(2L), drugSearchIndex.search(PATIENT_ID, "ibuprofeno", 1));
+        }
+
+        @Test
+        @DisplayName("should only return drugs of the given patient")
+        void search_scopedToPatient() {
+            drugSearchIndex.index(drug(OTHER_PATIENT_ID, 5L, "Ibuprofeno", "Antiinflamatorio"));
+
+            assertEquals(List.of(2L, 3L), drugSearchIndex.search(PATIENT_ID, "ibuprofeno", 10));
+            assertEquals(List.of(5L), drugSearchIndex.search(OTHER_PATIENT_ID, "ibuprofeno", 10));
+            assertTrue(drugSearchIndex.search(3L, "ibuprofeno", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should return nothing for blank queries")
+        void search_blankQuery() {
+            assertTrue(drugSearchIndex.search(PATIENT_ID, "  ", 10).isEmpty());
+            assertTrue(drugSearchIndex.search(PATIENT_ID, null, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("index and remove")
+    class UpdateTests {
+        @Test
+        @DisplayName("should reflect renamed drugs")
+        void index_replacesPreviousName() {
+            drugSearchIndex.index(drug(4L, "Augmentine", "Antibiótico"));
+
+            assertTrue(drugSearchIndex.search(PATIENT_ID, "amoxicilina", 10).isEmpty());
+            assertEquals(List.of(4L), drugSearchIndex.search(PATIENT_ID, "augment", 10));
+        }
+
+        @Test
+        @DisplayName("should not return removed or inactive drugs")
+        void remove_dropsDrug() {
+            drugSearchIndex.remove(PATIENT_ID, 1L);
+            Drug inactive = drug(2L, "Ibuprofeno", "Antiinflamatorio");
+            inactive.setActive(false);
+            drugSearchIndex.index(inactive);
+
+            assertTrue(drugSearchIndex.search(PATIENT_ID, "paracetamol", 10).isEmpty());
+            assertEquals(List.of(3L), drugSearchIndex.search(PATIENT_ID, "ibuprofeno", 10));
+        }
+    }
+}
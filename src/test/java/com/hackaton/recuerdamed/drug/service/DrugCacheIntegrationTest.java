@@ -0,0 +1,136 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hackaton.recuerdamed.config.DrugCacheNames;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DisplayName("Integration tests for the drug read cache")
+public class DrugCacheIntegrationTest {
+    private static final Long PATIENT_ID = 1L;
+    private static final Long OTHER_PATIENT_ID = 2L;
+
+    @Autowired
+    private DrugService drugService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private CacheStats stats(String cacheName) {
+        TransactionAwareCacheDecorator decorator = (TransactionAwareCacheDecorator) cacheManager.getCache(cacheName);
+        return ((CaffeineCache) decorator.getTargetCache()).getNativeCache().stats();
+    }
+
+    private String pagedName(Long patientId, Long id) {
+        return drugService.getDrugPage(patientId, null, 10).items().stream()
+                .filter(drug -> drug.id().equals(id))
+                .findFirst().orElseThrow().drugName();
+    }
+
+    @Test
+    @DisplayName("should serve repeated reads from the cache")
+    void getDrugById_secondReadIsCacheHit() {
+        long hitsBefore = stats(DrugCacheNames.BY_ID).hitCount();
+
+        drugService.getDrugById(PATIENT_ID, 1L);
+        drugService.getDrugById(PATIENT_ID, 1L);
+
+        assertEquals(hitsBefore + 1, stats(DrugCacheNames.BY_ID).hitCount());
+    }
+
+    @Test
+    @DisplayName("should not serve a cached drug to another patient")
+    void getDrugById_cachedPerPatient() {
+        drugService.getDrugById(PATIENT_ID, 1L);
+
+        assertThrows(DrugNotFoundException.class, () -> drugService.getDrugById(OTHER_PATIENT_ID, 1L));
+        assertTrue(drugService.getAllDrugs(OTHER_PATIENT_ID).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should not return stale data after an update")
+    void updateDrug_evictsCachedEntries() {
+        drugService.getDrugById(PATIENT_ID, 1L);
+        drugService.getAllDrugs(PATIENT_ID);
+
+        drugService.updateDrug(PATIENT_ID, 1L, new DrugRequest(
+                "Paracetamol Forte",
+                "1g",
+                "Analgésico",
+                8,
+                LocalDateTime.of(2025, 1, 1, 23, 0),
+                null,
+                LocalDateTime.of(2025, 1, 1, 8, 0),
+                null,
+                true
+        ));
+
+        assertEquals("Paracetamol Forte", drugService.getDrugById(PATIENT_ID, 1L).drugName());
+        List<DrugResponse> drugs = drugService.getAllDrugs(PATIENT_ID);
+        assertEquals("Paracetamol Forte", drugs.getLast().drugName());
+    }
+
+    @Test
+    @DisplayName("should not return stale data after marking as taken or deleting")
+    void markAsTakenAndDelete_evictCachedEntries() {
+        assertEquals(Instant.parse("2025-01-01T07:00:00Z"), drugService.getDrugById(PATIENT_ID, 1L).nextIntakeAt());
+        assertEquals(2, drugService.getAllDrugs(PATIENT_ID).size());
+
+        drugService.markAsTaken(PATIENT_ID, 1L);
+        assertEquals(Instant.parse("2025-01-01T15:00:00Z"), drugService.getDrugById(PATIENT_ID, 1L).nextIntakeAt());
+
+        drugService.deleteDrug(PATIENT_ID, 2L);
+        assertEquals(1, drugService.getAllDrugs(PATIENT_ID).size());
+    }
+
+    @Test
+    @DisplayName("should keep other patients' cached lists and pages after a write")
+    void writes_evictOnlyTheirPatient() {
+        drugService.getAllDrugs(OTHER_PATIENT_ID);
+        drugService.getDrugPage(OTHER_PATIENT_ID, null, 10);
+        assertEquals("Paracetamol", pagedName(PATIENT_ID, 1L));
+        long listHits = stats(DrugCacheNames.LIST).hitCount();
+        long pageHits = stats(DrugCacheNames.PAGES).hitCount();
+
+        drugService.updateDrug(PATIENT_ID, 1L, new DrugRequest(
+                "Paracetamol Forte",
+                "1g",
+                "Analgésico",
+                8,
+                LocalDateTime.of(2025, 1, 1, 23, 0),
+                null,
+                LocalDateTime.of(2025, 1, 1, 8, 0),
+                null,
+                true
+        ));
+        drugService.getAllDrugs(OTHER_PATIENT_ID);
+        drugService.getDrugPage(OTHER_PATIENT_ID, null, 10);
+
+        assertEquals(listHits + 1, stats(DrugCacheNames.LIST).hitCount());
+        assertEquals(pageHits + 1, stats(DrugCacheNames.PAGES).hitCount());
+        assertEquals("Paracetamol Forte", pagedName(PATIENT_ID, 1L));
+    }
+}
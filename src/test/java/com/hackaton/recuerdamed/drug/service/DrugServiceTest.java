@@ -1,11 +1,21 @@
 package com.hackaton.recuerdamed.drug.service;
 
+import com.hackaton.recuerdamed.config.DrugCacheEvictor;
 import com.hackaton.recuerdamed.drug.dto.DrugMapper;
 import com.hackaton.recuerdamed.drug.dto.DrugRequest;
 import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.dto.NextIntakeResponse;
 import com.hackaton.recuerdamed.drug.entity.Drug;
 import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.IntakeState;
+import com.hackaton.recuerdamed.drug.search.DrugSearchIndex;
+import com.hackaton.recuerdamed.intake.service.DoseIntakeRecorder;
+import com.hackaton.recuerdamed.outbox.entity.DrugEventType;
+import com.hackaton.recuerdamed.outbox.service.OutboxWriter;
+import com.hackaton.recuerdamed.patient.service.PatientService;
+import com.hackaton.recuerdamed.reminder.scheduler.ReminderScheduler;
 import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import com.hackaton.recuerdamed.shared.custom_exception.PatientNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -14,23 +24,48 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
-import java.time.LocalTime;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Unit tests for DrugServiceImpl")
 public class DrugServiceTest {
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+    private static final Long PATIENT_ID = 1L;
+
     @Mock
     private DrugRepository drugRepository;
 
     @Mock
     private DrugMapper drugMapper;
 
+    @Mock
+    private ReminderScheduler reminderScheduler;
+
+    @Mock
+    private DrugSearchIndex drugSearchIndex;
+
+    @Mock
+    private DoseIntakeRecorder doseIntakeRecorder;
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private DrugCacheEvictor drugCacheEvictor;
+
     @InjectMocks
     private DrugServiceImpl drugService;
 
@@ -42,11 +77,13 @@ public class DrugServiceTest {
 
         sampleDrug = Drug.builder()
                 .id(1L)
+                .patientId(PATIENT_ID)
                 .drugName("Ibuprofeno")
                 .description("Para el dolor")
                 .dosage("200mg")
                 .frequencyHours(8)
-                .nextIntakeTime(LocalTime.of(10, 0))
+                .nextIntakeAt(Instant.parse("2025-01-01T09:00:00Z"))
+                .timeZone(MADRID)
                 .startDate(LocalDateTime.now())
                 .endDate(LocalDateTime.now().plusDays(5))
                 .active(true)
@@ -59,7 +96,8 @@ public class DrugServiceTest {
                 sampleDrug.getDescription(),
                 sampleDrug.getDosage(),
                 sampleDrug.getFrequencyHours(),
-                sampleDrug.getNextIntakeTime(),
+                sampleDrug.getNextIntakeAt(),
+                sampleDrug.getTimeZone(),
                 sampleDrug.getStartDate(),
                 sampleDrug.getEndDate(),
                 sampleDrug.getActive(),
@@ -75,30 +113,28 @@ public class DrugServiceTest {
         @Test
         @DisplayName("should return a list of drugs when drugs exist")
         void getAllDrugs_returnsListOfDrug() {
-            when(drugRepository.findByActiveTrueOrderByNextIntakeTimeAsc())
-                    .thenReturn(List.of(sampleDrug));
-            when(drugMapper.toDto(sampleDrug)).thenReturn(sampleDrugResponse);
+            when(drugRepository.findActiveResponses(PATIENT_ID))
+                    .thenReturn(List.of(sampleDrugResponse));
 
-            List<DrugResponse> result = drugService.getAllDrugs();
+            List<DrugResponse> result = drugService.getAllDrugs(PATIENT_ID);
 
             assertNotNull(result);
             assertEquals(1, result.size());
             assertEquals("Ibuprofeno", result.getFirst().drugName());
-            verify(drugRepository, times(1)).findByActiveTrueOrderByNextIntakeTimeAsc();
-            verify(drugMapper, times(1)).toDto(sampleDrug);
+            verify(drugRepository, times(1)).findActiveResponses(PATIENT_ID);
+            verify(drugMapper, never()).toDto(any());
         }
 
         @Test
         @DisplayName("should return empty list when no drugs exist")
         void getAllDrugs_returnsEmptyList() {
-            when(drugRepository.findByActiveTrueOrderByNextIntakeTimeAsc()).thenReturn(List.of());
+            when(drugRepository.findActiveResponses(PATIENT_ID)).thenReturn(List.of());
 
-            List<DrugResponse> result = drugService.getAllDrugs();
+            List<DrugResponse> result = drugService.getAllDrugs(PATIENT_ID);
 
             assertNotNull(result);
             assertTrue(result.isEmpty());
-            verify(drugRepository, times(1)).findByActiveTrueOrderByNextIntakeTimeAsc();
-            verify(drugMapper, never()).toDto(any());
+            verify(drugRepository, times(1)).findActiveResponses(PATIENT_ID);
         }
     }
 
@@ -108,28 +144,26 @@ public class DrugServiceTest {
         @Test
         @DisplayName("should return drug when id exists")
         void getDrugById_returnsDrug() {
-            when(drugRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(sampleDrug));
-            when(drugMapper.toDto(sampleDrug)).thenReturn(sampleDrugResponse);
+            when(drugRepository.findActiveResponseById(PATIENT_ID, 1L)).thenReturn(Optional.of(sampleDrugResponse));
 
-            DrugResponse result = drugService.getDrugById(1L);
+            DrugResponse result = drugService.getDrugById(PATIENT_ID, 1L);
 
             assertNotNull(result);
             assertEquals("Ibuprofeno", result.drugName());
-            verify(drugRepository, times(1)).findByIdAndActiveTrue(1L);
-            verify(drugMapper, times(1)).toDto(sampleDrug);
+            verify(drugRepository, times(1)).findActiveResponseById(PATIENT_ID, 1L);
+            verify(drugRepository, never()).findByIdAndPatientIdAndActiveTrue(any(), any());
         }
 
         @Test
         @DisplayName("should throw DrugNotFoundException when id does not exist")
         void getDrugById_throwsException_whenIdNotFound() {
-            when(drugRepository.findByIdAndActiveTrue(99L)).thenReturn(Optional.empty());
+            when(drugRepository.findActiveResponseById(PATIENT_ID, 99L)).thenReturn(Optional.empty());
 
             DrugNotFoundException exception = assertThrows(DrugNotFoundException.class,
-                    () -> drugService.getDrugById(99L));
+                    () -> drugService.getDrugById(PATIENT_ID, 99L));
 
             assertEquals("Drug with ID: 99 not found", exception.getMessage());
-            verify(drugRepository, times(1)).findByIdAndActiveTrue(99L);
-            verify(drugMapper, never()).toDto(any());
+            verify(drugRepository, times(1)).findActiveResponseById(PATIENT_ID, 99L);
         }
     }
 
@@ -144,23 +178,67 @@ public class DrugServiceTest {
                     "200mg",
                     "Para el dolor",
                     8,
-                    LocalTime.of(10, 0),
+                    LocalDateTime.of(2025, 1, 1, 10, 0),
+                    MADRID,
                     LocalDateTime.now(),
                     LocalDateTime.now().plusDays(5),
                     true
             );
 
-            when(drugMapper.toEntity(request)).thenReturn(sampleDrug);
+            when(drugMapper.toEntity(PATIENT_ID, request)).thenReturn(sampleDrug);
             when(drugRepository.save(sampleDrug)).thenReturn(sampleDrug);
             when(drugMapper.toDto(sampleDrug)).thenReturn(sampleDrugResponse);
 
-            DrugResponse result = drugService.createDrug(request);
+            DrugResponse result = drugService.createDrug(PATIENT_ID, request);
 
             assertNotNull(result);
             assertEquals("Ibuprofeno", result.drugName());
-            verify(drugMapper, times(1)).toEntity(request);
+            verify(drugMapper, times(1)).toEntity(PATIENT_ID, request);
             verify(drugRepository, times(1)).save(sampleDrug);
             verify(drugMapper, times(1)).toDto(sampleDrug);
+            verify(patientService).checkExists(PATIENT_ID);
+            verify(outboxWriter).append(argThat(event -> event.type() == DrugEventType.CREATED
+                    && event.drugId().equals(1L) && event.payload() == sampleDrugResponse));
+            verify(reminderScheduler).schedule(sampleDrug);
+            verify(drugSearchIndex).index(sampleDrug);
+        }
+
+        @Test
+        @DisplayName("should only schedule the reminder and index the drug once the transaction commits")
+        void createDrug_tracksAfterCommit() {
+            DrugRequest request = new DrugRequest("Ibuprofeno", "200mg", null, 8,
+                    LocalDateTime.of(2025, 1, 1, 10, 0), MADRID, LocalDateTime.now(), null, true);
+            when(drugMapper.toEntity(PATIENT_ID, request)).thenReturn(sampleDrug);
+            when(drugRepository.save(sampleDrug)).thenReturn(sampleDrug);
+            when(drugMapper.toDto(sampleDrug)).thenReturn(sampleDrugResponse);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                drugService.createDrug(PATIENT_ID, request);
+                verify(reminderScheduler, never()).schedule(any(Drug.class));
+                verify(drugSearchIndex, never()).index(any());
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+                verify(reminderScheduler).schedule(sampleDrug);
+                verify(drugSearchIndex).index(sampleDrug);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("should throw PatientNotFoundException when the patient does not exist")
+        void createDrug_throwsException_whenPatientNotFound() {
+            DrugRequest request = new DrugRequest("Ibuprofeno", "200mg", null, 8,
+                    LocalDateTime.of(2025, 1, 1, 10, 0), MADRID, LocalDateTime.now(), null, true);
+            doThrow(new PatientNotFoundException("Patient with ID: 99 not found")).when(patientService).checkExists(99L);
+
+            PatientNotFoundException exception = assertThrows(PatientNotFoundException.class,
+                    () -> drugService.createDrug(99L, request));
+
+            assertEquals("Patient with ID: 99 not found", exception.getMessage());
+            verify(drugRepository, never()).save(any());
+            verifyNoInteractions(reminderScheduler, drugSearchIndex, outboxWriter);
         }
     }
 
@@ -171,39 +249,42 @@ public class DrugServiceTest {
         @Test
         @DisplayName("should update drug when drug exist")
         void updateDrug_shouldUpdateDrug_whenDrugExist() {
-            DrugRequest request = new DrugRequest("Ibuprofeno modificado", "antiinflamatorio", "400 mg", 6, LocalTime.of(12,0), LocalDateTime.now(), LocalDateTime.now().plusDays(7), true);
+            DrugRequest request = new DrugRequest("Ibuprofeno modificado", "antiinflamatorio", "400 mg", 6, LocalDateTime.of(2025, 1, 1, 12, 0), MADRID, LocalDateTime.now(), LocalDateTime.now().plusDays(7), true);
 
-            when(drugRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(sampleDrug));
+            when(drugRepository.findByIdAndPatientIdAndActiveTrue(1L, PATIENT_ID)).thenReturn(Optional.of(sampleDrug));
             when(drugRepository.save(any(Drug.class))).thenReturn(sampleDrug);
-            when(drugMapper.toDto(any(Drug.class))).thenReturn( new DrugResponse(1L, "Ibuprofeno modificado", "antiinflamatorio", "400 mg", 6, LocalTime.of(12,0), LocalDateTime.now(), LocalDateTime.now().plusDays(7), true, true, null, null));
+            when(drugMapper.toDto(any(Drug.class))).thenReturn( new DrugResponse(1L, "Ibuprofeno modificado", "antiinflamatorio", "400 mg", 6, Instant.parse("2025-01-01T11:00:00Z"), MADRID, LocalDateTime.now(), LocalDateTime.now().plusDays(7), true, true, null, null));
 
-            DrugResponse result = drugService.updateDrug(1L, request);
+            DrugResponse result = drugService.updateDrug(PATIENT_ID, 1L, request);
 
             assertNotNull(result);
             assertEquals("Ibuprofeno modificado", result.drugName());
             assertEquals("antiinflamatorio", result.description());
             assertEquals("400 mg", result.dosage());
             assertEquals(6, result.frequencyHours());
-            assertEquals(LocalTime.of(12, 0), result.nextIntakeTime());
+            assertEquals(Instant.parse("2025-01-01T11:00:00Z"), result.nextIntakeAt());
             assertTrue(result.activeReminder());
 
-            verify(drugRepository, times(1)).findByIdAndActiveTrue(1L);
+            verify(drugRepository, times(1)).findByIdAndPatientIdAndActiveTrue(1L, PATIENT_ID);
             verify(drugRepository, times(1)).save(sampleDrug);
             verify(drugMapper).toDto(any());
+            verify(outboxWriter).append(argThat(event -> event.type() == DrugEventType.UPDATED && event.drugId().equals(1L)));
+            verify(reminderScheduler).schedule(sampleDrug);
+            verify(drugSearchIndex).index(sampleDrug);
         }
 
         @Test
         @DisplayName("should throw DrugNotFoundException when id does not exist")
         void updateDrug_shouldThrowException_whenDrugNotFound() {
-            DrugRequest request = new DrugRequest("Otro", "otra descripción", "600 mg", 12, LocalTime.of(12,0), LocalDateTime.now(), LocalDateTime.now().plusDays(3), false);
+            DrugRequest request = new DrugRequest("Otro", "otra descripción", "600 mg", 12, LocalDateTime.of(2025, 1, 1, 12, 0), null, LocalDateTime.now(), LocalDateTime.now().plusDays(3), false);
 
-            when(drugRepository.findByIdAndActiveTrue(99L)).thenReturn(Optional.empty());
+            when(drugRepository.findByIdAndPatientIdAndActiveTrue(99L, PATIENT_ID)).thenReturn(Optional.empty());
 
-            DrugNotFoundException exception = assertThrows(DrugNotFoundException.class, ()-> drugService.updateDrug(99L, request));
+            DrugNotFoundException exception = assertThrows(DrugNotFoundException.class, ()-> drugService.updateDrug(PATIENT_ID, 99L, request));
 
             assertEquals("Drug with ID: 99 not found", exception.getMessage());
 
-            verify(drugRepository, times(1)).findByIdAndActiveTrue(99L);
+            verify(drugRepository, times(1)).findByIdAndPatientIdAndActiveTrue(99L, PATIENT_ID);
             verify(drugRepository, never()).save(any());
         }
     }
@@ -214,26 +295,30 @@ public class DrugServiceTest {
         @Test
         @DisplayName("should set active to false and save drug when id exists")
         void deleteDrug_success() {
-            when(drugRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(sampleDrug));
+            when(drugRepository.findByIdAndPatientIdAndActiveTrue(1L, PATIENT_ID)).thenReturn(Optional.of(sampleDrug));
 
-            drugService.deleteDrug(1L);
+            drugService.deleteDrug(PATIENT_ID, 1L);
 
             assertFalse(sampleDrug.getActive(), "Drug should be marked as inactive");
-            verify(drugRepository, times(1)).findByIdAndActiveTrue(1L);
+            verify(drugRepository, times(1)).findByIdAndPatientIdAndActiveTrue(1L, PATIENT_ID);
             verify(drugRepository, times(1)).save(sampleDrug);
+            verify(outboxWriter).append(argThat(event -> event.type() == DrugEventType.DELETED
+                    && event.drugId().equals(1L) && event.patientId().equals(PATIENT_ID)));
+            verify(reminderScheduler).cancel(1L);
+            verify(drugSearchIndex).remove(PATIENT_ID, 1L);
         }
 
         @Test
         @DisplayName("should throw DrugNotFoundException when id does not exist")
         void deleteDrug_notFound() {
-            when(drugRepository.findByIdAndActiveTrue(99L)).thenReturn(Optional.empty());
+            when(drugRepository.findByIdAndPatientIdAndActiveTrue(99L, PATIENT_ID)).thenReturn(Optional.empty());
 
             DrugNotFoundException exception = assertThrows(DrugNotFoundException.class,
-                    () -> drugService.deleteDrug(99L)
+                    () -> drugService.deleteDrug(PATIENT_ID, 99L)
             );
 
             assertEquals("Drug with ID: 99 not found", exception.getMessage());
-            verify(drugRepository, times(1)).findByIdAndActiveTrue(99L);
+            verify(drugRepository, times(1)).findByIdAndPatientIdAndActiveTrue(99L, PATIENT_ID);
             verify(drugRepository, never()).save(any());
         }
     }
@@ -242,31 +327,89 @@ public class DrugServiceTest {
     @DisplayName("markAsTaken")
     class MarkAsTakenTests {
 
+        private IntakeState intakeState(Instant nextIntakeAt, int frequencyHours, Long version) {
+            IntakeState state = mock(IntakeState.class);
+            lenient().when(state.getNextIntakeAt()).thenReturn(nextIntakeAt);
+            lenient().when(state.getTimeZone()).thenReturn(MADRID);
+            lenient().when(state.getFrequencyHours()).thenReturn(frequencyHours);
+            lenient().when(state.getActiveReminder()).thenReturn(true);
+            lenient().when(state.getVersion()).thenReturn(version);
+            return state;
+        }
+
         @Test
-        @DisplayName("should update nextIntakeTime when drug exist")
-        void markAsTaken_shouldUpdateNextIntakeTime_whenDrugExists() {
-            when(drugRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(sampleDrug));
-            when(drugRepository.save(any(Drug.class))).thenReturn(sampleDrug);
+        @DisplayName("should update nextIntakeAt when drug exist")
+        void markAsTaken_shouldUpdateNextIntakeAt_whenDrugExists() {
+            Instant next = Instant.parse("2025-01-01T17:00:00Z");
+            IntakeState state = intakeState(Instant.parse("2025-01-01T09:00:00Z"), 8, 3L);
+            when(drugRepository.findIntakeState(PATIENT_ID, 1L)).thenReturn(Optional.of(state));
+            when(drugRepository.advanceNextIntake(eq(1L), eq(3L), eq(next), any(LocalDateTime.class))).thenReturn(1);
+
+            NextIntakeResponse result = drugService.markAsTaken(PATIENT_ID, 1L);
 
-            LocalTime initialNextIntake = sampleDrug.getNextIntakeTime();
+            assertEquals(next, result.nextIntakeAt());
+            verify(drugRepository, times(1)).findIntakeState(PATIENT_ID, 1L);
+            verify(drugRepository, never()).save(any());
+            verify(reminderScheduler).schedule(1L, next, true);
+            verify(doseIntakeRecorder).record(argThat(event ->
+                    event.drugId().equals(1L) && event.scheduledAt().equals(LocalDateTime.of(2025, 1, 1, 10, 0))));
+            verify(outboxWriter).append(argThat(event -> event.type() == DrugEventType.TAKEN && event.drugId().equals(1L)));
+        }
 
-            drugService.markAsTaken(1L);
+        @Test
+        @DisplayName("should move the next intake to the following day past midnight")
+        void markAsTaken_crossesMidnight() {
+            Instant next = Instant.parse("2025-01-02T01:00:00Z");
+            IntakeState state = intakeState(Instant.parse("2025-01-01T17:00:00Z"), 8, 0L);
+            when(drugRepository.findIntakeState(PATIENT_ID, 1L)).thenReturn(Optional.of(state));
+            when(drugRepository.advanceNextIntake(eq(1L), eq(0L), eq(next), any(LocalDateTime.class))).thenReturn(1);
 
-            assertEquals(initialNextIntake.plusHours(sampleDrug.getFrequencyHours()), sampleDrug.getNextIntakeTime());
+            NextIntakeResponse result = drugService.markAsTaken(PATIENT_ID, 1L);
 
-            verify(drugRepository, times(1)).findByIdAndActiveTrue(1L);
-            verify(drugRepository, times(1)).save(sampleDrug);
+            assertEquals(next, result.nextIntakeAt());
+            verify(reminderScheduler).schedule(1L, next, true);
+        }
+
+        @Test
+        @DisplayName("should throw DrugNotFoundException when the drug is not active")
+        void markAsTaken_throwsException_whenDrugInactive() {
+            when(drugRepository.findIntakeState(PATIENT_ID, 1L)).thenReturn(Optional.empty());
+
+            DrugNotFoundException exception = assertThrows(DrugNotFoundException.class,
+                    () -> drugService.markAsTaken(PATIENT_ID, 1L));
+
+            assertEquals("Drug with ID: 1 not found", exception.getMessage());
+            verify(drugRepository, never()).advanceNextIntake(any(), any(), any(), any());
+            verify(outboxWriter, never()).append(any());
+            verify(doseIntakeRecorder, never()).record(any());
+        }
+
+        @Test
+        @DisplayName("should retry with the latest state when a concurrent update wins")
+        void markAsTaken_retriesAfterConcurrentUpdate() {
+            IntakeState stale = intakeState(Instant.parse("2025-01-01T09:00:00Z"), 8, 3L);
+            IntakeState latest = intakeState(Instant.parse("2025-01-01T17:00:00Z"), 8, 4L);
+            when(drugRepository.findIntakeState(PATIENT_ID, 1L)).thenReturn(Optional.of(stale), Optional.of(latest));
+            when(drugRepository.advanceNextIntake(eq(1L), eq(3L), any(), any())).thenReturn(0);
+            when(drugRepository.advanceNextIntake(eq(1L), eq(4L), eq(Instant.parse("2025-01-02T01:00:00Z")), any())).thenReturn(1);
+
+            NextIntakeResponse result = drugService.markAsTaken(PATIENT_ID, 1L);
+
+            assertEquals(Instant.parse("2025-01-02T01:00:00Z"), result.nextIntakeAt());
+            verify(drugRepository, times(2)).findIntakeState(PATIENT_ID, 1L);
+            verify(doseIntakeRecorder, times(1)).record(any());
+            verify(outboxWriter, times(1)).append(any());
         }
 
         @Test
         @DisplayName("should throw DrugNotFoundException when id does not exist")
         void markAsTaken_throwsException_whenDrugNotFound() {
-            when(drugRepository.findByIdAndActiveTrue(99L)).thenReturn(Optional.empty());
+            when(drugRepository.findByIdAndPatientIdAndActiveTrue(99L, PATIENT_ID)).thenReturn(Optional.empty());
 
-            DrugNotFoundException exception = assertThrows(DrugNotFoundException.class, () -> drugService.deleteDrug(99L));
+            DrugNotFoundException exception = assertThrows(DrugNotFoundException.class, () -> drugService.deleteDrug(PATIENT_ID, 99L));
 
             assertEquals("Drug with ID: 99 not found", exception.getMessage());
-            verify(drugRepository, times(1)).findByIdAndActiveTrue(99L);
+            verify(drugRepository, times(1)).findByIdAndPatientIdAndActiveTrue(99L, PATIENT_ID);
             verify(drugRepository, never()).save(any());
         }
     }
@@ -278,27 +421,29 @@ public class DrugServiceTest {
         @Test
         @DisplayName("should return drug list when name matches")
         void searchByName_returnsDrugList_whenNameMatches() {
-            when(drugRepository.findByDrugNameContainingIgnoreCaseAndActiveTrue("ibu")).thenReturn(List.of(sampleDrug));
-            when(drugMapper.toDto(sampleDrug)).thenReturn(sampleDrugResponse);
+            when(drugSearchIndex.search(PATIENT_ID, "ibu", 20)).thenReturn(List.of(1L));
+            when(drugRepository.findActiveResponsesByIds(PATIENT_ID, List.of(1L))).thenReturn(List.of(sampleDrugResponse));
 
-            List<DrugResponse> result = drugService.searchByName("ibu");
+            List<DrugResponse> result = drugService.searchByName(PATIENT_ID, "ibu", 20);
 
             assertNotNull(result);
             assertEquals(1, result.size());
             assertEquals("Ibuprofeno", result.getFirst().drugName());
 
-            verify(drugRepository).findByDrugNameContainingIgnoreCaseAndActiveTrue("ibu");
-            verify(drugMapper).toDto(sampleDrug);
+            verify(drugSearchIndex).search(PATIENT_ID, "ibu", 20);
+            verify(drugRepository).findActiveResponsesByIds(PATIENT_ID, List.of(1L));
+            verify(drugMapper, never()).toDto(any());
         }
 
         @Test
         @DisplayName("should return empty list when no drugs found")
         void searchByName_returnsEmptyList() {
-            when(drugRepository.findByDrugNameContainingIgnoreCaseAndActiveTrue("xyz")).thenReturn(List.of());
+            when(drugSearchIndex.search(PATIENT_ID, "xyz", 20)).thenReturn(List.of());
 
-            List<DrugResponse> result = drugService.searchByName("xyz");
+            List<DrugResponse> result = drugService.searchByName(PATIENT_ID, "xyz", 20);
 
-            verify(drugMapper, never()).toDto(any());
+            assertTrue(result.isEmpty());
+            verify(drugRepository, never()).findActiveResponsesByIds(any(), any());
         }
     }
 
@@ -307,23 +452,24 @@ public class DrugServiceTest {
     class ProcessRemindersTests {
 
         @Test
-        @DisplayName("should process reminders when drugs exist")
+        @DisplayName("should fire due reminders from the scheduler")
         void processReminders_withDrugs() {
-            when(drugRepository.findDrugsForReminder(any(LocalTime.class))).thenReturn(List.of(sampleDrug));
+            when(reminderScheduler.fireDueReminders()).thenReturn(1);
 
             drugService.processReminders();
 
-            verify(drugRepository).findDrugsForReminder(any(LocalTime.class));
+            verify(reminderScheduler).fireDueReminders();
+            verifyNoInteractions(drugRepository);
         }
 
         @Test
         @DisplayName("should not fail when no drugs for reminder")
         void processReminders_withoutDrugs() {
-            when(drugRepository.findDrugsForReminder(any(LocalTime.class))).thenReturn(List.of());
+            when(reminderScheduler.fireDueReminders()).thenReturn(0);
 
             assertDoesNotThrow(() -> drugService.processReminders());
 
-            verify(drugRepository).findDrugsForReminder(any(LocalTime.class));
+            verify(reminderScheduler).fireDueReminders();
         }
     }
 }
\ No newline at end of file
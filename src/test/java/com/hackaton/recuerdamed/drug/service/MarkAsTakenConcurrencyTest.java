@@ -0,0 +1,87 @@
+package com.hackaton.recuerdamed.drug.service;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DisplayName("Concurrency tests for markAsTaken")
+public class MarkAsTakenConcurrencyTest {
+    private static final long CALLS = 25;
+
+    @Autowired
+    private DrugService drugService;
+
+    @Autowired
+    private DrugBulkService drugBulkService;
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Test
+    @DisplayName("should apply every concurrent call exactly once")
+    void markAsTaken_concurrentCalls_advanceOncePerCall() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLS; i++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    return drugService.markAsTaken(1L, 1L);
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        }
+
+        Drug drug = drugRepository.findById(1L).orElseThrow();
+        assertEquals(Instant.parse("2025-01-01T07:00:00Z").plus(8L * CALLS, ChronoUnit.HOURS), drug.getNextIntakeAt());
+        assertEquals(CALLS, drug.getVersion());
+    }
+
+    @Test
+    @DisplayName("should not lose doses when bulk and single calls race on the same drug")
+    void markAsTaken_bulkAndSingleCalls_advanceOncePerCall() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLS; i++) {
+                boolean bulk = i % 2 == 0;
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    if (bulk) {
+                        return drugBulkService.markAsTaken(1L, List.of(1L)).succeeded();
+                    }
+                    drugService.markAsTaken(1L, 1L);
+                    return 1;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> call : calls) {
+                assertEquals(1, call.get());
+            }
+        }
+
+        Drug drug = drugRepository.findById(1L).orElseThrow();
+        assertEquals(Instant.parse("2025-01-01T07:00:00Z").plus(8L * CALLS, ChronoUnit.HOURS), drug.getNextIntakeAt());
+        assertEquals(CALLS, drug.getVersion());
+    }
+}
@@ -0,0 +1,92 @@
+package com.hackaton.recuerdamed.intake.controller;
+
+import com.hackaton.recuerdamed.intake.service.DoseIntakeRecorder;
+import com.hackaton.recuerdamed.patient.controller.PatientHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class DoseIntakeControllerIntegrationTest {
+    private static final long PATIENT_ID = 1L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoseIntakeRecorder doseIntakeRecorder;
+
+    @Nested
+    @DisplayName("GET /medicamentos/{id}/tomas")
+    class GetIntakesTests {
+        @Test
+        @DisplayName("should list the doses taken in the range once they are flushed")
+        void getIntakes_returnsRecordedIntakes() throws Exception {
+            mockMvc.perform(put("/medicamentos/1/tomado").header(PatientHeaders.PATIENT_ID, PATIENT_ID)).andExpect(status().isOk());
+            mockMvc.perform(put("/medicamentos/1/tomado").header(PatientHeaders.PATIENT_ID, PATIENT_ID)).andExpect(status().isOk());
+            doseIntakeRecorder.flush();
+
+            LocalDateTime now = LocalDateTime.now(ZoneId.of("Europe/Madrid"));
+            mockMvc.perform(get("/medicamentos/1/tomas")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", now.minusHours(1).toString())
+                            .param("to", now.plusHours(1).toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].drugId", is(1)))
+                    .andExpect(jsonPath("$[0].scheduledAt", containsString("T08:00")))
+                    .andExpect(jsonPath("$[1].scheduledAt", containsString("T16:00")));
+        }
+
+        @Test
+        @DisplayName("should return 400 when 'from' is not before 'to'")
+        void getIntakes_invalidRange_returnsBadRequest() throws Exception {
+            mockMvc.perform(get("/medicamentos/1/tomas")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-02T00:00:00")
+                            .param("to", "2025-01-01T00:00:00"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("should return 404 when the drug does not exist")
+        void getIntakes_notFound() throws Exception {
+            mockMvc.perform(get("/medicamentos/99/tomas")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01T00:00:00")
+                            .param("to", "2025-01-02T00:00:00"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /medicamentos/{id}/tomas/omitidas")
+    class GetMissedDosesTests {
+        @Test
+        @DisplayName("should list every dose due since the start date when none was taken")
+        void getMissedDoses_nothingTaken() throws Exception {
+            mockMvc.perform(get("/medicamentos/2/tomas/omitidas")
+                            .header(PatientHeaders.PATIENT_ID, PATIENT_ID)
+                            .param("from", "2025-01-01T00:00:00")
+                            .param("to", "2025-01-02T00:00:00"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].scheduledAt", startsWith("2025-01-01T12:00")));
+        }
+    }
+}
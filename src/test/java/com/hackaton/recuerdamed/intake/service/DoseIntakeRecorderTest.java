@@ -0,0 +1,112 @@
+package com.hackaton.recuerdamed.intake.service;
+
+import com.hackaton.recuerdamed.adherence.service.AdherenceRollupWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for DoseIntakeRecorder")
+public class DoseIntakeRecorderTest {
+    private static final DoseIntakeEvent EVENT = DoseIntakeEvent.taken(1L, Instant.parse("2025-01-01T07:00:00Z"),
+            Instant.parse("2025-01-01T07:05:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private AdherenceRollupWriter adherenceRollupWriter;
+
+    private DoseIntakeRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new DoseIntakeRecorder(jdbcTemplate, transactionTemplate, adherenceRollupWriter,
+                new DoseIntakeProperties(100, 10, Duration.ofMillis(100), 3, Duration.ofHours(1), Duration.ofDays(366)),
+                false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should queue an intake at once outside a transaction")
+    void record_withoutTransaction_queuesAtOnce() {
+        recorder.record(EVENT);
+
+        assertEquals(1, recorder.bufferedCount());
+        assertEquals(1, recorder.recordedCount());
+    }
+
+    @Test
+    @DisplayName("should only queue an intake recorded in a transaction once it commits")
+    void record_inTransaction_queuesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        recorder.record(EVENT);
+        assertEquals(0, recorder.bufferedCount());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, recorder.bufferedCount());
+    }
+
+    @Test
+    @DisplayName("should drop an intake whose transaction rolls back")
+    void record_inTransaction_dropsOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        recorder.record(EVENT);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, recorder.bufferedCount());
+        assertEquals(0, recorder.recordedCount());
+    }
+
+    @Test
+    @DisplayName("should keep the written intakes when their rollup keeps failing")
+    void flush_rollupFails_keepsIntakes() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        doThrow(new DataAccessResourceFailureException("Rollup unavailable")).when(adherenceRollupWriter).recordTaken(anyList());
+        recorder.record(EVENT);
+
+        assertEquals(1, recorder.flush());
+
+        verify(jdbcTemplate).batchUpdate(eq(DoseIntakeRecorder.INSERT_SQL), anyList(), eq(1), any());
+        verify(adherenceRollupWriter, times(3)).recordTaken(anyList());
+        assertEquals(1, recorder.writtenCount());
+        assertEquals(0, recorder.droppedCount());
+        assertEquals(1, recorder.rollupFailedCount());
+    }
+}
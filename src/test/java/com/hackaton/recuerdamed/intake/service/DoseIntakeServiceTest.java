@@ -0,0 +1,140 @@
+package com.hackaton.recuerdamed.intake.service;
+
+import com.hackaton.recuerdamed.drug.entity.Drug;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.intake.dto.MissedDoseResponse;
+import com.hackaton.recuerdamed.intake.repository.DoseIntakeRepository;
+import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import com.hackaton.recuerdamed.shared.custom_exception.InvalidDateRangeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for DoseIntakeServiceImpl")
+public class DoseIntakeServiceTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 10, 0, 0);
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+    private static final Long PATIENT_ID = 1L;
+
+    @Mock
+    private DoseIntakeRepository doseIntakeRepository;
+
+    @Mock
+    private DrugRepository drugRepository;
+
+    private DoseIntakeServiceImpl doseIntakeService;
+
+    @BeforeEach
+    void setUp() {
+        DoseIntakeProperties properties =
+                new DoseIntakeProperties(100, 10, Duration.ofMillis(100), 3, Duration.ofHours(1), Duration.ofDays(366));
+        doseIntakeService = new DoseIntakeServiceImpl(doseIntakeRepository, drugRepository,
+                new MissedDoseCalculator(doseIntakeRepository, properties), properties);
+        Drug drug = Drug.builder()
+                .id(1L)
+                .patientId(PATIENT_ID)
+                .drugName("Paracetamol")
+                .dosage("500mg")
+                .frequencyHours(8)
+                .nextIntakeAt(Instant.parse("2025-01-01T07:00:00Z"))
+                .timeZone(MADRID)
+                .startDate(LocalDateTime.of(2025, 1, 1, 8, 0))
+                .build();
+        lenient().when(drugRepository.findByIdAndPatientId(1L, PATIENT_ID)).thenReturn(Optional.of(drug));
+    }
+
+    private static List<LocalDateTime> slots(List<MissedDoseResponse> missed) {
+        return missed.stream().map(MissedDoseResponse::scheduledAt).toList();
+    }
+
+    @Nested
+    @DisplayName("getMissedDoses")
+    class GetMissedDosesTests {
+        @Test
+        @DisplayName("should report the slots between intakes that were never taken")
+        void getMissedDoses_reportsGaps() {
+            when(doseIntakeRepository.findLastScheduledBefore(1L, DAY)).thenReturn(DAY.minusHours(8));
+            when(doseIntakeRepository.findScheduledTimes(1L, DAY, DAY.plusDays(1)))
+                    .thenReturn(List.of(DAY.plusHours(8), DAY.plusHours(16)));
+
+            List<MissedDoseResponse> missed = doseIntakeService.getMissedDoses(PATIENT_ID, 1L, DAY, DAY.plusDays(1));
+
+            assertEquals(List.of(DAY), slots(missed));
+        }
+
+        @Test
+        @DisplayName("should restart the spacing after a late dose")
+        void getMissedDoses_lateDoseShiftsSlots() {
+            when(doseIntakeRepository.findLastScheduledBefore(1L, DAY)).thenReturn(DAY.minusHours(8));
+            when(doseIntakeRepository.findScheduledTimes(1L, DAY, DAY.plusDays(1)))
+                    .thenReturn(List.of(DAY.plusHours(2), DAY.plusHours(10), DAY.plusHours(18)));
+
+            assertTrue(doseIntakeService.getMissedDoses(PATIENT_ID, 1L, DAY, DAY.plusDays(1)).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should count every slot from the start date when nothing was taken")
+        void getMissedDoses_nothingTaken() {
+            when(doseIntakeRepository.findLastScheduledBefore(1L, DAY)).thenReturn(null);
+            when(doseIntakeRepository.findScheduledTimes(1L, DAY, DAY.plusDays(1))).thenReturn(List.of());
+
+            List<MissedDoseResponse> missed = doseIntakeService.getMissedDoses(PATIENT_ID, 1L, DAY, DAY.plusDays(1));
+
+            assertEquals(List.of(DAY, DAY.plusHours(8), DAY.plusHours(16)), slots(missed));
+        }
+
+        @Test
+        @DisplayName("should throw DrugNotFoundException when the drug does not exist")
+        void getMissedDoses_drugNotFound() {
+            when(drugRepository.findByIdAndPatientId(99L, PATIENT_ID)).thenReturn(Optional.empty());
+
+            assertThrows(DrugNotFoundException.class, () -> doseIntakeService.getMissedDoses(PATIENT_ID, 99L, DAY, DAY.plusDays(1)));
+        }
+
+        @Test
+        @DisplayName("should throw DrugNotFoundException when the drug belongs to another patient")
+        void getMissedDoses_otherPatient() {
+            when(drugRepository.findByIdAndPatientId(1L, 2L)).thenReturn(Optional.empty());
+
+            assertThrows(DrugNotFoundException.class, () -> doseIntakeService.getMissedDoses(2L, 1L, DAY, DAY.plusDays(1)));
+            verifyNoInteractions(doseIntakeRepository);
+        }
+
+        @Test
+        @DisplayName("should reject reversed or too long ranges")
+        void getMissedDoses_invalidRange() {
+            assertThrows(InvalidDateRangeException.class, () -> doseIntakeService.getMissedDoses(PATIENT_ID, 1L, DAY, DAY));
+            assertThrows(InvalidDateRangeException.class, () -> doseIntakeService.getMissedDoses(PATIENT_ID, 1L, DAY, DAY.plusDays(400)));
+            verifyNoInteractions(doseIntakeRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("DoseIntakeEvent.taken")
+    class TakenEventTests {
+        @Test
+        @DisplayName("should book due and taken times in the drug's time zone")
+        void taken_usesDrugTimeZone() {
+            DoseIntakeEvent event = DoseIntakeEvent.taken(1L,
+                    Instant.parse("2025-01-09T22:00:00Z"), Instant.parse("2025-01-09T23:30:00Z"), MADRID);
+
+            assertEquals(DAY.minusHours(1), event.scheduledAt());
+            assertEquals(DAY.plusMinutes(30), event.takenAt());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hackaton.recuerdamed.outbox.config.OutboxProperties;
+import com.hackaton.recuerdamed.outbox.dto.OutboxMessage;
+import com.hackaton.recuerdamed.outbox.entity.DrugEventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for FileOutboxPublisher")
+public class FileOutboxPublisherTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    private Path directory;
+
+    private FileOutboxPublisher publisher(Path path) {
+        OutboxProperties properties = new OutboxProperties(
+                new OutboxProperties.Relay(false, 10, Duration.ofMillis(10), Duration.ofMillis(1), Duration.ofMillis(4), Duration.ofSeconds(30)),
+                new OutboxProperties.Compaction(Duration.ofDays(7), Duration.ofMinutes(10), 10),
+                new OutboxProperties.File(path));
+        return new FileOutboxPublisher(objectMapper, properties);
+    }
+
+    private static OutboxMessage message(long id, DrugEventType type, String payload) {
+        return new OutboxMessage(id, "key-" + id, type, 1L, 2L, payload, LocalDateTime.of(2025, 1, 1, 8, 0));
+    }
+
+    @Test
+    @DisplayName("should append one JSON line per event, keeping the payload as an object")
+    void publish_appendsNdjson() throws IOException {
+        Path path = directory.resolve("events/drugs.ndjson");
+        FileOutboxPublisher publisher = publisher(path);
+
+        publisher.publish(List.of(message(1, DrugEventType.CREATED, "{\"id\": 1, \"drugName\": \"Paracetamol\"}")));
+        publisher.publish(List.of(message(2, DrugEventType.DELETED, "{\"id\": 1}")));
+
+        List<String> lines = Files.readAllLines(path);
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("key-1", first.get("eventKey").asText());
+        assertEquals("CREATED", first.get("type").asText());
+        assertEquals("Paracetamol", first.get("payload").get("drugName").asText());
+        assertEquals("DELETED", objectMapper.readTree(lines.get(1)).get("type").asText());
+    }
+
+    @Test
+    @DisplayName("should fail the batch when the file cannot be written")
+    void publish_failsWhenFileIsNotWritable() throws IOException {
+        Path path = directory.resolve("events");
+        Files.createDirectories(path);
+        FileOutboxPublisher publisher = publisher(path);
+
+        assertThrows(OutboxPublishException.class,
+                () -> publisher.publish(List.of(message(1, DrugEventType.DELETED, "{\"id\": 1}"))));
+    }
+}
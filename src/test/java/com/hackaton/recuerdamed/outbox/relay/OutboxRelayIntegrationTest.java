@@ -0,0 +1,155 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.dto.DrugResponse;
+import com.hackaton.recuerdamed.drug.service.DrugService;
+import com.hackaton.recuerdamed.outbox.config.OutboxProperties;
+import com.hackaton.recuerdamed.outbox.dto.OutboxMessage;
+import com.hackaton.recuerdamed.outbox.entity.DrugEventType;
+import com.hackaton.recuerdamed.shared.custom_exception.DrugNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"outbox.relay.auto-start=false", "outbox.publisher=in-process"})
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@RecordApplicationEvents
+@DisplayName("Integration tests for the drug outbox")
+public class OutboxRelayIntegrationTest {
+    private static final Long PATIENT_ID = 1L;
+
+    @Autowired
+    private DrugService drugService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private OutboxRelayLease outboxRelayLease;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    private static DrugRequest request(String drugName) {
+        return new DrugRequest(drugName, "20mg", null, 24, LocalDateTime.of(2025, 1, 1, 9, 0),
+                ZoneId.of("Europe/Madrid"), LocalDateTime.of(2025, 1, 1, 8, 0), null, true);
+    }
+
+    private List<String> outboxTypes() {
+        return jdbcTemplate.queryForList("SELECT event_type FROM drug_outbox ORDER BY id", String.class);
+    }
+
+    @Test
+    @DisplayName("should write one event per change, in the order of the changes")
+    void mutations_writeEventsInOrder() throws Exception {
+        DrugResponse created = drugService.createDrug(PATIENT_ID, request("Omeprazol"));
+        drugService.updateDrug(PATIENT_ID, created.id(), request("Omeprazol Forte"));
+        drugService.markAsTaken(PATIENT_ID, created.id());
+        drugService.deleteDrug(PATIENT_ID, created.id());
+
+        assertEquals(List.of("CREATED", "UPDATED", "TAKEN", "DELETED"), outboxTypes());
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT event_key) FROM drug_outbox WHERE drug_id = ? AND patient_id = ?",
+                Integer.class, created.id(), PATIENT_ID));
+        JsonNode taken = objectMapper.readTree(jdbcTemplate.queryForObject(
+                "SELECT payload FROM drug_outbox WHERE event_type = 'TAKEN'", String.class));
+        assertEquals(created.id(), taken.get("id").asLong());
+        assertTrue(taken.hasNonNull("nextIntakeAt"));
+    }
+
+    @Test
+    @DisplayName("should not keep the event of a change that was rolled back")
+    void rolledBackChange_leavesNoEvent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            drugService.createDrug(PATIENT_ID, request("Omeprazol"));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(outboxTypes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should not write an event for a change that failed")
+    void failedChange_leavesNoEvent() {
+        assertThrows(DrugNotFoundException.class, () -> drugService.markAsTaken(PATIENT_ID, 99L));
+
+        assertTrue(outboxTypes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should publish pending events in order and mark them delivered")
+    void relayPending_publishesAndMarksDelivered() throws InterruptedException {
+        drugService.markAsTaken(PATIENT_ID, 1L);
+        drugService.markAsTaken(PATIENT_ID, 2L);
+        drugService.deleteDrug(PATIENT_ID, 1L);
+
+        int relayed = outboxRelay.relayPending();
+
+        assertEquals(3, relayed);
+        List<OutboxMessage> published = applicationEvents.stream(OutboxMessage.class).toList();
+        assertEquals(List.of(DrugEventType.TAKEN, DrugEventType.TAKEN, DrugEventType.DELETED),
+                published.stream().map(OutboxMessage::type).toList());
+        assertEquals(List.of(1L, 2L, 1L), published.stream().map(OutboxMessage::drugId).toList());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM drug_outbox WHERE delivered_at IS NULL", Integer.class));
+        assertEquals(0, outboxRelay.relayPending());
+    }
+
+    @Test
+    @DisplayName("should let only the instance holding the lease publish")
+    void relayPending_onlyLeaseHolderPublishes() throws InterruptedException {
+        OutboxRelayLease otherInstance = new OutboxRelayLease(jdbcTemplate, outboxProperties);
+        drugService.markAsTaken(PATIENT_ID, 1L);
+
+        assertEquals(1, outboxRelay.relayPending());
+        assertFalse(otherInstance.acquire());
+
+        outboxRelayLease.release();
+        assertTrue(otherInstance.acquire());
+        drugService.markAsTaken(PATIENT_ID, 2L);
+        assertEquals(0, outboxRelay.relayPending());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM drug_outbox WHERE delivered_at IS NULL", Integer.class));
+    }
+
+    @Test
+    @DisplayName("should only compact delivered events older than the retention period")
+    void compact_deletesOldDeliveredEvents() throws InterruptedException {
+        drugService.markAsTaken(PATIENT_ID, 1L);
+        outboxRelay.relayPending();
+        drugService.markAsTaken(PATIENT_ID, 2L);
+        jdbcTemplate.update("INSERT INTO drug_outbox (event_key, event_type, drug_id, patient_id, payload, created_at, delivered_at) " +
+                "VALUES (UUID(), 'TAKEN', 1, 1, '{\"id\": 1}', '2024-01-01 08:00:00', '2024-01-01 08:00:01')");
+
+        int deleted = outboxRelay.compact();
+
+        assertEquals(1, deleted);
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM drug_outbox", Integer.class));
+    }
+}
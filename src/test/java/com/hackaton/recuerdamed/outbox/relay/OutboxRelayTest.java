@@ -0,0 +1,147 @@
+package com.hackaton.recuerdamed.outbox.relay;
+
+import com.hackaton.recuerdamed.outbox.config.OutboxProperties;
+import com.hackaton.recuerdamed.outbox.dto.OutboxMessage;
+import com.hackaton.recuerdamed.outbox.entity.DrugEventType;
+import com.hackaton.recuerdamed.outbox.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for OutboxRelay")
+public class OutboxRelayTest {
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OutboxRelayLease lease;
+
+    private final List<OutboxMessage> published = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final OutboxPublisher publisher = batch -> {
+        if (failuresLeft.getAndDecrement() > 0) {
+            throw new OutboxPublishException("broker down");
+        }
+        published.addAll(batch);
+    };
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties(
+                new OutboxProperties.Relay(false, BATCH_SIZE, Duration.ofMillis(10), Duration.ofMillis(1), Duration.ofMillis(4),
+                        Duration.ofSeconds(30)),
+                new OutboxProperties.Compaction(Duration.ofDays(7), Duration.ofMinutes(10), 10),
+                new OutboxProperties.File(Path.of("outbox.ndjson")));
+        relay = new OutboxRelay(outboxEventRepository, publisher, lease, new TransactionTemplate(transactionManager), properties, false);
+        lenient().when(lease.acquire()).thenReturn(true);
+    }
+
+    private static OutboxMessage message(long id) {
+        return new OutboxMessage(id, "key-" + id, DrugEventType.TAKEN, 1L, 1L, "{\"id\":1}",
+                LocalDateTime.of(2025, 1, 1, 8, 0));
+    }
+
+    @Test
+    @DisplayName("should publish pending events in order and mark each batch delivered after publishing it")
+    void relayPending_publishesBatchesInOrder() throws InterruptedException {
+        when(outboxEventRepository.findPending(any()))
+                .thenReturn(List.of(message(1), message(2)), List.of(message(3)));
+
+        int relayed = relay.relayPending();
+
+        assertEquals(3, relayed);
+        assertEquals(List.of(1L, 2L, 3L), published.stream().map(OutboxMessage::id).toList());
+        InOrder inOrder = inOrder(outboxEventRepository);
+        inOrder.verify(outboxEventRepository).markDelivered(eq(List.of(1L, 2L)), any());
+        inOrder.verify(outboxEventRepository).markDelivered(eq(List.of(3L)), any());
+        assertEquals(3, relay.stats().published());
+    }
+
+    @Test
+    @DisplayName("should do nothing when no event is pending")
+    void relayPending_nothingPending() throws InterruptedException {
+        when(outboxEventRepository.findPending(any())).thenReturn(List.of());
+
+        assertEquals(0, relay.relayPending());
+        verify(outboxEventRepository, never()).markDelivered(any(), any());
+    }
+
+    @Test
+    @DisplayName("should not read or publish anything while another instance holds the lease")
+    void relayPending_withoutLease() throws InterruptedException {
+        when(lease.acquire()).thenReturn(false);
+
+        assertEquals(0, relay.relayPending());
+        verify(outboxEventRepository, never()).findPending(any());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    @DisplayName("should retry a failed batch without marking it delivered")
+    void relayPending_retriesFailedBatch() throws InterruptedException {
+        failuresLeft.set(2);
+        when(outboxEventRepository.findPending(any())).thenReturn(List.of(message(1)));
+
+        int relayed = relay.relayPending();
+
+        assertEquals(1, relayed);
+        assertEquals(List.of(message(1)), published);
+        verify(outboxEventRepository, times(3)).findPending(any());
+        verify(outboxEventRepository, times(1)).markDelivered(eq(List.of(1L)), any());
+        assertEquals(2, relay.stats().retried());
+    }
+
+    @Test
+    @DisplayName("should publish a batch again when it could not be marked delivered")
+    void relayPending_republishesWhenMarkingFails() throws InterruptedException {
+        when(outboxEventRepository.findPending(any())).thenReturn(List.of(message(1)));
+        when(outboxEventRepository.markDelivered(eq(List.of(1L)), any()))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"))
+                .thenReturn(1);
+
+        relay.relayPending();
+
+        assertEquals(List.of("key-1", "key-1"), published.stream().map(OutboxMessage::eventKey).toList());
+        assertEquals(1, relay.stats().published());
+    }
+
+    @Test
+    @DisplayName("should delete delivered events in chunks until a chunk comes back short")
+    void compact_deletesInChunks() {
+        when(outboxEventRepository.deleteDeliveredBefore(any(), anyInt())).thenReturn(10, 10, 3);
+
+        int deleted = relay.compact();
+
+        assertEquals(23, deleted);
+        verify(outboxEventRepository, times(3)).deleteDeliveredBefore(any(), eq(10));
+        assertEquals(23, relay.stats().compacted());
+    }
+}
@@ -0,0 +1,76 @@
+package com.hackaton.recuerdamed.patient.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.recuerdamed.patient.dto.PatientRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class PatientControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Nested
+    @DisplayName("POST /pacientes")
+    class CreatePatientTests {
+
+        @Test
+        @DisplayName("should create a patient and return 201")
+        void createPatient_returnsCreated() throws Exception {
+            mockMvc.perform(post("/pacientes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PatientRequest("Marta Ruiz"))))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id", notNullValue()))
+                    .andExpect(jsonPath("$.name", is("Marta Ruiz")));
+        }
+
+        @Test
+        @DisplayName("should return 400 when the name is blank")
+        void createPatient_blankName_returnsBadRequest() throws Exception {
+            mockMvc.perform(post("/pacientes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PatientRequest(" "))))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /pacientes/{id}")
+    class GetPatientTests {
+
+        @Test
+        @DisplayName("should return the patient")
+        void getPatientById_returnsPatient() throws Exception {
+            mockMvc.perform(get("/pacientes/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(1)))
+                    .andExpect(jsonPath("$.name", is("Ana Lopez")));
+        }
+
+        @Test
+        @DisplayName("should return 404 when the patient does not exist")
+        void getPatientById_unknown_returnsNotFound() throws Exception {
+            mockMvc.perform(get("/pacientes/99"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message", is("Patient with ID: 99 not found")));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.hackaton.recuerdamed.reminder.cluster;
+
+import com.hackaton.recuerdamed.RecuerdamedApplication;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.DueReminder;
+import com.hackaton.recuerdamed.drug.repository.ReminderSlot;
+import com.hackaton.recuerdamed.reminder.scheduler.ReminderScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several application contexts in one JVM against the test database, each one a reminder
+ * node. Heartbeats are driven by the test through {@link ReminderCluster#refresh()}.
+ */
+@DisplayName("Integration tests for reminders shared by several instances")
+public class ReminderClusterIntegrationTest {
+    private static final long FIRST_ID = 5000;
+    private static final int DRUGS = 90;
+    private static final List<Long> IDS = LongStream.range(FIRST_ID, FIRST_ID + DRUGS).boxed().toList();
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(RecuerdamedApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--reminder.wheel.auto-tick=false",
+                "--reminder.cluster.enabled=true",
+                "--reminder.cluster.node-id=" + nodeId,
+                "--reminder.cluster.heartbeat-interval=1h",
+                "--reminder.cluster.lease-timeout=1m",
+                "--outbox.relay.auto-start=false"
+        );
+    }
+
+    private static ReminderCluster cluster(ConfigurableApplicationContext node) {
+        return node.getBean(ReminderCluster.class);
+    }
+
+    private static Set<Long> ownIds(Iterable<Long> ids) {
+        Set<Long> own = new HashSet<>();
+        ids.forEach(id -> {
+            if (id >= FIRST_ID && id < FIRST_ID + DRUGS) {
+                own.add(id);
+            }
+        });
+        return own;
+    }
+
+    @BeforeEach
+    void setUp() {
+        nodes.add(startNode("node-a"));
+        DataSource dataSource = nodes.getFirst().getBean(DataSource.class);
+        new ResourceDatabasePopulator(new ClassPathResource("test-data.sql")).execute(dataSource);
+        new JdbcTemplate(dataSource).batchUpdate("INSERT INTO drugs (id, patient_id, drug_name, dosage, frequency_hours, " +
+                        "next_intake_at, time_zone, start_date, starts_at, active, active_reminder, creation_date, update_date, version) " +
+                        "VALUES (?, 1, 'Paracetamol', '500mg', 8, '2025-01-01 07:00:00', 'Europe/Madrid', '2025-01-01 08:00:00', " +
+                        "'2025-01-01 07:00:00', true, true, '2025-01-01 08:00:00', '2025-01-01 08:00:00', 0)",
+                IDS.stream().map(id -> new Object[]{id}).toList());
+        nodes.add(startNode("node-b"));
+        nodes.add(startNode("node-c"));
+        nodes.forEach(node -> cluster(node).refresh());
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        nodes.clear();
+    }
+
+    @Test
+    @DisplayName("should split the drugs between the live nodes, with the first node as leader")
+    void shards_partitionDrugsBetweenNodes() {
+        Set<Long> owned = new HashSet<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReminderShard shard = cluster(nodes.get(i)).shard();
+            assertEquals(new ReminderShard(i, 3, i == 0), shard);
+            assertEquals(3, cluster(nodes.get(i)).members());
+
+            DrugRepository drugRepository = nodes.get(i).getBean(DrugRepository.class);
+            Set<Long> shardIds = ownIds(drugRepository.findReminderSlots(shard.count(), shard.index()).stream()
+                    .map(ReminderSlot::getId).toList());
+            assertEquals(DRUGS / 3, shardIds.size());
+            assertTrue(shardIds.stream().allMatch(shard::owns));
+            owned.addAll(shardIds);
+        }
+        assertEquals(Set.copyOf(IDS), owned);
+    }
+
+    @Test
+    @DisplayName("should let only one node claim each due reminder, even when they all try at once")
+    void claim_concurrentNodes_claimEachReminderOnce() throws Exception {
+        Instant now = Instant.parse("2025-01-02T00:00:00Z");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<DueReminder>>> claims = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ConfigurableApplicationContext node : nodes) {
+                ReminderClaimer claimer = node.getBean(ReminderClaimer.class);
+                claims.add(executor.submit(() -> {
+                    start.await();
+                    return claimer.claim(IDS, now);
+                }));
+            }
+            start.countDown();
+
+            List<Long> claimed = new ArrayList<>();
+            for (Future<List<DueReminder>> claim : claims) {
+                claim.get().forEach(due -> claimed.add(due.getId()));
+            }
+            assertEquals(DRUGS, claimed.size());
+            assertEquals(Set.copyOf(IDS), Set.copyOf(claimed));
+        }
+    }
+
+    @Test
+    @DisplayName("should rebalance when a node leaves and remind every drug through its new owner")
+    void leave_rebalancesAndFiresEachReminderOnce() {
+        nodes.removeLast().close();
+        nodes.forEach(node -> cluster(node).refresh());
+
+        for (int i = 0; i < nodes.size(); i++) {
+            ReminderShard shard = cluster(nodes.get(i)).shard();
+            assertEquals(new ReminderShard(i, 2, i == 0), shard);
+            assertEquals(nodes.get(i).getBean(DrugRepository.class).findReminderSlots(2, i).size(),
+                    nodes.get(i).getBean(ReminderScheduler.class).scheduledCount());
+        }
+
+        nodes.forEach(node -> node.getBean(ReminderScheduler.class).fireDueReminders());
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(nodes.getFirst().getBean(DataSource.class));
+        Map<Long, String> claimedBy = jdbcTemplate.queryForList(
+                        "SELECT id, reminder_claimed_by FROM drugs WHERE id >= ? AND id < ?", FIRST_ID, FIRST_ID + DRUGS)
+                .stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("id")).longValue(),
+                        row -> String.valueOf(row.get("reminder_claimed_by"))));
+        assertEquals(DRUGS, claimedBy.size());
+        claimedBy.forEach((id, nodeId) -> assertEquals(id % 2 == 0 ? "node-a" : "node-b", nodeId, "drug " + id));
+    }
+}
@@ -0,0 +1,137 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.reminder.config.ReminderProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for ReminderDispatcher")
+public class ReminderDispatcherTest {
+    private static final Instant DUE_AT = Instant.parse("2025-01-01T07:00:00Z");
+
+    @Mock
+    private DrugRepository drugRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<List<ReminderNotification>> deliveredBatches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final ReminderSink sink = batch -> {
+        if (failuresLeft.getAndDecrement() > 0) {
+            throw new ReminderDeliveryException("webhook down");
+        }
+        deliveredBatches.add(List.copyOf(batch));
+    };
+
+    private ReminderDispatcher dispatcher;
+
+    private ReminderDispatcher dispatcher(int queueCapacity, int batchSize) {
+        ReminderProperties properties = new ReminderProperties(
+                new ReminderProperties.Wheel(false, Duration.ofSeconds(1), 64, 4),
+                new ReminderProperties.Dispatch(queueCapacity, 1, batchSize,
+                        Duration.ofMillis(50), 3, Duration.ofMillis(1), Duration.ofMillis(4), Duration.ofMinutes(1),
+                        new ReminderProperties.Webhook(null, Duration.ofSeconds(1))),
+                new ReminderProperties.Cluster(false, null, Duration.ofSeconds(5), Duration.ofSeconds(20),
+                        Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(1), 1000));
+        dispatcher = new ReminderDispatcher(sink, drugRepository, new TransactionTemplate(transactionManager), eventPublisher,
+                properties, false);
+        return dispatcher;
+    }
+
+    private static ReminderNotification notification(long drugId) {
+        return new ReminderNotification(drugId, 1L, "Paracetamol", "500mg", DUE_AT);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("should deliver queued reminders in batches and mark them delivered")
+    void submit_deliversInBatches() throws InterruptedException {
+        dispatcher(100, 2);
+        for (long id = 1; id <= 5; id++) {
+            assertEquals(ReminderSubmission.QUEUED, dispatcher.submit(notification(id)));
+        }
+        dispatcher.start();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (dispatcher.stats().delivered() < 5 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(5, dispatcher.stats().delivered());
+        assertEquals(5, deliveredBatches.stream().mapToInt(List::size).sum());
+        assertTrue(deliveredBatches.stream().allMatch(batch -> batch.size() <= 2));
+        verify(drugRepository, atLeast(3)).markRemindersDelivered(anyCollection(), eq(DUE_AT));
+    }
+
+    @Test
+    @DisplayName("should retry a failed batch until it is delivered")
+    void deliver_retriesWithBackoff() throws InterruptedException {
+        dispatcher(100, 10);
+        failuresLeft.set(2);
+
+        dispatcher.deliver(List.of(notification(1L)));
+
+        assertEquals(1, deliveredBatches.size());
+        assertEquals(2, dispatcher.stats().retried());
+        assertEquals(1, dispatcher.stats().delivered());
+        verify(drugRepository).markRemindersDelivered(List.of(1L), DUE_AT);
+        verify(eventPublisher, times(1)).publishEvent(notification(1L));
+    }
+
+    @Test
+    @DisplayName("should give up after the last attempt without marking the batch delivered")
+    void deliver_givesUpAfterMaxAttempts() throws InterruptedException {
+        dispatcher(100, 10);
+        failuresLeft.set(Integer.MAX_VALUE);
+
+        dispatcher.deliver(List.of(notification(1L), notification(2L)));
+
+        assertTrue(deliveredBatches.isEmpty());
+        assertEquals(2, dispatcher.stats().failed());
+        verify(drugRepository, never()).markRemindersDelivered(any(), any());
+    }
+
+    @Test
+    @DisplayName("should reject reminders while the queue is full and report duplicates as in flight")
+    void submit_appliesBackpressure() {
+        dispatcher(1, 10);
+
+        assertEquals(ReminderSubmission.QUEUED, dispatcher.submit(notification(1L)));
+        assertEquals(ReminderSubmission.IN_FLIGHT, dispatcher.submit(notification(1L)));
+        assertEquals(ReminderSubmission.REJECTED, dispatcher.submit(notification(2L)));
+
+        assertEquals(1, dispatcher.stats().submitted());
+        assertEquals(1, dispatcher.stats().rejected());
+        assertEquals(1, dispatcher.stats().queued());
+    }
+}
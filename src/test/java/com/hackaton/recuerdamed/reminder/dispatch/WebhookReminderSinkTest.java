@@ -0,0 +1,78 @@
+package com.hackaton.recuerdamed.reminder.dispatch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hackaton.recuerdamed.reminder.config.ReminderProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for WebhookReminderSink")
+public class WebhookReminderSinkTest {
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private volatile int responseStatus = 204;
+    private HttpServer server;
+    private WebhookReminderSink sink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/reminders", exchange -> {
+            receivedBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+        });
+        server.start();
+
+        URI url = URI.create("http://localhost:" + server.getAddress().getPort() + "/reminders");
+        ReminderProperties properties = new ReminderProperties(
+                new ReminderProperties.Wheel(false, Duration.ofSeconds(1), 64, 4),
+                new ReminderProperties.Dispatch(10, 1, 10, Duration.ZERO, 1,
+                        Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1),
+                        new ReminderProperties.Webhook(url, Duration.ofSeconds(5))),
+                new ReminderProperties.Cluster(false, null, Duration.ofSeconds(5), Duration.ofSeconds(20),
+                        Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(1), 1000));
+        sink = new WebhookReminderSink(new ObjectMapper().registerModule(new JavaTimeModule()), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("should post the whole batch as one JSON array")
+    void deliver_postsBatch() {
+        sink.deliver(List.of(
+                new ReminderNotification(1L, 1L, "Paracetamol", "500mg", Instant.parse("2025-01-01T07:00:00Z")),
+                new ReminderNotification(2L, 1L, "Ibuprofeno", "400mg", Instant.parse("2025-01-01T11:00:00Z"))));
+
+        assertEquals(1, receivedBodies.size());
+        assertTrue(receivedBodies.getFirst().startsWith("["));
+        assertTrue(receivedBodies.getFirst().contains("\"drugName\":\"Paracetamol\""));
+        assertTrue(receivedBodies.getFirst().contains("\"drugName\":\"Ibuprofeno\""));
+        assertTrue(receivedBodies.getFirst().contains("\"patientId\":1"));
+    }
+
+    @Test
+    @DisplayName("should fail the batch when the webhook does not answer 2xx")
+    void deliver_failsOnErrorStatus() {
+        responseStatus = 503;
+
+        assertThrows(ReminderDeliveryException.class, () -> sink.deliver(List.of(
+                new ReminderNotification(1L, 1L, "Paracetamol", "500mg", Instant.parse("2025-01-01T07:00:00Z")))));
+    }
+}
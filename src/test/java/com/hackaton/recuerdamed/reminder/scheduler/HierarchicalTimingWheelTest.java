@@ -0,0 +1,104 @@
+package com.hackaton.recuerdamed.reminder.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for HierarchicalTimingWheel")
+public class HierarchicalTimingWheelTest {
+    private static final long TICK = 1000;
+
+    private HierarchicalTimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HierarchicalTimingWheel(TICK, 8, 3, 0);
+    }
+
+    @Nested
+    @DisplayName("advanceTo")
+    class AdvanceToTests {
+        @Test
+        @DisplayName("should fire an entry once, at its deadline")
+        void advanceTo_firesOnceAtDeadline() {
+            wheel.schedule(1L, 5 * TICK);
+
+            assertTrue(wheel.advanceTo(4 * TICK).isEmpty());
+            assertEquals(List.of(1L), wheel.advanceTo(5 * TICK));
+            assertTrue(wheel.advanceTo(1000 * TICK).isEmpty());
+            assertEquals(0, wheel.size());
+        }
+
+        @Test
+        @DisplayName("should cascade entries scheduled beyond the first level")
+        void advanceTo_cascadesFarEntries() {
+            wheel.schedule(1L, 70 * TICK);
+            wheel.schedule(2L, 300 * TICK);
+
+            assertTrue(wheel.advanceTo(69 * TICK).isEmpty());
+            assertEquals(List.of(1L), wheel.advanceTo(70 * TICK));
+            assertTrue(wheel.advanceTo(299 * TICK).isEmpty());
+            assertEquals(List.of(2L), wheel.advanceTo(300 * TICK));
+        }
+
+        @Test
+        @DisplayName("should keep entries beyond the wheel range until they are due")
+        void advanceTo_keepsEntriesBeyondRange() {
+            wheel.schedule(1L, 2000 * TICK);
+
+            assertTrue(wheel.advanceTo(1999 * TICK).isEmpty());
+            assertEquals(List.of(1L), wheel.advanceTo(2000 * TICK));
+        }
+
+        @Test
+        @DisplayName("should fire overdue entries on the next tick")
+        void advanceTo_firesOverdueOnNextTick() {
+            wheel.advanceTo(10 * TICK);
+            wheel.schedule(1L, 3 * TICK);
+
+            assertEquals(List.of(1L), wheel.advanceTo(11 * TICK));
+        }
+    }
+
+    @Nested
+    @DisplayName("schedule and cancel")
+    class ScheduleTests {
+        @Test
+        @DisplayName("should replace the deadline when a key is scheduled again")
+        void schedule_replacesDeadline() {
+            wheel.schedule(1L, 5 * TICK);
+            wheel.schedule(1L, 20 * TICK);
+
+            assertTrue(wheel.advanceTo(19 * TICK).isEmpty());
+            assertEquals(List.of(1L), wheel.advanceTo(20 * TICK));
+        }
+
+        @Test
+        @DisplayName("should not fire cancelled entries")
+        void cancel_removesEntry() {
+            wheel.schedule(1L, 5 * TICK);
+
+            assertTrue(wheel.cancel(1L));
+            assertFalse(wheel.cancel(1L));
+            assertTrue(wheel.advanceTo(10 * TICK).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should drop every entry on clear and keep working afterwards")
+        void clear_removesAllEntries() {
+            wheel.schedule(1L, 5 * TICK);
+            wheel.schedule(2L, 70 * TICK);
+
+            wheel.clear();
+            wheel.schedule(3L, 6 * TICK);
+
+            assertEquals(1, wheel.size());
+            assertEquals(List.of(3L), wheel.advanceTo(100 * TICK));
+        }
+    }
+}
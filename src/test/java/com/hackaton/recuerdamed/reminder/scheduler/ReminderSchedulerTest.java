@@ -0,0 +1,233 @@
+package com.hackaton.recuerdamed.reminder.scheduler;
+
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.repository.DueReminder;
+import com.hackaton.recuerdamed.drug.repository.ReminderSlot;
+import com.hackaton.recuerdamed.reminder.cluster.ReminderClaimer;
+import com.hackaton.recuerdamed.reminder.cluster.ReminderCluster;
+import com.hackaton.recuerdamed.reminder.cluster.ReminderShard;
+import com.hackaton.recuerdamed.reminder.config.ReminderProperties;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderDispatcher;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderSubmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for ReminderScheduler")
+public class ReminderSchedulerTest {
+    private static final Instant START = Instant.parse("2025-01-01T08:00:00Z");
+    private static final ReminderShard SHARD = new ReminderShard(1, 3, false);
+    private static final int SWEEP_BATCH_SIZE = 2;
+
+    @Mock
+    private DrugRepository drugRepository;
+
+    @Mock
+    private ReminderDispatcher dispatcher;
+
+    @Mock
+    private ReminderCluster cluster;
+
+    @Mock
+    private ReminderClaimer claimer;
+
+    private final MutableClock clock = new MutableClock(START);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private record Slot(Long getId, Instant getNextIntakeAt) implements ReminderSlot {
+    }
+
+    private record Due(Long getId, Instant getNextIntakeAt) implements DueReminder {
+        @Override
+        public Long getPatientId() {
+            return 1L;
+        }
+
+        @Override
+        public String getDrugName() {
+            return "Paracetamol";
+        }
+
+        @Override
+        public String getDosage() {
+            return "500mg";
+        }
+
+        @Override
+        public ZoneId getTimeZone() {
+            return ZoneOffset.UTC;
+        }
+    }
+
+    private ReminderScheduler scheduler(boolean clustered) {
+        ReminderProperties properties = new ReminderProperties(
+                new ReminderProperties.Wheel(false, Duration.ofSeconds(1), 64, 4),
+                new ReminderProperties.Dispatch(10, 1, 10, Duration.ZERO, 1,
+                        Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1),
+                        new ReminderProperties.Webhook(null, Duration.ofSeconds(1))),
+                new ReminderProperties.Cluster(clustered, "node-b", Duration.ofSeconds(5), Duration.ofSeconds(20),
+                        Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(1), SWEEP_BATCH_SIZE));
+        return new ReminderScheduler(drugRepository, dispatcher, cluster, claimer, properties,
+                meterRegistry, clock, false);
+    }
+
+    @Nested
+    @DisplayName("Sweep")
+    class SweepTests {
+        private ReminderScheduler scheduler;
+
+        @BeforeEach
+        void setUp() {
+            when(cluster.shard()).thenReturn(SHARD);
+            scheduler = scheduler(true);
+            scheduler.start();
+        }
+
+        @Test
+        @DisplayName("should read each window once, from the previous high-water mark less the overlap")
+        void sweep_readsWindowSincePreviousSweep() {
+            Instant first = START.plusSeconds(30);
+            Instant second = START.plusSeconds(60);
+            when(drugRepository.findDueReminderSlots(START.minusSeconds(60), Long.MAX_VALUE, first, 3, 1,
+                    Limit.of(SWEEP_BATCH_SIZE))).thenReturn(List.of(new Slot(4L, START.plusSeconds(10))));
+            when(drugRepository.findDueReminderSlots(first.minusSeconds(60), Long.MAX_VALUE, second, 3, 1,
+                    Limit.of(SWEEP_BATCH_SIZE))).thenReturn(List.of());
+
+            assertEquals(List.of(4L), scheduler.sweep(first));
+            assertEquals(List.of(), scheduler.sweep(first.plusSeconds(10)));
+            assertEquals(List.of(), scheduler.sweep(second));
+            verify(drugRepository, times(2)).findDueReminderSlots(any(), anyLong(), any(), anyInt(), anyInt(), any());
+        }
+
+        @Test
+        @DisplayName("should resume right after the last drug of a full batch, without the overlap")
+        void sweep_fullBatch_resumesAfterLastDrug() {
+            Instant first = START.plusSeconds(30);
+            Instant lastDose = START.plusSeconds(20);
+            when(drugRepository.findDueReminderSlots(START.minusSeconds(60), Long.MAX_VALUE, first, 3, 1,
+                    Limit.of(SWEEP_BATCH_SIZE))).thenReturn(List.of(new Slot(4L, lastDose), new Slot(7L, lastDose)));
+            when(drugRepository.findDueReminderSlots(lastDose, 7L, first.plusSeconds(30), 3, 1,
+                    Limit.of(SWEEP_BATCH_SIZE))).thenReturn(List.of(new Slot(10L, lastDose)));
+
+            assertEquals(List.of(4L, 7L), scheduler.sweep(first));
+            assertEquals(List.of(10L), scheduler.sweep(first.plusSeconds(30)));
+            scheduler.sweep(first.plusSeconds(60));
+            verify(drugRepository).findDueReminderSlots(first.plusSeconds(30).minusSeconds(60), Long.MAX_VALUE,
+                    first.plusSeconds(60), 3, 1, Limit.of(SWEEP_BATCH_SIZE));
+        }
+
+        @Test
+        @DisplayName("should keep changes to drugs of other shards off the wheel unless they are already due")
+        void schedule_otherShard_onlyWhenDue() {
+            scheduler.schedule(3L, START.plusSeconds(60), true);
+            assertEquals(0, scheduler.scheduledCount());
+
+            scheduler.schedule(3L, START.minusSeconds(60), true);
+            scheduler.schedule(4L, START.plusSeconds(60), true);
+            assertEquals(2, scheduler.scheduledCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Fire due reminders")
+    class FireDueTests {
+
+        @Test
+        @DisplayName("should stop offering once the dispatcher is full and put the rest back on the wheel")
+        void fireDueReminders_queueFull_rearmsRemainingDrugs() {
+            when(cluster.shard()).thenReturn(new ReminderShard(0, 1, true));
+            ReminderScheduler scheduler = scheduler(false);
+            Instant dueAt = START.minusSeconds(60);
+            List.of(1L, 2L, 3L).forEach(id -> scheduler.schedule(id, dueAt, true));
+            when(claimer.claim(any(), any())).thenReturn(List.of(new Due(1L, dueAt), new Due(2L, dueAt), new Due(3L, dueAt)));
+            when(dispatcher.submit(any())).thenReturn(ReminderSubmission.QUEUED, ReminderSubmission.REJECTED);
+            clock.advance(Duration.ofSeconds(1));
+
+            assertEquals(1, scheduler.fireDueReminders());
+
+            verify(dispatcher, times(2)).submit(any());
+            assertEquals(2, scheduler.scheduledCount());
+        }
+
+        @Test
+        @DisplayName("should skip a drug whose previous reminder is still in flight without counting it")
+        void fireDueReminders_inFlight_skipsDrug() {
+            when(cluster.shard()).thenReturn(new ReminderShard(0, 1, true));
+            ReminderScheduler scheduler = scheduler(false);
+            Instant dueAt = START.minusSeconds(60);
+            List.of(1L, 2L).forEach(id -> scheduler.schedule(id, dueAt, true));
+            when(claimer.claim(any(), any())).thenReturn(List.of(new Due(1L, dueAt), new Due(2L, dueAt)));
+            when(dispatcher.submit(any())).thenReturn(ReminderSubmission.IN_FLIGHT, ReminderSubmission.QUEUED);
+            clock.advance(Duration.ofSeconds(1));
+
+            assertEquals(1, scheduler.fireDueReminders());
+
+            verify(dispatcher, times(2)).submit(any());
+            assertEquals(0, scheduler.scheduledCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("should report the time since the last completed tick as scheduler lag")
+        void schedulerLag_growsUntilNextTick() {
+            ReminderScheduler scheduler = scheduler(false);
+            clock.advance(Duration.ofSeconds(5));
+
+            assertEquals(5000, meterRegistry.get("reminder.scheduler.lag").timeGauge().value(TimeUnit.MILLISECONDS));
+
+            assertEquals(0, scheduler.fireDueReminders());
+            assertEquals(0, meterRegistry.get("reminder.scheduler.lag").timeGauge().value(TimeUnit.MILLISECONDS));
+            verifyNoInteractions(claimer, dispatcher);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
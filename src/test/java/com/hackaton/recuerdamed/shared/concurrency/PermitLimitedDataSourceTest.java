@@ -0,0 +1,78 @@
+package com.hackaton.recuerdamed.shared.concurrency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for PermitLimitedDataSource")
+public class PermitLimitedDataSourceTest {
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private PermitLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new PermitLimitedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("should hold a permit until the connection is closed, once")
+    void getConnection_releasesPermitOnClose() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("should fail after the timeout when every permit is taken")
+    void getConnection_timesOutWithoutPermit() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("should give the permit back when the pool fails")
+    void getConnection_releasesPermitOnFailure() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    @DisplayName("should delegate other calls to the pooled connection")
+    void getConnection_delegatesToTarget() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        assertFalse(dataSource.getConnection().getAutoCommit());
+    }
+}
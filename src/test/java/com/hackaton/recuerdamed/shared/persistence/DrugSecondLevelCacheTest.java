@@ -0,0 +1,174 @@
+package com.hackaton.recuerdamed.shared.persistence;
+
+import com.hackaton.recuerdamed.config.DrugCacheNames;
+import com.hackaton.recuerdamed.drug.dto.DrugRequest;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.drug.service.DrugService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs with the Spring drug caches off, so every read reaches Hibernate, and counts the statements
+ * that actually go to the database. The regions are emptied before each test because the test data
+ * is reset with plain SQL.
+ */
+@SpringBootTest(properties = {
+        "reminder.wheel.auto-tick=false",
+        "drug-cache.entities.enabled=true",
+        "drug-cache.queries.enabled=true",
+        "drug-cache.by-id.enabled=false",
+        "drug-cache.list.enabled=false",
+        "drug-cache.pages.enabled=false"
+})
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DisplayName("Integration tests for the Hibernate second-level cache")
+public class DrugSecondLevelCacheTest {
+    private static final Long PATIENT_ID = 1L;
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor statementCapture() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                            ? new StatementCapture(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DrugService drugService;
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @BeforeEach
+    void evictRegions() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private List<StatementCapture.Statement> capture(Runnable reads) {
+        statementCapture.start();
+        reads.run();
+        return statementCapture.stop();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void warmReads() {
+        drugService.getDrugById(PATIENT_ID, 1L);
+        drugService.getAllDrugs(PATIENT_ID);
+        drugService.getAllDrugsStamp(PATIENT_ID);
+    }
+
+    @Test
+    @DisplayName("should answer repeated drug reads without going to the database")
+    void warmReads_executeNoStatements() {
+        assertFalse(capture(this::warmReads).isEmpty());
+
+        assertEquals(List.of(), capture(this::warmReads));
+        assertEquals("Paracetamol", drugService.getDrugById(PATIENT_ID, 1L).drugName());
+    }
+
+    @Test
+    @DisplayName("should load a cached drug entity from its region")
+    void findById_secondLoadIsRegionHit() {
+        long hitsBefore = statistics().getDomainDataRegionStatistics(DrugCacheNames.ENTITIES).getHitCount();
+
+        transactionTemplate.executeWithoutResult(status -> drugRepository.findById(1L).orElseThrow());
+        List<StatementCapture.Statement> statements = capture(() -> transactionTemplate.executeWithoutResult(
+                status -> assertEquals("Paracetamol", drugRepository.findById(1L).orElseThrow().getDrugName())));
+
+        assertEquals(List.of(), statements);
+        assertEquals(hitsBefore + 1, statistics().getDomainDataRegionStatistics(DrugCacheNames.ENTITIES).getHitCount());
+    }
+
+    @Test
+    @DisplayName("should read the database again after a drug is updated or taken")
+    void writes_invalidateCachedQueries() {
+        warmReads();
+
+        drugService.updateDrug(PATIENT_ID, 1L, new DrugRequest(
+                "Paracetamol Forte",
+                "1g",
+                "Analgésico",
+                8,
+                LocalDateTime.of(2025, 1, 1, 23, 0),
+                null,
+                LocalDateTime.of(2025, 1, 1, 8, 0),
+                null,
+                true
+        ));
+        assertFalse(capture(this::warmReads).isEmpty());
+        assertEquals("Paracetamol Forte", drugService.getDrugById(PATIENT_ID, 1L).drugName());
+        assertEquals("Paracetamol Forte", drugService.getAllDrugs(PATIENT_ID).stream()
+                .filter(drug -> drug.id() == 1L).findFirst().orElseThrow().drugName());
+
+        Instant nextIntake = drugService.markAsTaken(PATIENT_ID, 1L).nextIntakeAt();
+        assertEquals(nextIntake, drugService.getDrugById(PATIENT_ID, 1L).nextIntakeAt());
+    }
+
+    @Test
+    @DisplayName("should only release the taken drug's entity when a dose is taken")
+    void markAsTaken_keepsOtherEntitiesCached() {
+        transactionTemplate.executeWithoutResult(status -> {
+            drugRepository.findById(1L).orElseThrow();
+            drugRepository.findById(2L).orElseThrow();
+        });
+
+        Instant nextIntake = drugService.markAsTaken(PATIENT_ID, 1L).nextIntakeAt();
+        long hitsBefore = statistics().getDomainDataRegionStatistics(DrugCacheNames.ENTITIES).getHitCount();
+        List<StatementCapture.Statement> cachedRead = capture(() -> transactionTemplate.executeWithoutResult(status ->
+                drugRepository.findById(2L).orElseThrow()));
+        List<StatementCapture.Statement> reload = capture(() -> transactionTemplate.executeWithoutResult(status ->
+                assertEquals(nextIntake, drugRepository.findById(1L).orElseThrow().getNextIntakeAt())));
+
+        assertEquals(List.of(), cachedRead);
+        assertEquals(1, reload.size());
+        assertEquals(hitsBefore + 1, statistics().getDomainDataRegionStatistics(DrugCacheNames.ENTITIES).getHitCount());
+    }
+
+    @Test
+    @DisplayName("should keep cached drug queries when reminders are marked as delivered")
+    void reminderMarkers_keepCachedQueries() {
+        warmReads();
+
+        transactionTemplate.executeWithoutResult(status ->
+                drugRepository.markRemindersDelivered(List.of(1L), Instant.parse("2025-01-01T07:00:00Z")));
+
+        assertEquals(List.of(), capture(this::warmReads));
+    }
+}
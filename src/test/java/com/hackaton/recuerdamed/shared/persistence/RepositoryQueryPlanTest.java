@@ -0,0 +1,242 @@
+package com.hackaton.recuerdamed.shared.persistence;
+
+import com.hackaton.recuerdamed.adherence.repository.AdherenceDailyRepository;
+import com.hackaton.recuerdamed.adherence.repository.AdherenceWeeklyRepository;
+import com.hackaton.recuerdamed.drug.repository.DrugRepository;
+import com.hackaton.recuerdamed.intake.repository.DoseIntakeRepository;
+import com.hackaton.recuerdamed.outbox.repository.OutboxEventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every query method declared on the repositories, captures the SQL Hibernate sends with its
+ * bindings, and fails if MySQL's {@code EXPLAIN} shows a full table scan for any of them. A query
+ * method added without a case here fails the coverage check.
+ */
+@SpringBootTest(properties = "reminder.wheel.auto-tick=false")
+@Sql(scripts = {"/test-data.sql", "/query-plan-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DisplayName("EXPLAIN checks for the repository queries")
+public class RepositoryQueryPlanTest {
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            DrugRepository.class, DoseIntakeRepository.class, AdherenceDailyRepository.class, AdherenceWeeklyRepository.class,
+            OutboxEventRepository.class);
+    private static final Instant NOW = Instant.parse("2025-01-02T00:00:00Z");
+    private static final Long PATIENT_ID = 1L;
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor statementCapture() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                            ? new StatementCapture(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private DoseIntakeRepository doseIntakeRepository;
+
+    @Autowired
+    private AdherenceDailyRepository adherenceDailyRepository;
+
+    @Autowired
+    private AdherenceWeeklyRepository adherenceWeeklyRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Map<String, Runnable> queries() {
+        List<Long> ids = List.of(1L, 2L, 100020L);
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("DrugRepository.findByIdAndPatientId", () -> drugRepository.findByIdAndPatientId(1L, PATIENT_ID));
+        queries.put("DrugRepository.findByIdAndPatientIdAndActiveTrue",
+                () -> drugRepository.findByIdAndPatientIdAndActiveTrue(1L, PATIENT_ID));
+        queries.put("DrugRepository.findAllByIdInAndPatientIdAndActiveTrue",
+                () -> drugRepository.findAllByIdInAndPatientIdAndActiveTrue(ids, PATIENT_ID));
+        queries.put("DrugRepository.existsByIdAndPatientId", () -> drugRepository.existsByIdAndPatientId(1L, PATIENT_ID));
+        queries.put("DrugRepository.countByActiveTrue", () -> drugRepository.countByActiveTrue());
+        queries.put("DrugRepository.findActiveResponses", () -> drugRepository.findActiveResponses(PATIENT_ID));
+        queries.put("DrugRepository.findCollectionStamp", () -> drugRepository.findCollectionStamp(PATIENT_ID));
+        queries.put("DrugRepository.findActiveResponseById", () -> drugRepository.findActiveResponseById(PATIENT_ID, 1L));
+        queries.put("DrugRepository.findActiveResponsesByIds", () -> drugRepository.findActiveResponsesByIds(PATIENT_ID, ids));
+        queries.put("DrugRepository.findActiveResponsePage",
+                () -> drugRepository.findActiveResponsePage(PATIENT_ID, Limit.of(50)));
+        queries.put("DrugRepository.findActiveResponsePageAfter",
+                () -> drugRepository.findActiveResponsePageAfter(PATIENT_ID, NOW, 100020L, Limit.of(50)));
+        queries.put("DrugRepository.streamActiveResponses", () -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<?> drugs = drugRepository.streamActiveResponses(PATIENT_ID)) {
+                drugs.forEach(drug -> { });
+            }
+        }));
+        queries.put("DrugRepository.findIntakeState", () -> drugRepository.findIntakeState(PATIENT_ID, 1L));
+        queries.put("DrugRepository.advanceNextIntake", () -> transactionTemplate.executeWithoutResult(status -> {
+            drugRepository.advanceNextIntake(1L, 0L, NOW, LocalDateTime.of(2025, 1, 2, 1, 0));
+            status.setRollbackOnly();
+        }));
+        queries.put("DrugRepository.findAllIds", () -> drugRepository.findAllIds());
+        queries.put("DrugRepository.findEarliestStartDate", () -> drugRepository.findEarliestStartDate());
+        queries.put("DrugRepository.findReminderSlots", () -> drugRepository.findReminderSlots(3, 1));
+        queries.put("DrugRepository.findDueReminderSlots", () -> drugRepository.findDueReminderSlots(
+                NOW.minusSeconds(90), 100020L, NOW, 3, 1, Limit.of(1000)));
+        queries.put("DrugRepository.findDueReminders", () -> drugRepository.findDueReminders(ids, NOW));
+        queries.put("DrugRepository.lockClaimableReminders", () -> transactionTemplate.executeWithoutResult(status -> {
+            drugRepository.lockClaimableReminders(ids, "node-a", NOW);
+            status.setRollbackOnly();
+        }));
+        queries.put("DrugRepository.claimReminders", () -> transactionTemplate.executeWithoutResult(status -> {
+            drugRepository.claimReminders(ids, "node-a", NOW.plusSeconds(300));
+            status.setRollbackOnly();
+        }));
+        queries.put("DrugRepository.markRemindersDelivered", () -> transactionTemplate.executeWithoutResult(status -> {
+            drugRepository.markRemindersDelivered(ids, NOW);
+            status.setRollbackOnly();
+        }));
+        queries.put("DrugRepository.findDueMissedAccruals", () -> drugRepository.findDueMissedAccruals(
+                NOW.minusSeconds(3600), 100020L, NOW, Limit.of(500)));
+        queries.put("DrugRepository.scheduleMissedAccrual", () -> transactionTemplate.executeWithoutResult(status -> {
+            drugRepository.scheduleMissedAccrual(100020L, NOW);
+            status.setRollbackOnly();
+        }));
+        queries.put("DrugRepository.endMissedAccrual", () -> transactionTemplate.executeWithoutResult(status -> {
+            drugRepository.endMissedAccrual(100020L);
+            status.setRollbackOnly();
+        }));
+        queries.put("DrugRepository.findActiveSchedules", () -> drugRepository.findActiveSchedules(PATIENT_ID,
+                Instant.parse("2024-01-08T00:00:00Z"), Instant.parse("2024-01-15T00:00:00Z")));
+        queries.put("DrugRepository.findSearchDocuments", () -> drugRepository.findSearchDocuments());
+
+        queries.put("DoseIntakeRepository.findIntakes", () -> doseIntakeRepository.findIntakes(
+                100020L, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0)));
+        queries.put("DoseIntakeRepository.findScheduledTimes", () -> doseIntakeRepository.findScheduledTimes(
+                100020L, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0)));
+        queries.put("DoseIntakeRepository.findLastScheduledBefore", () -> doseIntakeRepository.findLastScheduledBefore(
+                100020L, LocalDateTime.of(2025, 2, 1, 0, 0)));
+
+        queries.put("AdherenceDailyRepository.findBuckets", () -> adherenceDailyRepository.findBuckets(100020L, from, to));
+        queries.put("AdherenceDailyRepository.findPatientBuckets",
+                () -> adherenceDailyRepository.findPatientBuckets(PATIENT_ID, from, to));
+        queries.put("AdherenceWeeklyRepository.findBuckets", () -> adherenceWeeklyRepository.findBuckets(100020L, from, to));
+        queries.put("AdherenceWeeklyRepository.findPatientBuckets",
+                () -> adherenceWeeklyRepository.findPatientBuckets(PATIENT_ID, from, to));
+
+        queries.put("OutboxEventRepository.findPending", () -> outboxEventRepository.findPending(Limit.of(500)));
+        queries.put("OutboxEventRepository.countByDeliveredAtIsNull", () -> outboxEventRepository.countByDeliveredAtIsNull());
+        queries.put("OutboxEventRepository.markDelivered", () -> transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.markDelivered(List.of(9901L, 9902L), LocalDateTime.of(2025, 1, 8, 0, 0));
+            status.setRollbackOnly();
+        }));
+        queries.put("OutboxEventRepository.deleteDeliveredBefore", () -> transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteDeliveredBefore(LocalDateTime.of(2025, 1, 1, 1, 0), 10000);
+            status.setRollbackOnly();
+        }));
+        return queries;
+    }
+
+    @TestFactory
+    @DisplayName("should not scan a whole table for any repository query")
+    Stream<DynamicTest> repositoryQueries_useIndexes() {
+        Map<String, Runnable> queries = queries();
+        Set<String> declared = REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isDefault() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers()))
+                        .map(Method::getName)
+                        .map(name -> repository.getSimpleName() + "." + name))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        DynamicTest coverage = DynamicTest.dynamicTest("every repository query has a plan check",
+                () -> assertEquals(declared, new TreeSet<>(queries.keySet())));
+        return Stream.concat(Stream.of(coverage), queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertNoFullScan(query.getValue()))));
+    }
+
+    private void assertNoFullScan(Runnable query) {
+        List<StatementCapture.Statement> captured;
+        statementCapture.start();
+        try {
+            query.run();
+        } finally {
+            captured = statementCapture.stop();
+        }
+
+        List<StatementCapture.Statement> statements = captured.stream()
+                .filter(statement -> isExplainable(statement.sql()))
+                .toList();
+        assertFalse(statements.isEmpty(), "No statement was captured");
+        for (StatementCapture.Statement statement : statements) {
+            List<String> fullScans = explain(statement).stream()
+                    .filter(row -> "ALL".equals(row.type()))
+                    .map(PlanRow::table)
+                    .toList();
+            assertTrue(fullScans.isEmpty(), () -> "Full scan of " + fullScans + " in: " + statement.sql());
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return verb.startsWith("select") || verb.startsWith("update") || verb.startsWith("delete");
+    }
+
+    record PlanRow(String table, String type, String key) {
+    }
+
+    private List<PlanRow> explain(StatementCapture.Statement statement) {
+        return jdbcTemplate.query(connection -> {
+                    PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql());
+                    statement.bind(explain);
+                    return explain;
+                },
+                (resultSet, rowNum) -> new PlanRow(
+                        resultSet.getString("table"), resultSet.getString("type"), resultSet.getString("key")));
+    }
+}
@@ -0,0 +1,111 @@
+package com.hackaton.recuerdamed.shared.persistence;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the prepared statements executed through it, with their parameter bindings, while
+ * capturing is on. {@link Statement#bind} replays the bindings on another statement with the same
+ * placeholders, e.g. an {@code EXPLAIN} of the recorded SQL.
+ */
+class StatementCapture extends DelegatingDataSource {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    record Binding(Method setter, Object[] args) {
+    }
+
+    record Statement(String sql, List<Binding> bindings) {
+        void bind(PreparedStatement target) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.setter().invoke(target, binding.args());
+                } catch (IllegalAccessException | InvocationTargetException exception) {
+                    throw new SQLException("Could not replay " + binding.setter().getName(), exception);
+                }
+            }
+        }
+    }
+
+    private final List<Statement> statements = new CopyOnWriteArrayList<>();
+    private volatile Thread capturingThread;
+
+    StatementCapture(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Starts recording the statements executed by the calling thread.
+     */
+    void start() {
+        statements.clear();
+        capturingThread = Thread.currentThread();
+    }
+
+    List<Statement> stop() {
+        capturingThread = null;
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return capturing(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return capturing(super.getConnection(username, password));
+    }
+
+    private Connection capturing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                        return capturing(statement, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    private PreparedStatement capturing(PreparedStatement statement, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (EXECUTE_METHODS.contains(name) && (args == null || args.length == 0)
+                    && Thread.currentThread() == capturingThread) {
+                statements.add(new Statement(sql, List.copyOf(bindings)));
+            }
+            return invoke(statement, method, args);
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.hackaton.recuerdamed.stream.service;
+
+import com.hackaton.recuerdamed.outbox.service.DrugEvent;
+import com.hackaton.recuerdamed.reminder.dispatch.ReminderNotification;
+import com.hackaton.recuerdamed.stream.config.StreamProperties;
+import com.hackaton.recuerdamed.stream.dto.DrugStreamStats;
+import com.hackaton.recuerdamed.stream.dto.StreamEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for DrugStreamHub")
+public class DrugStreamHubTest {
+    private static final int MAX_SUBSCRIBERS = 3;
+    private static final int BUFFER_SIZE = 2;
+
+    private DrugStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new DrugStreamHub(new StreamProperties(MAX_SUBSCRIBERS, BUFFER_SIZE, Duration.ofSeconds(15),
+                Duration.ofMinutes(30), Duration.ofSeconds(30)), false);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        hub.stop();
+    }
+
+    @Nested
+    @DisplayName("Publishing")
+    class PublishTests {
+
+        @Test
+        @DisplayName("Should deliver an event only to the streams of its patient")
+        void publish_fansOutPerPatient() {
+            FakeSubscriber first = new FakeSubscriber(1L);
+            FakeSubscriber second = new FakeSubscriber(1L);
+            FakeSubscriber otherPatient = new FakeSubscriber(2L);
+            hub.subscribe(first);
+            hub.subscribe(second);
+            hub.subscribe(otherPatient);
+
+            StreamEvent event = new StreamEvent("key-1", "drug", "payload");
+            hub.publish(1L, event);
+
+            assertEquals(List.of(event), first.events);
+            assertEquals(List.of(event), second.events);
+            assertTrue(otherPatient.events.isEmpty());
+            assertEquals(new DrugStreamStats(3, 2, 0, 0), hub.stats());
+        }
+
+        @Test
+        @DisplayName("Should disconnect a subscriber whose buffer is full")
+        void publish_dropsSlowSubscriber() {
+            FakeSubscriber slow = new FakeSubscriber(1L);
+            hub.subscribe(slow);
+
+            for (int i = 0; i <= BUFFER_SIZE; i++) {
+                hub.publish(1L, new StreamEvent("key-" + i, "drug", i));
+            }
+            hub.publish(1L, new StreamEvent("after", "drug", "ignored"));
+
+            assertEquals(BUFFER_SIZE, slow.events.size());
+            assertTrue(slow.closed);
+            assertEquals(new DrugStreamStats(0, BUFFER_SIZE, 1, 0), hub.stats());
+        }
+
+        @Test
+        @DisplayName("Should route committed drug changes and due reminders by patient")
+        void events_areRoutedByPatient() {
+            FakeSubscriber subscriber = new FakeSubscriber(7L);
+            hub.subscribe(subscriber);
+
+            DrugEvent drugEvent = DrugEvent.deleted(7L, 10L);
+            ReminderNotification reminder = new ReminderNotification(10L, 7L, "Ibuprofeno", "400mg",
+                    Instant.ofEpochMilli(1_000));
+            hub.onDrugEvent(drugEvent);
+            hub.onReminder(reminder);
+            hub.onDrugEvent(DrugEvent.deleted(8L, 11L));
+
+            assertEquals(List.of(
+                    new StreamEvent(drugEvent.eventKey(), "drug", drugEvent),
+                    new StreamEvent("reminder:10:1000", "reminder", reminder)), subscriber.events);
+        }
+    }
+
+    @Nested
+    @DisplayName("Subscriptions")
+    class SubscriptionTests {
+
+        @Test
+        @DisplayName("Should reject subscribers over stream.max-subscribers")
+        void subscribe_rejectsOverCapacity() {
+            for (int i = 0; i < MAX_SUBSCRIBERS; i++) {
+                assertTrue(hub.subscribe(new FakeSubscriber((long) i)));
+            }
+
+            assertFalse(hub.subscribe(new FakeSubscriber(1L)));
+            assertEquals(new DrugStreamStats(MAX_SUBSCRIBERS, 0, 0, 1), hub.stats());
+        }
+
+        @Test
+        @DisplayName("Should free a slot when a subscriber leaves")
+        void unsubscribe_freesSlot() {
+            FakeSubscriber leaving = new FakeSubscriber(1L);
+            hub.subscribe(leaving);
+            hub.subscribe(new FakeSubscriber(1L));
+            hub.subscribe(new FakeSubscriber(2L));
+
+            hub.unsubscribe(leaving);
+            hub.unsubscribe(leaving);
+            hub.publish(1L, new StreamEvent("key-1", "drug", "payload"));
+
+            assertTrue(leaving.events.isEmpty());
+            assertTrue(hub.subscribe(new FakeSubscriber(3L)));
+            assertEquals(MAX_SUBSCRIBERS, hub.stats().subscribers());
+        }
+
+        @Test
+        @DisplayName("Should send a heartbeat to every open stream")
+        void sendHeartbeats_reachesEverySubscriber() {
+            FakeSubscriber first = new FakeSubscriber(1L);
+            FakeSubscriber second = new FakeSubscriber(2L);
+            hub.subscribe(first);
+            hub.subscribe(second);
+
+            assertEquals(2, hub.sendHeartbeats());
+
+            assertEquals(List.of(StreamEvent.heartbeat()), first.events);
+            assertEquals(List.of(StreamEvent.heartbeat()), second.events);
+            assertEquals(0, hub.stats().published());
+        }
+
+        @Test
+        @DisplayName("Should disconnect a stream whose write is blocked past stream.write-timeout")
+        void sendHeartbeats_dropsStalledSubscriber() {
+            FakeSubscriber stalled = new FakeSubscriber(1L);
+            stalled.stalled = true;
+            FakeSubscriber healthy = new FakeSubscriber(1L);
+            hub.subscribe(stalled);
+            hub.subscribe(healthy);
+
+            assertEquals(1, hub.sendHeartbeats());
+            hub.publish(1L, new StreamEvent("key-1", "drug", "payload"));
+
+            assertTrue(stalled.closed);
+            assertTrue(stalled.events.isEmpty());
+            assertEquals(2, healthy.events.size());
+            assertEquals(new DrugStreamStats(1, 1, 1, 0), hub.stats());
+        }
+
+        @Test
+        @DisplayName("Should close every open stream on shutdown")
+        void stop_closesSubscribers() throws InterruptedException {
+            FakeSubscriber subscriber = new FakeSubscriber(1L);
+            hub.subscribe(subscriber);
+
+            hub.stop();
+
+            assertTrue(subscriber.closed);
+            assertEquals(0, hub.stats().subscribers());
+        }
+    }
+
+    private static class FakeSubscriber implements StreamSubscriber {
+        private final Long patientId;
+        private final List<StreamEvent> events = new CopyOnWriteArrayList<>();
+        private volatile boolean closed;
+        private volatile boolean stalled;
+
+        FakeSubscriber(Long patientId) {
+            this.patientId = patientId;
+        }
+
+        @Override
+        public Long patientId() {
+            return patientId;
+        }
+
+        @Override
+        public boolean offer(StreamEvent event) {
+            if (events.size() >= BUFFER_SIZE) {
+                return false;
+            }
+            return events.add(event);
+        }
+
+        @Override
+        public boolean stalled(Duration writeTimeout) {
+            return stalled;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
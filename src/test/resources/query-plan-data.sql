@@ -0,0 +1,58 @@
+-- Enough rows, with realistic skew, that MySQL's cost model prefers an index wherever one fits:
+-- 100 patients with 100 drugs each, of which 1 in 20 is active, a dose log, 400 days of rollups
+-- and an outbox whose events are all delivered but the last 100.
+
+INSERT INTO patients (id, name, creation_date)
+WITH digits (d) AS (SELECT 0 UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+                    UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9),
+     seq (n) AS (SELECT a.d + 10 * b.d FROM digits a, digits b)
+SELECT n + 1, CONCAT('Patient ', n + 1), '2024-01-01'
+FROM seq
+WHERE n + 1 > 2;
+
+INSERT INTO drugs (
+    id, patient_id, drug_name, description, dosage, frequency_hours, next_intake_at, time_zone,
+    start_date, end_date, starts_at, ends_at, active, active_reminder, creation_date, update_date, version,
+    missed_accrual_due_at
+)
+WITH digits (d) AS (SELECT 0 UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+                    UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9),
+     seq (n) AS (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d FROM digits a, digits b, digits c, digits e)
+SELECT 100000 + n, 1 + n DIV 100, CONCAT('Drug ', n), 'Seeded', '1 comprimido', 8,
+       TIMESTAMP('2025-01-01') + INTERVAL n MINUTE, 'Europe/Madrid',
+       TIMESTAMP('2024-01-01') + INTERVAL n HOUR, NULL, TIMESTAMP('2024-01-01') + INTERVAL n HOUR, NULL,
+       n % 20 = 0, n % 40 = 0, '2024-01-01', TIMESTAMP('2024-01-01') + INTERVAL n MINUTE, 0,
+       TIMESTAMP('2025-01-01') + INTERVAL n * 10 MINUTE
+FROM seq;
+
+INSERT INTO dose_intakes (drug_id, scheduled_at, taken_at)
+WITH digits (d) AS (SELECT 0 UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+                    UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9),
+     seq (n) AS (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d FROM digits a, digits b, digits c, digits e)
+SELECT 100000 + n % 500, TIMESTAMP('2025-01-01') + INTERVAL n HOUR, TIMESTAMP('2025-01-01') + INTERVAL n HOUR
+FROM seq;
+
+INSERT INTO adherence_daily (drug_id, bucket_date, scheduled, taken, late)
+WITH digits (d) AS (SELECT 0 UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+                    UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9),
+     seq (n) AS (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d FROM digits a, digits b, digits c, digits e)
+SELECT 100000 + n % 25, DATE('2024-01-01') + INTERVAL n DIV 25 DAY, 3, 2, 1
+FROM seq;
+
+INSERT INTO adherence_weekly (drug_id, bucket_date, scheduled, taken, late)
+WITH digits (d) AS (SELECT 0 UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+                    UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9),
+     seq (n) AS (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d FROM digits a, digits b, digits c, digits e)
+SELECT 100000 + n % 25, DATE('2018-01-01') + INTERVAL n DIV 25 WEEK, 21, 14, 7
+FROM seq;
+
+INSERT INTO drug_outbox (event_key, event_type, drug_id, patient_id, payload, created_at, delivered_at)
+WITH digits (d) AS (SELECT 0 UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+                    UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9),
+     seq (n) AS (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d FROM digits a, digits b, digits c, digits e)
+SELECT UUID(), 'TAKEN', 100000 + n % 500, 1 + (n % 500) DIV 100, JSON_OBJECT('id', 100000 + n % 500),
+       TIMESTAMP('2025-01-01') + INTERVAL n MINUTE,
+       IF(n < 9900, TIMESTAMP('2025-01-01') + INTERVAL n + 1 MINUTE, NULL)
+FROM seq;
+
+ANALYZE TABLE patients, drugs, dose_intakes, adherence_daily, adherence_weekly, drug_outbox;
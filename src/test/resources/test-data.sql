@@ -1,11 +1,25 @@
+DELETE FROM adherence_accrual;
+DELETE FROM adherence_daily;
+DELETE FROM adherence_weekly;
+DELETE FROM dose_intakes;
+DELETE FROM drug_outbox;
+DELETE FROM outbox_relay_lease;
+DELETE FROM reminder_nodes;
 DELETE FROM drugs;
+DELETE FROM patients;
+
+INSERT INTO patients (id, name, creation_date) VALUES
+(1, 'Ana Lopez', '2025-01-01 08:00:00'),
+(2, 'Luis Perez', '2025-01-01 08:00:00');
 
 INSERT INTO drugs (
-    id, drug_name, description, dosage, frequency_hours, next_intake_time,
-    start_date, end_date, active, active_reminder, creation_date, update_date
+    id, patient_id, drug_name, description, dosage, frequency_hours, next_intake_at, time_zone,
+    start_date, end_date, starts_at, ends_at, active, active_reminder, creation_date, update_date, version
 ) VALUES
-(1, 'Paracetamol', 'Analgesico y antipiretico', '500mg', 8, '08:00:00',
- '2025-01-01 08:00:00', NULL, true, true, '2025-01-01 08:00:00', '2025-01-01 08:00:00'),
+(1, 1, 'Paracetamol', 'Analgesico y antipiretico', '500mg', 8, '2025-01-01 07:00:00', 'Europe/Madrid',
+ '2025-01-01 08:00:00', NULL, '2025-01-01 07:00:00', NULL, true, true, '2025-01-01 08:00:00', '2025-01-01 08:00:00', 0),
+
+(2, 1, 'Ibuprofeno', 'Antiinflamatorio', '400mg', 12, '2025-01-01 11:00:00', 'Europe/Madrid',
+ '2025-01-01 12:00:00', NULL, '2025-01-01 11:00:00', NULL, true, true, '2025-01-01 12:00:00', '2025-01-01 12:00:00', 0);
 
-(2, 'Ibuprofeno', 'Antiinflamatorio', '400mg', 12, '12:00:00',
- '2025-01-01 12:00:00', NULL, true, true, '2025-01-01 12:00:00', '2025-01-01 12:00:00');
+UPDATE drugs_seq SET next_val = 1000;